@@ -138,6 +138,13 @@ public class MapImageDumper
 	@Setter
 	private boolean lowMemory = true;
 
+	/**
+	 * Decode regions and draw the map layer on all cores
+	 */
+	@Getter
+	@Setter
+	private boolean parallel = false;
+
 	public MapImageDumper(Store store, KeyProvider keyProvider)
 	{
 		this(store, new RegionLoader(store, keyProvider));
@@ -160,6 +167,7 @@ public class MapImageDumper
 		options.addOption(Option.builder().longOpt("cachedir").hasArg().required().build());
 		options.addOption(Option.builder().longOpt("xteapath").hasArg().required().build());
 		options.addOption(Option.builder().longOpt("outputdir").hasArg().required().build());
+		options.addOption(Option.builder().longOpt("parallel").build());
 
 		CommandLineParser parser = new DefaultParser();
 		CommandLine cmd;
@@ -193,6 +201,7 @@ public class MapImageDumper
 			store.load();
 
 			MapImageDumper dumper = new MapImageDumper(store, xteaKeyManager);
+			dumper.setParallel(cmd.hasOption("parallel"));
 			dumper.load();
 
 			for (int i = 0; i < Region.Z; ++i)
@@ -347,20 +356,38 @@ public class MapImageDumper
 
 	private void drawMap(BufferedImage image, int z)
 	{
+		if (parallel)
+		{
+			// each region draws to its own tile of the image, so they can be drawn at the same time.
+			// the tile shapes are generated lazily, so do it before the regions race to
+			if (TILE_SHAPE_2D == null)
+			{
+				generateTileShapes();
+			}
+
+			regionLoader.getRegions().parallelStream().forEach(region -> drawMap(image, z, region));
+			return;
+		}
+
 		for (Region region : regionLoader.getRegions())
 		{
-			int baseX = region.getBaseX();
-			int baseY = region.getBaseY();
+			drawMap(image, z, region);
+		}
+	}
 
-			// to pixel X
-			int drawBaseX = baseX - regionLoader.getLowestX().getBaseX();
+	private void drawMap(BufferedImage image, int z, Region region)
+	{
+		int baseX = region.getBaseX();
+		int baseY = region.getBaseY();
 
-			// to pixel Y. top most y is 0, but the top most
-			// region has the greatest y, so invert
-			int drawBaseY = regionLoader.getHighestY().getBaseY() - baseY;
+		// to pixel X
+		int drawBaseX = baseX - regionLoader.getLowestX().getBaseX();
 
-			drawMap(image, drawBaseX, drawBaseY, z, region);
-		}
+		// to pixel Y. top most y is 0, but the top most
+		// region has the greatest y, so invert
+		int drawBaseY = regionLoader.getHighestY().getBaseY() - baseY;
+
+		drawMap(image, drawBaseX, drawBaseY, z, region);
 	}
 
 	private void drawTile(BufferedImage to, int[][][] planes, Region region, int drawBaseX, int drawBaseY, int z, int x, int y)
@@ -1767,7 +1794,14 @@ public class MapImageDumper
 
 	private void loadRegions() throws IOException
 	{
-		regionLoader.loadRegions();
+		if (parallel)
+		{
+			regionLoader.loadRegionsParallel();
+		}
+		else
+		{
+			regionLoader.loadRegions();
+		}
 		regionLoader.calculateBounds();
 
 		log.debug("North most region: {}", regionLoader.getLowestY().getBaseY());
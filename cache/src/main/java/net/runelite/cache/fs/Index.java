@@ -26,7 +26,11 @@ package net.runelite.cache.fs;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -61,6 +65,10 @@ public class Index
 	private int compression; // compression method of this index's data in 255
 
 	private final List<Archive> archives = new ArrayList<>();
+	// archives by name hash, holding the lowest archive id if names collide. when that archive
+	// is removed or renamed its hash is marked stale, and found again by a scan on the next lookup
+	private final Map<Integer, Archive> archivesByName = new HashMap<>();
+	private final Set<Integer> staleNames = new HashSet<>();
 
 	public Index(int id)
 	{
@@ -83,6 +91,7 @@ public class Index
 		idx = -idx - 1;
 		Archive archive = new Archive(this, id);
 		this.archives.add(idx, archive);
+		indexName(archive);
 		return archive;
 	}
 
@@ -127,20 +136,54 @@ public class Index
 
 	public boolean removeArchive(Archive archive)
 	{
-		return archives.remove(archive);
+		if (!archives.remove(archive))
+		{
+			return false;
+		}
+
+		unindexName(archive, archive.getNameHash());
+		return true;
 	}
 
-	public Archive findArchiveByName(String name)
+	public synchronized Archive findArchiveByName(String name)
 	{
 		int hash = Djb2.hash(name);
-		for (Archive a : archives)
+		if (staleNames.remove(hash))
 		{
-			if (a.getNameHash() == hash)
+			for (Archive a : archives)
 			{
-				return a;
+				if (a.getNameHash() == hash)
+				{
+					archivesByName.put(hash, a);
+					break;
+				}
 			}
 		}
-		return null;
+		return archivesByName.get(hash);
+	}
+
+	void renameArchive(Archive archive, int oldNameHash)
+	{
+		unindexName(archive, oldNameHash);
+		indexName(archive);
+	}
+
+	private synchronized void indexName(Archive archive)
+	{
+		int hash = archive.getNameHash();
+		if (!staleNames.contains(hash))
+		{
+			archivesByName.merge(hash, archive, (a, b) -> a.getArchiveId() <= b.getArchiveId() ? a : b);
+		}
+	}
+
+	private synchronized void unindexName(Archive archive, int nameHash)
+	{
+		if (archivesByName.get(nameHash) == archive)
+		{
+			archivesByName.remove(nameHash);
+			staleNames.add(nameHash);
+		}
 	}
 
 	public IndexData toIndexData()
@@ -50,6 +50,7 @@ public class DiskStorage implements Storage
 
 	private final DataFile data;
 	private final IndexFile index255;
+	// Guarded by this, archives can be loaded from several threads
 	private final List<IndexFile> indexFiles = new ArrayList<>();
 
 	public DiskStorage(File folder) throws IOException
@@ -73,7 +74,7 @@ public class DiskStorage implements Storage
 	}
 
 	@Override
-	public void close() throws IOException
+	public synchronized void close() throws IOException
 	{
 		data.close();
 		index255.close();
@@ -83,7 +84,7 @@ public class DiskStorage implements Storage
 		}
 	}
 
-	private IndexFile getIndex(int i) throws FileNotFoundException
+	private synchronized IndexFile getIndex(int i) throws FileNotFoundException
 	{
 		if (i == 255)
 		{
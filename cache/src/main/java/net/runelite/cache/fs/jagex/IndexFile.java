@@ -29,6 +29,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.slf4j.Logger;
@@ -45,6 +47,8 @@ public class IndexFile implements Closeable
 	private final int indexFileId;
 	private final File file;
 	private final RandomAccessFile idx;
+	// reads use positional reads on the channel, like DataFile, so they need no lock
+	private final FileChannel channel;
 	private final byte[] buffer = new byte[INDEX_ENTRY_LEN];
 
 	public IndexFile(int indexFileId, File file) throws FileNotFoundException
@@ -52,6 +56,7 @@ public class IndexFile implements Closeable
 		this.indexFileId = indexFileId;
 		this.file = file;
 		this.idx = new RandomAccessFile(file, "rw");
+		this.channel = idx.getChannel();
 	}
 
 	@Override
@@ -80,10 +85,10 @@ public class IndexFile implements Closeable
 		idx.write(buffer);
 	}
 
-	public synchronized IndexEntry read(int id) throws IOException
+	public IndexEntry read(int id) throws IOException
 	{
-		idx.seek(id * INDEX_ENTRY_LEN);
-		int i = idx.read(buffer);
+		byte[] buffer = new byte[INDEX_ENTRY_LEN];
+		int i = read(buffer, (long) id * INDEX_ENTRY_LEN);
 		if (i != INDEX_ENTRY_LEN)
 		{
 			logger.debug("short read for id {} on index {}: {}", id, indexFileId, i);
@@ -102,6 +107,20 @@ public class IndexFile implements Closeable
 		return new IndexEntry(this, id, sector, length);
 	}
 
+	private int read(byte[] readBuffer, long position) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.wrap(readBuffer);
+		while (buffer.hasRemaining())
+		{
+			int i = channel.read(buffer, position + buffer.position());
+			if (i == -1)
+			{
+				break;
+			}
+		}
+		return buffer.position();
+	}
+
 	public synchronized int getIndexCount() throws IOException
 	{
 		return (int) (idx.length() / INDEX_ENTRY_LEN);
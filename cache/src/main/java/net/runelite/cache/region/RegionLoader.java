@@ -27,7 +27,11 @@ package net.runelite.cache.region;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.LocationsDefinition;
@@ -80,7 +84,51 @@ public class RegionLoader
 		}
 	}
 
+	/**
+	 * Loads the regions like {@link #loadRegions()}, but reads, decompresses and decodes them on the common fork-join
+	 * pool.
+	 */
+	public void loadRegionsParallel()
+	{
+		if (!this.regions.isEmpty())
+		{
+			return;
+		}
+
+		List<Region> loaded = IntStream.range(0, MAX_REGION)
+			.parallel()
+			.mapToObj(i ->
+			{
+				try
+				{
+					return decodeRegion(i);
+				}
+				catch (IOException ex)
+				{
+					log.debug("Can't decrypt region " + i, ex);
+					return null;
+				}
+			})
+			.filter(Objects::nonNull)
+			.collect(Collectors.toList());
+
+		for (Region region : loaded)
+		{
+			regions.put(region.getRegionID(), region);
+		}
+	}
+
 	public Region loadRegionFromArchive(int i) throws IOException
+	{
+		Region region = decodeRegion(i);
+		if (region != null)
+		{
+			regions.put(i, region);
+		}
+		return region;
+	}
+
+	private Region decodeRegion(int i) throws IOException
 	{
 		int x = i >> 8;
 		int y = i & 0xFF;
@@ -111,8 +159,6 @@ public class RegionLoader
 			region.loadLocations(locDef);
 		}
 
-		regions.put(i, region);
-
 		return region;
 	}
 
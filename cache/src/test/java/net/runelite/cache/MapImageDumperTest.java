@@ -27,6 +27,7 @@ package net.runelite.cache;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import javax.imageio.ImageIO;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.region.Region;
@@ -104,4 +105,52 @@ public class MapImageDumperTest
 			}
 		}
 	}
+
+	@Test
+	@Ignore
+	public void benchmarkLoad() throws IOException
+	{
+		benchmarkLoad(false);
+		benchmarkLoad(true);
+	}
+
+	private void benchmarkLoad(boolean parallel) throws IOException
+	{
+		File base = StoreLocation.LOCATION;
+
+		try (Store store = new Store(base))
+		{
+			store.load();
+
+			XteaKeyManager keyManager = new XteaKeyManager();
+			keyManager.loadKeys(null);
+
+			long start = System.nanoTime();
+			RegionLoader regionLoader = new RegionLoader(store, keyManager);
+			if (parallel)
+			{
+				regionLoader.loadRegionsParallel();
+			}
+			else
+			{
+				regionLoader.loadRegions();
+			}
+			long regionsLoaded = System.nanoTime();
+
+			MapImageDumper dumper = new MapImageDumper(store, regionLoader);
+			dumper.setParallel(parallel);
+			dumper.load();
+			long loaded = System.nanoTime();
+
+			dumper.drawMap(0);
+			long end = System.nanoTime();
+
+			logger.info("Parallel: {}, loaded {} regions in {} ms, MapImageDumper.load took {} ms, drawMap took {} ms",
+				parallel,
+				regionLoader.getRegions().size(),
+				TimeUnit.NANOSECONDS.toMillis(regionsLoaded - start),
+				TimeUnit.NANOSECONDS.toMillis(loaded - regionsLoaded),
+				TimeUnit.NANOSECONDS.toMillis(end - loaded));
+		}
+	}
 }
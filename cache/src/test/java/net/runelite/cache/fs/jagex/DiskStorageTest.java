@@ -25,19 +25,34 @@
 package net.runelite.cache.fs.jagex;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import net.runelite.cache.StoreLocation;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.index.FileData;
+import org.junit.Ignore;
 import org.junit.Test;
 import static org.junit.Assert.*;
 import org.junit.Rule;
 import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class DiskStorageTest
 {
+	private static final Logger logger = LoggerFactory.getLogger(DiskStorageTest.class);
+
+	private static final int NUMBER_OF_ARCHIVES = 4096;
+	private static final int ROUNDS = 8;
+
 	@Rule
 	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
 
@@ -101,4 +116,138 @@ public class DiskStorageTest
 		}
 	}
 
+	@Test
+	public void testConcurrentReads() throws Exception
+	{
+		File file = folder.newFolder();
+		try (DiskStorage storage = new DiskStorage(file))
+		{
+			byte[][] contents = storeArchives(storage);
+			readAll(storage, contents, Math.max(4, Runtime.getRuntime().availableProcessors()), 1);
+		}
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkConcurrentReads() throws Exception
+	{
+		File file = folder.newFolder();
+		try (DiskStorage storage = new DiskStorage(file))
+		{
+			byte[][] contents = storeArchives(storage);
+			int threads = Runtime.getRuntime().availableProcessors();
+			long single = readAll(storage, contents, 1, ROUNDS);
+			long concurrent = readAll(storage, contents, threads, ROUNDS);
+			logger.info("Read {} archives {} times in {} ms on 1 thread, {} ms on {} threads",
+				NUMBER_OF_ARCHIVES, ROUNDS,
+				TimeUnit.NANOSECONDS.toMillis(single),
+				TimeUnit.NANOSECONDS.toMillis(concurrent), threads);
+		}
+	}
+
+	@Test
+	public void testConcurrentFirstLoads() throws Exception
+	{
+		File file = folder.newFolder();
+		int indexes = 16;
+		Random random = new Random(42L);
+		byte[][] contents = new byte[indexes][];
+
+		try (DiskStorage storage = new DiskStorage(file))
+		{
+			for (int i = 0; i < indexes; ++i)
+			{
+				contents[i] = new byte[1 + random.nextInt(4096)];
+				random.nextBytes(contents[i]);
+				storage.store(i, 0, contents[i]);
+			}
+		}
+
+		// every index file is first opened by concurrent loads
+		int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try (DiskStorage storage = new DiskStorage(file))
+		{
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; ++t)
+			{
+				int offset = t;
+				futures.add(executor.submit(() ->
+				{
+					for (int i = 0; i < indexes; ++i)
+					{
+						int index = (i + offset) % indexes;
+						assertArrayEquals(contents[index], storage.load(index, 0));
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures)
+			{
+				future.get();
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Stores {@link #NUMBER_OF_ARCHIVES} archives of random contents in index 0
+	 *
+	 * @return the contents by archive id
+	 */
+	private static byte[][] storeArchives(DiskStorage storage) throws Exception
+	{
+		Random random = new Random(42L);
+		byte[][] contents = new byte[NUMBER_OF_ARCHIVES][];
+		for (int i = 0; i < NUMBER_OF_ARCHIVES; ++i)
+		{
+			// up to a few sectors each, like most archives
+			contents[i] = new byte[1 + random.nextInt(4096)];
+			random.nextBytes(contents[i]);
+			storage.store(0, i, contents[i]);
+		}
+		return contents;
+	}
+
+	/**
+	 * Reads every archive the given number of times, split between the threads, and checks the contents
+	 *
+	 * @return the time taken in nanoseconds
+	 */
+	private static long readAll(DiskStorage storage, byte[][] contents, int threads, int rounds) throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			long start = System.nanoTime();
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; ++t)
+			{
+				int first = t;
+				futures.add(executor.submit(() ->
+				{
+					for (int round = 0; round < rounds; ++round)
+					{
+						for (int i = first; i < contents.length; i += threads)
+						{
+							assertArrayEquals(contents[i], storage.load(0, i));
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures)
+			{
+				future.get();
+			}
+			return System.nanoTime() - start;
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
 }
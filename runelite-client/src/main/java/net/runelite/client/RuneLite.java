@@ -198,6 +198,8 @@ public class RuneLite
 		parser.accepts("profile", "Configuration profile to use").withRequiredArg();
 		parser.accepts("noupdate", "Skips the launcher update");
 		parser.accepts("clean-randomdat", "Clean random dat file");
+		parser.accepts("parallel-plugin-startup", "Load and start plugins without dependencies on each other concurrently");
+		parser.accepts("lazy-plugins", "Create the injectors of plugins when they are first enabled");
 
 
         final ArgumentAcceptingOptionSpec<String> proxyInfo = parser.accepts("proxy", "Use a proxy server for your runelite session")
@@ -367,7 +369,9 @@ public class RuneLite
 				options.valueOf(sessionfile),
 				(String) options.valueOf("profile"),
 				options.has(insecureWriteCredentials),
-				options.has("noupdate")
+				options.has("noupdate"),
+				options.has("parallel-plugin-startup"),
+				options.has("lazy-plugins")
 			));
 
 			injector.getInstance(RuneLite.class).start();
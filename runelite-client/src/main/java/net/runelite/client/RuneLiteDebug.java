@@ -168,6 +168,8 @@ public class RuneLiteDebug {
         parser.accepts("disable-walker-update", "Disable updates for the static walker");
         parser.accepts("profile", "Configuration profile to use").withRequiredArg();
         parser.accepts("noupdate", "Skips the launcher update");
+        parser.accepts("parallel-plugin-startup", "Load and start plugins without dependencies on each other concurrently");
+        parser.accepts("lazy-plugins", "Create the injectors of plugins when they are first enabled");
 
         final ArgumentAcceptingOptionSpec<String> proxyInfo = parser.accepts("proxy", "Use a proxy server for your runelite session")
                 .withRequiredArg().ofType(String.class);
@@ -307,7 +309,9 @@ public class RuneLiteDebug {
                     options.valueOf(sessionfile),
                     (String) options.valueOf("profile"),
                     options.has(insecureWriteCredentials),
-                    options.has("noupdate")
+                    options.has("noupdate"),
+                    options.has("parallel-plugin-startup"),
+                    options.has("lazy-plugins")
             ));
 
 
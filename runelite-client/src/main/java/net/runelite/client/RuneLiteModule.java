@@ -77,6 +77,8 @@ public class RuneLiteModule extends AbstractModule
 	private final String profile;
 	private final boolean insecureWriteCredentials;
 	private final boolean noupdate;
+	private final boolean parallelPluginStartup;
+	private final boolean lazyPlugins;
 
 	@Override
 	protected void configure()
@@ -126,6 +128,8 @@ public class RuneLiteModule extends AbstractModule
 		bind(String.class).annotatedWith(Names.named("profile")).toProvider(Providers.of(profile));
 		bindConstant().annotatedWith(Names.named("insecureWriteCredentials")).to(insecureWriteCredentials);
 		bindConstant().annotatedWith(Names.named("noupdate")).to(noupdate);
+		bindConstant().annotatedWith(Names.named("parallelPluginStartup")).to(parallelPluginStartup);
+		bindConstant().annotatedWith(Names.named("lazyPlugins")).to(lazyPlugins);
 		bind(File.class).annotatedWith(Names.named("runeLiteDir")).toInstance(RuneLite.RUNELITE_DIR);
 		bind(ScheduledExecutorService.class).toInstance(new ExecutorServiceExceptionLogger(Executors.newSingleThreadScheduledExecutor()));
 		bind(OkHttpClient.class).toInstance(okHttpClient);
@@ -25,16 +25,27 @@
 package net.runelite.client.callback;
 
 import com.google.inject.Inject;
+import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.client.plugins.microbot.Microbot;
+import net.runelite.client.plugins.microbot.ScriptRuntime;
+import net.runelite.client.plugins.microbot.util.StateSignal;
 
 import javax.inject.Singleton;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 @Singleton
 @Slf4j
@@ -43,6 +54,15 @@ public class ClientThread
 	private final ConcurrentLinkedQueue<BooleanSupplier> invokes = new ConcurrentLinkedQueue<>();
 	private final ConcurrentLinkedQueue<BooleanSupplier> invokesAtTickEnd = new ConcurrentLinkedQueue<>();
 
+	// Callers are scripts or thread names, those beyond the limit are recorded together
+	private static final int MAX_CALLERS = 256;
+	private static final String OTHER_CALLERS = "(other)";
+
+	private final Map<String, CallerStats> callerStats = new ConcurrentHashMap<>();
+	private volatile boolean recordingCallerStats;
+	// Threads blocked in callOnClientThread, not the invokes that don't wait for a result
+	private final AtomicInteger waitingCallers = new AtomicInteger();
+
 	protected ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
 	public Future<?> scheduledFuture;
 
@@ -70,16 +90,12 @@ public class ClientThread
 		if (client.isClientThread()) {
 			return method.call();
 		}
-		final FutureTask<T> task = new FutureTask<>(method);
-		invoke(task);
 		try {
-			return task.get(10000, TimeUnit.MILLISECONDS);
-		} catch (InterruptedException | TimeoutException | ExecutionException e) {
-			if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
-				return null;
-            }
-			task.cancel(true);
+			return callOnClientThread(method, 1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (TimeoutException | ExecutionException e) {
 			if (!Microbot.isDebug()) {
 				log.error("Exception during task execution: {}: {}\n{}", e.getClass().getSimpleName(), e.getMessage(),e);
 			}
@@ -96,29 +112,295 @@ public class ClientThread
 	@SneakyThrows
 	public <T> Optional<T> runOnClientThreadOptional(Callable<T> method) {
 		if (client.isClientThread()) {
-			try {
-				return Optional.ofNullable(method.call());
-			} catch (Exception e) {
-				if (!Microbot.isDebug()) {
-					log.error("Exception in client thread execution: {}\n{}", e.getMessage(),e);
-				}
-				return Optional.empty();
+			return callInline(method);
+		}
+		try {
+			return Optional.ofNullable(callOnClientThread(method, 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return Optional.empty();
+		} catch (TimeoutException | ExecutionException e) {
+			if (!Microbot.isDebug()) {
+				log.error("Exception during task execution: {}: {}\n{}", e.getClass().getSimpleName(), e.getMessage(),e);
+			}
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Start a batch of calls to run on the client thread together. Every call made through
+	 * {@link #runOnClientThreadOptional(Callable)} waits for the next client frame, so reads that
+	 * don't depend on each other are much faster added to one batch:
+	 * <pre>
+	 * ClientThread.Batch batch = clientThread.batch();
+	 * Supplier&lt;Optional&lt;Widget&gt;&gt; bank = batch.add(() -&gt; client.getWidget(ComponentID.BANK_CONTAINER));
+	 * Supplier&lt;Optional&lt;Integer&gt;&gt; energy = batch.add(client::getEnergy);
+	 * batch.run();
+	 * </pre>
+	 * Results are read with the returned suppliers, which run the batch first if it hasn't run yet.
+	 * @return an empty batch, to be built and run by the calling thread
+	 */
+	public Batch batch()
+	{
+		return new Batch();
+	}
+
+	/**
+	 * @return wait statistics of blocking calls to the client thread, by the script or thread making them,
+	 * recorded while {@link #setRecordingCallerStats(boolean)} was on
+	 */
+	public Map<String, CallerStats> getCallerStats()
+	{
+		return new TreeMap<>(callerStats);
+	}
+
+	/**
+	 * Turns recording of {@link #getCallerStats()} on or off. Turning it off drops the recorded stats.
+	 */
+	public void setRecordingCallerStats(boolean recording)
+	{
+		recordingCallerStats = recording;
+		if (!recording)
+		{
+			callerStats.clear();
+		}
+	}
+
+	/**
+	 * @return the number of threads blocked waiting for a call to run on the client thread. Calls queued with
+	 * {@link #invoke(Runnable)} or {@link #invokeLater(Runnable)} are not counted.
+	 */
+	public int getWaitingCallerCount()
+	{
+		return waitingCallers.get();
+	}
+
+	public void resetCallerStats()
+	{
+		callerStats.clear();
+	}
+
+	private <T> Optional<T> callInline(Callable<T> method)
+	{
+		try {
+			return Optional.ofNullable(method.call());
+		} catch (Exception e) {
+			if (!Microbot.isDebug()) {
+				log.error("Exception in client thread execution: {}\n{}", e.getMessage(),e);
 			}
+			return Optional.empty();
 		}
+	}
+
+	/**
+	 * Runs the method on the client thread and waits at most 10 seconds for the result, recording the wait
+	 * for the caller.
+	 */
+	private <T> T callOnClientThread(Callable<T> method, int calls) throws InterruptedException, TimeoutException, ExecutionException
+	{
 		final FutureTask<T> task = new FutureTask<>(method);
+		final int waiting = waitingCallers.incrementAndGet();
+		final long start = System.nanoTime();
 		invoke(task);
 		try {
-			return Optional.ofNullable(task.get(10000, TimeUnit.MILLISECONDS));
-		} catch (InterruptedException | TimeoutException | ExecutionException e) {
-			if (e instanceof InterruptedException) {
-				Thread.currentThread().interrupt();
-				return Optional.empty();
-			}			
+			return task.get(10000, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
 			task.cancel(true);
-			if (!Microbot.isDebug()) {
-				log.error("Exception during task execution: {}: {}\n{}", e.getClass().getSimpleName(), e.getMessage(),e);
+			throw e;
+		} finally {
+			waitingCallers.decrementAndGet();
+			if (recordingCallerStats)
+			{
+				callerStats(caller()).record(calls, waiting, System.nanoTime() - start);
 			}
-			return Optional.empty();
+		}
+	}
+
+	private static String caller()
+	{
+		final String script = ScriptRuntime.getCurrentScript();
+		return script != null ? script : Thread.currentThread().getName();
+	}
+
+	private CallerStats callerStats(String caller)
+	{
+		final CallerStats stats = callerStats.get(caller);
+		if (stats != null)
+		{
+			return stats;
+		}
+		// Unnamed pool threads would otherwise add a caller each
+		return callerStats.computeIfAbsent(callerStats.size() < MAX_CALLERS ? caller : OTHER_CALLERS, CallerStats::new);
+	}
+
+	/**
+	 * Calls that run on the client thread in one go, see {@link #batch()}.
+	 * Not thread safe, a batch is meant to be built and run by one script.
+	 */
+	public final class Batch
+	{
+		private final List<Call<?>> calls = new ArrayList<>();
+		private boolean ran;
+
+		private Batch()
+		{
+		}
+
+		/**
+		 * Add a call to the batch.
+		 * @param method
+		 * @return a supplier of the result, empty if the method returned null or threw
+		 * @param <T>
+		 */
+		public <T> Supplier<Optional<T>> add(Callable<T> method)
+		{
+			if (ran) {
+				throw new IllegalStateException("batch has already run");
+			}
+			final Call<T> call = new Call<>(method);
+			calls.add(call);
+			return call;
+		}
+
+		/**
+		 * Run all calls on the client thread, waiting for them to finish. Does nothing if the batch
+		 * already ran.
+		 */
+		public void run()
+		{
+			if (ran) {
+				return;
+			}
+			ran = true;
+			if (calls.isEmpty()) {
+				return;
+			}
+
+			if (client.isClientThread()) {
+				calls.forEach(Call::run);
+				return;
+			}
+			try {
+				callOnClientThread(() -> {
+					calls.forEach(Call::run);
+					return null;
+				}, calls.size());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (TimeoutException | ExecutionException e) {
+				if (!Microbot.isDebug()) {
+					log.error("Exception during batch execution: {}: {}\n{}", e.getClass().getSimpleName(), e.getMessage(),e);
+				}
+			}
+		}
+
+		private final class Call<T> implements Supplier<Optional<T>>
+		{
+			private final Callable<T> method;
+			// Written on the client thread, read after the batch task completed
+			private Optional<T> result = Optional.empty();
+
+			private Call(Callable<T> method)
+			{
+				this.method = method;
+			}
+
+			void run()
+			{
+				result = callInline(method);
+			}
+
+			@Override
+			public Optional<T> get()
+			{
+				Batch.this.run();
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * How long one caller waited on the client thread.
+	 */
+	public static final class CallerStats
+	{
+		@Getter
+		private final String caller;
+		private final LongAdder roundTrips = new LongAdder();
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder waitNanos = new LongAdder();
+		private final LongAdder waitingCallers = new LongAdder();
+		private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+		private final LongAccumulator maxWaitingCallers = new LongAccumulator(Math::max, 0);
+
+		private CallerStats(String caller)
+		{
+			this.caller = caller;
+		}
+
+		private void record(int calls, int waitingCallers, long waitNanos)
+		{
+			this.roundTrips.increment();
+			this.calls.add(calls);
+			this.waitNanos.add(waitNanos);
+			this.waitingCallers.add(waitingCallers);
+			this.maxWaitNanos.accumulate(waitNanos);
+			this.maxWaitingCallers.accumulate(waitingCallers);
+		}
+
+		/**
+		 * @return the number of times the caller waited on the client thread
+		 */
+		public long getRoundTrips()
+		{
+			return roundTrips.sum();
+		}
+
+		/**
+		 * @return the number of calls made, more than the round trips when calls were batched
+		 */
+		public long getCalls()
+		{
+			return calls.sum();
+		}
+
+		public long getTotalWait(TimeUnit unit)
+		{
+			return unit.convert(waitNanos.sum(), TimeUnit.NANOSECONDS);
+		}
+
+		public long getMaxWait(TimeUnit unit)
+		{
+			return unit.convert(maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+		}
+
+		public double getAverageWaitMillis()
+		{
+			final long trips = roundTrips.sum();
+			return trips == 0 ? 0 : waitNanos.sum() / 1e6 / trips;
+		}
+
+		/**
+		 * @return the average number of threads blocked on the client thread, including the caller, when the
+		 * caller made a call
+		 */
+		public double getAverageWaitingCallers()
+		{
+			final long trips = roundTrips.sum();
+			return trips == 0 ? 0 : (double) waitingCallers.sum() / trips;
+		}
+
+		public long getMaxWaitingCallers()
+		{
+			return maxWaitingCallers.get();
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%s: %d round trips, %d calls, avg wait %.1f ms, max wait %d ms, avg waiting callers %.1f, max waiting callers %d",
+				caller, getRoundTrips(), getCalls(), getAverageWaitMillis(), getMaxWait(TimeUnit.MILLISECONDS),
+				getAverageWaitingCallers(), getMaxWaitingCallers());
 		}
 	}
 
@@ -181,6 +463,7 @@ public class ClientThread
 	void invoke()
 	{
 		invokeList(invokes);
+		StateSignal.onClientTick();
 	}
 
 	void invokeTickEnd()
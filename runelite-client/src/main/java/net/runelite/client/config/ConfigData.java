@@ -24,6 +24,7 @@
  */
 package net.runelite.client.config;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -31,13 +32,18 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
@@ -45,9 +51,29 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * The config of one profile, kept in a properties file and a journal next to it.
+ * <p>
+ * Saving appends the changed keys to the journal instead of rewriting the whole properties file, so the cost of a
+ * save depends on the size of the change rather than the size of the profile. The journal is folded back into the
+ * properties file by {@link #compact()} once it has grown to half the size of the properties file, which keeps
+ * keys that are saved over and over from growing it without bound.
+ */
 @Slf4j
 class ConfigData
 {
+	private static final String JOURNAL_SUFFIX = ".journal";
+
+	// The journal is compacted once it is larger than this, or half the properties file if that is larger
+	private static final long MIN_COMPACT_BYTES = 256 * 1024;
+
+	private static final char OP_SET = 'S';
+	private static final char OP_UNSET = 'U';
+	private static final char OP_COMMIT = 'C';
+
+	// File locks are held by the whole JVM and throw when taken twice, so only one thread touches the files at a time
+	private static final Object FILE_LOCK = new Object();
+
 	private final File configPath;
 
 	private final ConcurrentHashMap<String, String> properties;
@@ -57,18 +83,10 @@ class ConfigData
 	{
 		this.configPath = configPath;
 
-		Properties props = new Properties();
-		try (FileInputStream in = new FileInputStream(configPath);
-			InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8))
+		Properties props;
+		synchronized (FILE_LOCK)
 		{
-			props.load(reader);
-		}
-		catch (FileNotFoundException ignored)
-		{
-		}
-		catch (Exception ex)
-		{
-			throw new RuntimeException(ex);
+			props = load(configPath);
 		}
 
 		properties = new ConcurrentHashMap<>(props.size());
@@ -128,77 +146,342 @@ class ConfigData
 		return p;
 	}
 
-	void patch(Map<String, String> patch)
+	/**
+	 * Saves the changes by appending them to the journal
+	 *
+	 * @return true if the journal should now be compacted
+	 */
+	boolean patch(Map<String, String> patch)
 	{
-		// load + patch + store instead of just flushing the in-memory properties to disk so that
+		// append the patch instead of just flushing the in-memory properties to disk so that
 		// multiple clients editing one config data (such as rs profile config) get their data merged
 		// correctly
 
-		File lckFile = new File(configPath.getParentFile(), configPath.getName() + ".lck");
-		try (FileOutputStream lockOut = new FileOutputStream(lckFile);
-			FileChannel lckChannel = lockOut.getChannel())
+		synchronized (FILE_LOCK)
+		{
+			File journalPath = journalFile(configPath);
+			File lckFile = lockFile(configPath);
+			try (FileOutputStream lockOut = new FileOutputStream(lckFile);
+				FileChannel lckChannel = lockOut.getChannel())
+			{
+				lckChannel.lock();
+
+				if (!configPath.exists() && !journalPath.exists())
+				{
+					// this probably doesn't happen outside of the very first save (when no file exists)
+					// but to be safe in the event the prop is deleted off disk, flush the entire properties
+					// from memory
+					patch = new HashMap<>(properties);
+				}
+
+				try (FileChannel channel = FileChannel.open(journalPath.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE))
+				{
+					// a save cut short by a crash leaves a batch without its commit line. cut it off, otherwise
+					// the next batch would commit it, and its last line would run into the first line of the batch
+					long committed = committedLength(channel);
+					if (committed < channel.size())
+					{
+						log.warn("dropping {} bytes of uncommitted changes from {}", channel.size() - committed, journalPath);
+						channel.truncate(committed);
+					}
+
+					ByteBuffer buffer = ByteBuffer.wrap(encode(patch));
+					long position = committed;
+					while (buffer.hasRemaining())
+					{
+						position += channel.write(buffer, position);
+					}
+					channel.force(false);
+				}
+			}
+			catch (IOException ex)
+			{
+				log.error("unable to save configuration file", ex);
+			}
+			lckFile.delete();
+
+			return journalPath.length() > Math.max(MIN_COMPACT_BYTES, configPath.length() / 2);
+		}
+	}
+
+	/**
+	 * @return the length of the journal up to and including its last commit line
+	 */
+	private static long committedLength(FileChannel channel) throws IOException
+	{
+		// read backwards from the end, since the journal almost always ends with a commit line. blocks overlap by
+		// two bytes so a commit line split between blocks is still seen whole
+		byte[] block = new byte[8192];
+		long blockEnd = channel.size();
+		while (blockEnd > 0)
+		{
+			long blockStart = Math.max(0L, blockEnd - block.length);
+			int len = (int) (blockEnd - blockStart);
+			ByteBuffer buffer = ByteBuffer.wrap(block, 0, len);
+			while (buffer.hasRemaining())
+			{
+				if (channel.read(buffer, blockStart + buffer.position()) == -1)
+				{
+					throw new EOFException("journal " + channel + " shrank while reading it");
+				}
+			}
+
+			for (int i = len - 1; i >= (blockStart == 0 ? 1 : 2); --i)
+			{
+				if (block[i] == '\n' && block[i - 1] == OP_COMMIT && (blockStart + i == 1 || block[i - 2] == '\n'))
+				{
+					return blockStart + i + 1;
+				}
+			}
+
+			if (blockStart == 0)
+			{
+				break;
+			}
+			blockEnd = blockStart + 2;
+		}
+		return 0L;
+	}
+
+	/**
+	 * Folds the journal into the properties file
+	 */
+	void compact()
+	{
+		compact(configPath);
+	}
+
+	/**
+	 * Folds the journal of a config file into it, so the properties file alone holds the whole config. Needed
+	 * before the file is copied.
+	 */
+	static void compact(File configPath)
+	{
+		synchronized (FILE_LOCK)
 		{
-			lckChannel.lock();
+			File journalPath = journalFile(configPath);
+			if (!journalPath.exists())
+			{
+				return;
+			}
 
-			Properties tempProps = new Properties();
-			try (FileInputStream in = new FileInputStream(configPath);
-				InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8))
+			File lckFile = lockFile(configPath);
+			try (FileOutputStream lockOut = new FileOutputStream(lckFile);
+				FileChannel lckChannel = lockOut.getChannel())
 			{
-				tempProps.load(reader);
+				lckChannel.lock();
+
+				Properties tempProps = load(configPath);
+
+				File tempFile = File.createTempFile("runelite_config", null, configPath.getParentFile());
+				try (FileOutputStream out = new FileOutputStream(tempFile);
+					FileChannel channel = out.getChannel();
+					OutputStreamWriter writer = new OutputStreamWriter(out, StandardCharsets.UTF_8))
+				{
+					channel.lock();
+					tempProps.store(writer, "RuneLite configuration");
+					writer.flush();
+					channel.force(true);
+				}
+
+				try
+				{
+					Files.move(tempFile.toPath(), configPath.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex)
+				{
+					log.debug("atomic move not supported", ex);
+					Files.move(tempFile.toPath(), configPath.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+
+				// replaying the journal again on top of the new file would change nothing, so a crash before
+				// this delete loses nothing
+				Files.delete(journalPath.toPath());
 			}
-			catch (FileNotFoundException e)
+			catch (IOException ex)
 			{
-				log.debug("config file {} does not exist", configPath);
+				log.error("unable to compact configuration file", ex);
 			}
+			lckFile.delete();
+		}
+	}
+
+	/**
+	 * @return the journal of unsaved changes kept next to the properties file
+	 */
+	static File journalFile(File configPath)
+	{
+		return new File(configPath.getParentFile(), configPath.getName() + JOURNAL_SUFFIX);
+	}
+
+	private static File lockFile(File configPath)
+	{
+		return new File(configPath.getParentFile(), configPath.getName() + ".lck");
+	}
+
+	/**
+	 * Loads the properties file and replays the journal on top of it
+	 */
+	private static Properties load(File configPath)
+	{
+		Properties props = new Properties();
+		try (FileInputStream in = new FileInputStream(configPath);
+			InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8))
+		{
+			props.load(reader);
+		}
+		catch (FileNotFoundException ignored)
+		{
+			log.debug("config file {} does not exist", configPath);
+		}
+		catch (Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+
+		try
+		{
+			byte[] journal = Files.readAllBytes(journalFile(configPath).toPath());
+			replay(new String(journal, StandardCharsets.UTF_8), props);
+		}
+		catch (NoSuchFileException ignored)
+		{
+		}
+		catch (IOException ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		return props;
+	}
 
-			if (tempProps.isEmpty())
+	/**
+	 * Encodes a patch as journal lines: a set or unset line per key, then a commit line. Keys and values are
+	 * escaped so neither holds a tab or line break.
+	 */
+	static byte[] encode(Map<String, String> patch)
+	{
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, String> entry : patch.entrySet())
+		{
+			if (entry.getValue() == null)
 			{
-				// this probably doesn't happen outside of the very first save (when no file exists)
-				// but to be safe in the event the prop is deleted off disk, flush the entire properties
-				// from memory
-				tempProps.putAll(properties);
+				sb.append(OP_UNSET);
+				escape(sb, entry.getKey());
 			}
 			else
 			{
-				// apply patches
-				for (Map.Entry<String, String> entry : patch.entrySet())
+				sb.append(OP_SET);
+				escape(sb, entry.getKey());
+				sb.append('\t');
+				escape(sb, entry.getValue());
+			}
+			sb.append('\n');
+		}
+		sb.append(OP_COMMIT).append('\n');
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Applies the committed patches of a journal. A patch without its commit line was cut short by a crash, and is
+	 * dropped like the whole save would have been before.
+	 */
+	static void replay(String journal, Properties props)
+	{
+		List<String> batch = new ArrayList<>();
+		int start = 0;
+		int end;
+		while ((end = journal.indexOf('\n', start)) != -1)
+		{
+			String line = journal.substring(start, end);
+			start = end + 1;
+
+			if (line.isEmpty())
+			{
+				continue;
+			}
+			if (line.charAt(0) != OP_COMMIT)
+			{
+				batch.add(line);
+				continue;
+			}
+
+			for (String op : batch)
+			{
+				if (op.charAt(0) == OP_SET)
 				{
-					if (entry.getValue() == null)
-					{
-						tempProps.remove(entry.getKey());
-					}
-					else
+					int tab = op.indexOf('\t');
+					if (tab != -1)
 					{
-						tempProps.put(entry.getKey(), entry.getValue());
+						props.put(unescape(op.substring(1, tab)), unescape(op.substring(tab + 1)));
 					}
 				}
+				else if (op.charAt(0) == OP_UNSET)
+				{
+					props.remove(unescape(op.substring(1)));
+				}
 			}
+			batch.clear();
+		}
+	}
 
-			File tempFile = File.createTempFile("runelite_config", null, configPath.getParentFile());
-			try (FileOutputStream out = new FileOutputStream(tempFile);
-				FileChannel channel = out.getChannel();
-				OutputStreamWriter writer = new OutputStreamWriter(out, StandardCharsets.UTF_8))
+	private static void escape(StringBuilder sb, String s)
+	{
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			switch (c)
 			{
-				channel.lock();
-				tempProps.store(writer, "RuneLite configuration");
-				writer.flush();
-				channel.force(true);
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				default:
+					sb.append(c);
 			}
+		}
+	}
 
-			try
+	private static String unescape(String s)
+	{
+		if (s.indexOf('\\') == -1)
+		{
+			return s;
+		}
+
+		StringBuilder sb = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			if (c != '\\' || i + 1 == s.length())
 			{
-				Files.move(tempFile.toPath(), configPath.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				sb.append(c);
+				continue;
 			}
-			catch (AtomicMoveNotSupportedException ex)
+
+			char next = s.charAt(++i);
+			switch (next)
 			{
-				log.debug("atomic move not supported", ex);
-				Files.move(tempFile.toPath(), configPath.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				case 't':
+					sb.append('\t');
+					break;
+				case 'n':
+					sb.append('\n');
+					break;
+				case 'r':
+					sb.append('\r');
+					break;
+				default:
+					sb.append(next);
 			}
 		}
-		catch (IOException ex)
-		{
-			log.error("unable to save configuration file", ex);
-		}
-		lckFile.delete();
+		return sb.toString();
 	}
 }
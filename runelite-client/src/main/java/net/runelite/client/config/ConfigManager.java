@@ -817,10 +817,12 @@ public class ConfigManager
 				File configFile = ProfileManager.profileConfigFile(profile);
 				// remote configuration replaces local
 				configFile.delete();
+				ConfigData.journalFile(configFile).delete();
 
 				ConfigData configData = new ConfigData(configFile);
 				configData.putAll(remoteConfiguration.getConfig());
 				configData.patch(configData.swapChanges());
+				configData.compact();
 
 				log.debug("synced remote profile {} rev {} to disk", profile, remoteConfiguration.getRev());
 				profile.setRev(remoteConfiguration.getRev());
@@ -1438,6 +1440,16 @@ public class ConfigManager
 	private void onClientShutdown(ClientShutdown e)
 	{
 		sendConfig();
+
+		// leave whole properties files behind, for clients that don't read the journal
+		if (configProfile != null)
+		{
+			configProfile.compact();
+		}
+		if (rsProfileConfigProfile != null)
+		{
+			rsProfileConfigProfile.compact();
+		}
 	}
 
 	public void sendConfig()
@@ -1524,7 +1536,10 @@ public class ConfigManager
 			}
 		}
 
-		data.patch(patch);
+		if (data.patch(patch))
+		{
+			executor.execute(data::compact);
+		}
 	}
 
 	private static ConfigPatch buildConfigPatch(@Nullable String profileName, Map<String, String> patchChanges)
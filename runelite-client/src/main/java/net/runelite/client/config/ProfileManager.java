@@ -202,6 +202,15 @@ public class ProfileManager {
 					newFile.toPath(),
 					StandardCopyOption.REPLACE_EXISTING
 				);
+				File oldJournal = ConfigData.journalFile(oldFile);
+				if (oldJournal.exists())
+				{
+					Files.move(
+						oldJournal.toPath(),
+						ConfigData.journalFile(newFile).toPath(),
+						StandardCopyOption.REPLACE_EXISTING
+					);
+				}
 				log.info("Renamed profile file {} to {}", oldFile.getName(), newFile.getName());
 			}
 			catch (IOException e)
@@ -222,4 +231,11 @@ public class ProfileManager {
     public static File profileConfigFile(ConfigProfile profile) {
         return new File(PROFILES_DIR, profile.getName() + "-" + profile.getId() + ".properties");
     }
+
+    /**
+     * Folds the saved changes still in the profile's journal into its properties file, so the file can be copied
+     */
+    public static void compactProfileConfig(ConfigProfile profile) {
+        ConfigData.compact(profileConfigFile(profile));
+    }
 }
@@ -117,4 +117,11 @@ public @interface PluginDescriptor
 	boolean loadInSafeMode() default true;
 
 	boolean priority() default false;
+
+	/**
+	 * Whether the plugin must start on the event dispatch thread when plugins start concurrently, because its
+	 * startUp builds Swing components or otherwise relies on running there. Only applies to Microbot plugins, the
+	 * other plugins always start on the event dispatch thread.
+	 */
+	boolean startOnEdt() default false;
 }
@@ -32,6 +32,7 @@ import com.google.common.graph.Graphs;
 import com.google.common.graph.MutableGraph;
 import com.google.common.reflect.ClassPath;
 import com.google.common.reflect.ClassPath.ClassInfo;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Module;
 import com.google.inject.*;
 import lombok.Getter;
@@ -63,7 +64,13 @@ import java.lang.invoke.*;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
@@ -75,10 +82,15 @@ public class PluginManager
 	 * Base package where the core plugins are
 	 */
 	private static final String PLUGIN_PACKAGE = "net.runelite.client.plugins";
+	private static final String MICROBOT_PACKAGE = PLUGIN_PACKAGE + ".microbot";
 	private static final File SIDELOADED_PLUGINS = new File(RuneLite.RUNELITE_DIR, "sideloaded-plugins");
 
 	private final boolean developerMode;
 	private final boolean safeMode;
+	@Getter
+	private final boolean parallelStartUp;
+	@Getter
+	private final boolean lazyLoading;
 	private final EventBus eventBus;
 	private final Scheduler scheduler;
 	private final ConfigManager configManager;
@@ -96,6 +108,8 @@ public class PluginManager
 	PluginManager(
 		@Named("developerMode") final boolean developerMode,
 		@Named("safeMode") final boolean safeMode,
+		@Named("parallelPluginStartup") final boolean parallelStartUp,
+		@Named("lazyPlugins") final boolean lazyLoading,
 		final EventBus eventBus,
 		final Scheduler scheduler,
 		final ConfigManager configManager,
@@ -103,6 +117,8 @@ public class PluginManager
 	{
 		this.developerMode = developerMode;
 		this.safeMode = safeMode;
+		this.parallelStartUp = parallelStartUp;
+		this.lazyLoading = lazyLoading;
 		this.eventBus = eventBus;
 		this.scheduler = scheduler;
 		this.configManager = configManager;
@@ -149,6 +165,10 @@ public class PluginManager
 		try
 		{
 			final Injector injector = plugin.getInjector();
+			if (injector == null)
+			{
+				return getLazyPluginConfigProxy(plugin);
+			}
 
 			for (Key<?> key : injector.getBindings().keySet())
 			{
@@ -173,14 +193,28 @@ public class PluginManager
 	public List<Config> getPluginConfigProxies(Collection<Plugin> plugins)
 	{
 		List<Injector> injectors = new ArrayList<>();
+		List<Config> list = new ArrayList<>();
 		if (plugins == null)
 		{
 			injectors.add(Microbot.getInjector());
 			plugins = getPlugins();
 		}
-		plugins.forEach(pl -> injectors.add(pl.getInjector()));
+		for (Plugin pl : plugins)
+		{
+			if (pl.getInjector() != null)
+			{
+				injectors.add(pl.getInjector());
+			}
+			else
+			{
+				Config config = getLazyPluginConfigProxy(pl);
+				if (config != null)
+				{
+					list.add(config);
+				}
+			}
+		}
 
-		List<Config> list = new ArrayList<>();
 		for (Injector injector : injectors)
 		{
 			for (Key<?> key : injector.getBindings().keySet())
@@ -197,6 +231,23 @@ public class PluginManager
 		return list;
 	}
 
+	/**
+	 * The config of a plugin whose injector is not created yet, from the {@link Provides} method of its config
+	 */
+	@SuppressWarnings("unchecked")
+	private Config getLazyPluginConfigProxy(Plugin plugin)
+	{
+		for (Method method : plugin.getClass().getDeclaredMethods())
+		{
+			Class<?> type = method.getReturnType();
+			if (method.isAnnotationPresent(Provides.class) && type != Config.class && Config.class.isAssignableFrom(type))
+			{
+				return configManager.getConfig((Class<? extends Config>) type);
+			}
+		}
+		return null;
+	}
+
 	public void loadDefaultPluginConfiguration(Collection<Plugin> plugins)
 	{
 		try
@@ -228,47 +279,222 @@ public class PluginManager
 			}
 			return pluginDescriptor.priority() ? 0 : 1;
 		}));
-		int loaded = 0;
+
+		final Map<Class<?>, Long> startNanos = new ConcurrentHashMap<>();
+		final long start = System.nanoTime();
+		if (parallelStartUp && !SwingUtilities.isEventDispatchThread())
+		{
+			startPluginsConcurrently(scannedPlugins, startNanos);
+		}
+		else
+		{
+			int loaded = 0;
+			for (Plugin plugin : scannedPlugins)
+			{
+				try
+				{
+					SwingUtilities.invokeAndWait(() -> startPluginTimed(plugin, startNanos));
+				}
+				catch (InterruptedException | InvocationTargetException e)
+				{
+					throw new RuntimeException(e);
+				}
+
+				loaded++;
+				SplashScreen.stage(.80, 1, null, "Starting plugins", loaded, scannedPlugins.size(), false);
+			}
+		}
+		logTimings("Started", startNanos, System.nanoTime() - start);
+
+		for (Plugin plugin : plugins)
+		{
+			if (plugin.injector != null)
+			{
+				ReflectUtil.queueInjectorAnnotationCacheInvalidation(plugin.injector);
+			}
+		}
+	}
+
+	/**
+	 * Starts the plugins a dependency level at a time, the priority plugins first. The plugins of a level run their
+	 * startUp concurrently, except for those which must start on the EDT, which start there one at a time in the
+	 * meantime. The plugins started concurrently are then registered on the event bus and announced from this thread.
+	 * Plugins with conflicts start last, on the EDT, since they may stop other plugins.
+	 */
+	private void startPluginsConcurrently(List<Plugin> scannedPlugins, Map<Class<?>, Long> startNanos)
+	{
+		Map<Class<?>, Plugin> pluginsByClass = new HashMap<>();
+		MutableGraph<Plugin> priorityGraph = GraphBuilder.directed().build();
+		MutableGraph<Plugin> graph = GraphBuilder.directed().build();
 		for (Plugin plugin : scannedPlugins)
 		{
-			try
+			PluginDescriptor pluginDescriptor = plugin.getClass().getAnnotation(PluginDescriptor.class);
+			(pluginDescriptor != null && pluginDescriptor.priority() ? priorityGraph : graph).addNode(plugin);
+			pluginsByClass.put(plugin.getClass(), plugin);
+		}
+
+		for (Plugin plugin : scannedPlugins)
+		{
+			MutableGraph<Plugin> g = priorityGraph.nodes().contains(plugin) ? priorityGraph : graph;
+			for (PluginDependency pluginDependency : plugin.getClass().getAnnotationsByType(PluginDependency.class))
 			{
-				SwingUtilities.invokeAndWait(() ->
+				// dependencies on plugins started in an earlier pass are already met
+				Plugin dependency = pluginsByClass.get(pluginDependency.value());
+				if (dependency != null && g.nodes().contains(dependency))
 				{
-					try
+					g.putEdge(dependency, plugin);
+				}
+			}
+		}
+
+		List<List<Plugin>> levels = new ArrayList<>(topologicalLevels(priorityGraph));
+		levels.addAll(topologicalLevels(graph));
+
+		ExecutorService executor = newStartUpExecutor();
+		try
+		{
+			int started = 0;
+			for (List<Plugin> level : levels)
+			{
+				List<Plugin> concurrentPlugins = new ArrayList<>();
+				List<Future<Boolean>> futures = new ArrayList<>(level.size());
+				List<Plugin> edtPlugins = new ArrayList<>();
+				List<Plugin> conflictingPlugins = new ArrayList<>();
+				for (Plugin plugin : level)
+				{
+					if (!conflictsForPlugin(plugin).isEmpty())
 					{
-						startPlugin(plugin);
+						conflictingPlugins.add(plugin);
 					}
-					catch (PluginInstantiationException ex)
+					else if (mustStartOnEdt(plugin))
 					{
-						log.error("Unable to start plugin {}", plugin.getClass().getSimpleName(), ex);
-						plugins.remove(plugin);
+						edtPlugins.add(plugin);
 					}
-				});
-			}
-			catch (InterruptedException | InvocationTargetException e)
-			{
-				throw new RuntimeException(e);
+					else
+					{
+						concurrentPlugins.add(plugin);
+						futures.add(executor.submit(() -> runTimed(plugin, startNanos, this::startUpPlugin)));
+					}
+				}
+
+				for (Plugin plugin : edtPlugins)
+				{
+					SwingUtilities.invokeAndWait(() -> startPluginTimed(plugin, startNanos));
+				}
+
+				for (int i = 0; i < futures.size(); i++)
+				{
+					if (futures.get(i).get())
+					{
+						registerStartedPluginTimed(concurrentPlugins.get(i), startNanos);
+					}
+				}
+
+				for (Plugin plugin : conflictingPlugins)
+				{
+					SwingUtilities.invokeAndWait(() -> startPluginTimed(plugin, startNanos));
+				}
+
+				started += level.size();
+				SplashScreen.stage(.80, 1, null, "Starting plugins", started, scannedPlugins.size(), false);
 			}
+		}
+		catch (InterruptedException | InvocationTargetException | ExecutionException e)
+		{
+			throw new RuntimeException(e);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
 
-			loaded++;
-			SplashScreen.stage(.80, 1, null, "Starting plugins", loaded, scannedPlugins.size(), false);
+	/**
+	 * Plugins of RuneLite are written to start on the EDT. Other plugins declare it with
+	 * {@link PluginDescriptor#startOnEdt()}.
+	 */
+	private boolean mustStartOnEdt(Plugin plugin)
+	{
+		PluginDescriptor pluginDescriptor = plugin.getClass().getAnnotation(PluginDescriptor.class);
+		return pluginDescriptor == null
+			|| pluginDescriptor.startOnEdt()
+			|| !plugin.getClass().getName().startsWith(MICROBOT_PACKAGE + ".");
+	}
+
+	private void startPluginTimed(Plugin plugin, Map<Class<?>, Long> startNanos)
+	{
+		if (runTimed(plugin, startNanos, this::startPluginOnCurrentThread))
+		{
+			logStarted(plugin, startNanos);
 		}
+	}
 
-		for (Plugin plugin : plugins)
+	private void registerStartedPluginTimed(Plugin plugin, Map<Class<?>, Long> startNanos)
+	{
+		final StartStep register = p ->
+		{
+			registerStartedPlugin(p);
+			return true;
+		};
+		if (runTimed(plugin, startNanos, register))
 		{
-			ReflectUtil.queueInjectorAnnotationCacheInvalidation(plugin.injector);
+			logStarted(plugin, startNanos);
 		}
 	}
 
+	/**
+	 * Runs a step of starting the plugin and adds its time to the startup time of the plugin
+	 *
+	 * @return true if the step started the plugin, false if the plugin didn't start or failed to
+	 */
+	private boolean runTimed(Plugin plugin, Map<Class<?>, Long> startNanos, StartStep step)
+	{
+		final long start = System.nanoTime();
+		try
+		{
+			if (step.run(plugin))
+			{
+				startNanos.merge(plugin.getClass(), System.nanoTime() - start, Long::sum);
+				return true;
+			}
+		}
+		catch (PluginInstantiationException ex)
+		{
+			log.error("Unable to start plugin {}", plugin.getClass().getSimpleName(), ex);
+			plugins.remove(plugin);
+		}
+		return false;
+	}
+
+	private static void logStarted(Plugin plugin, Map<Class<?>, Long> startNanos)
+	{
+		log.debug("Started plugin {} in {}ms", plugin.getClass().getSimpleName(), TimeUnit.NANOSECONDS.toMillis(startNanos.get(plugin.getClass())));
+	}
+
+	@FunctionalInterface
+	private interface StartStep
+	{
+		boolean run(Plugin plugin) throws PluginInstantiationException;
+	}
+
 	public void loadCorePlugins() throws IOException, PluginInstantiationException
 	{
 		SplashScreen.stage(.59, null, "Loading plugins");
-		ClassPath classPath = ClassPath.from(getClass().getClassLoader());
 
-		List<Class<?>> plugins = classPath.getTopLevelClassesRecursive(PLUGIN_PACKAGE).stream()
-			.map(ClassInfo::load)
-			.collect(Collectors.toList());
+		List<Class<?>> plugins;
+		PluginManifest manifest = PluginManifest.load(getClass().getClassLoader());
+		if (manifest != null)
+		{
+			plugins = manifest.loadClasses(getClass().getClassLoader(), Collections.singletonList(PLUGIN_PACKAGE));
+		}
+		else
+		{
+			ClassPath classPath = ClassPath.from(getClass().getClassLoader());
+
+			plugins = classPath.getTopLevelClassesRecursive(PLUGIN_PACKAGE).stream()
+				.map(ClassInfo::load)
+				.collect(Collectors.toList());
+		}
 
 		loadPlugins(plugins, (loaded, total) ->
 			SplashScreen.stage(.60, .70, null, "Loading plugins", loaded, total, false));
@@ -295,13 +521,17 @@ public class PluginManager
 
 				try
 				{
-					ClassLoader classLoader = new PluginClassLoader(f, getClass().getClassLoader());
-
-					List<Class<?>> plugins = ClassPath.from(classLoader)
-						.getAllClasses()
-						.stream()
-						.map(ClassInfo::load)
-						.collect(Collectors.toList());
+					PluginClassLoader classLoader = new PluginClassLoader(f, getClass().getClassLoader());
+
+					// only the jar's own manifest, not the client's
+					PluginManifest manifest = PluginManifest.load(classLoader.findResource(PluginManifest.RESOURCE));
+					List<Class<?>> plugins = manifest != null
+						? manifest.loadClasses(classLoader, Collections.emptyList())
+						: ClassPath.from(classLoader)
+							.getAllClasses()
+							.stream()
+							.map(ClassInfo::load)
+							.collect(Collectors.toList());
 
 					loadPlugins(plugins, null);
 				}
@@ -369,8 +599,20 @@ public class PluginManager
 			throw new PluginInstantiationException("Plugin dependency graph contains a cycle!");
 		}
 
+		if (lazyLoading)
+		{
+			return registerLazily(topologicalSort(graph), onPluginLoaded);
+		}
+
+		if (parallelStartUp)
+		{
+			return instantiateConcurrently(graph, onPluginLoaded);
+		}
+
 		List<Class<? extends Plugin>> sortedPlugins = topologicalSort(graph);
 
+		final Map<Class<?>, Long> loadNanos = new HashMap<>();
+		final long start = System.nanoTime();
 		int loaded = 0;
 		List<Plugin> newPlugins = new ArrayList<>();
 		for (Class<? extends Plugin> pluginClazz : sortedPlugins)
@@ -378,9 +620,111 @@ public class PluginManager
 			Plugin plugin;
 			try
 			{
-				plugin = instantiate(this.plugins, (Class<Plugin>) pluginClazz);
+				plugin = instantiate(this.plugins, (Class<Plugin>) pluginClazz, loadNanos);
+				newPlugins.add(plugin);
+				this.plugins.add(plugin);
+			}
+			catch (PluginInstantiationException ex)
+			{
+				log.error("Error instantiating plugin!", ex);
+			}
+
+			loaded++;
+			if (onPluginLoaded != null)
+			{
+				onPluginLoaded.accept(loaded, sortedPlugins.size());
+			}
+		}
+		logTimings("Loaded", loadNanos, System.nanoTime() - start);
+
+		return newPlugins;
+	}
+
+	/**
+	 * Instantiates the plugins of a dependency graph a level at a time, the plugins of a level concurrently, and adds
+	 * them to the plugins. The plugins of a level only depend on plugins of earlier levels, which are added before it
+	 * is instantiated.
+	 *
+	 * @return the instantiated plugins
+	 */
+	public List<Plugin> instantiateConcurrently(Graph<Class<? extends Plugin>> graph, BiConsumer<Integer, Integer> onPluginLoaded)
+	{
+		final Map<Class<?>, Long> loadNanos = new ConcurrentHashMap<>();
+		final long start = System.nanoTime();
+		int loaded = 0;
+		List<Plugin> newPlugins = new ArrayList<>();
+
+		ExecutorService executor = newStartUpExecutor();
+		try
+		{
+			for (List<Class<? extends Plugin>> level : topologicalLevels(graph))
+			{
+				List<Future<Plugin>> futures = new ArrayList<>(level.size());
+				for (Class<? extends Plugin> pluginClazz : level)
+				{
+					futures.add(executor.submit(() -> instantiate(this.plugins, (Class<Plugin>) pluginClazz, loadNanos)));
+				}
+
+				for (Future<Plugin> future : futures)
+				{
+					try
+					{
+						Plugin plugin = future.get();
+						newPlugins.add(plugin);
+						this.plugins.add(plugin);
+					}
+					catch (ExecutionException ex)
+					{
+						log.error("Error instantiating plugin!", ex.getCause());
+					}
+
+					loaded++;
+					if (onPluginLoaded != null)
+					{
+						onPluginLoaded.accept(loaded, graph.nodes().size());
+					}
+				}
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		logTimings("Loaded", loadNanos, System.nanoTime() - start);
+
+		return newPlugins;
+	}
+
+	/**
+	 * Adds the plugins without creating their injectors, which are created when the plugins are first started or
+	 * {@link #inject(Plugin) injected}. Until then the plugins are not injected, and their configs come from their
+	 * {@link Provides} methods.
+	 *
+	 * @param sortedPlugins the plugin classes, after the classes they depend on
+	 * @return the added plugins
+	 */
+	public List<Plugin> registerLazily(List<Class<? extends Plugin>> sortedPlugins, BiConsumer<Integer, Integer> onPluginLoaded)
+	{
+		final Map<Class<?>, Long> loadNanos = new HashMap<>();
+		final long start = System.nanoTime();
+		int loaded = 0;
+		List<Plugin> newPlugins = new ArrayList<>();
+		for (Class<? extends Plugin> pluginClazz : sortedPlugins)
+		{
+			final long pluginStart = System.nanoTime();
+			try
+			{
+				// fail now rather than when the plugin is enabled
+				getDependencies(this.plugins, (Class<Plugin>) pluginClazz);
+
+				Plugin plugin = construct((Class<Plugin>) pluginClazz);
 				newPlugins.add(plugin);
 				this.plugins.add(plugin);
+				loadNanos.put(pluginClazz, System.nanoTime() - pluginStart);
 			}
 			catch (PluginInstantiationException ex)
 			{
@@ -393,20 +737,95 @@ public class PluginManager
 				onPluginLoaded.accept(loaded, sortedPlugins.size());
 			}
 		}
+		logTimings("Registered", loadNanos, System.nanoTime() - start);
 
 		return newPlugins;
 	}
 
+	/**
+	 * Creates the injector of a plugin added by {@link #registerLazily}, and those of the plugins it depends on.
+	 * Does nothing if the plugin already has its injector.
+	 */
+	public void inject(Plugin plugin) throws PluginInstantiationException
+	{
+		synchronized (plugin)
+		{
+			if (plugin.injector != null)
+			{
+				return;
+			}
+
+			final long start = System.nanoTime();
+			List<Plugin> deps = getDependencies(this.plugins, (Class<Plugin>) plugin.getClass());
+			for (Plugin dependency : deps)
+			{
+				inject(dependency);
+			}
+
+			createInjector(plugin, deps);
+			log.debug("Injected plugin {} in {}ms", plugin.getClass().getSimpleName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+	}
+
+	private static ExecutorService newStartUpExecutor()
+	{
+		return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactoryBuilder()
+			.setNameFormat("plugin-startup-%d")
+			.setDaemon(true)
+			.build());
+	}
+
+	private static void logTimings(String action, Map<Class<?>, Long> nanos, long totalNanos)
+	{
+		if (nanos.isEmpty())
+		{
+			return;
+		}
+
+		String slowest = nanos.entrySet().stream()
+			.sorted(Map.Entry.<Class<?>, Long>comparingByValue().reversed())
+			.limit(5)
+			.map(e -> e.getKey().getSimpleName() + " " + TimeUnit.NANOSECONDS.toMillis(e.getValue()) + "ms")
+			.collect(Collectors.joining(", "));
+		log.info("{} {} plugins in {}ms, slowest: {}", action, nanos.size(), TimeUnit.NANOSECONDS.toMillis(totalNanos), slowest);
+	}
+
 	public boolean startPlugin(Plugin plugin) throws PluginInstantiationException
 	{
 		// plugins always start in the EDT
 		assert SwingUtilities.isEventDispatchThread();
 
+		return startPluginOnCurrentThread(plugin);
+	}
+
+	/**
+	 * Starts the plugin on the current thread, which is the EDT unless {@link #startPlugins()} starts plugins
+	 * concurrently
+	 */
+	private boolean startPluginOnCurrentThread(Plugin plugin) throws PluginInstantiationException
+	{
+		if (!startUpPlugin(plugin))
+		{
+			return false;
+		}
+		registerStartedPlugin(plugin);
+		return true;
+	}
+
+	/**
+	 * Stops the plugin's conflicts and runs its startUp. {@link #startPlugins()} may run this on a worker thread.
+	 *
+	 * @return true if the plugin started, false if it is already active or disabled
+	 */
+	private boolean startUpPlugin(Plugin plugin) throws PluginInstantiationException
+	{
 		if (activePlugins.contains(plugin) || !isPluginEnabled(plugin))
 		{
 			return false;
 		}
 
+		inject(plugin);
+
 		List<Plugin> conflicts = conflictsForPlugin(plugin);
 		for (Plugin conflict : conflicts)
 		{
@@ -425,7 +844,27 @@ public class PluginManager
 		try
 		{
 			plugin.startUp();
+		}
+		catch (ThreadDeath e)
+		{
+			throw e;
+		}
+		catch (Throwable ex)
+		{
+			throw new PluginInstantiationException(ex);
+		}
 
+		return true;
+	}
+
+	/**
+	 * Connects a plugin that ran its startUp to the client: replays the game events it missed, registers it on the
+	 * event bus and schedules it, then announces it with {@link PluginChanged}
+	 */
+	private void registerStartedPlugin(Plugin plugin) throws PluginInstantiationException
+	{
+		try
+		{
 			log.debug("Plugin {} is now running", plugin.getClass().getSimpleName());
 			if (sceneTileManager != null)
 			{
@@ -448,8 +887,6 @@ public class PluginManager
 		{
 			throw new PluginInstantiationException(ex);
 		}
-
-		return true;
 	}
 
 	public boolean stopPlugin(Plugin plugin) throws PluginInstantiationException
@@ -521,7 +958,20 @@ public class PluginManager
 		return value != null ? Boolean.parseBoolean(value) : pluginDescriptor.enabledByDefault();
 	}
 
-	private Plugin instantiate(List<Plugin> scannedPlugins, Class<Plugin> clazz) throws PluginInstantiationException
+	private Plugin instantiate(List<Plugin> scannedPlugins, Class<Plugin> clazz, Map<Class<?>, Long> loadNanos) throws PluginInstantiationException
+	{
+		final long start = System.nanoTime();
+		List<Plugin> deps = getDependencies(scannedPlugins, clazz);
+		Plugin plugin = construct(clazz);
+		createInjector(plugin, deps);
+
+		final long elapsed = System.nanoTime() - start;
+		loadNanos.put(clazz, elapsed);
+		log.debug("Loaded plugin {} in {}ms", clazz.getSimpleName(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+		return plugin;
+	}
+
+	private static List<Plugin> getDependencies(List<Plugin> scannedPlugins, Class<Plugin> clazz) throws PluginInstantiationException
 	{
 		PluginDependency[] pluginDependencies = clazz.getAnnotationsByType(PluginDependency.class);
 		List<Plugin> deps = new ArrayList<>();
@@ -534,11 +984,14 @@ public class PluginManager
 			}
 			deps.add(dependency.get());
 		}
+		return deps;
+	}
 
-		Plugin plugin;
+	private static Plugin construct(Class<Plugin> clazz) throws PluginInstantiationException
+	{
 		try
 		{
-			plugin = clazz.getDeclaredConstructor().newInstance();
+			return clazz.getDeclaredConstructor().newInstance();
 		}
 		catch (ThreadDeath e)
 		{
@@ -548,7 +1001,11 @@ public class PluginManager
 		{
 			throw new PluginInstantiationException(ex);
 		}
+	}
 
+	private static void createInjector(Plugin plugin, List<Plugin> deps) throws PluginInstantiationException
+	{
+		final Class<Plugin> clazz = (Class<Plugin>) plugin.getClass();
 		try
 		{
 			Injector parent = Microbot.getInjector();
@@ -590,9 +1047,6 @@ public class PluginManager
 		{
 			throw new PluginInstantiationException(ex);
 		}
-
-		log.debug("Loaded plugin {}", clazz.getSimpleName());
-		return plugin;
 	}
 
 	public void add(Plugin plugin)
@@ -708,6 +1162,38 @@ public class PluginManager
 		return l;
 	}
 
+	/**
+	 * Group the nodes of a graph by their depth in a topological sort. Nodes without predecessors are in the first
+	 * level, and every other node is one level after its deepest predecessor, so no node depends on a node of its
+	 * own level or a later one.
+	 *
+	 * @param graph - A directed acyclic graph
+	 * @param <T>   - The type of the item contained in the nodes of the graph
+	 * @return - The levels of the graph, in order.
+	 */
+	@VisibleForTesting
+	static <T> List<List<T>> topologicalLevels(Graph<T> graph)
+	{
+		Map<T, Integer> depths = new HashMap<>();
+		List<List<T>> levels = new ArrayList<>();
+		for (T node : topologicalSort(graph))
+		{
+			int depth = 0;
+			for (T predecessor : graph.predecessors(node))
+			{
+				depth = Math.max(depth, depths.get(predecessor) + 1);
+			}
+			depths.put(node, depth);
+
+			if (depth == levels.size())
+			{
+				levels.add(new ArrayList<>());
+			}
+			levels.get(depth).add(node);
+		}
+		return levels;
+	}
+
 	public List<Plugin> conflictsForPlugin(Plugin plugin)
 	{
 		Set<String> conflicts;
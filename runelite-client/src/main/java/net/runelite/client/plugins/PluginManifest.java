@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins;
+
+import com.google.common.base.Splitter;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The plugins of a jar, listed at build time by the build-plugin-manifest goal of runelite-maven-plugin. Finding
+ * plugins through the manifest only loads the plugin classes, instead of scanning the classpath and loading every
+ * class in the plugin packages.
+ * <p>
+ * The manifest has a line for each plugin class with tab separated columns: class name, plugin name, config name,
+ * load in safe mode, and the comma separated class names of its {@link PluginDependency} annotations.
+ */
+@Slf4j
+public final class PluginManifest
+{
+	public static final String RESOURCE = "META-INF/runelite/plugins.manifest";
+
+	private static final Splitter TAB = Splitter.on('\t');
+	private static final Splitter COMMA = Splitter.on(',').omitEmptyStrings();
+
+	@Getter
+	private final List<Entry> plugins;
+
+	private PluginManifest(List<Entry> plugins)
+	{
+		this.plugins = Collections.unmodifiableList(plugins);
+	}
+
+	/**
+	 * Classes run from a directory rather than a jar, such as from an IDE, may have been compiled after the manifest
+	 * was written, so their manifest is not used.
+	 *
+	 * @return the manifest built into the client jar, or null if there is none
+	 */
+	@Nullable
+	public static PluginManifest load(ClassLoader classLoader)
+	{
+		URL url = classLoader.getResource(RESOURCE);
+		if (url != null && "file".equals(url.getProtocol()))
+		{
+			return null;
+		}
+		return load(url);
+	}
+
+	/**
+	 * @return the manifest at the url, or null if the url is null or the manifest can't be read
+	 */
+	@Nullable
+	public static PluginManifest load(@Nullable URL url)
+	{
+		if (url == null)
+		{
+			return null;
+		}
+
+		try (InputStream in = url.openStream())
+		{
+			return read(in);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to read plugin manifest {}", url, ex);
+			return null;
+		}
+	}
+
+	static PluginManifest read(InputStream in) throws IOException
+	{
+		List<Entry> plugins = new ArrayList<>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null)
+		{
+			if (line.isEmpty() || line.startsWith("#"))
+			{
+				continue;
+			}
+
+			List<String> columns = TAB.splitToList(line);
+			if (columns.size() < 5)
+			{
+				throw new IOException("malformed plugin manifest line: " + line);
+			}
+
+			plugins.add(new Entry(
+				columns.get(0),
+				columns.get(1),
+				columns.get(2),
+				Boolean.parseBoolean(columns.get(3)),
+				COMMA.splitToList(columns.get(4))
+			));
+		}
+		return new PluginManifest(plugins);
+	}
+
+	/**
+	 * Loads the plugin classes of the manifest in the packages, or all of them if no packages are given. Classes
+	 * that no longer exist are skipped.
+	 */
+	public List<Class<?>> loadClasses(ClassLoader classLoader, Collection<String> packages)
+	{
+		List<Class<?>> classes = new ArrayList<>(plugins.size());
+		for (Entry entry : plugins)
+		{
+			if (!packages.isEmpty() && packages.stream().noneMatch(p -> entry.getClassName().startsWith(p + ".")))
+			{
+				continue;
+			}
+
+			try
+			{
+				classes.add(classLoader.loadClass(entry.getClassName()));
+			}
+			catch (ClassNotFoundException ex)
+			{
+				log.warn("plugin {} in the manifest does not exist", entry.getClassName());
+			}
+		}
+		return classes;
+	}
+
+	@Value
+	public static class Entry
+	{
+		String className;
+		String name;
+		String configName;
+		boolean loadInSafeMode;
+		List<String> dependencies;
+	}
+}
@@ -10,6 +10,7 @@ public interface MicrobotConfig extends Config
 {
 	String configGroup = "microbot";
 	String keyLogType = "logType";
+	String keyLogClientThreadWaits = "logClientThreadWaits";
 
 	@ConfigSection(
 		name = "General",
@@ -28,4 +29,15 @@ public interface MicrobotConfig extends Config
 	default LogType getLogType() {
 		return LogType.SIMPLE;
 	}
+
+	@ConfigItem(
+		keyName = keyLogClientThreadWaits,
+		name = "Log Client Thread Waits",
+		description = "Every minute, log how long each script waited on the client thread",
+		position = 2,
+		section = generalSection
+	)
+	default boolean logClientThreadWaits() {
+		return false;
+	}
 }
@@ -6,18 +6,28 @@ import java.awt.image.BufferedImage;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.gameval.InventoryID;
 import net.runelite.api.*;
 import net.runelite.api.events.*;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.game.ItemStack;
 import net.runelite.client.events.ClientShutdown;
 import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.events.NpcLootReceived;
 import net.runelite.client.events.OverlayMenuClicked;
+import net.runelite.client.events.PlayerLootReceived;
 import net.runelite.client.events.RuneScapeProfileChanged;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
@@ -25,15 +35,19 @@ import net.runelite.client.plugins.microbot.qualityoflife.scripts.pouch.PouchOve
 import net.runelite.client.plugins.microbot.ui.MicrobotPluginConfigurationDescriptor;
 import net.runelite.client.plugins.microbot.ui.MicrobotPluginListPanel;
 import net.runelite.client.plugins.microbot.ui.MicrobotTopLevelConfigPanel;
+import net.runelite.client.plugins.microbot.util.StateSignal;
 import net.runelite.client.plugins.microbot.util.bank.Rs2Bank;
 import net.runelite.client.plugins.microbot.util.equipment.Rs2Equipment;
+import net.runelite.client.plugins.microbot.util.history.EventHistory;
 import net.runelite.client.plugins.microbot.util.inventory.Rs2Gembag;
 import net.runelite.client.plugins.microbot.util.inventory.Rs2Inventory;
 import net.runelite.client.plugins.microbot.util.inventory.Rs2RunePouch;
 import net.runelite.client.plugins.microbot.util.overlay.GembagOverlay;
 import net.runelite.client.plugins.microbot.util.player.Rs2Player;
 import net.runelite.client.plugins.microbot.util.reflection.Rs2Reflection;
+import net.runelite.client.plugins.microbot.util.scene.SceneSnapshot;
 import net.runelite.client.plugins.microbot.util.shop.Rs2Shop;
+import net.runelite.client.plugins.microbot.util.widget.WidgetIndex;
 import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.ui.overlay.Overlay;
@@ -56,7 +70,8 @@ import org.slf4j.LoggerFactory;
 	tags = {"main", "microbot", "parent"},
 	alwaysOn = true,
 	hidden = true,
-	priority = true
+	priority = true,
+	startOnEdt = true
 )
 @Slf4j
 public class MicrobotPlugin extends Plugin
@@ -77,6 +92,12 @@ public class MicrobotPlugin extends Plugin
 	@Inject
 	private MicrobotConfig microbotConfig;
 
+	@Inject
+	private ClientThread clientThread;
+
+	@Inject
+	private ScheduledExecutorService executorService;
+
 	private MicrobotTopLevelConfigPanel topLevelConfigPanel;
 
 	private NavigationButton navButton;
@@ -97,6 +118,7 @@ public class MicrobotPlugin extends Plugin
 	@Inject
 	private PouchOverlay pouchOverlay;
 	private GameChatAppender gameChatAppender;
+	private ScheduledFuture<?> clientThreadWaitsFuture;
 
 	@Override
 	protected void startUp() throws AWTException
@@ -112,6 +134,7 @@ public class MicrobotPlugin extends Plugin
 		if (microbotConfig.getLogType() != LogType.DISABLED) gameChatAppender.start();
 
 		Microbot.pauseAllScripts.set(false);
+		EventHistory.setAccount(configManager.getRSProfileKey());
 
 		MicrobotPluginListPanel pluginListPanel = pluginListPanelProvider.get();
 		pluginListPanel.addFakePlugin(new MicrobotPluginConfigurationDescriptor(
@@ -144,6 +167,9 @@ public class MicrobotPlugin extends Plugin
 			overlayManager.add(gembagOverlay);
 			overlayManager.add(pouchOverlay);
 		}
+
+		clientThread.setRecordingCallerStats(microbotConfig.logClientThreadWaits());
+		clientThreadWaitsFuture = executorService.scheduleWithFixedDelay(this::logClientThreadWaits, 1, 1, TimeUnit.MINUTES);
 	}
 
 	protected void shutDown()
@@ -153,6 +179,28 @@ public class MicrobotPlugin extends Plugin
 		overlayManager.remove(pouchOverlay);
 		clientToolbar.removeNavigation(navButton);
 		if (gameChatAppender.isStarted()) gameChatAppender.stop();
+		clientThreadWaitsFuture.cancel(false);
+		clientThread.setRecordingCallerStats(false);
+	}
+
+	private void logClientThreadWaits()
+	{
+		if (!microbotConfig.logClientThreadWaits())
+		{
+			return;
+		}
+
+		final Map<String, ClientThread.CallerStats> stats = clientThread.getCallerStats();
+		clientThread.resetCallerStats();
+		if (stats.isEmpty())
+		{
+			return;
+		}
+
+		log.info("Client thread waits in the last minute, {} callers waiting now:", clientThread.getWaitingCallerCount());
+		stats.values().stream()
+			.sorted(Comparator.comparingLong((ClientThread.CallerStats s) -> s.getTotalWait(TimeUnit.NANOSECONDS)).reversed())
+			.forEach(s -> log.info("  {}", s));
 	}
 
 
@@ -160,6 +208,29 @@ public class MicrobotPlugin extends Plugin
 	public void onStatChanged(StatChanged statChanged)
 	{
 		Microbot.setIsGainingExp(true);
+		EventHistory.recordXp(statChanged.getSkill(), statChanged.getXp());
+	}
+
+	@Subscribe
+	public void onNpcLootReceived(NpcLootReceived event)
+	{
+		recordLoot(event.getNpc().getName(), event.getItems());
+	}
+
+	@Subscribe
+	public void onPlayerLootReceived(PlayerLootReceived event)
+	{
+		recordLoot(event.getPlayer().getName(), event.getItems());
+	}
+
+	private void recordLoot(String source, Collection<ItemStack> items)
+	{
+		for (ItemStack item : items)
+		{
+			final ItemComposition composition = Microbot.getItemManager().getItemComposition(item.getId());
+			final long value = (long) Microbot.getItemManager().getItemPrice(item.getId()) * item.getQuantity();
+			EventHistory.recordLoot(source, item.getId(), composition.getName(), item.getQuantity(), value);
+		}
 	}
 
 	@Subscribe
@@ -168,11 +239,13 @@ public class MicrobotPlugin extends Plugin
 		// Handle profile changes for bank caching
 		Rs2Bank.setUnknownInitialBankState();
 		Rs2Bank.loadInitialBankStateFromConfig();
+		EventHistory.setAccount(configManager.getRSProfileKey());
 	}
 
 	@Subscribe
 	public void onItemContainerChanged(ItemContainerChanged event)
 	{
+		StateSignal.markChanged();
 		Microbot.getPouchScript().onItemContainerChanged(event);
 		if (event.getContainerId() == InventoryID.BANK)
 		{
@@ -246,6 +319,10 @@ public class MicrobotPlugin extends Plugin
 			// Load bank state from config when logging in
 			Rs2Bank.loadInitialBankStateFromConfig();
 		}
+		if (gameStateChanged.getGameState() != GameState.LOGGED_IN)
+		{
+			SceneSnapshot.invalidate();
+		}
 		if (gameStateChanged.getGameState() == GameState.HOPPING || gameStateChanged.getGameState() == GameState.LOGIN_SCREEN || gameStateChanged.getGameState() == GameState.CONNECTION_LOST)
 		{
 			// Clear bank state when logging out
@@ -257,6 +334,7 @@ public class MicrobotPlugin extends Plugin
 	@Subscribe
 	public void onVarbitChanged(VarbitChanged event)
 	{
+		StateSignal.markChanged();
 		Rs2Player.handlePotionTimers(event);
 		Rs2Player.handleTeleblockTimer(event);
 		Rs2RunePouch.onVarbitChanged(event);
@@ -265,6 +343,7 @@ public class MicrobotPlugin extends Plugin
 	@Subscribe
 	public void onAnimationChanged(AnimationChanged event)
 	{
+		StateSignal.markChanged();
 		Rs2Player.handleAnimationChanged(event);
 	}
 
@@ -331,6 +410,10 @@ public class MicrobotPlugin extends Plugin
 	public void onConfigChanged(ConfigChanged ev)
 	{
 		if (ev.getGroup().equals(MicrobotConfig.configGroup)) {
+			if (ev.getKey().equals(MicrobotConfig.keyLogClientThreadWaits)) {
+				clientThread.setRecordingCallerStats(microbotConfig.logClientThreadWaits());
+				return;
+			}
 			if (!ev.getKey().equals(MicrobotConfig.keyLogType)) return;
 
 			final boolean shouldBeStarted = microbotConfig.getLogType() != LogType.DISABLED;
@@ -357,9 +440,16 @@ public class MicrobotPlugin extends Plugin
 	@Subscribe
 	public void onWidgetLoaded(WidgetLoaded event)
 	{
+		WidgetIndex.onWidgetLoaded(event.getGroupId());
 		Rs2RunePouch.onWidgetLoaded(event);
 	}
 
+	@Subscribe
+	public void onWidgetClosed(WidgetClosed event)
+	{
+		WidgetIndex.onWidgetClosed(event.getGroupId());
+	}
+
 	@Subscribe
 	public void onHitsplatApplied(HitsplatApplied event)
 	{
@@ -416,12 +506,16 @@ public class MicrobotPlugin extends Plugin
 	@Subscribe
 	public void onGameTick(GameTick event)
 	{
+		StateSignal.markChanged();
+		WidgetIndex.onGameTick();
 		Rs2Bank.loadInitialBankStateFromConfig();
+		SceneSnapshot.onGameTick();
 	}
 
 	@Subscribe(priority = 100)
 	private void onClientShutdown(ClientShutdown e)
 	{
 		Rs2Bank.saveBankToConfig();
+		e.waitFor(EventHistory.flush());
 	}
 }
@@ -0,0 +1,334 @@
+package net.runelite.client.plugins.microbot;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The tasks of one script, run on the threads shared through {@link ScriptRuntime}.
+ * <p>
+ * Behaves like a {@link java.util.concurrent.ScheduledThreadPoolExecutor} with default policies: cancelling a task
+ * with interruption interrupts the thread running it, a periodic task stops at its first exception, and
+ * {@link #shutdown()} cancels periodic tasks while letting delayed ones run. Shutting down only affects this
+ * script's tasks.
+ * <p>
+ * Keeps count of the tasks and the time spent running them, including CPU time where the JVM measures it.
+ */
+public final class ScriptExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+    @Getter
+    private final String name;
+    private final ScheduledExecutorService timer;
+    private final Executor workers;
+    private final Set<Task<?>> tasks = ConcurrentHashMap.newKeySet();
+    private final CompletableFuture<Void> terminated = new CompletableFuture<>();
+    private volatile boolean shutdown;
+
+    private final AtomicInteger runningTasks = new AtomicInteger();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+
+    ScriptExecutor(String name, ScheduledExecutorService timer, Executor workers) {
+        this.name = name;
+        this.timer = timer;
+        this.workers = workers;
+    }
+
+    /**
+     * @return the number of scheduled tasks that have not completed
+     */
+    public int getTaskCount() {
+        return tasks.size();
+    }
+
+    /**
+     * @return the number of tasks running right now, which is the number of threads this script is using
+     */
+    public int getRunningTaskCount() {
+        return runningTasks.get();
+    }
+
+    /**
+     * @return the number of times a task ran
+     */
+    public long getRunCount() {
+        return runs.sum();
+    }
+
+    /**
+     * @return the wall-clock time spent running tasks, including time spent sleeping
+     */
+    public long getRunTime(TimeUnit unit) {
+        return unit.convert(runNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the CPU time spent running tasks, or 0 if the JVM doesn't measure thread CPU time
+     */
+    public long getCpuTime(TimeUnit unit) {
+        return unit.convert(cpuNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return schedule(Executors.callable(command), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        if (callable == null || unit == null) throw new NullPointerException();
+        return start(new Task<>(callable, 0), delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        if (command == null || unit == null) throw new NullPointerException();
+        if (period <= 0) throw new IllegalArgumentException();
+        return start(new Task<>(Executors.callable(command), unit.toNanos(period)), initialDelay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        if (command == null || unit == null) throw new NullPointerException();
+        if (delay <= 0) throw new IllegalArgumentException();
+        return start(new Task<>(Executors.callable(command), -unit.toNanos(delay)), initialDelay, unit);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        schedule(command, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        for (Task<?> task : tasks) {
+            if (task.isPeriodic()) {
+                task.cancel(false);
+            }
+        }
+        tryTerminate();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> pending = new ArrayList<>();
+        for (Task<?> task : tasks) {
+            if (!task.isRunning()) {
+                pending.add(task);
+            }
+            task.cancel(true);
+        }
+        tryTerminate();
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.isDone();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            terminated.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptExecutor[" + name + ", tasks=" + tasks.size() + ", running=" + runningTasks.get() + "]";
+    }
+
+    private <V> Task<V> start(Task<V> task, long delay, TimeUnit unit) {
+        if (shutdown) {
+            throw new RejectedExecutionException(name + " has been shut down");
+        }
+        tasks.add(task);
+        task.trigger(System.nanoTime() + unit.toNanos(Math.max(delay, 0)));
+        return task;
+    }
+
+    private void tryTerminate() {
+        if (shutdown && tasks.isEmpty()) {
+            terminated.complete(null);
+        }
+    }
+
+    private final class Task<V> implements ScheduledFuture<V>, Runnable {
+        private final Callable<V> callable;
+        // 0 to run once, > 0 for a fixed rate, < 0 for a fixed delay
+        private final long period;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile long time;
+        private volatile ScheduledFuture<?> trigger;
+        // Guarded by this
+        private Thread runner;
+
+        private Task(Callable<V> callable, long period) {
+            this.callable = callable;
+            this.period = period;
+        }
+
+        boolean isPeriodic() {
+            return period != 0;
+        }
+
+        synchronized boolean isRunning() {
+            return runner != null;
+        }
+
+        void trigger(long time) {
+            this.time = time;
+            try {
+                trigger = timer.schedule(() -> workers.execute(this), time - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+                remove();
+                throw e;
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (result.isDone()) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+
+            final Thread thread = Thread.currentThread();
+            final String threadName = thread.getName();
+            thread.setName(threadName + "-" + name);
+            ScriptRuntime.setCurrentScript(name);
+            runningTasks.incrementAndGet();
+            final long start = System.nanoTime();
+            final long cpuStart = ScriptRuntime.currentThreadCpuTime();
+            try {
+                V value = callable.call();
+                if (!isPeriodic()) {
+                    result.complete(value);
+                }
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                final long cpuEnd = ScriptRuntime.currentThreadCpuTime();
+                if (cpuStart >= 0 && cpuEnd >= 0) {
+                    cpuNanos.add(cpuEnd - cpuStart);
+                }
+                runNanos.add(System.nanoTime() - start);
+                runs.increment();
+                runningTasks.decrementAndGet();
+                thread.setName(threadName);
+                ScriptRuntime.setCurrentScript(null);
+                synchronized (this) {
+                    runner = null;
+                }
+                // Drop an interrupt meant for this task, the thread goes on to run other scripts' tasks
+                Thread.interrupted();
+            }
+
+            if (!result.isDone()) {
+                if (shutdown) {
+                    result.cancel(false);
+                } else {
+                    try {
+                        trigger(period > 0 ? time + period : System.nanoTime() - period);
+                        return;
+                    } catch (RejectedExecutionException e) {
+                        // The runtime is shutting down with the client
+                    }
+                }
+            }
+            remove();
+        }
+
+        private void remove() {
+            tasks.remove(this);
+            tryTerminate();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final boolean cancelled = result.cancel(false);
+            final ScheduledFuture<?> pending = trigger;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+
+            synchronized (this) {
+                if (runner != null) {
+                    if (cancelled && mayInterruptIfRunning) {
+                        runner.interrupt();
+                    }
+                    // Removed once it stops running
+                    return cancelled;
+                }
+            }
+            remove();
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return result.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return result.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            return result.get();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return result.get(timeout, unit);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
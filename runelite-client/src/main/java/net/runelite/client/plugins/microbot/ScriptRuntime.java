@@ -0,0 +1,163 @@
+package net.runelite.client.plugins.microbot;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads shared by all scripts.
+ * <p>
+ * Each script used to own a pool of ten scheduler threads, most of them idle. Scripts now get a
+ * {@link ScriptExecutor}, which keeps track of the script's own tasks but runs them on the threads of this runtime:
+ * one timer thread that only triggers due tasks, and worker threads that are created while tasks run and exit
+ * after a minute without work. A client therefore holds about as many script threads as it has tasks running at
+ * the same time, which is usually one per active script.
+ * <p>
+ * There are at most {@link #MAX_WORKERS} worker threads. Tasks that come due while all of them are busy, e.g.
+ * because scripts are stuck in loops that never return, wait on the timer for a worker to free up instead of
+ * adding threads.
+ */
+@Slf4j
+public final class ScriptRuntime {
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 60;
+    private static final int MAX_WORKERS = 64;
+    private static final long SATURATED_RETRY_MILLIS = 10;
+    private static final long SATURATED_LOG_INTERVAL_MILLIS = 60_000;
+
+    private static final ScheduledThreadPoolExecutor timer;
+    private static final ThreadPoolExecutor workers;
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private static final boolean cpuTimeSupported;
+    // Executors are unregistered when collected, scripts don't always shut theirs down
+    private static final Set<ScriptExecutor> executors = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final ThreadLocal<String> currentScript = new ThreadLocal<>();
+    private static volatile long lastSaturatedLog;
+
+    static {
+        timer = new ScheduledThreadPoolExecutor(1, daemonThreads("Microbot-Script-Timer"));
+        timer.setRemoveOnCancelPolicy(true);
+
+        workers = newWorkers(MAX_WORKERS, timer, daemonThreads("Microbot-Script"));
+
+        boolean supported = false;
+        try {
+            supported = threadMXBean.isCurrentThreadCpuTimeSupported();
+            if (supported && !threadMXBean.isThreadCpuTimeEnabled()) {
+                threadMXBean.setThreadCpuTimeEnabled(true);
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            log.debug("Thread CPU time is not available", e);
+            supported = false;
+        }
+        cpuTimeSupported = supported;
+    }
+
+    private ScriptRuntime() {
+    }
+
+    /**
+     * @param name the name of the script, used for its task threads and accounting
+     * @return a new executor for the tasks of one script
+     */
+    public static ScriptExecutor newExecutor(String name) {
+        ScriptExecutor executor = new ScriptExecutor(name, timer, workers);
+        executors.add(executor);
+        return executor;
+    }
+
+    /**
+     * @return the executors that have not been shut down
+     */
+    public static List<ScriptExecutor> getExecutors() {
+        List<ScriptExecutor> result;
+        synchronized (executors) {
+            result = new ArrayList<>(executors);
+        }
+        result.removeIf(ScriptExecutor::isShutdown);
+        return result;
+    }
+
+    /**
+     * @return the number of worker threads, idle or not
+     */
+    public static int getWorkerCount() {
+        return workers.getPoolSize();
+    }
+
+    /**
+     * @return the number of worker threads running a task
+     */
+    public static int getActiveWorkerCount() {
+        return workers.getActiveCount();
+    }
+
+    /**
+     * @return the name of the script whose task the current thread is running, or null if it isn't running one
+     */
+    public static String getCurrentScript() {
+        return currentScript.get();
+    }
+
+    static void setCurrentScript(String name) {
+        if (name == null) {
+            currentScript.remove();
+        } else {
+            currentScript.set(name);
+        }
+    }
+
+    /**
+     * @return the CPU time of the current thread in nanoseconds, or -1 if not supported
+     */
+    static long currentThreadCpuTime() {
+        return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * @return a pool of at most maxWorkers threads, handing tasks that find every thread busy back to the timer
+     */
+    static ThreadPoolExecutor newWorkers(int maxWorkers, ScheduledExecutorService timer, ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(0, maxWorkers, WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory, (task, pool) -> retryWhenSaturated(task, pool, timer));
+    }
+
+    /**
+     * Hands a task that found every worker busy back to the timer, which tries again shortly. Runs on the timer thread.
+     */
+    private static void retryWhenSaturated(Runnable task, ThreadPoolExecutor pool, ScheduledExecutorService timer) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("The script runtime has been shut down");
+        }
+
+        final long now = System.currentTimeMillis();
+        if (now - lastSaturatedLog > SATURATED_LOG_INTERVAL_MILLIS) {
+            lastSaturatedLog = now;
+            log.warn("All {} script threads are busy, tasks are waiting for one to free up. Running: {}",
+                    pool.getMaximumPoolSize(), getExecutors());
+        }
+        timer.schedule(() -> pool.execute(task), SATURATED_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -26,7 +26,8 @@ import java.util.List;
         name = "Discord Notifier",
         description = "Sends notifications to Discord",
         tags = {"discord", "notification", "messages"},
-        enabledByDefault = true
+        enabledByDefault = true,
+        startOnEdt = true
 )
 @Slf4j
 public class DiscordPlugin extends Plugin {
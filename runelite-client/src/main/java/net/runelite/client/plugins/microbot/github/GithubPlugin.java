@@ -17,7 +17,8 @@ import java.awt.image.BufferedImage;
         description = "Allows to download plugins from a github and sideload them",
         tags = {"github", "microbot"},
         enabledByDefault = false,
-        hidden = false
+        hidden = false,
+        startOnEdt = true
 )
 @Slf4j
 public class GithubPlugin extends Plugin {
@@ -100,7 +100,8 @@ import static net.runelite.client.plugins.microbot.util.bank.Rs2Bank.isLockedSlo
 		name = PluginDescriptor.Mocrosoft + "MInventory Setups",
 		description = "Save gear setups for specific activities",
 		enabledByDefault = true,
-		alwaysOn = true
+		alwaysOn = true,
+		startOnEdt = true
 )
 @PluginDependency(BankTagsPlugin.class)
 @Slf4j
@@ -57,7 +57,8 @@ import java.util.regex.Pattern;
         name = PluginDescriptor.GZ + "ShootingStar",
         description = "Finds & Travels to shooting stars",
         tags = {"mining", "microbot", "skilling", "star", "shooting"},
-        enabledByDefault = false
+        enabledByDefault = false,
+        startOnEdt = true
 )
 public class ShootingStarPlugin extends Plugin {
     @Getter
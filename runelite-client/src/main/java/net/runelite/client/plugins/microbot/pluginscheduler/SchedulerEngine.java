@@ -0,0 +1,238 @@
+package net.runelite.client.plugins.microbot.pluginscheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.plugins.microbot.pluginscheduler.condition.ConditionManager;
+import net.runelite.client.plugins.microbot.pluginscheduler.condition.time.DayOfWeekCondition;
+import net.runelite.client.plugins.microbot.pluginscheduler.condition.time.IntervalCondition;
+import net.runelite.client.plugins.microbot.pluginscheduler.condition.time.TimeCondition;
+import net.runelite.client.plugins.microbot.pluginscheduler.condition.time.TimeWindowCondition;
+import net.runelite.client.plugins.microbot.pluginscheduler.model.PluginScheduleEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the scheduling loop of the {@link SchedulerPlugin} on its own thread, so scheduling decisions don't wait on
+ * the Swing event dispatch thread and a slow schedule check doesn't stall the UI.
+ * <p>
+ * The loop runs once a second. In between, the next trigger times of the time window, interval and day of week
+ * conditions of the schedule are kept in a {@link TimerWheel}, and the loop runs as soon as one of them is due
+ * instead of on the next second. {@link #wakeUp()} runs it right away, for state changes made from other threads.
+ * Changes to the state requested from the UI are queued with {@link #execute(Runnable)}, so they run in between passes.
+ */
+@Slf4j
+final class SchedulerEngine {
+    private static final long TICK_MILLIS = 1000;
+    private static final long WHEEL_SLOT_MILLIS = 250;
+    private static final int WHEEL_SLOTS = 240;
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final Runnable cycle;
+    private final SchedulerPlugin plugin;
+    private final TimerWheel wheel = new TimerWheel(WHEEL_SLOT_MILLIS, WHEEL_SLOTS);
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+
+    private ScheduledExecutorService executor;
+    private volatile Thread thread;
+
+    /**
+     * @param plugin the scheduler whose entries are watched for trigger times
+     * @param cycle  one pass of the scheduling loop
+     */
+    SchedulerEngine(SchedulerPlugin plugin, Runnable cycle) {
+        this.plugin = plugin;
+        this.cycle = cycle;
+    }
+
+    synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Scheduler-Engine");
+            t.setDaemon(true);
+            thread = t;
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::tick, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        executor.scheduleAtFixedRate(this::advanceWheel, WHEEL_SLOT_MILLIS, WHEEL_SLOT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    void stop() {
+        final ScheduledExecutorService stopped;
+        final boolean engineThread;
+        synchronized (this) {
+            if (executor == null) {
+                return;
+            }
+            stopped = executor;
+            engineThread = isEngineThread();
+            executor = null;
+            thread = null;
+            wakeUpQueued.set(false);
+        }
+        stopped.shutdownNow();
+
+        // Let a pass in progress finish, so the state isn't changed from two threads while the plugin shuts down
+        if (!engineThread) {
+            try {
+                if (!stopped.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    log.warn("Scheduler loop did not stop within {}ms", STOP_TIMEOUT_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queues an action to run on the engine thread after the pass in progress, so changes to the scheduler state
+     * made from the UI don't race the scheduling loop
+     *
+     * @return false if the engine is stopped and the action was not queued
+     */
+    synchronized boolean execute(Runnable action) {
+        if (executor == null) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.error("Error in scheduler action", e);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Runs the scheduling loop as soon as possible. Calls made before it runs are coalesced into one pass.
+     */
+    synchronized void wakeUp() {
+        if (executor != null && wakeUpQueued.compareAndSet(false, true)) {
+            executor.execute(this::tick);
+        }
+    }
+
+    /**
+     * @return whether the current thread is the one running the scheduling loop
+     */
+    boolean isEngineThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    private void tick() {
+        wakeUpQueued.set(false);
+        try {
+            cycle.run();
+            rearm();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task, the next pass may well succeed
+            log.error("Error in scheduler loop", e);
+        }
+    }
+
+    private void advanceWheel() {
+        if (wheel.advance(System.currentTimeMillis())) {
+            tick();
+        }
+    }
+
+    /**
+     * Replaces the timers with the next trigger times of the enabled start conditions and the stop conditions of
+     * the running plugin
+     */
+    private void rearm() {
+        final long now = System.currentTimeMillis();
+        wheel.clear(now);
+        for (PluginScheduleEntry entry : plugin.getScheduledPlugins()) {
+            if (entry.isEnabled()) {
+                schedule(entry.getStartConditionManager(), now);
+            }
+        }
+        final PluginScheduleEntry current = plugin.getCurrentPlugin();
+        if (current != null) {
+            schedule(current.getStopConditionManager(), now);
+        }
+    }
+
+    private void schedule(ConditionManager manager, long now) {
+        for (TimeCondition condition : manager.getAllTimeConditions()) {
+            if (condition instanceof TimeWindowCondition
+                    || condition instanceof IntervalCondition
+                    || condition instanceof DayOfWeekCondition) {
+                condition.getCurrentTriggerTime()
+                        .map(time -> time.toInstant().toEpochMilli())
+                        .filter(time -> time > now)
+                        .ifPresent(wheel::schedule);
+            }
+        }
+    }
+
+    /**
+     * Hashed timer wheel: deadlines go to the slot of their time modulo the number of slots, so scheduling is
+     * constant time and advancing only looks at the slots passed since the last advance. Deadlines further away
+     * than one turn stay in their slot until a turn in which they are due.
+     * <p>
+     * Only used on the engine thread.
+     */
+    static final class TimerWheel {
+        private final long slotMillis;
+        private final List<List<Long>> slots;
+        private int cursor;
+        // Start of the slot under the cursor
+        private long cursorTime;
+
+        TimerWheel(long slotMillis, int slotCount) {
+            this.slotMillis = slotMillis;
+            this.slots = new ArrayList<>(slotCount);
+            for (int i = 0; i < slotCount; i++) {
+                slots.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * Removes all deadlines and moves the wheel to the given time
+         */
+        void clear(long now) {
+            for (List<Long> slot : slots) {
+                slot.clear();
+            }
+            cursorTime = now - now % slotMillis;
+        }
+
+        void schedule(long deadline) {
+            final long ahead = Math.max(0, (deadline - cursorTime) / slotMillis);
+            slots.get((int) ((cursor + ahead) % slots.size())).add(deadline);
+        }
+
+        /**
+         * Moves the wheel to the given time, removing the deadlines that passed
+         *
+         * @return whether a deadline passed
+         */
+        boolean advance(long now) {
+            boolean due = false;
+            for (int visited = 1; ; visited++) {
+                due |= slots.get(cursor).removeIf(deadline -> deadline <= now);
+                if (now < cursorTime + slotMillis || visited == slots.size()) {
+                    break;
+                }
+                cursor = (cursor + 1) % slots.size();
+                cursorTime += slotMillis;
+            }
+
+            // After a full turn every slot was looked at, skip ahead to the current time
+            final long behind = (now - cursorTime) / slotMillis;
+            if (behind > 0) {
+                cursor = (int) ((cursor + behind) % slots.size());
+                cursorTime += behind * slotMillis;
+            }
+            return due;
+        }
+    }
+}
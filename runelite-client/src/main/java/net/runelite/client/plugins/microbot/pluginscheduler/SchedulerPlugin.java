@@ -20,9 +20,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -70,6 +70,7 @@ import net.runelite.client.plugins.microbot.util.antiban.enums.Activity;
 import net.runelite.client.plugins.microbot.util.antiban.enums.ActivityIntensity;
 import net.runelite.client.plugins.microbot.util.antiban.enums.CombatSkills;
 import net.runelite.client.plugins.microbot.util.events.PluginPauseEvent;
+import net.runelite.client.plugins.microbot.util.history.EventHistory;
 import net.runelite.client.plugins.microbot.util.math.Rs2Random;
 import net.runelite.client.plugins.microbot.util.player.Rs2Player;
 import net.runelite.client.plugins.microbot.util.security.Login;
@@ -81,7 +82,7 @@ import net.runelite.client.util.ImageUtil;
 @Slf4j
 @PluginDescriptor(name = PluginDescriptor.Mocrosoft + PluginDescriptor.VOX
         + "Plugin Scheduler", description = "Schedule plugins at your will", tags = { "microbot", "schedule",
-                "automation" }, enabledByDefault = false,priority = false)
+                "automation" }, enabledByDefault = false,priority = false, startOnEdt = true)
 public class SchedulerPlugin extends Plugin {
     public static final String VERSION = "0.1.0";
     @Inject
@@ -104,25 +105,30 @@ public class SchedulerPlugin extends Plugin {
     @Inject
     private ClientToolbar clientToolbar;
     @Inject
-    private ScheduledExecutorService executorService;
-    @Inject
     private OverlayManager overlayManager;
 
     private NavigationButton navButton;
     private SchedulerPanel panel;
-    private ScheduledFuture<?> updateTask;
+    private volatile SchedulerEngine engine;
     private SchedulerWindow schedulerWindow;
     @Inject
     private SchedulerInfoOverlay overlay;
     @Getter
-    private PluginScheduleEntry currentPlugin;
+    private volatile PluginScheduleEntry currentPlugin;
+    @Getter
+    private volatile PluginScheduleEntry lastPlugin;
+    // Loot and xp history session of the current plugin's run
     @Getter
-    private PluginScheduleEntry lastPlugin;
+    private volatile EventHistory.Session historySession;
     private void setCurrentPlugin(PluginScheduleEntry plugin) {
         // Update last plugin when setting new one
         if (this.currentPlugin != null && plugin != this.currentPlugin) {
             this.lastPlugin = this.currentPlugin;
         }
+        if (plugin != this.currentPlugin) {
+            EventHistory.endSession(historySession);
+            historySession = plugin != null ? EventHistory.startSession(plugin.getCleanName()) : null;
+        }
         this.currentPlugin = plugin;
     }
 
@@ -131,7 +137,7 @@ public class SchedulerPlugin extends Plugin {
      * @return List of PluginScheduleEntry objects
      */
     @Getter
-    private List<PluginScheduleEntry> scheduledPlugins = new ArrayList<>();
+    private volatile List<PluginScheduleEntry> scheduledPlugins = new CopyOnWriteArrayList<>();
 
     // private final Map<String, PluginScheduleEntry> nextPluginCache = new
     // HashMap<>();
@@ -140,9 +146,9 @@ public class SchedulerPlugin extends Plugin {
     private static final int MAX_INIT_CHECKS = 10;
 
     @Getter
-    private SchedulerState currentState = SchedulerState.UNINITIALIZED;
-    private SchedulerState prvState = SchedulerState.UNINITIALIZED;
-    private GameState lastGameState = GameState.UNKNOWN;
+    private volatile SchedulerState currentState = SchedulerState.UNINITIALIZED;
+    private volatile SchedulerState prvState = SchedulerState.UNINITIALIZED;
+    private volatile GameState lastGameState = GameState.UNKNOWN;
 
     // Activity and state tracking
     private final Map<Skill, Integer> skillExp = new EnumMap<>(Skill.class);
@@ -166,6 +172,7 @@ public class SchedulerPlugin extends Plugin {
     // UI update throttling
     private long lastPanelUpdateTime = 0;
     private static final long PANEL_UPDATE_THROTTLE_MS = 500; // Minimum 500ms between panel updates
+    private final AtomicBoolean panelUpdatePending = new AtomicBoolean();
     @Override
     protected void startUp() {
         hasDisabledQoLPlugin=false;
@@ -191,20 +198,19 @@ public class SchedulerPlugin extends Plugin {
         // Check initialization status before fully enabling scheduler
         //checkInitialization();
 
-        // Run the main loop
-        updateTask = executorService.scheduleWithFixedDelay(() -> {
-            SwingUtilities.invokeLater(() -> {
-                // Only run scheduling logic if fully initialized
-                if (currentState.isSchedulerActive()) {
-                    checkSchedule();
-                } else if (currentState == SchedulerState.INITIALIZING
-                        || currentState == SchedulerState.UNINITIALIZED) {
-                    // Retry initialization check if not already checking
-                    checkInitialization();
-                }
-                updatePanels();
-            });
-        }, 0, 1, TimeUnit.SECONDS);
+        // Run the main loop on the scheduler's own thread, the panels are refreshed on the EDT
+        engine = new SchedulerEngine(this, () -> {
+            // Only run scheduling logic if fully initialized
+            if (currentState.isSchedulerActive()) {
+                checkSchedule();
+            } else if (currentState == SchedulerState.INITIALIZING
+                    || currentState == SchedulerState.UNINITIALIZED) {
+                // Retry initialization check if not already checking
+                checkInitialization();
+            }
+            requestPanelUpdate();
+        });
+        engine.start();
     }
 
     /**
@@ -300,6 +306,11 @@ public class SchedulerPlugin extends Plugin {
         saveScheduledPlugins();
         clientToolbar.removeNavigation(navButton);
         overlayManager.remove(overlay);
+        // Stop the loop first, the state is then only changed from here
+        if (engine != null) {
+            engine.stop();
+            engine = null;
+        }
         forceStopCurrentPluginScheduleEntry(true);
         interruptBreak();
         for (PluginScheduleEntry entry : scheduledPlugins) {
@@ -309,10 +320,6 @@ public class SchedulerPlugin extends Plugin {
             this.loginMonitor.interrupt();
             this.loginMonitor = null;
         }
-        if (updateTask != null) {
-            updateTask.cancel(false);
-            updateTask = null;
-        }
 
         if (schedulerWindow != null) {
             schedulerWindow.dispose(); // This will stop the timer
@@ -322,10 +329,51 @@ public class SchedulerPlugin extends Plugin {
         this.lastGameState = GameState.UNKNOWN;
     }
 
+    /**
+     * Runs a change of the scheduler state on the engine thread, in between passes of the scheduling loop. Runs it
+     * right away when already on the engine thread or when the engine is stopped.
+     */
+    private void runOnEngine(Runnable action) {
+        final SchedulerEngine engine = this.engine;
+        if (engine == null || engine.isEngineThread() || !engine.execute(action)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs a change of the scheduler state on the engine thread, then refreshes the panels, so their buttons show
+     * the state the change left, also when it was refused
+     */
+    private void runOnEngineAndUpdatePanels(Runnable action) {
+        runOnEngine(() -> {
+            try {
+                action.run();
+            } finally {
+                SwingUtilities.invokeLater(this::forceUpdatePanels);
+            }
+        });
+    }
+
+    /**
+     * Runs a change of the scheduler state after the pass of the scheduling loop in progress, e.g. to check again
+     * on something that takes a while
+     */
+    private void runOnEngineLater(Runnable action) {
+        final SchedulerEngine engine = this.engine;
+        if (engine == null || !engine.execute(action)) {
+            // Nothing races the state once the engine is stopped
+            SwingUtilities.invokeLater(action);
+        }
+    }
+
     /**
      * Starts the scheduler
      */
     public void startScheduler() {
+        runOnEngineAndUpdatePanels(this::startSchedulerOnEngine);
+    }
+
+    private void startSchedulerOnEngine() {
         Microbot.log("Starting scheduler request...", Level.INFO);
         Microbot.getClientThread().runOnClientThreadOptional(() -> {
             // If already active, nothing to do
@@ -339,9 +387,7 @@ public class SchedulerPlugin extends Plugin {
                 log.info("Plugin Scheduler started");
                 
                 // Check schedule immediately when started
-                SwingUtilities.invokeLater(() -> {
-                    checkSchedule();
-                });
+                runOnEngineLater(this::checkSchedule);
                 return true;
             }
             return true;
@@ -353,6 +399,10 @@ public class SchedulerPlugin extends Plugin {
      * Stops the scheduler
      */
     public void stopScheduler() {
+        runOnEngineAndUpdatePanels(this::stopSchedulerOnEngine);
+    }
+
+    private void stopSchedulerOnEngine() {
         if (loginMonitor != null && loginMonitor.isAlive()) {
             loginMonitor.interrupt();
         }
@@ -580,6 +630,10 @@ public class SchedulerPlugin extends Plugin {
 
     }
     public void resumeBreak() {
+        runOnEngineAndUpdatePanels(this::resumeBreakOnEngine);
+    }
+
+    private void resumeBreakOnEngine() {
         if (currentState == SchedulerState.PLAYSCHEDULE_BREAK){
             // If we are in a play schedule break, we need to reset the state, because otherwise we would break agin, because we are still outside the play schedule
             Microbot.getConfigManager().setConfiguration(SchedulerPlugin.configGroup, "usePlaySchedule", false);
@@ -636,7 +690,7 @@ public class SchedulerPlugin extends Plugin {
             Thread.currentThread().interrupt();
         }
         if (BreakHandlerScript.isBreakActive()) {
-            SwingUtilities.invokeLater(() -> {
+            runOnEngineLater(() -> {
                 log.info("\n\t--Break was not interrupted successfully");
                 interruptBreak();
             });
@@ -1045,7 +1099,7 @@ public class SchedulerPlugin extends Plugin {
                         conditionTimeoutSeconds = 60; // Default if config value is invalid
                     }
 
-                    final Timer conditionTimer = new Timer(conditionTimeoutSeconds * 1000, evt -> {
+                    final Timer conditionTimer = new Timer(conditionTimeoutSeconds * 1000, evt -> runOnEngine(() -> {
                         // Check if any time conditions have been added
                         if (scheduledPlugin.getStopConditionManager().getConditions().isEmpty()) {
                             log.info("No conditions added within timeout period. Returning to previous state.");                            
@@ -1067,7 +1121,7 @@ public class SchedulerPlugin extends Plugin {
                             setState(SchedulerState.STARTING_PLUGIN);
                             continueStartingPluginScheduleEntry(scheduledPlugin);
                         }
-                    });
+                    }));
                     conditionTimer.setRepeats(false);
                     conditionTimer.start();
                 }
@@ -1145,6 +1199,10 @@ public class SchedulerPlugin extends Plugin {
     }
 
     public void forceStopCurrentPluginScheduleEntry(boolean successful) {
+        runOnEngine(() -> forceStopCurrentPluginScheduleEntryOnEngine(successful));
+    }
+
+    private void forceStopCurrentPluginScheduleEntryOnEngine(boolean successful) {
         if (currentPlugin != null && currentPlugin.isRunning()) {
             log.info("Force Stopping current plugin: " + currentPlugin.getCleanName());
             if (currentState == SchedulerState.RUNNING_PLUGIN) {
@@ -1158,14 +1216,27 @@ public class SchedulerPlugin extends Plugin {
                     log.info("Plugin stopped successfully: " + currentPlugin.getCleanName());
 
                 } else {
-                    SwingUtilities.invokeLater(() -> {
-                        forceStopCurrentPluginScheduleEntry(successful);
+                    runOnEngineLater(() -> {
+                        forceStopCurrentPluginScheduleEntryOnEngine(successful);
                     });
                     log.info("Failed to hard stop plugin: " + currentPlugin.getCleanName());
                 }
             }
         }
-        updatePanels();
+        requestPanelUpdate();
+    }
+
+    /**
+     * Requests an update of the UI panels from any thread. Requests made before the EDT gets to it are coalesced
+     * into one update.
+     */
+    void requestPanelUpdate() {
+        if (panelUpdatePending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                panelUpdatePending.set(false);
+                updatePanels();
+            });
+        }
     }
 
     /**
@@ -1342,10 +1413,10 @@ public class SchedulerPlugin extends Plugin {
             }
             
             // Replace current plugins
-            scheduledPlugins = loadedPlugins;
+            scheduledPlugins = new CopyOnWriteArrayList<>(loadedPlugins);
             
             // Update UI
-            SwingUtilities.invokeLater(this::updatePanels);
+            requestPanelUpdate();
             return true;
         } catch (Exception e) {
             log.error("Error loading scheduled plugins from file", e);
@@ -1446,7 +1517,7 @@ public class SchedulerPlugin extends Plugin {
             log.debug("Loading scheduled plugins from config: {}\n\n", json);
 
             if (json != null && !json.isEmpty()) {
-                scheduledPlugins = PluginScheduleEntry.fromJson(json,  this.VERSION);
+                scheduledPlugins = new CopyOnWriteArrayList<>(PluginScheduleEntry.fromJson(json,  this.VERSION));
 
                 // Apply stop settings from config to all loaded plugins
                 for (PluginScheduleEntry plugin : scheduledPlugins) {
@@ -1494,11 +1565,11 @@ public class SchedulerPlugin extends Plugin {
                 }
 
                 // Force UI update after loading plugins
-                SwingUtilities.invokeLater(this::updatePanels);
+                requestPanelUpdate();
             }
         } catch (Exception e) {
             log.error("Error loading scheduled plugins", e);
-            scheduledPlugins = new ArrayList<>();
+            scheduledPlugins = new CopyOnWriteArrayList<>();
         }
     }
 
@@ -2078,7 +2149,7 @@ public class SchedulerPlugin extends Plugin {
                 // If we get here, login failed too many times
                 log.error("Failed to login after {} attempts",
                         MAX_LOGIN_ATTEMPTS);
-                SwingUtilities.invokeLater(() -> {
+                runOnEngineLater(() -> {
                     // Clean up and set proper state
                     if (currentPlugin != null && currentPlugin.isRunning()) {
                         currentPlugin.stop(false, StopReason.SCHEDULED_STOP, "Plugin stopped due to scheduled time conditions");
@@ -2383,6 +2454,10 @@ public class SchedulerPlugin extends Plugin {
 
             currentState = newState;
             SwingUtilities.invokeLater(this::forceUpdatePanels);
+            // Act on changes made from the UI or by plugin events without waiting for the next pass
+            if (engine != null && !engine.isEngineThread()) {
+                engine.wakeUp();
+            }
         }
     }
 
@@ -2622,7 +2697,7 @@ public class SchedulerPlugin extends Plugin {
                 log.info("Plugin '{}' started or restarted outside scheduler control", event.getPlugin().getName());
             }
 
-            SwingUtilities.invokeLater(this::updatePanels);
+            requestPanelUpdate();
         }
     }
     void checkIfStopFinished(){
@@ -2632,7 +2707,7 @@ public class SchedulerPlugin extends Plugin {
         // Check if the plugin is still stopping
         if (currentPlugin.isStopping()) {
             log.info("Plugin '{}' is still stopping, waiting for it to finish", currentPlugin.getCleanName());
-            SwingUtilities.invokeLater(() -> {
+            runOnEngineLater(() -> {
                 // Check if the plugin is still stopping
                 checkIfStopFinished();
             });
@@ -2716,10 +2791,20 @@ public class SchedulerPlugin extends Plugin {
      * 2. The requested plugin is in the scheduledPlugins list
      * 3. There's enough time until the next scheduled plugin
      *
+     * The checks and the start run on the engine thread, so they don't race the scheduling loop.
+     *
      * @param pluginEntry The plugin to start
-     * @return true if the plugin was started successfully, false otherwise with a reason message
+     * @param onResult    called on the EDT with an empty string if the plugin was started, otherwise with the reason
+     *                    it was not
      */
-    public String manualStartPlugin(PluginScheduleEntry pluginEntry) {
+    public void manualStartPlugin(PluginScheduleEntry pluginEntry, Consumer<String> onResult) {
+        runOnEngine(() -> {
+            final String result = manualStartPluginOnEngine(pluginEntry);
+            SwingUtilities.invokeLater(() -> onResult.accept(result));
+        });
+    }
+
+    private String manualStartPluginOnEngine(PluginScheduleEntry pluginEntry) {
         // Check if plugin is null
         if (pluginEntry == null) {
             return "Invalid plugin selected";
@@ -2838,7 +2923,11 @@ public class SchedulerPlugin extends Plugin {
     private void resumeAllScheduledPlugins() {        
         scheduledPlugins.stream().map( PluginScheduleEntry::resume);
     }
-    public boolean pauseRunningPlugin(){
+    public void pauseRunningPlugin() {
+        runOnEngineAndUpdatePanels(this::pauseRunningPluginOnEngine);
+    }
+
+    private boolean pauseRunningPluginOnEngine() {
         if (currentState != SchedulerState.RUNNING_PLUGIN ||  getCurrentPlugin() == null) {            
             return false; // Not running a plugin
         }           
@@ -2856,11 +2945,14 @@ public class SchedulerPlugin extends Plugin {
         // Also pause time conditions on the current plugin
         getCurrentPlugin().pause();                    
         log.info("Paused currently running plugin: {}", getCurrentPlugin().getName());
-        SwingUtilities.invokeLater(this::forceUpdatePanels);
         return true;
     }
 
-    public boolean resumeRunningPlugin(){
+    public void resumeRunningPlugin() {
+        runOnEngineAndUpdatePanels(this::resumeRunningPluginOnEngine);
+    }
+
+    private boolean resumeRunningPluginOnEngine() {
         if(isOnBreak() ){
             log.info("Interrupting break to resume running plugin: {}", getCurrentPlugin().getName());
             interruptBreak();            
@@ -2893,7 +2985,6 @@ public class SchedulerPlugin extends Plugin {
         boolean anyPausedPluginEntry = anyPluginEntryPaused();
         log.info("resumed currently running plugin: {} -> are any paused plugin? -{} - Pause Event? -{}", getCurrentPlugin().getName(),anyPausedPluginEntry,
             PluginPauseEvent.isPaused());        
-        SwingUtilities.invokeLater(this::forceUpdatePanels);
         return true;
     }
 
@@ -2901,10 +2992,15 @@ public class SchedulerPlugin extends Plugin {
      * Pauses the scheduler or the currently running plugin.
      * If a plugin is currently running, it will be paused using the PluginPauseEvent.
      * Otherwise, the entire scheduler will be paused.
-     * 
+     */
+    public void pauseScheduler() {
+        runOnEngineAndUpdatePanels(this::pauseSchedulerOnEngine);
+    }
+
+    /**
      * @return true if successfully paused, false otherwise
      */
-    public boolean pauseScheduler() {
+    private boolean pauseSchedulerOnEngine() {
         if (isPaused()) {
             return false; // Already paused
         }                                      
@@ -2921,16 +3017,20 @@ public class SchedulerPlugin extends Plugin {
             entry.pause();
         }
                                            
-        SwingUtilities.invokeLater(this::forceUpdatePanels);
         return true;
     }
     
     /**
      * resumes the scheduler or the currently running plugin.
-     * 
-     * @return true if successfully resumed, false otherwise
      */ 
-    public boolean resumeScheduler() {
+    public void resumeScheduler() {
+        runOnEngineAndUpdatePanels(this::resumeSchedulerOnEngine);
+    }
+
+    /**
+     * @return true if successfully resumed, false otherwise
+     */
+    private boolean resumeSchedulerOnEngine() {
         if (!isPaused()) {
             return false; // Not paused
         }
@@ -2973,7 +3073,6 @@ public class SchedulerPlugin extends Plugin {
         boolean anyPausedPluginEntry = anyPluginEntryPaused();
         log.info("resumed the scheduler plugin: {} -> are any paused plugin? -{} - Pause Event? -{}", getCurrentPlugin().getName(),anyPausedPluginEntry,
             PluginPauseEvent.isPaused());      
-        SwingUtilities.invokeLater(this::forceUpdatePanels);
         return true;
     }
     
@@ -4,6 +4,7 @@ import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Optional;
+import java.util.Set;
 
 import net.runelite.api.events.AnimationChanged;
 import net.runelite.api.events.ChatMessage;
@@ -136,6 +137,31 @@ public interface Condition {
         reset(true);
     }
 
+    /**
+     * Returns the event types this condition handles. Events of other types are not dispatched to it.
+     * <p>
+     * Defaults to the events whose handler the condition's class overrides, see {@link ConditionEvents}.
+     *
+     * @return the event classes, such as {@code GameTick.class}
+     */
+    default Set<Class<?>> getEventInterests() {
+        return ConditionEvents.handledBy(getClass());
+    }
+
+    /**
+     * Whether the result of {@link #isSatisfied()} only changes when this condition handles one of its events,
+     * or is reset, paused or resumed. Logical conditions remember the result of subtrees made only of such
+     * conditions until one of their events arrives.
+     * <p>
+     * Conditions that read the clock or the game state when they are evaluated must return false, which is
+     * the default.
+     *
+     * @return true if the result can be memoized between events
+     */
+    default boolean isEventDriven() {
+        return false;
+    }
+
     default void onGameStateChanged(GameStateChanged gameStateChanged) {
         // This event handler is called whenever the game state changes
         // Useful for conditions that depend on the game state (e.g., logged in, logged out)
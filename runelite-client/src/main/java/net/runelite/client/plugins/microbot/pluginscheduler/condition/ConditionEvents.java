@@ -0,0 +1,62 @@
+package net.runelite.client.plugins.microbot.pluginscheduler.condition;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the game events a {@link Condition} handles, from the event handlers of {@link Condition} its class
+ * overrides. A condition that doesn't override a handler ignores that event, so it doesn't need to receive it.
+ */
+public final class ConditionEvents {
+    /**
+     * Event type to the handler {@link Condition} declares for it
+     */
+    private static final Map<Class<?>, Method> HANDLERS;
+
+    static {
+        ImmutableMap.Builder<Class<?>, Method> handlers = ImmutableMap.builder();
+        for (Method method : Condition.class.getMethods()) {
+            if (method.isDefault() && method.getName().startsWith("on") && method.getParameterCount() == 1) {
+                handlers.put(method.getParameterTypes()[0], method);
+            }
+        }
+        HANDLERS = handlers.build();
+    }
+
+    /**
+     * Every event type a condition can handle
+     */
+    public static final Set<Class<?>> ALL = HANDLERS.keySet();
+
+    private static final ClassValue<Set<Class<?>>> HANDLED_BY = new ClassValue<Set<Class<?>>>() {
+        @Override
+        protected Set<Class<?>> computeValue(Class<?> type) {
+            ImmutableSet.Builder<Class<?>> events = ImmutableSet.builder();
+            for (Map.Entry<Class<?>, Method> handler : HANDLERS.entrySet()) {
+                try {
+                    Method method = type.getMethod(handler.getValue().getName(), handler.getKey());
+                    if (method.getDeclaringClass() != Condition.class) {
+                        events.add(handler.getKey());
+                    }
+                } catch (NoSuchMethodException e) {
+                    // Not a condition, it handles nothing
+                }
+            }
+            return events.build();
+        }
+    };
+
+    private ConditionEvents() {
+    }
+
+    /**
+     * @return the event types whose handler the condition class overrides
+     */
+    public static Set<Class<?>> handledBy(Class<? extends Condition> type) {
+        return HANDLED_BY.get(type);
+    }
+}
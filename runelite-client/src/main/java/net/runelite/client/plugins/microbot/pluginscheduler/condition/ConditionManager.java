@@ -11,6 +11,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 import lombok.Getter;
@@ -1329,217 +1330,110 @@ public class ConditionManager implements AutoCloseable {
                     .orElse(0.0);
         }
     }
+    /**
+     * Dispatches an event to the plugin and user condition trees, if any condition in them handles it.
+     * Each logical condition only forwards the event to the children that handle it.
+     */
+    private <T> void dispatch(T event, BiConsumer<Condition, T> handler) {
+        dispatch(pluginCondition, event, handler);
+        dispatch(userLogicalCondition, event, handler);
+    }
+
+    private <T> void dispatch(LogicalCondition root, T event, BiConsumer<Condition, T> handler) {
+        if (root == null || !root.getEventInterests().contains(event.getClass())) {
+            return;
+        }
+        try {
+            handler.accept(root, event);
+        } catch (Exception e) {
+            log.error("Error in condition {} during {} event: {}",
+                root.getDescription(), event.getClass().getSimpleName(), e.getMessage(), e);
+        }
+    }
+
     @Subscribe(priority = -1)
-    public void onGameStateChanged(GameStateChanged gameStateChanged){
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onGameStateChanged(gameStateChanged);
-            } catch (Exception e) {
-                log.error("Error in condition {} during GameStateChanged event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }        
+    public void onGameStateChanged(GameStateChanged gameStateChanged) {
+        dispatch(gameStateChanged, Condition::onGameStateChanged);
     }
 
     @Subscribe(priority = -1)
     public void onStatChanged(StatChanged event) {
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onStatChanged(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during StatChanged event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-                e.printStackTrace();
-            }
-        }        
+        dispatch(event, Condition::onStatChanged);
     }
-   
-    
+
     @Subscribe(priority = -1)
     public void onItemContainerChanged(ItemContainerChanged event) {
-         // Propagate event to all conditions
-         for (Condition condition : getConditions( )) {
-            try {
-                condition.onItemContainerChanged(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during ItemContainerChanged event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }       
+        dispatch(event, Condition::onItemContainerChanged);
     }
+
     @Subscribe(priority = -1)
     public void onGameTick(GameTick gameTick) {
-        // Propagate event to all conditions        
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onGameTick(gameTick);
-            } catch (Exception e) {
-                log.error("Error in condition {} during GameTick event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }      
+        dispatch(gameTick, Condition::onGameTick);
     }
 
     @Subscribe(priority = -1)
     public void onGroundObjectSpawned(GroundObjectSpawned event) {
-        // Propagate event to all conditions
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onGroundObjectSpawned(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during GroundItemSpawned event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }
-        if (pluginCondition != null) {
-            try {
-                pluginCondition.onGroundObjectSpawned(event);
-            } catch (Exception e) {
-                log.error("Error in plugin condition during GroundItemSpawned event: {}", 
-                    e.getMessage(), e);
-            }
-        }
+        dispatch(event, Condition::onGroundObjectSpawned);
     }
 
     @Subscribe(priority = -1)
     public void onGroundObjectDespawned(GroundObjectDespawned event) {
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onGroundObjectDespawned(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during GroundItemDespawned event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }       
+        dispatch(event, Condition::onGroundObjectDespawned);
     }
 
     @Subscribe(priority = -1)
     public void onMenuOptionClicked(MenuOptionClicked event) {
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onMenuOptionClicked(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during MenuOptionClicked event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }        
+        dispatch(event, Condition::onMenuOptionClicked);
     }
 
     @Subscribe(priority = -1)
     public void onChatMessage(ChatMessage event) {
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onChatMessage(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during ChatMessage event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }        
+        dispatch(event, Condition::onChatMessage);
     }
 
     @Subscribe(priority = -1)
     public void onHitsplatApplied(HitsplatApplied event) {
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onHitsplatApplied(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during HitsplatApplied event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }
-       
+        dispatch(event, Condition::onHitsplatApplied);
     }
+
     @Subscribe(priority = -1)
-	public void onVarbitChanged(VarbitChanged event)
-	{
-		for (Condition condition :getConditions( )) {
-            try {
-                condition.onVarbitChanged(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during VarbitChanged event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }        
-	}
+    public void onVarbitChanged(VarbitChanged event) {
+        dispatch(event, Condition::onVarbitChanged);
+    }
+
     @Subscribe(priority = -1)
-    void onNpcChanged(NpcChanged event){
-        for (Condition condition :getConditions( )) {
-            try {
-                condition.onNpcChanged(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during NpcChanged event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }        
+    void onNpcChanged(NpcChanged event) {
+        dispatch(event, Condition::onNpcChanged);
     }
+
     @Subscribe(priority = -1)
-    void onNpcSpawned(NpcSpawned npcSpawned){
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onNpcSpawned(npcSpawned);
-            } catch (Exception e) {
-                log.error("Error in condition {} during NpcSpawned event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }        
-        
+    void onNpcSpawned(NpcSpawned npcSpawned) {
+        dispatch(npcSpawned, Condition::onNpcSpawned);
     }
+
     @Subscribe(priority = -1)
-    void onNpcDespawned(NpcDespawned npcDespawned){
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onNpcDespawned(npcDespawned);
-            } catch (Exception e) {
-                log.error("Error in condition {} during NpcDespawned event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }        
+    void onNpcDespawned(NpcDespawned npcDespawned) {
+        dispatch(npcDespawned, Condition::onNpcDespawned);
     }
+
     @Subscribe(priority = -1)
-    void onInteractingChanged(InteractingChanged event){
-        for (Condition condition : getConditions( )) {
-            try {
-                condition.onInteractingChanged(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during InteractingChanged event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }       
+    void onInteractingChanged(InteractingChanged event) {
+        dispatch(event, Condition::onInteractingChanged);
     }
+
     @Subscribe(priority = -1)
-    void onItemSpawned(ItemSpawned event){        
-        List<Condition> allConditions = getConditions();            
-        // Proceed with normal processing
-        for (Condition condition : allConditions) {            
-            try {                
-                condition.onItemSpawned(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during ItemSpawned event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }       
+    void onItemSpawned(ItemSpawned event) {
+        dispatch(event, Condition::onItemSpawned);
     }
+
     @Subscribe(priority = -1)
-    void onItemDespawned(ItemDespawned event){
-        for (Condition condition :getConditions( )) {
-            try {
-                condition.onItemDespawned(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during ItemDespawned event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }       
+    void onItemDespawned(ItemDespawned event) {
+        dispatch(event, Condition::onItemDespawned);
     }
+
     @Subscribe(priority = -1)
     void onAnimationChanged(AnimationChanged event) {
-        for (Condition condition :getConditions( )) {
-            try {
-                condition.onAnimationChanged(event);
-            } catch (Exception e) {
-                log.error("Error in condition {} during AnimationChanged event: {}", 
-                    condition.getDescription(), e.getMessage(), e);
-            }
-        }       
+        dispatch(event, Condition::onAnimationChanged);
     }
 
     /**
@@ -2500,28 +2394,20 @@ public class ConditionManager implements AutoCloseable {
         }
     }
     public void pauseUserConditions() {
-        // Pause all time conditions and unregister events
-        List<Condition> timeConditions = getUserConditions();
-        for (Condition condition : timeConditions) {
-            condition.pause();
+        // Through the logical condition, so it forgets its memoized result
+        if (userLogicalCondition != null) {
+            userLogicalCondition.pause();
         }
-        
     }
     public void pausePluginConditions() {
-        // Pause all time conditions and unregister events
-        List<Condition> timeConditions = getPluginConditions();
-        for (Condition condition : timeConditions) {
-            condition.pause();
+        // Through the logical condition, so it forgets its memoized result
+        if (pluginCondition != null) {
+            pluginCondition.pause();
         }
-        
     }
     public void pauseAllConditions() {
-        // Pause all time conditions and unregister events
-        List<Condition> timeConditions = getConditions();
-        for (Condition condition : timeConditions) {
-            condition.pause();
-        }
-        
+        pausePluginConditions();
+        pauseUserConditions();
     }
       
     /**
@@ -2539,28 +2425,20 @@ public class ConditionManager implements AutoCloseable {
     }
   
     public void resumeAllConditions() {
-        // resume all time conditions
-        List<Condition> timeConditions = getConditions();
-        for (Condition condition : timeConditions) {
-            condition.resume();
-        }
-     
+        resumePluginTimeConditions();
+        resumeUserConditions();
     }
     public void resumeUserConditions() {
-        // resume all time conditions
-        List<Condition> timeConditions = getUserConditions();
-        for (Condition condition : timeConditions) {
-            condition.resume();
+        // Through the logical condition, so it forgets its memoized result
+        if (userLogicalCondition != null) {
+            userLogicalCondition.resume();
         }
-        
     }
     public void resumePluginTimeConditions() {
-        // resume all time conditions
-        List<Condition> timeConditions = getPluginConditions();
-        for (Condition condition : timeConditions) {
-            condition.resume();
+        // Through the logical condition, so it forgets its memoized result
+        if (pluginCondition != null) {
+            pluginCondition.resume();
         }
-        
     }
     
     /**
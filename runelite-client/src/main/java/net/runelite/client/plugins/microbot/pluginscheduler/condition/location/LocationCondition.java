@@ -38,6 +38,14 @@ public abstract class LocationCondition implements Condition {
     public boolean isSatisfied() {       
         return satisfied; //update in the child class, via updateLocationStatus
     }
+
+    /**
+     * The location is only checked on game ticks
+     */
+    @Override
+    public boolean isEventDriven() {
+        return true;
+    }
     
     @Override
     public void reset() {
@@ -17,7 +17,7 @@ public class AndCondition extends LogicalCondition {
     @Override
     public boolean isSatisfied() {
         if (conditions.isEmpty()) return true;
-        return conditions.stream().allMatch(Condition::isSatisfied);
+        return memoize(() -> conditions.stream().allMatch(Condition::isSatisfied));
     }
     
     /**
@@ -186,6 +186,7 @@ public class AndCondition extends LogicalCondition {
         for (Condition condition : conditions) {
             condition.pause();
         }
+        invalidate();
                 
         
     }
@@ -195,7 +196,8 @@ public class AndCondition extends LogicalCondition {
         // Resume all child conditions
         for (Condition condition : conditions) {
             condition.resume();
-        }        
+        }
+        invalidate();        
         
     }
 
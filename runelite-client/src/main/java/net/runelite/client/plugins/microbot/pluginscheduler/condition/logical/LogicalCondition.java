@@ -2,9 +2,21 @@ package net.runelite.client.plugins.microbot.pluginscheduler.condition.logical;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
+import com.google.common.collect.ImmutableSet;
+
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -33,7 +45,19 @@ public abstract class LogicalCondition implements Condition {
         }
     }
     @Getter
-    protected List<Condition> conditions = new ArrayList<>();
+    protected final List<Condition> conditions = new ConditionList();
+
+    // Changes when a condition is added to or removed from this tree
+    @Getter(AccessLevel.PACKAGE)
+    private final transient StructureStamp structure = new StructureStamp(this::invalidate);
+    // The stamps of the logical children this tree is registered with as their parent
+    private transient Set<StructureStamp> childStructures = new HashSet<>();
+    // Children by the events they handle, rebuilt when the tree below changes
+    private transient volatile Index index;
+    // Incremented after children handled an event, or were reset, paused or resumed
+    private final transient AtomicLong changes = new AtomicLong();
+    // (changes << 1 | result) as of the last evaluation, -1 if never memoized
+    private transient volatile long memoizedResult = -1;
     
     public LogicalCondition addCondition(Condition condition) {
         //check if the condition is already in the list, with .equals()
@@ -52,7 +76,7 @@ public abstract class LogicalCondition implements Condition {
         return ConditionType.LOGICAL;
     }
      /**
-     * Helper method to propagate any event to all child conditions.
+     * Helper method to propagate any event to the child conditions that handle it.
      * This centralizes the propagation logic to avoid code duplication.
      * 
      * @param <T> The event type
@@ -60,15 +84,220 @@ public abstract class LogicalCondition implements Condition {
      * @param eventHandler The method reference to the appropriate event handler
      */
     protected <T> void propagateEvent(T event, PropagationHandler<T> eventHandler) {
+        final Condition[] interested = getIndex().byEvent.get(event.getClass());
+        if (interested == null) {
+            return;
+        }
+        try {
+            for (Condition condition : interested) {
+                try {
+                    eventHandler.handle(condition, event);
+                } catch (Exception e) {
+                    // Optional: Add logging
+                    log.error("Error propagating event to condition: " + condition.getClass().getSimpleName(), e);
+                    //log stack trace if needed
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            // After the handlers ran, so an evaluation running meanwhile doesn't memoize the old state
+            invalidate();
+        }
+    }
+
+    /**
+     * Evaluates this condition, or returns the result of the last evaluation if all conditions below are
+     * {@link Condition#isEventDriven() event driven} and none of them changed since.
+     *
+     * @param evaluation evaluates the child conditions
+     * @return the result of the evaluation
+     */
+    protected boolean memoize(BooleanSupplier evaluation) {
+        final Index current = getIndex();
+        final long version = changes.get();
+        final long memoized = memoizedResult;
+        if (current.eventDriven && memoized >= 0 && (memoized >>> 1) == version) {
+            return (memoized & 1) != 0;
+        }
+
+        final boolean result = evaluation.getAsBoolean();
+        if (current.eventDriven) {
+            memoizedResult = version << 1 | (result ? 1 : 0);
+        }
+        return result;
+    }
+
+    /**
+     * Forgets the memoized result, for changes to child conditions that didn't come through an event
+     */
+    protected void invalidate() {
+        changes.incrementAndGet();
+    }
+
+    @Override
+    public Set<Class<?>> getEventInterests() {
+        return getIndex().interests;
+    }
+
+    @Override
+    public boolean isEventDriven() {
+        return getIndex().eventDriven;
+    }
+
+    private Index getIndex() {
+        final long stamp = structure.get();
+        Index current = index;
+        if (current == null || current.stamp != stamp) {
+            current = new Index(stamp, conditions);
+            index = current;
+            invalidate();
+        }
+        return current;
+    }
+
+    /**
+     * Registers this tree as the parent of the logical conditions among its children, so changes to their structure
+     * reach this one, and unregisters it from the children that were removed
+     */
+    private synchronized void childrenChanged() {
+        final Set<StructureStamp> current = new HashSet<>();
         for (Condition condition : conditions) {
-            try {
-                eventHandler.handle(condition, event);
-            } catch (Exception e) {
-                // Optional: Add logging
-                log.error("Error propagating event to condition: " + condition.getClass().getSimpleName(), e);
-                //log stack trace if needed
-                e.printStackTrace();
+            final StructureStamp child = StructureStamp.of(condition);
+            if (child != null) {
+                current.add(child);
+            }
+        }
+        for (StructureStamp child : childStructures) {
+            if (!current.contains(child)) {
+                child.removeParent(structure);
+            }
+        }
+        for (StructureStamp child : current) {
+            child.addParent(structure);
+        }
+        childStructures = current;
+        structure.changed();
+    }
+
+    private static final class Index {
+        private final long stamp;
+        private final Set<Class<?>> interests;
+        private final Map<Class<?>, Condition[]> byEvent;
+        private final boolean eventDriven;
+
+        private Index(long stamp, List<Condition> conditions) {
+            final Map<Class<?>, List<Condition>> handlers = new HashMap<>();
+            boolean allEventDriven = true;
+            for (Condition condition : conditions) {
+                for (Class<?> event : condition.getEventInterests()) {
+                    handlers.computeIfAbsent(event, e -> new ArrayList<>()).add(condition);
+                }
+                allEventDriven &= condition.isEventDriven();
             }
+
+            final Map<Class<?>, Condition[]> byEvent = new HashMap<>();
+            handlers.forEach((event, list) -> byEvent.put(event, list.toArray(new Condition[0])));
+            this.stamp = stamp;
+            this.interests = ImmutableSet.copyOf(byEvent.keySet());
+            this.byEvent = byEvent;
+            this.eventDriven = allEventDriven;
+        }
+    }
+
+    /**
+     * Child list that updates the structure stamp of the tree when it is modified, including through
+     * {@link #getConditions()}
+     */
+    private final class ConditionList extends ArrayList<Condition> {
+        @Override
+        public boolean add(Condition condition) {
+            final boolean added = super.add(condition);
+            modified();
+            return added;
+        }
+
+        @Override
+        public void add(int index, Condition condition) {
+            super.add(index, condition);
+            modified();
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Condition> c) {
+            final boolean added = super.addAll(c);
+            modified();
+            return added;
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends Condition> c) {
+            final boolean added = super.addAll(index, c);
+            modified();
+            return added;
+        }
+
+        @Override
+        public Condition set(int index, Condition condition) {
+            final Condition previous = super.set(index, condition);
+            modified();
+            return previous;
+        }
+
+        @Override
+        public Condition remove(int index) {
+            final Condition removed = super.remove(index);
+            modified();
+            return removed;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            final boolean removed = super.remove(o);
+            modified();
+            return removed;
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            final boolean removed = super.removeAll(c);
+            modified();
+            return removed;
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            final boolean removed = super.retainAll(c);
+            modified();
+            return removed;
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super Condition> filter) {
+            final boolean removed = super.removeIf(filter);
+            modified();
+            return removed;
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<Condition> operator) {
+            super.replaceAll(operator);
+            modified();
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            modified();
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            super.removeRange(fromIndex, toIndex);
+            modified();
+        }
+
+        private void modified() {
+            childrenChanged();
         }
     }
     
@@ -397,6 +626,7 @@ public abstract class LogicalCondition implements Condition {
             for (Condition condition : conditions) {
                 condition.reset();
             }
+            invalidate();
         }
     }
     
@@ -405,6 +635,7 @@ public abstract class LogicalCondition implements Condition {
             for (Condition condition : conditions) {
                 condition.reset(randomize);
             }
+            invalidate();
         }        
     }
     public void reset() { 
@@ -412,6 +643,7 @@ public abstract class LogicalCondition implements Condition {
         for (Condition condition : conditions) {
             condition.reset();
         }
+        invalidate();
     
     }
     
@@ -420,6 +652,7 @@ public abstract class LogicalCondition implements Condition {
         for (Condition condition : conditions) {
             condition.reset(randomize);
         }
+        invalidate();
         
     }
 
@@ -427,6 +660,7 @@ public abstract class LogicalCondition implements Condition {
         for (Condition condition : conditions) {
             condition.hardReset();
         }    
+        invalidate();
     }
     /**
      * Adds a condition to a specific position in the condition tree
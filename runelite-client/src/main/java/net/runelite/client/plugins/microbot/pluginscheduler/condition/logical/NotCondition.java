@@ -1,9 +1,9 @@
 package net.runelite.client.plugins.microbot.pluginscheduler.condition.logical;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import net.runelite.api.events.ItemContainerChanged;
-import net.runelite.api.events.StatChanged;
+import net.runelite.api.events.*;
 import net.runelite.client.plugins.microbot.pluginscheduler.condition.Condition;
 import net.runelite.client.plugins.microbot.pluginscheduler.condition.ConditionType;
 import net.runelite.client.plugins.microbot.pluginscheduler.condition.time.DayOfWeekCondition;
@@ -15,6 +15,9 @@ import net.runelite.client.plugins.microbot.pluginscheduler.condition.time.TimeW
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 /**
  * Logical NOT operator - inverts a condition.
@@ -23,13 +26,39 @@ import java.util.Optional;
 public class NotCondition implements Condition {
     @Getter
     private final Condition condition;
+    // Incremented after the inner condition handled an event, was reset or its tree changed
+    private final transient AtomicLong changes = new AtomicLong();
+    // (changes << 1 | result) as of the last evaluation, -1 if never memoized
+    private transient volatile long memoizedResult = -1;
+    // Changes when a condition is added to or removed from the inner condition's tree
+    @Getter(AccessLevel.PACKAGE)
+    private final transient StructureStamp structure = new StructureStamp(changes::incrementAndGet);
     
     public NotCondition(Condition condition) {
         this.condition = condition;
+        final StructureStamp inner = StructureStamp.of(condition);
+        if (inner != null) {
+            inner.addParent(structure);
+        }
     }
     
     @Override
     public boolean isSatisfied() {
+        if (!condition.isEventDriven()) {
+            return evaluate();
+        }
+
+        final long version = changes.get();
+        final long memoized = memoizedResult;
+        if (memoized >= 0 && (memoized >>> 1) == version) {
+            return (memoized & 1) != 0;
+        }
+        final boolean result = evaluate();
+        memoizedResult = version << 1 | (result ? 1 : 0);
+        return result;
+    }
+
+    private boolean evaluate() {
         if (condition instanceof SingleTriggerTimeCondition) {
             if (((SingleTriggerTimeCondition) condition).canTriggerAgain()) {
                 return !condition.isSatisfied();
@@ -50,23 +79,124 @@ public class NotCondition implements Condition {
         return ConditionType.LOGICAL;
     }
     
+    @Override
+    public Set<Class<?>> getEventInterests() {
+        return condition.getEventInterests();
+    }
+
+    @Override
+    public boolean isEventDriven() {
+        return condition.isEventDriven();
+    }
+
+    /**
+     * Forwards the event to the inner condition if it handles it
+     */
+    private <T> void forward(T event, BiConsumer<Condition, T> handler) {
+        if (!condition.getEventInterests().contains(event.getClass())) {
+            return;
+        }
+        try {
+            handler.accept(condition, event);
+        } finally {
+            changes.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onGameStateChanged(GameStateChanged event) {
+        forward(event, Condition::onGameStateChanged);
+    }
+
     @Override
     public void onStatChanged(StatChanged event) {
-        condition.onStatChanged(event);
+        forward(event, Condition::onStatChanged);
     }
     
     @Override
     public void onItemContainerChanged(ItemContainerChanged event) {
-        condition.onItemContainerChanged(event);
+        forward(event, Condition::onItemContainerChanged);
+    }
+
+    @Override
+    public void onGameTick(GameTick event) {
+        forward(event, Condition::onGameTick);
+    }
+
+    @Override
+    public void onNpcChanged(NpcChanged event) {
+        forward(event, Condition::onNpcChanged);
+    }
+
+    @Override
+    public void onNpcSpawned(NpcSpawned event) {
+        forward(event, Condition::onNpcSpawned);
+    }
+
+    @Override
+    public void onNpcDespawned(NpcDespawned event) {
+        forward(event, Condition::onNpcDespawned);
+    }
+
+    @Override
+    public void onGroundObjectSpawned(GroundObjectSpawned event) {
+        forward(event, Condition::onGroundObjectSpawned);
+    }
+
+    @Override
+    public void onGroundObjectDespawned(GroundObjectDespawned event) {
+        forward(event, Condition::onGroundObjectDespawned);
+    }
+
+    @Override
+    public void onItemSpawned(ItemSpawned event) {
+        forward(event, Condition::onItemSpawned);
+    }
+
+    @Override
+    public void onItemDespawned(ItemDespawned event) {
+        forward(event, Condition::onItemDespawned);
+    }
+
+    @Override
+    public void onMenuOptionClicked(MenuOptionClicked event) {
+        forward(event, Condition::onMenuOptionClicked);
+    }
+
+    @Override
+    public void onChatMessage(ChatMessage event) {
+        forward(event, Condition::onChatMessage);
+    }
+
+    @Override
+    public void onHitsplatApplied(HitsplatApplied event) {
+        forward(event, Condition::onHitsplatApplied);
+    }
+
+    @Override
+    public void onVarbitChanged(VarbitChanged event) {
+        forward(event, Condition::onVarbitChanged);
+    }
+
+    @Override
+    public void onInteractingChanged(InteractingChanged event) {
+        forward(event, Condition::onInteractingChanged);
+    }
+
+    @Override
+    public void onAnimationChanged(AnimationChanged event) {
+        forward(event, Condition::onAnimationChanged);
     }
     
     @Override
     public void reset() {
         condition.reset();
+        changes.incrementAndGet();
     }
     @Override
     public void reset(boolean randomize) {        
         condition.reset(randomize);        
+        changes.incrementAndGet();
     }
     
     @Override
@@ -0,0 +1,72 @@
+package net.runelite.client.plugins.microbot.pluginscheduler.condition.logical;
+
+import net.runelite.client.plugins.microbot.pluginscheduler.condition.Condition;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the structure of a logical condition tree. It changes whenever a condition is added to or removed from
+ * the tree, including in nested logical conditions: a change is passed up to every logical condition containing the
+ * one that changed, so reading the stamp never walks the tree.
+ */
+final class StructureStamp {
+    private static final AtomicLong MODIFICATIONS = new AtomicLong();
+
+    private final Runnable onChange;
+    // The stamps of the logical conditions this one is a child of
+    private final Set<StructureStamp> parents = ConcurrentHashMap.newKeySet();
+    private volatile long value = MODIFICATIONS.incrementAndGet();
+
+    /**
+     * @param onChange called when the structure of the tree changed
+     */
+    StructureStamp(Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    /**
+     * @return the stamp of the condition, or null if it isn't a logical condition
+     */
+    static StructureStamp of(Condition condition) {
+        if (condition instanceof LogicalCondition) {
+            return ((LogicalCondition) condition).getStructure();
+        }
+        if (condition instanceof NotCondition) {
+            return ((NotCondition) condition).getStructure();
+        }
+        return null;
+    }
+
+    long get() {
+        return value;
+    }
+
+    /**
+     * Records a change of the structure, here and in every tree containing this one
+     */
+    void changed() {
+        changed(MODIFICATIONS.incrementAndGet());
+    }
+
+    private void changed(long stamp) {
+        // A tree reached through more than one path is only updated once
+        if (value == stamp) {
+            return;
+        }
+        value = stamp;
+        onChange.run();
+        for (StructureStamp parent : parents) {
+            parent.changed(stamp);
+        }
+    }
+
+    void addParent(StructureStamp parent) {
+        parents.add(parent);
+    }
+
+    void removeParent(StructureStamp parent) {
+        parents.remove(parent);
+    }
+}
@@ -236,6 +236,14 @@ public class NpcKillCountCondition extends NpcCondition {
         
         return false;
     }
+
+    /**
+     * Kills are only counted from events
+     */
+    @Override
+    public boolean isEventDriven() {
+        return true;
+    }
     
     @Override
     public String getDescription() {
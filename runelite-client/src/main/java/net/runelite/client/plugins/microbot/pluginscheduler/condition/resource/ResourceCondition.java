@@ -83,6 +83,14 @@ public abstract class ResourceCondition implements Condition {
     public double getProgressPercentage() {
         return isSatisfied() ? 100.0 : 0.0;
     }
+
+    /**
+     * Resource counts are only updated from events
+     */
+    @Override
+    public boolean isEventDriven() {
+        return true;
+    }
     
     /**
      * Gets the estimated time until this resource condition will be satisfied.
@@ -2,6 +2,7 @@ package net.runelite.client.plugins.microbot.pluginscheduler.condition.skill;
 
 
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -10,8 +11,13 @@ import net.runelite.api.Skill;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.client.plugins.microbot.Microbot;
 import net.runelite.client.plugins.microbot.pluginscheduler.condition.ConditionType;
+import net.runelite.client.plugins.microbot.util.history.EventHistory;
 import net.runelite.client.plugins.microbot.util.math.Rs2Random;
 
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Skill XP-based condition for script execution.
  */
@@ -24,6 +30,7 @@ public class SkillXpCondition extends SkillCondition {
     public static String getVersion() {
         return "0.0.1";
     }
+    private static final long HISTORY_REFRESH_MS = TimeUnit.MINUTES.toMillis(1);
     private transient long currentTargetXp;// relative and absolute mode difference
     private final long targetXpMin;
     private final long targetXpMax;
@@ -33,6 +40,11 @@ public class SkillXpCondition extends SkillCondition {
     private final boolean randomized;
     @Getter
     private final boolean relative; // Whether this is a relative or absolute XP target
+    // Start of the range looked up in the xp history, and the last result of looking it up
+    private transient long historyStart = System.currentTimeMillis();
+    @Getter(AccessLevel.NONE)
+    private transient volatile long historyQueried;
+    private transient volatile SortedMap<Long, Long> recordedXpByHour = Collections.emptySortedMap();
 
     /**
      * Creates an absolute XP condition (must reach specific XP amount)
@@ -124,6 +136,9 @@ public class SkillXpCondition extends SkillCondition {
             currentTargetXp = (long)Rs2Random.between((int)targetXpMin, (int)targetXpMax);
         }
         SKILL_DATA_INITIALIZED = false; // Reset initialization state
+        historyStart = System.currentTimeMillis();
+        historyQueried = 0;
+        recordedXpByHour = Collections.emptySortedMap();
         initializeXpTracking();
     }
     
@@ -200,6 +215,40 @@ public class SkillXpCondition extends SkillCondition {
         }
     }
     
+    /**
+     * Gets the XP gained per hour since the condition was created or reset, from the xp history. The history is
+     * queried in the background at most once a minute, so this returns the result of the last query.
+     *
+     * @return XP gained keyed by the start of the hour, empty until the first query completes
+     */
+    public SortedMap<Long, Long> getRecordedXpByHour() {
+        long now = System.currentTimeMillis();
+        if (now - historyQueried >= HISTORY_REFRESH_MS) {
+            historyQueried = now;
+            EventHistory.getXpGainedByHour(isTotal() ? null : skill, historyStart, now)
+                    .thenAccept(xpByHour -> recordedXpByHour = xpByHour);
+        }
+        return recordedXpByHour;
+    }
+
+    /**
+     * Gets the XP per hour over the hours recorded in the xp history, counting the current hour as a full one
+     *
+     * @return The average XP per recorded hour, or 0 when nothing is recorded yet
+     */
+    public long getRecordedXpPerHour() {
+        SortedMap<Long, Long> xpByHour = getRecordedXpByHour();
+        if (xpByHour.isEmpty()) {
+            return 0;
+        }
+        long total = 0;
+        for (long xp : xpByHour.values()) {
+            total += xp;
+        }
+        long hours = (xpByHour.lastKey() - xpByHour.firstKey()) / TimeUnit.HOURS.toMillis(1) + 1;
+        return total / hours;
+    }
+
     /**
      * Gets the current XP
      * Uses static cached data from SkillCondition
@@ -254,6 +303,15 @@ public class SkillXpCondition extends SkillCondition {
     
     @Override
     public String getDescription() {
+        return getProgressDescription() + getRecordedRateDescription();
+    }
+
+    private String getRecordedRateDescription() {
+        long xpPerHour = getRecordedXpPerHour();
+        return xpPerHour > 0 ? String.format(" [%d XP/h]", xpPerHour) : "";
+    }
+
+    private String getProgressDescription() {
         String skillName = isTotal() ? "Total" : skill.getName();
         
         if (relative) {
@@ -341,6 +399,11 @@ public class SkillXpCondition extends SkillCondition {
         }
         
         sb.append("Progress: ").append(String.format("%.1f%%", getProgressPercentage()));
+
+        SortedMap<Long, Long> xpByHour = getRecordedXpByHour();
+        if (!xpByHour.isEmpty()) {
+            sb.append("\nXP/Hour (xp history): ").append(getRecordedXpPerHour());
+        }
         
         return sb.toString();
     }
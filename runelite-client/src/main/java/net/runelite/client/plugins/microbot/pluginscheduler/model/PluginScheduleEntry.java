@@ -24,6 +24,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.config.ConfigDescriptor;
 import net.runelite.client.plugins.Plugin;
+import net.runelite.client.plugins.PluginInstantiationException;
 import net.runelite.client.plugins.microbot.Microbot;
 import net.runelite.client.plugins.microbot.pluginscheduler.api.SchedulablePlugin;
 import net.runelite.client.plugins.microbot.pluginscheduler.condition.Condition;
@@ -408,6 +409,17 @@ public class PluginScheduleEntry implements AutoCloseable {
                     .filter(p -> Objects.equals(p.getName(), name))
                     .findFirst()
                     .orElse(null);
+
+            // With lazy plugin loading the plugin may not have been enabled yet, its conditions need its injector
+            if (this.plugin instanceof SchedulablePlugin) {
+                try {
+                    Microbot.getPluginManager().inject(this.plugin);
+                } catch (PluginInstantiationException e) {
+                    log.error("Unable to inject plugin '{}'", name, e);
+                    this.plugin = null;
+                    return null;
+                }
+            }
             
             // Initialize scheduleEntryConfigManager when plugin is first retrieved
             if (this.plugin instanceof SchedulablePlugin && scheduleEntryConfigManager == null) {
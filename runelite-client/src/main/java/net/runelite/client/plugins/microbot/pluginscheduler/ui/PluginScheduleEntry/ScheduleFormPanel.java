@@ -1103,16 +1103,19 @@ public class ScheduleFormPanel extends JPanel {
             }
         } else {
             // Start the plugin using the new manualStartPlugin method
-            String result = plugin.manualStartPlugin(selectedPlugin);
-            if (!result.isEmpty()) {
-                // Show error message if starting failed
-                JOptionPane.showMessageDialog(
-                    SwingUtilities.getWindowAncestor(this),
-                    result,
-                    "Cannot Start Plugin immediately, update only main time start condition",
-                    JOptionPane.WARNING_MESSAGE
-                );
-            }
+            plugin.manualStartPlugin(selectedPlugin, result -> {
+                if (!result.isEmpty()) {
+                    // Show error message if starting failed
+                    JOptionPane.showMessageDialog(
+                        SwingUtilities.getWindowAncestor(this),
+                        result,
+                        "Cannot Start Plugin immediately, update only main time start condition",
+                        JOptionPane.WARNING_MESSAGE
+                    );
+                }
+                updateControlButton();
+                updateStatistics();
+            });
         }
         
         // Update control button and statistics
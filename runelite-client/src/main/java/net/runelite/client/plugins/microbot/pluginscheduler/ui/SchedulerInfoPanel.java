@@ -7,13 +7,17 @@ import net.runelite.client.plugins.microbot.pluginscheduler.model.PluginSchedule
 import net.runelite.client.plugins.microbot.pluginscheduler.ui.util.UIUtils;
 import net.runelite.client.plugins.microbot.util.antiban.enums.Activity;
 import net.runelite.client.plugins.microbot.util.antiban.enums.ActivityIntensity;
+import net.runelite.client.plugins.microbot.util.history.EventHistory;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.FontManager;
+import net.runelite.client.util.QuantityFormatter;
 import net.runelite.client.plugins.microbot.util.events.PluginPauseEvent;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 
@@ -51,7 +55,15 @@ public class SchedulerInfoPanel extends JPanel {
     private JLabel currentPluginRuntimeLabel;
     private JProgressBar stopConditionProgressBar;
     private JLabel stopConditionStatusLabel;
+    private JLabel currentPluginLootLabel;
+    private JLabel currentPluginXpLabel;
     private ZonedDateTime currentPluginStartTime;
+
+    // Loot and xp of the current run, looked up in the history in the background at most every 10 seconds
+    private static final long HISTORY_REFRESH_MS = TimeUnit.SECONDS.toMillis(10);
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+    private EventHistory.Session lastHistorySession;
+    private long lastHistoryRefresh;
     
     // Next plugin components
     private JLabel nextUpComingPluginNameLabel;
@@ -113,20 +125,12 @@ public class SchedulerInfoPanel extends JPanel {
         
         // Create run scheduler button
         runSchedulerButton = createCompactButton("Run Scheduler", new Color(76, 175, 80));
-        runSchedulerButton.addActionListener(e -> {
-            plugin.startScheduler();
-            updateButtonStates();
-        });
+        runSchedulerButton.addActionListener(e -> plugin.startScheduler());
         buttonPanel.add(runSchedulerButton);
         
         // Create stop scheduler button
         stopSchedulerButton = createCompactButton("Stop Scheduler", new Color(244, 67, 54));
-        stopSchedulerButton.addActionListener(e -> {
-            SwingUtilities.invokeLater(() -> {
-                plugin.stopScheduler();
-                updateButtonStates();
-            });
-        });
+        stopSchedulerButton.addActionListener(e -> plugin.stopScheduler());
         buttonPanel.add(stopSchedulerButton);
         
         // Create login button
@@ -143,37 +147,22 @@ public class SchedulerInfoPanel extends JPanel {
         pauseResumePluginButton = createCompactButton("Pause Plugin", new Color(0, 188, 212)); // Cyan color
         pauseResumePluginButton.setVisible(false); // Initially hidden
         pauseResumePluginButton.addActionListener(e -> {
-            // Toggle the pause state
-            
-            
-            // Update button text and color based on state
-            if (!plugin.isCurrentPluginPaused()) {
-                boolean pauseSuccess = plugin.pauseRunningPlugin();
-                if (pauseSuccess){
-                    pauseResumePluginButton.setText("Resume Plugin");
-                    pauseResumePluginButton.setBackground(new Color(76, 175, 80)); // Green color
-                }
+            // Runs on the scheduler's thread, the button is set from the new state once it is done
+            if (plugin.isCurrentPluginPaused()) {
+                plugin.resumeRunningPlugin();
             } else {
-                if(plugin.isCurrentPluginPaused()){
-                    plugin.resumeRunningPlugin();
-                    pauseResumePluginButton.setText("Pause Plugin");
-                    pauseResumePluginButton.setBackground(new Color(0, 188, 212)); // Cyan color
-                }
+                plugin.pauseRunningPlugin();
             }
-            updateCurrentPluginInfo();
-            updateButtonStates();            
         });
         buttonPanel.add(pauseResumePluginButton);
         
         // Create pause/resume scheduler button
         pauseResumeSchedulerButton = createCompactButton("Pause Scheduler", new Color(255, 152, 0)); // Orange color
         pauseResumeSchedulerButton.addActionListener(e -> {
-            // Toggle the pause state using our new methods
+            // Runs on the scheduler's thread, the button is set from the new state once it is done
             if (plugin.isPaused() ) {
                 // Currently paused, so resume
                 plugin.resumeScheduler();
-                pauseResumeSchedulerButton.setText("Pause Scheduler");
-                pauseResumeSchedulerButton.setBackground(new Color(255, 152, 0)); // Orange color
             }else if(plugin.isOnBreak() && (plugin.getCurrentState() == SchedulerState.BREAK) || 
                     plugin.getCurrentState() == SchedulerState.PLAYSCHEDULE_BREAK){
                 // If currently on break, resume the break
@@ -181,13 +170,7 @@ public class SchedulerInfoPanel extends JPanel {
             }else {
                 // Currently running, so pause
                 plugin.pauseScheduler();
-                pauseResumeSchedulerButton.setText("Resume Scheduler");
-                pauseResumeSchedulerButton.setBackground(new Color(76, 175, 80)); // Green color
             }
-            
-            // Update UI
-            updateCurrentPluginInfo();
-            updateButtonStates();
         });
         buttonPanel.add(pauseResumeSchedulerButton);
         
@@ -313,11 +296,15 @@ public class SchedulerInfoPanel extends JPanel {
         currentPluginRuntimeLabel = UIUtils.createAdaptiveValueLabel("00:00:00");
         stopConditionStatusLabel = UIUtils.createAdaptiveValueLabel("None");
         stopConditionStatusLabel.setToolTipText("Detailed stop condition information");
+        currentPluginLootLabel = UIUtils.createAdaptiveValueLabel("--");
+        currentPluginXpLabel = UIUtils.createAdaptiveValueLabel("--");
 
         UIUtils.LabelValuePair[] rows = {
             new UIUtils.LabelValuePair("Name:", currentPluginNameLabel),
             new UIUtils.LabelValuePair("Runtime:", currentPluginRuntimeLabel),
-            new UIUtils.LabelValuePair("Conditions:", stopConditionStatusLabel)
+            new UIUtils.LabelValuePair("Conditions:", stopConditionStatusLabel),
+            new UIUtils.LabelValuePair("Loot:", currentPluginLootLabel),
+            new UIUtils.LabelValuePair("XP:", currentPluginXpLabel)
         };
 
         UIUtils.addContentToSection(section, rows);
@@ -620,6 +607,7 @@ public class SchedulerInfoPanel extends JPanel {
             long seconds = totalSeconds % 60;
             
             currentPluginRuntimeLabel.setText(String.format("%02d:%02d:%02d", hours, minutes, seconds));
+            updateHistoryInfo();
             
             // Update stop condition status
             if (currentPlugin.hasAnyStopConditions()) {
@@ -674,8 +662,63 @@ public class SchedulerInfoPanel extends JPanel {
             stopConditionStatusLabel.setText("None");
             stopConditionProgressBar.setValue(0);
             stopConditionProgressBar.setString("No conditions");
+            currentPluginLootLabel.setText("--");
+            currentPluginLootLabel.setToolTipText(null);
+            currentPluginXpLabel.setText("--");
             currentPluginStartTime = null;
+            lastHistorySession = null;
+        }
+    }
+
+    /**
+     * Updates the loot and xp of the current run from the loot and xp history. The history answers in the
+     * background, the labels are set once it does.
+     */
+    private void updateHistoryInfo() {
+        final EventHistory.Session session = plugin.getHistorySession();
+        final long now = System.currentTimeMillis();
+        if (session == null || (session == lastHistorySession && now - lastHistoryRefresh < HISTORY_REFRESH_MS)) {
+            return;
+        }
+        lastHistorySession = session;
+        lastHistoryRefresh = now;
+
+        final long elapsed = session.getEndOrNow() - session.getStart();
+        session.getLootValue().thenAcceptBoth(session.getLootValueBySource(), (value, bySource) ->
+            SwingUtilities.invokeLater(() -> {
+                if (session == lastHistorySession) {
+                    currentPluginLootLabel.setText(formatWithRate(value, elapsed) + " gp");
+                    currentPluginLootLabel.setToolTipText(createLootSourceTooltip(bySource));
+                }
+            }));
+        session.getXpGained(null).thenAccept(xp ->
+            SwingUtilities.invokeLater(() -> {
+                if (session == lastHistorySession) {
+                    currentPluginXpLabel.setText(formatWithRate(xp, elapsed));
+                }
+            }));
+    }
+
+    private static String formatWithRate(long amount, long elapsedMillis) {
+        final String total = QuantityFormatter.quantityToStackSize(amount);
+        if (elapsedMillis <= 0) {
+            return total;
+        }
+        return total + " (" + QuantityFormatter.quantityToStackSize(amount * HOUR_MS / elapsedMillis) + "/h)";
+    }
+
+    /**
+     * @return a tooltip with the loot value of the run per NPC or player, most valuable first
+     */
+    private static String createLootSourceTooltip(Map<String, Long> bySource) {
+        if (bySource.isEmpty()) {
+            return null;
         }
+        StringBuilder tooltip = new StringBuilder("<html><b>Loot by source:</b>");
+        bySource.entrySet().stream().limit(10).forEach(entry -> tooltip.append("<br>")
+            .append(entry.getKey().isEmpty() ? "Unknown" : entry.getKey())
+            .append(": ").append(QuantityFormatter.quantityToStackSize(entry.getValue())).append(" gp"));
+        return tooltip.append("</html>").toString();
     }
     
     /**
@@ -168,18 +168,12 @@ public class SchedulerPanel extends PluginPanel {
         // Control buttons
         Color greenColor = new Color(76, 175, 80);
         JButton runButton = createButton("Run Scheduler", greenColor);
-        runButton.addActionListener(e -> {
-            plugin.startScheduler();
-            refresh();
-        });
+        runButton.addActionListener(e -> plugin.startScheduler());
         this.runButton = runButton;
 
         Color redColor = new Color(244, 67, 54);
         JButton stopButton = createButton("Stop Scheduler", redColor);
-        stopButton.addActionListener(e -> {
-            plugin.stopScheduler();
-            refresh();
-        });
+        stopButton.addActionListener(e -> plugin.stopScheduler());
         this.stopButton = stopButton;
 
         // Add Antiban button - uses a distinct purple color
@@ -194,16 +188,12 @@ public class SchedulerPanel extends PluginPanel {
         Color orangeColor = new Color(255, 152, 0);
         JButton pauseSchedulerButton = createButton("Pause Scheduler", orangeColor);
         pauseSchedulerButton.addActionListener(e -> {
+            // Runs on the scheduler's thread, the button is set from the new state once it is done
             if (plugin.isPaused()) {
                 plugin.resumeScheduler();
-                pauseSchedulerButton.setText("Pause Scheduler");
-                pauseSchedulerButton.setBackground(orangeColor);
             } else {
                 plugin.pauseScheduler();
-                pauseSchedulerButton.setText("Resume Scheduler");
-                pauseSchedulerButton.setBackground(greenColor);
             }
-            refresh();
         });
         pauseSchedulerButton.setToolTipText("Pause or resume the scheduler without stopping it");
         this.pauseSchedulerButton = pauseSchedulerButton;
@@ -212,21 +202,12 @@ public class SchedulerPanel extends PluginPanel {
         Color cyanColor = new Color(0, 188, 212); // Material design cyan color
         JButton pauseResumePluginButton = createButton("Pause Plugin", cyanColor);
         pauseResumePluginButton.addActionListener(e -> {
-            // Toggle the pause state
-            boolean newPauseState = !PluginPauseEvent.isPaused();
-            PluginPauseEvent.setPaused(newPauseState);
-            
-            // Update button text and color based on state
-            if (newPauseState) {
-                plugin.pauseRunningPlugin();
-                pauseResumePluginButton.setText("Resume Plugin");
-                pauseResumePluginButton.setBackground(greenColor); // Change to green for resume
-            } else {
+            // Runs on the scheduler's thread, which also sets the pause event; the button follows the new state
+            if (PluginPauseEvent.isPaused()) {
                 plugin.resumeRunningPlugin();
-                pauseResumePluginButton.setText("Pause Plugin");
-                pauseResumePluginButton.setBackground(cyanColor); // Change back to cyan for pause
+            } else {
+                plugin.pauseRunningPlugin();
             }
-            refresh();
         });
         pauseResumePluginButton.setToolTipText("Pause or resume the currently running plugin");
         this.pauseResumePluginButton = pauseResumePluginButton;
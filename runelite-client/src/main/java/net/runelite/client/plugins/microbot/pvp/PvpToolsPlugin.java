@@ -42,7 +42,8 @@ import static net.runelite.client.plugins.microbot.util.player.Rs2Pvp.isAttackab
         enabledByDefault = false,
         description = "Enable the PvP Tools panel",
         tags = {"panel", "pvp", "pk", "pklite", "renderself"},
-        hidden = true
+        hidden = true,
+        startOnEdt = true
 )
 public class PvpToolsPlugin extends Plugin
 {
@@ -82,7 +82,8 @@ import java.util.stream.Collectors;
 @PluginDescriptor(
 	name = "Quest Helper",
 	description = "Helps you with questing",
-	tags = { "quest", "helper", "overlay" }
+	tags = { "quest", "helper", "overlay" },
+	startOnEdt = true
 )
 @Slf4j
 public class QuestHelperPlugin extends Plugin
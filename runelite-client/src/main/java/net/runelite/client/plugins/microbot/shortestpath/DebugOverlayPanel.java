@@ -69,6 +69,12 @@ public class DebugOverlayPanel extends OverlayPanel {
         String totalNodes = Integer.toString(stats.getTotalNodesChecked());
         components.add(makeLine("Total:", totalNodes));
 
+        String expanded = Integer.toString(stats.getNodesExpanded());
+        components.add(makeLine("Expanded:", expanded));
+
+        String regions = stats.getVisitedRegionsReused() + "/" + (stats.getVisitedRegionsReused() + stats.getVisitedRegionsAllocated());
+        components.add(makeLine("Regions reused:", regions));
+
         components.add(separator);
 
         double milliTime = stats.getElapsedTimeNanos() / 1000000.0;
@@ -353,6 +353,34 @@ public interface ShortestPathConfig extends Config {
         return 5;
     }
 
+    @ConfigItem(
+            keyName = "useInformedSearch",
+            name = "Informed search (A*)",
+            description = "Orders the search by distance travelled plus a lower bound of the remaining distance,<br>" +
+                    "including transports and teleports, instead of flooding outwards from the start.<br>" +
+                    "Long paths are found with far fewer tiles checked",
+            position = 28,
+            section = sectionSettings
+    )
+    default boolean useInformedSearch()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+            keyName = "useRegionGraph",
+            name = "Hierarchical routing",
+            description = "Routes over a precomputed graph of region borders and transports first,<br>" +
+                    "then only searches the regions along that route tile by tile.<br>" +
+                    "The graph is built in the background when first enabled",
+            position = 29,
+            section = sectionSettings
+    )
+    default boolean useRegionGraph()
+    {
+        return false;
+    }
+
     @ConfigSection(
             name = "Display",
             description = "Options for displaying the path on the world map, minimap and scene tiles",
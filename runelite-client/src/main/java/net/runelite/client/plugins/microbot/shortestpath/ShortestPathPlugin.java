@@ -19,7 +19,6 @@
 
 package net.runelite.client.plugins.microbot.shortestpath;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Provides;
 import lombok.AccessLevel;
@@ -28,9 +27,12 @@ import lombok.Setter;
 import net.runelite.api.Point;
 import net.runelite.api.*;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
 import net.runelite.api.events.MenuEntryAdded;
 import net.runelite.api.events.MenuOpened;
+import net.runelite.api.events.VarbitChanged;
 import net.runelite.api.widgets.ComponentID;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.worldmap.WorldMap;
@@ -48,6 +50,7 @@ import net.runelite.client.plugins.microbot.Microbot;
 import net.runelite.client.plugins.microbot.shortestpath.pathfinder.CollisionMap;
 import net.runelite.client.plugins.microbot.shortestpath.pathfinder.Pathfinder;
 import net.runelite.client.plugins.microbot.shortestpath.pathfinder.PathfinderConfig;
+import net.runelite.client.plugins.microbot.shortestpath.pathfinder.PathfinderService;
 import net.runelite.client.plugins.microbot.shortestpath.pathfinder.SplitFlagMap;
 import net.runelite.client.plugins.microbot.util.player.Rs2Player;
 import net.runelite.client.plugins.microbot.util.tile.Rs2Tile;
@@ -68,10 +71,7 @@ import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
 import java.util.regex.Pattern;
 
 @PluginDescriptor(
@@ -79,7 +79,8 @@ import java.util.regex.Pattern;
         description = "Draws the shortest path to a chosen destination on the map (right click a spot on the world map to use)",
         tags = {"pathfinder", "map", "waypoint", "navigation", "microbot"},
         enabledByDefault = true,
-        alwaysOn = true
+        alwaysOn = true,
+        startOnEdt = true
 )
 public class ShortestPathPlugin extends Plugin implements KeyListener {
     protected static final String CONFIG_GROUP = "shortestpath";
@@ -169,9 +170,7 @@ public class ShortestPathPlugin extends Plugin implements KeyListener {
     private BufferedImage minimapSpriteResizeable;
     private Rectangle minimapRectangle = new Rectangle();
 
-    @Getter
-    @Setter
-    public static ExecutorService pathfindingExecutor = Executors.newSingleThreadExecutor();
+    private static PathfinderService pathfinderService;
     @Getter
     @Setter
     public static Future<?> pathfinderFuture;
@@ -202,6 +201,9 @@ public class ShortestPathPlugin extends Plugin implements KeyListener {
         Map<WorldPoint, Set<Transport>> transports = Transport.loadAllFromResources();
         List<Restriction> restrictions = Restriction.loadAllFromResources();
         pathfinderConfig = new PathfinderConfig(map, transports, restrictions, client, config);
+        if (config.useRegionGraph()) {
+            buildRegionGraph();
+        }
 
         panel = injector.getInstance(ShortestPathPanel.class);
         final BufferedImage icon = ImageUtil.loadImageResource(ShortestPathPlugin.class, "panel_icon.png");
@@ -245,15 +247,35 @@ public class ShortestPathPlugin extends Plugin implements KeyListener {
         shortestPathScript.shutdown();
 
         exit();
+        synchronized (pathfinderMutex) {
+            if (pathfinderService != null) {
+                pathfinderService.shutdown();
+                pathfinderService = null;
+            }
+        }
         keyManager.unregisterKeyListener(this);
     }
 
     //Method from microbot
     public static void exit() {
-        if (pathfindingExecutor != null) {
-            Rs2Walker.setTarget(null);
-            pathfindingExecutor.shutdownNow();
-            pathfindingExecutor = null;
+        Rs2Walker.setTarget(null);
+        synchronized (pathfinderMutex) {
+            // Only the walker's own search is stopped; other queries on the shared pool belong to other scripts
+            if (pathfinderFuture != null) {
+                pathfinderFuture.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * The pool shared by the live walker path and one-off path queries such as nearest bank lookups
+     */
+    public static PathfinderService getPathfinderService() {
+        synchronized (pathfinderMutex) {
+            if (pathfinderService == null) {
+                pathfinderService = new PathfinderService();
+            }
+            return pathfinderService;
         }
     }
 
@@ -263,11 +285,6 @@ public class ShortestPathPlugin extends Plugin implements KeyListener {
                 pathfinder.cancel();
                 pathfinderFuture.cancel(true);
             }
-
-            if (pathfindingExecutor == null) {
-                ThreadFactory shortestPathNaming = new ThreadFactoryBuilder().setNameFormat("shortest-path-%d").build();
-                pathfindingExecutor = Executors.newSingleThreadExecutor(shortestPathNaming);
-            }
         }
 
         getClientThread().invokeLater(() -> {
@@ -278,7 +295,7 @@ public class ShortestPathPlugin extends Plugin implements KeyListener {
                     setTarget(null);
                 } else {
                     pathfinder = new Pathfinder(pathfinderConfig, start, ends);
-                    pathfinderFuture = pathfindingExecutor.submit(pathfinder);
+                    pathfinderFuture = getPathfinderService().submit(pathfinder);
                 }
             }
         });
@@ -334,6 +351,10 @@ public class ShortestPathPlugin extends Plugin implements KeyListener {
             return;
         }
 
+        if ("useRegionGraph".equals(event.getKey()) && config.useRegionGraph()) {
+            buildRegionGraph();
+        }
+
         // Transport option changed; rerun pathfinding
         if (TRANSPORT_OPTIONS_REGEX.matcher(event.getKey()).find()) {
             if (pathfinder != null) {
@@ -342,6 +363,10 @@ public class ShortestPathPlugin extends Plugin implements KeyListener {
         }
     }
 
+    private void buildRegionGraph() {
+        getPathfinderService().buildRegionGraph(pathfinderConfig);
+    }
+
 	@Subscribe
 	public void onPluginMessage(PluginMessage event) {
 		if (!CONFIG_GROUP.equals(event.getNamespace())) {
@@ -443,6 +468,27 @@ public class ShortestPathPlugin extends Plugin implements KeyListener {
         lastMenuOpenedPoint = client.getMouseCanvasPosition();
     }
 
+    @Subscribe
+    public void onVarbitChanged(VarbitChanged event) {
+        if (pathfinderConfig != null) {
+            pathfinderConfig.onVarbitChanged(event.getVarbitId(), event.getVarpId());
+        }
+    }
+
+    @Subscribe
+    public void onItemContainerChanged(ItemContainerChanged event) {
+        if (pathfinderConfig != null) {
+            pathfinderConfig.onItemContainerChanged(event.getContainerId(), event.getItemContainer());
+        }
+    }
+
+    @Subscribe
+    public void onGameStateChanged(GameStateChanged event) {
+        if (pathfinderConfig != null && event.getGameState() == GameState.LOGIN_SCREEN) {
+            pathfinderConfig.invalidateTransports();
+        }
+    }
+
     @Subscribe
     public void onGameTick(GameTick tick) {
         Player localPlayer = client.getLocalPlayer();
@@ -1,13 +1,9 @@
 package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
 
-import net.runelite.api.TileObject;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.plugins.microbot.shortestpath.Transport;
 import net.runelite.client.plugins.microbot.shortestpath.TransportType;
 import net.runelite.client.plugins.microbot.shortestpath.WorldPointUtil;
-import net.runelite.client.plugins.microbot.util.coords.Rs2WorldPoint;
-import net.runelite.client.plugins.microbot.util.gameobject.Rs2GameObject;
-import net.runelite.client.plugins.microbot.util.player.Rs2Player;
 
 import java.util.*;
 
@@ -65,6 +61,56 @@ public class CollisionMap {
         return !n(x, y, z) && !s(x, y, z) && !e(x, y, z) && !w(x, y, z);
     }
 
+    /**
+     * Directions that can be walked from a tile, as a bitmask indexed by {@link OrdinalDirection#ordinal()}.
+     * This only covers walking; transports are handled by the caller.
+     */
+    public int getTraversableDirections(int x, int y, int z) {
+        if (isBlocked(x, y, z)) {
+            boolean westBlocked = isBlocked(x - 1, y, z);
+            boolean eastBlocked = isBlocked(x + 1, y, z);
+            boolean southBlocked = isBlocked(x, y - 1, z);
+            boolean northBlocked = isBlocked(x, y + 1, z);
+            boolean southWestBlocked = isBlocked(x - 1, y - 1, z);
+            boolean southEastBlocked = isBlocked(x + 1, y - 1, z);
+            boolean northWestBlocked = isBlocked(x - 1, y + 1, z);
+            boolean northEastBlocked = isBlocked(x + 1, y + 1, z);
+            return direction(0, !westBlocked)
+                    | direction(1, !eastBlocked)
+                    | direction(2, !southBlocked)
+                    | direction(3, !northBlocked)
+                    | direction(4, !southWestBlocked && !westBlocked && !southBlocked)
+                    | direction(5, !southEastBlocked && !eastBlocked && !southBlocked)
+                    | direction(6, !northWestBlocked && !westBlocked && !northBlocked)
+                    | direction(7, !northEastBlocked && !eastBlocked && !northBlocked);
+        }
+
+        return direction(0, w(x, y, z))
+                | direction(1, e(x, y, z))
+                | direction(2, s(x, y, z))
+                | direction(3, n(x, y, z))
+                | direction(4, sw(x, y, z))
+                | direction(5, se(x, y, z))
+                | direction(6, nw(x, y, z))
+                | direction(7, ne(x, y, z));
+    }
+
+    /**
+     * @return true if the adjacent tile at the offset can be walked to from the tile
+     */
+    public boolean canWalk(int x, int y, int z, int dx, int dy) {
+        for (OrdinalDirection d : ORDINAL_VALUES) {
+            if (d.x == dx && d.y == dy) {
+                return (getTraversableDirections(x, y, z) & (1 << d.ordinal())) != 0;
+            }
+        }
+        return false;
+    }
+
+    private static int direction(int ordinal, boolean traversable) {
+        return traversable ? 1 << ordinal : 0;
+    }
+
     private static int packedPointFromOrdinal(int startPacked, OrdinalDirection direction) {
         final int x = WorldPointUtil.unpackWorldX(startPacked);
         final int y = WorldPointUtil.unpackWorldY(startPacked);
@@ -72,9 +118,12 @@ public class CollisionMap {
         return WorldPointUtil.packWorldPoint(x + direction.x, y + direction.y, plane);
     }
 
-    // This is only safe if pathfinding is single-threaded
-    private final List<Node> neighbors = new ArrayList<>(16);
-    private final boolean[] traversable = new boolean[8];
+    // Neighbours found by the last getNeighbors call. Each thread gets its own CollisionMap through
+    // PathfinderConfig.getMap, so these are only shared within a thread
+    private int[] neighborPositions = new int[16];
+    private int[] neighborCosts = new int[16];
+    private boolean[] neighborTransports = new boolean[16];
+    private int neighborCount;
 
     public static final List<WorldPoint> ignoreCollision = Arrays.asList(
             new WorldPoint(3142, 3457, 0),
@@ -97,105 +146,109 @@ public class CollisionMap {
             new WorldPoint(3672, 3862, 0)
     );
 
-    public List<Node> getNeighbors(Node node, VisitedTiles visited, PathfinderConfig config, Set<WorldPoint> targets) {
-        final int x = WorldPointUtil.unpackWorldX(node.packedPosition);
-        final int y = WorldPointUtil.unpackWorldY(node.packedPosition);
-        final int z = WorldPointUtil.unpackWorldPlane(node.packedPosition);
-
-        neighbors.clear();
+    /**
+     * Finds the tiles that can be reached from a tile, which can then be read with {@link #getNeighborPosition(int)},
+     * {@link #getNeighborCost(int)} and {@link #isNeighborTransport(int)} until the next call.
+     *
+     * @param cost      the cost of reaching the tile; neighbour costs include it
+     * @param rules     the tile rules compiled for the search
+     * @param teleports player-held teleports usable from this tile, tracked by the search itself rather than
+     *                  through {@link PathfinderConfig#getTransportsPacked()}; may be null
+     * @return the number of neighbours
+     */
+    public int getNeighbors(int packedPosition, int cost, VisitedTiles visited, PathfinderConfig config, TileRules rules, Set<WorldPoint> targets, Set<Transport> teleports) {
+        final int x = WorldPointUtil.unpackWorldX(packedPosition);
+        final int y = WorldPointUtil.unpackWorldY(packedPosition);
+        final int z = WorldPointUtil.unpackWorldPlane(packedPosition);
+
+        neighborCount = 0;
 
         @SuppressWarnings("unchecked") // Casting EMPTY_LIST to List<Transport> is safe here
-        Set<Transport> transports = config.getTransportsPacked().getOrDefault(node.packedPosition, (Set<Transport>)Collections.EMPTY_SET);
+        Set<Transport> transports = config.getTransportsPacked().getOrDefault(packedPosition, (Set<Transport>)Collections.EMPTY_SET);
 
         // Transports are pre-filtered by PathfinderConfig.refreshTransports
         // Thus any transports in the list are guaranteed to be valid per the user's settings
-        for (Transport transport : transports) {
-            //START microbot variables
-            if (visited.get(transport.getDestination())) continue;
-            if (config.isIgnoreTeleportAndItems() && TransportType.isTeleport(transport.getType())) continue;
-            if (TransportType.isTeleport(transport.getType())) {
-                neighbors.add(new TransportNode(transport.getDestination(), node, config.getDistanceBeforeUsingTeleport() + transport.getDuration()));
-            } else {
-                neighbors.add(new TransportNode(transport.getDestination(), node, transport.getDuration()));
-            }
-            //END microbot variables
-        }
-
-        if (isBlocked(x, y, z)) {
-            boolean westBlocked = isBlocked(x - 1, y, z);
-            boolean eastBlocked = isBlocked(x + 1, y, z);
-            boolean southBlocked = isBlocked(x, y - 1, z);
-            boolean northBlocked = isBlocked(x, y + 1, z);
-            boolean southWestBlocked = isBlocked(x - 1, y - 1, z);
-            boolean southEastBlocked = isBlocked(x + 1, y - 1, z);
-            boolean northWestBlocked = isBlocked(x - 1, y + 1, z);
-            boolean northEastBlocked = isBlocked(x + 1, y + 1, z);
-            traversable[0] = !westBlocked;
-            traversable[1] = !eastBlocked;
-            traversable[2] = !southBlocked;
-            traversable[3] = !northBlocked;
-            traversable[4] = !southWestBlocked && !westBlocked && !southBlocked;
-            traversable[5] = !southEastBlocked && !eastBlocked && !southBlocked;
-            traversable[6] = !northWestBlocked && !westBlocked && !northBlocked;
-            traversable[7] = !northEastBlocked && !eastBlocked && !northBlocked;
-        } else {
-            traversable[0] = w(x, y, z);
-            traversable[1] = e(x, y, z);
-            traversable[2] = s(x, y, z);
-            traversable[3] = n(x, y, z);
-            traversable[4] = sw(x, y, z);
-            traversable[5] = se(x, y, z);
-            traversable[6] = nw(x, y, z);
-            traversable[7] = ne(x, y, z);
+        addTransportNeighbors(cost, transports, visited, config);
+        if (teleports != null) {
+            addTransportNeighbors(cost, teleports, visited, config);
         }
 
-        for (int i = 0; i < traversable.length; i++) {
+        final int traversable = getTraversableDirections(x, y, z);
+        final boolean collisionIgnored = rules.isCollisionIgnored(packedPosition);
+        for (int i = 0; i < ORDINAL_VALUES.length; i++) {
             OrdinalDirection d = ORDINAL_VALUES[i];
-            int neighborPacked = packedPointFromOrdinal(node.packedPosition, d);
+            int neighborPacked = packedPointFromOrdinal(packedPosition, d);
             if (visited.get(neighborPacked)) continue;
-            if (config.getRestrictedPointsPacked().contains(neighborPacked)) continue;
-            if (config.getCustomRestrictions().contains(neighborPacked)) continue;
+            if (rules.isRestricted(neighborPacked)) continue;
 
-            if (ignoreCollision.contains(new WorldPoint(x, y, z))) {
-                neighbors.add(new Node(neighborPacked, node));
+            if (collisionIgnored) {
+                addNeighbor(neighborPacked, cost + 1, false);
                 continue;
             }
 
-            /**
-             * This piece of code is designed to allow web walker to be used in toa puzzle room
-             * it will dodge specific tiles in the sequence room
-             */
-            if (Rs2Player.getWorldLocation().getRegionID() == 14162) { //toa puzzle room
-                final int lx = WorldPointUtil.unpackWorldX(neighborPacked);
-                final int ly = WorldPointUtil.unpackWorldY(neighborPacked);
-                final int lz = WorldPointUtil.unpackWorldPlane(neighborPacked);
-                if (targets.stream().noneMatch(tgts -> Objects.equals(tgts, new WorldPoint(lx, ly, lz)))) {
-                    WorldPoint globalWorldPoint = Rs2WorldPoint.convertInstancedWorldPoint(new WorldPoint(lx, ly, lz));
-                    if (globalWorldPoint != null) {
-                        TileObject go = Rs2GameObject.getGroundObject(globalWorldPoint);
-                        if (go != null && go.getId() == 45340) {
-                            continue;
-                        }
-                    }
-                }
-            }
+            if (rules.isAvoided(neighborPacked, targets)) continue;
 
-            if (traversable[i]) {
-                neighbors.add(new Node(neighborPacked, node));
+            if ((traversable & (1 << i)) != 0) {
+                addNeighbor(neighborPacked, cost + 1, false);
             } else if (Math.abs(d.x + d.y) == 1 && isBlocked(x + d.x, y + d.y, z)) {
                 // The transport starts from a blocked adjacent tile, e.g. fairy ring
                 // Only checks non-teleport transports (includes portals and levers, but not items and spells)
                 @SuppressWarnings("unchecked") // Casting EMPTY_LIST to List<Transport> is safe here
                 Set<Transport> neighborTransports = config.getTransportsPacked().getOrDefault(neighborPacked, (Set<Transport>)Collections.EMPTY_SET);
                 for (Transport transport : neighborTransports) {
-                    if (transport.getOrigin() == null || visited.get(transport.getOrigin())) {
+                    if (transport.getOrigin() == null || visited.get(transport.getOrigin()) || config.isBlocked(transport)) {
                         continue;
                     }
-                    neighbors.add(new Node(transport.getOrigin(), node));
+                    int origin = WorldPointUtil.packWorldPoint(transport.getOrigin());
+                    addNeighbor(origin, cost + WorldPointUtil.distanceBetween(packedPosition, origin), false);
                 }
             }
         }
 
-        return neighbors;
+        return neighborCount;
+    }
+
+    public int getNeighborPosition(int index) {
+        return neighborPositions[index];
+    }
+
+    public int getNeighborCost(int index) {
+        return neighborCosts[index];
+    }
+
+    /**
+     * @return true if the neighbour is reached by a transport rather than by walking
+     */
+    public boolean isNeighborTransport(int index) {
+        return neighborTransports[index];
+    }
+
+    private void addNeighbor(int packedPosition, int cost, boolean transport) {
+        if (neighborCount == neighborPositions.length) {
+            neighborPositions = Arrays.copyOf(neighborPositions, neighborCount * 2);
+            neighborCosts = Arrays.copyOf(neighborCosts, neighborCount * 2);
+            neighborTransports = Arrays.copyOf(neighborTransports, neighborCount * 2);
+        }
+        neighborPositions[neighborCount] = packedPosition;
+        neighborCosts[neighborCount] = cost;
+        neighborTransports[neighborCount] = transport;
+        ++neighborCount;
+    }
+
+    private void addTransportNeighbors(int cost, Set<Transport> transports, VisitedTiles visited, PathfinderConfig config) {
+        for (Transport transport : transports) {
+            //START microbot variables
+            if (visited.get(transport.getDestination())) continue;
+            if (config.isBlocked(transport)) continue;
+            if (config.isIgnoreTeleportAndItems() && TransportType.isTeleport(transport.getType())) continue;
+            int destination = WorldPointUtil.packWorldPoint(transport.getDestination());
+            if (config.isBlocked(destination)) continue;
+            if (TransportType.isTeleport(transport.getType())) {
+                addNeighbor(destination, cost + config.getDistanceBeforeUsingTeleport() + transport.getDuration(), true);
+            } else {
+                addNeighbor(destination, cost + transport.getDuration(), true);
+            }
+            //END microbot variables
+        }
     }
 }
@@ -0,0 +1,212 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static net.runelite.api.Constants.REGION_SIZE;
+
+/**
+ * Decoded collision map stored in a file that is memory mapped instead of read onto the heap.
+ * <p>
+ * Every client on the machine maps the same file, so the collision data is held once in the page cache. The file
+ * records the hash of the collision-map.zip it was built from and is rebuilt when the zip changes.
+ * <p>
+ * Layout, little endian:
+ * <pre>
+ * int    magic
+ * int    version
+ * byte[] SHA-256 of collision-map.zip (32 bytes)
+ * int    minX, minY, maxX, maxY    region extents
+ * int    slot count                (width + 1) * (height + 1)
+ * int[]  per slot: offset of the region in longs from the start of the data, or -1 if it has no collision data
+ * byte[] per slot: plane count
+ * padding to a multiple of 8 bytes
+ * long[] data: per region, plane count * {@link FlagMap#WORDS_PER_PLANE} longs of flags
+ * </pre>
+ */
+@Slf4j
+class CollisionMapCache {
+    private static final int MAGIC = 0x4D42434D; // "MBCM"
+    private static final int VERSION = 1;
+    private static final int HASH_BYTES = 32;
+    private static final int HEADER_BYTES = 4 + 4 + HASH_BYTES + 4 * 4 + 4;
+
+    /**
+     * System property with the file to keep the cache in, instead of the RuneLite cache directory
+     */
+    static final String PATH_PROPERTY = "microbot.collisionMapCache";
+
+    private CollisionMapCache() {
+    }
+
+    /**
+     * @return the file set by the {@link #PATH_PROPERTY} system property, or collision-map.bin in the RuneLite cache
+     * directory
+     */
+    static Path defaultPath() {
+        final String path = System.getProperty(PATH_PROPERTY);
+        return path != null ? Paths.get(path) : RuneLite.CACHE_DIR.toPath().resolve("collision-map.bin");
+    }
+
+    static HashCode hash(byte[] zip) {
+        return Hashing.sha256().hashBytes(zip);
+    }
+
+    /**
+     * @return the mapped collision map, or null if the file is missing, unreadable or built from another zip
+     */
+    static SplitFlagMap load(Path path, HashCode zipHash) {
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.debug("Unable to map collision map cache {}", path, e);
+            return null;
+        }
+
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            return null;
+        }
+
+        byte[] hash = new byte[HASH_BYTES];
+        buffer.position(8);
+        buffer.get(hash);
+        if (!HashCode.fromBytes(hash).equals(zipHash)) {
+            return null;
+        }
+
+        final SplitFlagMap.RegionExtent extents = new SplitFlagMap.RegionExtent(
+                buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+        final int slots = buffer.getInt();
+        if (slots != (extents.getWidth() + 1) * (extents.getHeight() + 1)) {
+            return null;
+        }
+
+        final int offsetsStart = HEADER_BYTES;
+        final int planesStart = offsetsStart + slots * 4;
+        final int dataStart = align(planesStart + slots);
+        if (buffer.capacity() < dataStart) {
+            return null;
+        }
+
+        buffer.position(dataStart);
+        final LongBuffer words = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        final FlagMap[] regionMaps = new FlagMap[slots];
+        final int widthInclusive = extents.getWidth() + 1;
+        for (int i = 0; i < slots; ++i) {
+            final int offset = buffer.getInt(offsetsStart + i * 4);
+            if (offset < 0) {
+                continue;
+            }
+
+            final byte planeCount = buffer.get(planesStart + i);
+            if ((long) offset + (long) planeCount * FlagMap.WORDS_PER_PLANE > words.capacity()) {
+                log.debug("Collision map cache {} is truncated", path);
+                return null;
+            }
+
+            final int regionX = extents.getMinX() + i % widthInclusive;
+            final int regionY = extents.getMinY() + i / widthInclusive;
+            regionMaps[i] = new FlagMap(regionX * REGION_SIZE, regionY * REGION_SIZE, planeCount, words, offset);
+        }
+
+        return new SplitFlagMap(extents, regionMaps);
+    }
+
+    /**
+     * Writes the collision map to a temporary file and moves it into place, so clients mapping the old file
+     * are not affected.
+     */
+    static void write(Path path, HashCode zipHash, SplitFlagMap map) throws IOException {
+        final SplitFlagMap.RegionExtent extents = SplitFlagMap.getRegionExtents();
+        final FlagMap[] regionMaps = map.getRegionMaps();
+        final int slots = regionMaps.length;
+
+        long words = 0;
+        for (FlagMap regionMap : regionMaps) {
+            if (regionMap != null) {
+                words += (long) regionMap.getPlaneCount() * FlagMap.WORDS_PER_PLANE;
+            }
+        }
+
+        final int dataStart = align(HEADER_BYTES + slots * 4 + slots);
+        final long size = dataStart + words * Long.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Collision map is too large to map: " + size + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.put(zipHash.asBytes());
+        buffer.putInt(extents.getMinX());
+        buffer.putInt(extents.getMinY());
+        buffer.putInt(extents.getMaxX());
+        buffer.putInt(extents.getMaxY());
+        buffer.putInt(slots);
+
+        int offset = 0;
+        for (FlagMap regionMap : regionMaps) {
+            if (regionMap == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(offset);
+                offset += regionMap.getPlaneCount() * FlagMap.WORDS_PER_PLANE;
+            }
+        }
+        for (FlagMap regionMap : regionMaps) {
+            buffer.put(regionMap == null ? 0 : regionMap.getPlaneCount());
+        }
+
+        buffer.position(dataStart);
+        LongBuffer data = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        for (FlagMap regionMap : regionMaps) {
+            if (regionMap != null) {
+                regionMap.writeTo(data);
+            }
+        }
+        buffer.position(0);
+
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), "collision-map", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int align(int position) {
+        return (position + Long.BYTES - 1) & -Long.BYTES;
+    }
+}
@@ -2,6 +2,8 @@ package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
 
 import lombok.Getter;
 
+import java.nio.LongBuffer;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Locale;
 
@@ -9,29 +11,57 @@ import static net.runelite.api.Constants.REGION_SIZE;
 
 public class FlagMap {
     private static final byte FLAG_COUNT = 2;
-    private final BitSet flags;
+    /** Number of longs holding the flags of one plane */
+    static final int WORDS_PER_PLANE = REGION_SIZE * REGION_SIZE * FLAG_COUNT / Long.SIZE;
+
+    // Either a heap array or a read-only slice of the mapped collision cache, see CollisionMapCache
+    private final LongBuffer words;
+    private final int offset;
     @Getter
     private final byte planeCount;
     private final int minX;
     private final int minY;
 
     public FlagMap(int minX, int minY, byte planeCount) {
-        this.minX = minX;
-        this.minY = minY;
-        this.planeCount = planeCount;
-        flags = new BitSet(REGION_SIZE * REGION_SIZE * planeCount * FLAG_COUNT);
+        this(minX, minY, planeCount, LongBuffer.wrap(new long[planeCount * WORDS_PER_PLANE]), 0);
     }
 
     public FlagMap(int minX, int minY, byte[] bytes) {
         this.minX = minX;
         this.minY = minY;
-        flags = BitSet.valueOf(bytes);
+        BitSet flags = BitSet.valueOf(bytes);
         int scale = REGION_SIZE * REGION_SIZE * FLAG_COUNT;
         this.planeCount = (byte) ((flags.size() + scale - 1) / scale);
+        this.words = LongBuffer.wrap(Arrays.copyOf(flags.toLongArray(), planeCount * WORDS_PER_PLANE));
+        this.offset = 0;
+    }
+
+    /**
+     * @param offset index of the first long of this region in the buffer
+     */
+    FlagMap(int minX, int minY, byte planeCount, LongBuffer words, int offset) {
+        this.minX = minX;
+        this.minY = minY;
+        this.planeCount = planeCount;
+        this.words = words;
+        this.offset = offset;
     }
 
     public byte[] toBytes() {
-        return flags.toByteArray();
+        long[] copy = new long[planeCount * WORDS_PER_PLANE];
+        for (int i = 0; i < copy.length; ++i) {
+            copy[i] = words.get(offset + i);
+        }
+        return BitSet.valueOf(copy).toByteArray();
+    }
+
+    /**
+     * Copies the flags to a buffer, in the layout read by {@link #FlagMap(int, int, byte, LongBuffer, int)}
+     */
+    void writeTo(LongBuffer out) {
+        for (int i = 0; i < planeCount * WORDS_PER_PLANE; ++i) {
+            out.put(words.get(offset + i));
+        }
     }
 
     public boolean get(int x, int y, int z, int flag) {
@@ -39,11 +69,18 @@ public class FlagMap {
             return false;
         }
 
-        return flags.get(index(x, y, z, flag));
+        final int index = index(x, y, z, flag);
+        return (words.get(offset + (index >>> 6)) & (1L << index)) != 0;
     }
 
     public void set(int x, int y, int z, int flag, boolean value) {
-        flags.set(index(x, y, z, flag), value);
+        final int index = index(x, y, z, flag);
+        final int word = offset + (index >>> 6);
+        if (value) {
+            words.put(word, words.get(word) | (1L << index));
+        } else {
+            words.put(word, words.get(word) & ~(1L << index));
+        }
     }
 
     private int index(int x, int y, int z, int flag) {
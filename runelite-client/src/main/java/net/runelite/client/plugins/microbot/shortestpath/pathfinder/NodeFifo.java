@@ -0,0 +1,51 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import java.util.Arrays;
+
+/**
+ * First-in first-out queue of node indices in a {@link NodePool}
+ */
+class NodeFifo {
+    private int[] nodes;
+    private int head;
+    private int tail;
+
+    NodeFifo(int initialCapacity) {
+        nodes = new int[initialCapacity];
+    }
+
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    /**
+     * @return the first node; only valid if the queue isn't empty
+     */
+    int peek() {
+        return nodes[head];
+    }
+
+    void add(int node) {
+        if (tail == nodes.length) {
+            if (head > nodes.length / 2) {
+                // Most of the array has already been consumed; reuse it instead of growing
+                System.arraycopy(nodes, head, nodes, 0, tail - head);
+            } else {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                System.arraycopy(nodes, head, nodes, 0, tail - head);
+            }
+            tail -= head;
+            head = 0;
+        }
+        nodes[tail++] = node;
+    }
+
+    int poll() {
+        return nodes[head++];
+    }
+
+    void clear() {
+        head = 0;
+        tail = 0;
+    }
+}
@@ -0,0 +1,76 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of node indices in a {@link NodePool}, ordered by a long priority
+ */
+class NodeHeap {
+    private int[] nodes;
+    private long[] priorities;
+    private int size;
+
+    NodeHeap(int initialCapacity) {
+        nodes = new int[initialCapacity];
+        priorities = new long[initialCapacity];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the lowest priority in the heap; only valid if it isn't empty
+     */
+    long peekPriority() {
+        return priorities[0];
+    }
+
+    void add(int node, long priority) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+
+        int i = size++;
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            nodes[i] = nodes[parent];
+            priorities[i] = priorities[parent];
+            i = parent;
+        }
+        nodes[i] = node;
+        priorities[i] = priority;
+    }
+
+    int poll() {
+        final int result = nodes[0];
+        final int last = nodes[--size];
+        final long lastPriority = priorities[size];
+
+        int i = 0;
+        final int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                ++child;
+            }
+            if (lastPriority <= priorities[child]) {
+                break;
+            }
+            nodes[i] = nodes[child];
+            priorities[i] = priorities[child];
+            i = child;
+        }
+        nodes[i] = last;
+        priorities[i] = lastPriority;
+        return result;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
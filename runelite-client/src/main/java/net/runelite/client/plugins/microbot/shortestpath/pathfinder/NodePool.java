@@ -0,0 +1,216 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.shortestpath.WorldPointUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Search nodes stored as parallel primitive arrays, so a search allocates no object per node.
+ * <p>
+ * A node is referred to by its index in the pool. Each node stores its packed position, the index of the node it
+ * was reached from ({@link #NONE} for the start) and its cost. The cheapest node for every position is tracked in
+ * an open-addressing map keyed by packed position.
+ * <p>
+ * Every search thread owns one pool through {@link PathfinderConfig#getNodePool()}, which is cleared and reused by
+ * the next search on that thread. Paths must therefore be copied out with {@link #getPath(int)} before the search
+ * returns.
+ */
+public class NodePool {
+    public static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 1 << 14;
+    // Pools that grew past this during a search are shrunk again, so one long search doesn't pin its memory
+    private static final int RETAINED_CAPACITY = 1 << 20;
+    private static final int FLAG_TRANSPORT = 1;
+
+    private int[] positions;
+    private int[] parents;
+    private int[] costs;
+    private byte[] flags;
+    private int size;
+
+    // Open-addressing map from packed position to the cheapest node index at that position.
+    // A slot is only in use if its generation matches the current one, so clearing is O(1).
+    private int[] slotKeys;
+    private int[] slotValues;
+    private int[] slotGenerations;
+    private int generation = 1;
+    private int slotsUsed;
+
+    public NodePool() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getPosition(int node) {
+        return positions[node];
+    }
+
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    public int getCost(int node) {
+        return costs[node];
+    }
+
+    public boolean isTransport(int node) {
+        return (flags[node] & FLAG_TRANSPORT) != 0;
+    }
+
+    /**
+     * @return the cheapest node added at this position, or {@link #NONE}
+     */
+    public int indexOf(int packedPosition) {
+        final int mask = slotKeys.length - 1;
+        for (int slot = hash(packedPosition) & mask; slotGenerations[slot] == generation; slot = (slot + 1) & mask) {
+            if (slotKeys[slot] == packedPosition) {
+                return slotValues[slot];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Adds a node reached by walking from the parent, costing the distance between the two
+     */
+    public int addWalk(int packedPosition, int parent) {
+        final int cost = parent == NONE ? 0 : costs[parent] + WorldPointUtil.distanceBetween(positions[parent], packedPosition);
+        return add(packedPosition, parent, cost, false);
+    }
+
+    /**
+     * Adds a node reached by a transport from the parent, costing the transport's travel time
+     */
+    public int addTransport(int packedPosition, int parent, int travelTime) {
+        final int cost = (parent == NONE ? 0 : costs[parent]) + travelTime;
+        return add(packedPosition, parent, cost, true);
+    }
+
+    public int add(int packedPosition, int parent, int cost, boolean transport) {
+        if (size == positions.length) {
+            grow();
+        }
+
+        final int node = size++;
+        positions[node] = packedPosition;
+        parents[node] = parent;
+        costs[node] = cost;
+        flags[node] = transport ? (byte) FLAG_TRANSPORT : 0;
+
+        final int mask = slotKeys.length - 1;
+        int slot = hash(packedPosition) & mask;
+        while (slotGenerations[slot] == generation) {
+            if (slotKeys[slot] == packedPosition) {
+                if (cost < costs[slotValues[slot]]) {
+                    slotValues[slot] = node;
+                }
+                return node;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        slotKeys[slot] = packedPosition;
+        slotValues[slot] = node;
+        slotGenerations[slot] = generation;
+        if (++slotsUsed * 2 > slotKeys.length) {
+            rehash();
+        }
+        return node;
+    }
+
+    /**
+     * @return the positions from the start to the node
+     */
+    public List<WorldPoint> getPath(int node) {
+        int[] packedPath = getPathPacked(node);
+        List<WorldPoint> path = new ArrayList<>(packedPath.length);
+        for (int packedPosition : packedPath) {
+            path.add(WorldPointUtil.unpackWorldPoint(packedPosition));
+        }
+        return path;
+    }
+
+    public int[] getPathPacked(int node) {
+        int length = 0;
+        for (int n = node; n != NONE; n = parents[n]) {
+            ++length;
+        }
+
+        int[] path = new int[length];
+        for (int n = node; n != NONE; n = parents[n]) {
+            path[--length] = positions[n];
+        }
+        return path;
+    }
+
+    public void clear() {
+        size = 0;
+        slotsUsed = 0;
+        if (positions.length > RETAINED_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+        } else if (++generation == 0) {
+            // Generations wrapped around, so old slots could look current again
+            Arrays.fill(slotGenerations, 0);
+            generation = 1;
+        }
+    }
+
+    private void allocate(int capacity) {
+        positions = new int[capacity];
+        parents = new int[capacity];
+        costs = new int[capacity];
+        flags = new byte[capacity];
+        slotKeys = new int[capacity * 2];
+        slotValues = new int[capacity * 2];
+        slotGenerations = new int[capacity * 2];
+        generation = 1;
+    }
+
+    private void grow() {
+        final int capacity = positions.length * 2;
+        positions = Arrays.copyOf(positions, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        costs = Arrays.copyOf(costs, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+
+    private void rehash() {
+        final int[] oldKeys = slotKeys;
+        final int[] oldValues = slotValues;
+        final int[] oldGenerations = slotGenerations;
+        final int oldGeneration = generation;
+
+        slotKeys = new int[oldKeys.length * 2];
+        slotValues = new int[oldKeys.length * 2];
+        slotGenerations = new int[oldKeys.length * 2];
+        generation = 1;
+
+        final int mask = slotKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldGenerations[i] != oldGeneration) {
+                continue;
+            }
+
+            int slot = hash(oldKeys[i]) & mask;
+            while (slotGenerations[slot] == generation) {
+                slot = (slot + 1) & mask;
+            }
+            slotKeys[slot] = oldKeys[i];
+            slotValues[slot] = oldValues[i];
+            slotGenerations[slot] = generation;
+        }
+    }
+
+    private static int hash(int packedPosition) {
+        // Packed positions differ mostly in their low bits; spread them over the table
+        final int h = packedPosition * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -2,11 +2,17 @@ package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
 
 import lombok.Getter;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.shortestpath.PrimitiveIntHashMap;
+import net.runelite.client.plugins.microbot.shortestpath.Transport;
 import net.runelite.client.plugins.microbot.shortestpath.WorldPointUtil;
 
 import java.util.*;
 
 public class Pathfinder implements Runnable {
+    private static final long PATH_UPDATE_INTERVAL_MILLIS = 100;
+    // A repair that needs more than this is no quicker than searching again
+    private static final int REPAIR_EXPANSION_LIMIT = 50_000;
+
     private PathfinderStats stats;
     private volatile boolean done = false;
     private volatile boolean cancelled = false;
@@ -17,19 +23,41 @@ public class Pathfinder implements Runnable {
     private final Set<WorldPoint> targets;
 
     private final PathfinderConfig config;
-    private final CollisionMap map;
+    // The path being repaired, or null for a full search
+    private final List<WorldPoint> previousPath;
+    // Either the targets, or the tiles of the previous path that a repair may rejoin
+    private Set<WorldPoint> searchTargets;
+    private boolean repairing;
+    // Resolved on the thread running the search, since each thread owns its own neighbour buffers and node pool
+    private CollisionMap map;
+    private NodePool nodes;
+    private TileRules tileRules;
     private final boolean targetInWilderness;
 
     // Capacities should be enough to store all nodes without requiring the queue to grow
     // They were found by checking the max queue size
-    private final Deque<Node> boundary = new ArrayDeque<>(4096);
-    private final Queue<Node> pending = new PriorityQueue<>(256);
-    private final VisitedTiles visited;
-
+    private final NodeFifo boundary = new NodeFifo(4096);
+    private final NodeHeap pending = new NodeHeap(256);
+    private VisitedTiles visited;
+    // Player-held teleports usable from a node; kept per search so concurrent searches don't share them
+    private final PrimitiveIntHashMap<Set<Transport>> teleportsPacked = new PrimitiveIntHashMap<>(8);
+    // Only used by the informed search
+    private final NodeHeap open = new NodeHeap(4096);
+    private TransportHeuristic transportHeuristic;
+    // Regions picked by the region graph that the search is limited to, or null to search everywhere
+    private RegionGraph.Corridor corridor;
+
+    // Copied out of the node pool by the search thread, since the pool is reused once the search ends
     @SuppressWarnings("unchecked") // Casting EMPTY_LIST is safe here
-    private List<WorldPoint> path = (List<WorldPoint>)Collections.EMPTY_LIST;
+    private volatile List<WorldPoint> path = (List<WorldPoint>)Collections.EMPTY_LIST;
     private boolean pathNeedsUpdate = false;
-    private Node bestLastNode;
+    private long nextPathUpdateMillis;
+    private int bestLastNode;
+    private boolean reachedTarget;
+    private int bestDistance;
+    private long bestHeuristic;
+    private long cutoffDurationMillis;
+    private long cutoffTimeMillis;
     /**
      * Teleportation transports are updated when this changes.
      * Can be either:
@@ -42,25 +70,46 @@ public class Pathfinder implements Runnable {
     public Pathfinder(PathfinderConfig config, WorldPoint start, WorldPoint target) {
         stats = new PathfinderStats();
         this.config = config;
-        this.map = config.getMap();
         this.start = start;
         this.targets = Set.of(target);
-        visited = new VisitedTiles(map);
+        previousPath = null;
         targetInWilderness = PathfinderConfig.isInWilderness(target);
         wildernessLevel = 31;
     }
 
     public Pathfinder(PathfinderConfig config, WorldPoint start, Set<WorldPoint> targets) {
+        this(config, start, targets, null);
+    }
+
+    private Pathfinder(PathfinderConfig config, WorldPoint start, Set<WorldPoint> targets, List<WorldPoint> previousPath) {
         stats = new PathfinderStats();
         this.config = config;
-        this.map = config.getMap();
         this.start = start;
         this.targets = targets;
-        visited = new VisitedTiles(map);
+        this.previousPath = previousPath;
+        if (previousPath != null) {
+            // Keep showing the old path until the repaired one is ready
+            path = previousPath;
+        }
         targetInWilderness = PathfinderConfig.isInWilderness(targets);
         wildernessLevel = 31;
     }
 
+    /**
+     * Creates a search that re-plans from a new start by reusing the finished path of a previous search.
+     * <p>
+     * It searches from the start for the nearest tile of the previous path that lies after the player and after
+     * every tile or transport that has since been blocked in {@link PathfinderConfig}, and keeps the rest of the
+     * previous path from there. Only when the path can't be rejoined nearby does it fall back to a full search.
+     */
+    public static Pathfinder repair(PathfinderConfig config, WorldPoint start, Pathfinder previous) {
+        List<WorldPoint> previousPath = previous.isDone() ? previous.getPath() : null;
+        if (previousPath == null || previousPath.isEmpty()) {
+            return new Pathfinder(config, start, previous.getTargets());
+        }
+        return new Pathfinder(config, start, previous.getTargets(), previousPath);
+    }
+
     public boolean isDone() {
         return done;
     }
@@ -78,123 +127,379 @@ public class Pathfinder implements Runnable {
         return null;
     }
 
+    /**
+     * The best path found so far. While the search runs this is refreshed a few times a second.
+     */
     public List<WorldPoint> getPath() {
-        Node lastNode = bestLastNode; // For thread safety, read bestLastNode once
-        if (lastNode == null) {
-            return path;
-        }
+        return path;
+    }
 
-        if (pathNeedsUpdate) {
-            path = lastNode.getPath();
-            pathNeedsUpdate = false;
-        }
+    private void addNeighbors(int node) {
+        final int position = nodes.getPosition(node);
+        final int count = map.getNeighbors(position, nodes.getCost(node), visited, config, tileRules, searchTargets, teleportsPacked.get(position));
+        for (int i = 0; i < count; ++i) {
+            final int neighborPosition = map.getNeighborPosition(i);
+            if (config.avoidWilderness(position, neighborPosition, targetInWilderness)) {
+                continue;
+            }
+            if (corridor != null && !corridor.contains(neighborPosition)) {
+                continue;
+            }
 
-        return path;
+            visited.set(neighborPosition);
+            final int neighbor = nodes.add(neighborPosition, node, map.getNeighborCost(i), map.isNeighborTransport(i));
+            if (map.isNeighborTransport(i)) {
+                pending.add(neighbor, nodes.getCost(neighbor));
+                ++stats.transportsChecked;
+            } else {
+                boundary.add(neighbor);
+                ++stats.nodesChecked;
+            }
+        }
     }
 
-    private void addNeighbors(Node node) {
-        List<Node> nodes = map.getNeighbors(node, visited, config, targets);
-        for (Node neighbor : nodes) {
-            if (config.avoidWilderness(node.packedPosition, neighbor.packedPosition, targetInWilderness)) {
+    private void addInformedNeighbors(int node) {
+        final int position = nodes.getPosition(node);
+        final int count = map.getNeighbors(position, nodes.getCost(node), visited, config, tileRules, searchTargets, teleportsPacked.get(position));
+        for (int i = 0; i < count; ++i) {
+            final int neighborPosition = map.getNeighborPosition(i);
+            final int cost = map.getNeighborCost(i);
+            if (config.avoidWilderness(position, neighborPosition, targetInWilderness)) {
+                continue;
+            }
+            if (corridor != null && !corridor.contains(neighborPosition)) {
+                continue;
+            }
+
+            // Tiles are only marked as visited once expanded, since a cheaper route to them may still be queued.
+            // Skip the neighbour if such a route is already queued.
+            final int queued = nodes.indexOf(neighborPosition);
+            if (queued != NodePool.NONE && nodes.getCost(queued) <= cost) {
                 continue;
             }
 
-            visited.set(neighbor.packedPosition);
-            if (neighbor instanceof TransportNode) {
-                pending.add(neighbor);
+            final int neighbor = nodes.add(neighborPosition, node, cost, map.isNeighborTransport(i));
+            open.add(neighbor, score(cost, transportHeuristic.estimate(neighborPosition)));
+            if (map.isNeighborTransport(i)) {
                 ++stats.transportsChecked;
             } else {
-                boundary.addLast(neighbor);
                 ++stats.nodesChecked;
             }
         }
     }
 
+    /**
+     * Orders by cost so far plus the estimated remaining cost, and on ties prefers the node that has travelled
+     * further, since it is closer to a target
+     */
+    private static long score(int cost, int estimate) {
+        final long total = Math.min((long) cost + estimate, Integer.MAX_VALUE);
+        return (total << 31) | (Integer.MAX_VALUE - cost);
+    }
+
     @Override
     public void run() {
         stats.start();
-        boundary.addFirst(new Node(start, null));
+        map = config.getMap();
+        tileRules = TileRules.compile(config);
+        nodes = config.getNodePool();
+        nodes.clear();
+        visited = config.getVisitedTiles();
+        visited.clear();
+        final int regionsAllocated = visited.getRegionsAllocated();
+        final int regionsReused = visited.getRegionsReused();
+        bestLastNode = NodePool.NONE;
+
+        searchTargets = targets;
+        if (previousPath == null || !repair()) {
+            RegionGraph regionGraph = config.isUseRegionGraph() ? config.getRegionGraph() : null;
+            corridor = regionGraph != null ? regionGraph.findCorridor(config, start, targets) : null;
+            search(config.isUseInformedSearch());
+
+            if (corridor != null && !reachedTarget && !cancelled) {
+                // The graph doesn't know about every restriction, so fall back to searching everywhere
+                corridor = null;
+                reset();
+                nodes.clear();
+                bestLastNode = NodePool.NONE;
+                search(config.isUseInformedSearch());
+            }
 
-        int bestDistance = Integer.MAX_VALUE;
-        long bestHeuristic = Integer.MAX_VALUE;
-        long cutoffDurationMillis = config.getCalculationCutoffMillis();
-        long cutoffTimeMillis = System.currentTimeMillis() + cutoffDurationMillis;
+            if (bestLastNode != NodePool.NONE) {
+                path = nodes.getPath(bestLastNode);
+            }
+        }
+        done = !cancelled;
 
-        while (!cancelled && (!boundary.isEmpty() || !pending.isEmpty())) {
-            Node node = boundary.peekFirst();
-            Node p = pending.peek();
-            
-            if (p != null && (node == null || p.cost < node.cost)) {
-                node = pending.poll();
-            } else {
-                node = boundary.removeFirst();
+        reset();
+        // Both shrink back if this search grew them past what a thread keeps between searches
+        nodes.clear();
+        visited.clear();
+        stats.visitedRegionsAllocated = visited.getRegionsAllocated() - regionsAllocated;
+        stats.visitedRegionsReused = visited.getRegionsReused() - regionsReused;
+
+        stats.end(); // Include cleanup in stats to get the total cost of pathfinding
+    }
+
+    private void search(boolean informed) {
+        bestDistance = Integer.MAX_VALUE;
+        bestHeuristic = Integer.MAX_VALUE;
+        cutoffDurationMillis = config.getCalculationCutoffMillis();
+        cutoffTimeMillis = System.currentTimeMillis() + cutoffDurationMillis;
+
+        if (informed) {
+            runInformed();
+        } else {
+            runBreadthFirst();
+        }
+    }
+
+    /**
+     * Searches from the start back to the usable part of the previous path.
+     *
+     * @return true if the path was repaired, or false if a full search is needed
+     */
+    private boolean repair() {
+        Map<WorldPoint, Integer> rejoinIndexes = rejoinIndexes();
+        if (rejoinIndexes.isEmpty()) {
+            return false;
+        }
+
+        // Breadth-first, so the first tile of the previous path reached is the closest one
+        repairing = true;
+        searchTargets = rejoinIndexes.keySet();
+        search(false);
+        repairing = false;
+        searchTargets = targets;
+
+        final boolean repaired = reachedTarget && !cancelled;
+        if (repaired) {
+            List<WorldPoint> repairedPath = nodes.getPath(bestLastNode);
+            final int rejoinIndex = rejoinIndexes.get(repairedPath.get(repairedPath.size() - 1));
+            repairedPath.addAll(previousPath.subList(rejoinIndex + 1, previousPath.size()));
+            path = repairedPath;
+            stats.repaired = true;
+        }
+
+        reset();
+        nodes.clear();
+        bestLastNode = NodePool.NONE;
+        reachedTarget = false;
+        return repaired;
+    }
+
+    /**
+     * @return the tiles of the previous path a repair may rejoin, with their index in that path
+     */
+    private Map<WorldPoint, Integer> rejoinIndexes() {
+        // Rejoining before the tile nearest to the start would walk back along the path
+        int from = 0;
+        int nearest = Integer.MAX_VALUE;
+        for (int i = 0; i < previousPath.size(); ++i) {
+            final int distance = previousPath.get(i).distanceTo(start);
+            if (distance < nearest) {
+                nearest = distance;
+                from = i;
+            }
+        }
+
+        // The rest of the path is kept as it is, so every tile and step of it has to still be usable
+        for (int i = from; i < previousPath.size(); ++i) {
+            if (tileRules.isRestricted(WorldPointUtil.packWorldPoint(previousPath.get(i)))) {
+                from = i + 1;
+            } else if (i + 1 < previousPath.size() && !isUsableStep(previousPath.get(i), previousPath.get(i + 1))) {
+                from = i + 1;
             }
+        }
 
-            if (wildernessLevel > 0) {
-                // We don't need to remove teleports when going from 20 to 21 or higher,
-                // because the teleport is either used at the very start of the
-                // path or when going from 31 or higher to 30, or from 21 or higher to 20.
+        Map<WorldPoint, Integer> rejoinIndexes = new HashMap<>();
+        for (int i = from; i < previousPath.size(); ++i) {
+            rejoinIndexes.putIfAbsent(previousPath.get(i), i);
+        }
+        return rejoinIndexes;
+    }
 
-                boolean update = false;
+    /**
+     * @return true if a step between two consecutive tiles of the previous path can still be walked, or taken by a
+     * transport that is still usable as of the last transport refresh
+     */
+    private boolean isUsableStep(WorldPoint from, WorldPoint to) {
+        final int packedFrom = WorldPointUtil.packWorldPoint(from);
+        final int dx = to.getX() - from.getX();
+        final int dy = to.getY() - from.getY();
+        final boolean adjacent = from.getPlane() == to.getPlane() && Math.abs(dx) <= 1 && Math.abs(dy) <= 1;
+        if (adjacent && (tileRules.isCollisionIgnored(packedFrom) || map.canWalk(from.getX(), from.getY(), from.getPlane(), dx, dy))) {
+            return true;
+        }
 
-                // These are overlapping boundaries, so if the node isn't in level 30, it's in 0-29
-                // likewise, if the node isn't in level 20, it's in 0-19
-                if (wildernessLevel > 29 && !config.isInLevel29Wilderness(node.packedPosition)) {
-                    wildernessLevel = 29;
-                    update = true;
-                }
-                if (wildernessLevel > 19 && !config.isInLevel19Wilderness(node.packedPosition)) {
-                    wildernessLevel = 19;
-                    update = true;
-                }
-                if (wildernessLevel > 0 && !config.isInWilderness(node.packedPosition)) {
-                    wildernessLevel = 0;
-                    update = true;
-                }
-                if (update) {
-                    config.refreshTeleports(node.packedPosition, wildernessLevel);
+        if (hasUsableTransport(config.getTransportsPacked().get(packedFrom), to)) {
+            return true;
+        }
+        if (!config.isIgnoreTeleportAndItems() && hasUsableTransport(config.getUsableTeleports(), to)) {
+            return true;
+        }
+        // A walk onto the origin of a transport that starts from a blocked tile, e.g. a fairy ring
+        if (adjacent) {
+            final Set<Transport> transports = config.getTransportsPacked().get(WorldPointUtil.packWorldPoint(to));
+            if (transports != null) {
+                for (Transport transport : transports) {
+                    if (to.equals(transport.getOrigin()) && !config.isBlocked(transport)) {
+                        return true;
+                    }
                 }
             }
+        }
+        return false;
+    }
 
-            if (targets.contains(WorldPointUtil.unpackWorldPoint(node.packedPosition))) {
-                bestLastNode = node;
-                pathNeedsUpdate = true;
-                break;
+    private boolean hasUsableTransport(Set<Transport> transports, WorldPoint destination) {
+        if (transports == null) {
+            return false;
+        }
+        for (Transport transport : transports) {
+            if (destination.equals(transport.getDestination()) && !config.isBlocked(transport)) {
+                return true;
             }
+        }
+        return false;
+    }
 
-            for (WorldPoint target : targets) {
-                int distance = WorldPointUtil.distanceBetween(node.packedPosition, WorldPointUtil.packWorldPoint(target));
-                long heuristic = distance + (long) WorldPointUtil.distanceBetween(node.packedPosition, WorldPointUtil.packWorldPoint(target), 2);
+    private void reset() {
+        boundary.clear();
+        visited.clear();
+        pending.clear();
+        open.clear();
+        teleportsPacked.clear();
+        wildernessLevel = 31;
+        pathNeedsUpdate = false;
+    }
 
-                if (heuristic < bestHeuristic || (heuristic <= bestHeuristic && distance < bestDistance)) {
+    private void runBreadthFirst() {
+        boundary.add(nodes.addWalk(WorldPointUtil.packWorldPoint(start), NodePool.NONE));
 
-                    bestLastNode = node;
-                    pathNeedsUpdate = true;
-                    bestDistance = distance;
-                    bestHeuristic = heuristic;
-                    cutoffTimeMillis = System.currentTimeMillis() + cutoffDurationMillis;
-                }
+        while (!cancelled && (!boundary.isEmpty() || !pending.isEmpty())) {
+            final int node;
+            if (!pending.isEmpty() && (boundary.isEmpty() || pending.peekPriority() < nodes.getCost(boundary.peek()))) {
+                node = pending.poll();
+            } else {
+                node = boundary.poll();
             }
 
-            if (System.currentTimeMillis() > cutoffTimeMillis) {
+            if (expand(node)) {
                 break;
             }
-            
+
             addNeighbors(node);
         }
+    }
 
-        done = !cancelled;
+    private void runInformed() {
+        transportHeuristic = new TransportHeuristic(config, searchTargets);
+        final int packedStart = WorldPointUtil.packWorldPoint(start);
+        open.add(nodes.addWalk(packedStart, NodePool.NONE), score(0, transportHeuristic.estimate(packedStart)));
 
-        boundary.clear();
-        visited.clear();
-        pending.clear();
+        while (!cancelled && !open.isEmpty()) {
+            final int node = open.poll();
 
-        stats.end(); // Include cleanup in stats to get the total cost of pathfinding
+            // A tile can be queued several times; only its first and cheapest expansion is kept
+            if (!visited.set(nodes.getPosition(node)) && nodes.getParent(node) != NodePool.NONE) {
+                continue;
+            }
+
+            if (expand(node)) {
+                break;
+            }
+
+            addInformedNeighbors(node);
+        }
+    }
+
+    /**
+     * Updates the search state for a node taken off the queue.
+     *
+     * @return true if the search should stop, either because a target was reached or no progress was made in time
+     */
+    private boolean expand(int node) {
+        final int position = nodes.getPosition(node);
+        ++stats.nodesExpanded;
+
+        if (wildernessLevel > 0) {
+            // We don't need to remove teleports when going from 20 to 21 or higher,
+            // because the teleport is either used at the very start of the
+            // path or when going from 31 or higher to 30, or from 21 or higher to 20.
+
+            boolean update = false;
+
+            // These are overlapping boundaries, so if the node isn't in level 30, it's in 0-29
+            // likewise, if the node isn't in level 20, it's in 0-19
+            if (wildernessLevel > 29 && !config.isInLevel29Wilderness(position)) {
+                wildernessLevel = 29;
+                update = true;
+            }
+            if (wildernessLevel > 19 && !config.isInLevel19Wilderness(position)) {
+                wildernessLevel = 19;
+                update = true;
+            }
+            if (wildernessLevel > 0 && !config.isInWilderness(position)) {
+                wildernessLevel = 0;
+                update = true;
+            }
+            if (update) {
+                Set<Transport> teleports = config.refreshTeleports(position, wildernessLevel);
+                if (!teleports.isEmpty()) {
+                    teleportsPacked.put(position, teleports);
+                }
+            }
+        }
+
+        if (searchTargets.contains(WorldPointUtil.unpackWorldPoint(position))) {
+            bestLastNode = node;
+            reachedTarget = true;
+            return true;
+        }
+
+        if (repairing) {
+            // A repair either rejoins the previous path or gives way to a full search, so partial paths are unused
+            return stats.nodesExpanded >= REPAIR_EXPANSION_LIMIT || System.currentTimeMillis() > cutoffTimeMillis;
+        }
+
+        for (WorldPoint target : searchTargets) {
+            int distance = WorldPointUtil.distanceBetween(position, WorldPointUtil.packWorldPoint(target));
+            long heuristic = distance + (long) WorldPointUtil.distanceBetween(position, WorldPointUtil.packWorldPoint(target), 2);
+
+            if (heuristic < bestHeuristic || (heuristic <= bestHeuristic && distance < bestDistance)) {
+
+                bestLastNode = node;
+                pathNeedsUpdate = true;
+                bestDistance = distance;
+                bestHeuristic = heuristic;
+                cutoffTimeMillis = System.currentTimeMillis() + cutoffDurationMillis;
+            }
+        }
+
+        final long now = System.currentTimeMillis();
+        if (pathNeedsUpdate && now >= nextPathUpdateMillis) {
+            // Lets overlays follow the search without copying the path on every improvement
+            path = nodes.getPath(bestLastNode);
+            pathNeedsUpdate = false;
+            nextPathUpdateMillis = now + PATH_UPDATE_INTERVAL_MILLIS;
+        }
+
+        return now > cutoffTimeMillis;
     }
 
     public static class PathfinderStats {
         @Getter
         private int nodesChecked = 0, transportsChecked = 0;
+        /** Nodes taken off the queue and expanded, as opposed to merely discovered */
+        @Getter
+        private int nodesExpanded = 0;
+        /** Visited-tile regions allocated by this search, and those reused from an earlier search on the same thread */
+        @Getter
+        private int visitedRegionsAllocated = 0, visitedRegionsReused = 0;
+        /** Whether the path was repaired from a previous one rather than searched in full */
+        @Getter
+        private boolean repaired = false;
         private long startNanos, endNanos;
         private volatile boolean started = false, ended = false;
 
@@ -210,6 +515,10 @@ public class Pathfinder implements Runnable {
             started = true;
             nodesChecked = 0;
             transportsChecked = 0;
+            nodesExpanded = 0;
+            visitedRegionsAllocated = 0;
+            visitedRegionsReused = 0;
+            repaired = false;
             startNanos = System.nanoTime();
         }
 
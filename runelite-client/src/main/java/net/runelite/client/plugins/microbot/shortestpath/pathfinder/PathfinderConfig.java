@@ -45,11 +45,18 @@ public class PathfinderConfig {
 
     private final SplitFlagMap mapData;
     private final ThreadLocal<CollisionMap> map;
+    private final ThreadLocal<NodePool> nodePool = ThreadLocal.withInitial(NodePool::new);
+    private final ThreadLocal<VisitedTiles> visitedTiles;
+    // Tiles and transports the walker found unusable. They are replaced rather than changed, so searches read them without locking
+    private volatile Set<Integer> blockedTiles = Collections.emptySet();
+    private volatile Set<Transport> blockedTransports = Collections.emptySet();
     /** All transports by origin {@link WorldPoint}. The null key is used for transports centered on the player. */
 	@Getter
     private final Map<WorldPoint, Set<Transport>> allTransports;
+    // Replaced rather than changed by a refresh, like transportsPacked
+    @Getter
     @Setter
-    private Set<Transport> usableTeleports;
+    private volatile Set<Transport> usableTeleports;
     private final List<WorldPoint> filteredTargets = new ArrayList<>(4);
 
     @Getter
@@ -57,7 +64,16 @@ public class PathfinderConfig {
     // Copy of transports with packed positions for the hotpath; lists are not copied and are the same reference in both maps
     @Getter
     @Setter
-    private PrimitiveIntHashMap<Set<Transport>> transportsPacked;
+    private volatile PrimitiveIntHashMap<Set<Transport>> transportsPacked;
+    // Which transports depend on which inputs, to only check the transports whose inputs changed on a refresh
+    private final TransportInputs transportInputs;
+    // Not this, since buildRegionGraph holds it for seconds
+    private final Object transportLock = new Object();
+    // Usable transports by origin as of the last refresh, without the teleports merged in by refreshTeleports
+    private final Map<WorldPoint, Set<Transport>> usableTransports = new HashMap<>();
+    private final Set<Quest> unfinishedQuests = EnumSet.noneOf(Quest.class);
+    private final int[] refreshedLevels = new int[Skill.values().length];
+    private List<Object> refreshedSettings;
 
     private final Client client;
     private final ShortestPathConfig config;
@@ -66,6 +82,15 @@ public class PathfinderConfig {
     private long calculationCutoffMillis;
     @Getter
     private boolean avoidWilderness;
+    @Getter
+    @Setter
+    private boolean useInformedSearch;
+    @Getter
+    @Setter
+    private boolean useRegionGraph;
+    // Built in the background, so searches started before it is ready run without it
+    @Getter
+    private volatile RegionGraph regionGraph;
     private boolean useAgilityShortcuts,
             useGrappleShortcuts,
             useBoats,
@@ -115,10 +140,12 @@ public class PathfinderConfig {
                             Client client, ShortestPathConfig config) {
         this.mapData = mapData;
         this.map = ThreadLocal.withInitial(() -> new CollisionMap(this.mapData));
+        this.visitedTiles = ThreadLocal.withInitial(() -> new VisitedTiles(this.map.get()));
         this.allTransports = transports;
         this.usableTeleports = new HashSet<>(allTransports.size() / 20);
         this.transports = new ConcurrentHashMap<>(allTransports.size() / 2);
         this.transportsPacked = new PrimitiveIntHashMap<>(allTransports.size() / 2);
+        this.transportInputs = new TransportInputs(allTransports);
         this.client = client;
         this.config = config;
         //START microbot variables
@@ -132,9 +159,75 @@ public class PathfinderConfig {
         return map.get();
     }
 
+    /**
+     * @return the node pool of the calling thread, which is reused by every search on that thread
+     */
+    public NodePool getNodePool() {
+        return nodePool.get();
+    }
+
+    /**
+     * @return the visited tiles of the calling thread, which are reused by every search on that thread
+     */
+    public VisitedTiles getVisitedTiles() {
+        return visitedTiles.get();
+    }
+
+    /**
+     * Builds the region graph if it hasn't been built yet. This takes a few seconds, so call it off the client thread.
+     */
+    public synchronized void buildRegionGraph() {
+        if (regionGraph == null) {
+            regionGraph = RegionGraph.build(mapData, allTransports);
+        }
+    }
+
+    /**
+     * Marks a tile as unusable, e.g. behind a door that won't open. Blocked tiles are kept until {@link #clearBlocked()}.
+     */
+    public synchronized void blockTile(WorldPoint point) {
+        Set<Integer> tiles = new HashSet<>(blockedTiles);
+        tiles.add(WorldPointUtil.packWorldPoint(point));
+        blockedTiles = tiles;
+    }
+
+    /**
+     * Marks a transport as unusable, e.g. when using it failed. Blocked transports are kept until {@link #clearBlocked()}.
+     */
+    public synchronized void blockTransport(Transport transport) {
+        Set<Transport> blocked = Collections.newSetFromMap(new IdentityHashMap<>());
+        blocked.addAll(blockedTransports);
+        blocked.add(transport);
+        blockedTransports = blocked;
+    }
+
+    public synchronized void clearBlocked() {
+        blockedTiles = Collections.emptySet();
+        blockedTransports = Collections.emptySet();
+    }
+
+    /**
+     * @return the packed tiles blocked by {@link #blockTile(WorldPoint)}; the set is replaced rather than changed
+     */
+    public Set<Integer> getBlockedTiles() {
+        return blockedTiles;
+    }
+
+    public boolean isBlocked(int packedPoint) {
+        Set<Integer> tiles = blockedTiles;
+        return !tiles.isEmpty() && tiles.contains(packedPoint);
+    }
+
+    public boolean isBlocked(Transport transport) {
+        Set<Transport> blocked = blockedTransports;
+        return !blocked.isEmpty() && blocked.contains(transport);
+    }
+
     public void refresh() {
         calculationCutoffMillis = config.calculationCutoff() * Constants.GAME_TICK_LENGTH;
         avoidWilderness = ShortestPathPlugin.override("avoidWilderness", config.avoidWilderness());
+        useInformedSearch = ShortestPathPlugin.override("useInformedSearch", config.useInformedSearch());
+        useRegionGraph = ShortestPathPlugin.override("useRegionGraph", config.useRegionGraph());
         useAgilityShortcuts = ShortestPathPlugin.override("useAgilityShortcuts", config.useAgilityShortcuts());
         useGrappleShortcuts = ShortestPathPlugin.override("useGrappleShortcuts", config.useGrappleShortcuts());
         useBoats = ShortestPathPlugin.override("useBoats", config.useBoats());
@@ -176,10 +269,14 @@ public class PathfinderConfig {
         }
     }
 
-    /** Specialized method for only updating player-held item and spell transports */
-    public void refreshTeleports(int packedLocation, int wildernessLevel) {
+    /**
+     * Specialized method for only updating player-held item and spell transports.
+     * The usable teleports are returned instead of being written into {@link #transportsPacked}, so that
+     * searches running at the same time never mutate the packed map another search is reading from.
+     */
+    public Set<Transport> refreshTeleports(int packedLocation, int wildernessLevel) {
+        if (ignoreTeleportAndItems) return Collections.emptySet();
         Set<Transport> usableWildyTeleports = new HashSet<>(usableTeleports.size());
-        if (ignoreTeleportAndItems) return;
 
         for (Transport teleport : usableTeleports) {
             if (wildernessLevel <= teleport.getMaxWildernessLevel()) {
@@ -188,20 +285,16 @@ public class PathfinderConfig {
         }
 
         if (!usableWildyTeleports.isEmpty()) {
-            // Added extra code to check if the key already exists
-            // if the key already exists we append instead of overwriting
-            // The issue was that the transport list would contain a transport object on the same
-            // tile as the player, this would then be overwritten by the usableWildyTeleports
-            // therefor losing the original transport object
+            // The walker still looks up teleports by the origin of the path, so they are merged into the transports
+            // on that tile. The merge copies the existing set since another search may be iterating over it
             WorldPoint key = WorldPointUtil.unpackWorldPoint(packedLocation);
-            Set<Transport> existingTeleports = transports.get(key);
-            if (existingTeleports != null) {
-                existingTeleports.addAll(usableWildyTeleports);
-            } else {
-                transports.put(key, usableWildyTeleports);
-            }
-            transportsPacked.put(packedLocation, usableWildyTeleports);
+            transports.merge(key, usableWildyTeleports, (existing, added) -> {
+                Set<Transport> merged = new HashSet<>(existing);
+                merged.addAll(added);
+                return merged;
+            });
         }
+        return usableWildyTeleports;
     }
 
     public void filterLocations(Set<WorldPoint> locations, boolean canReviveFiltered) {
@@ -235,54 +328,176 @@ public class PathfinderConfig {
         useSpiritTrees &= QuestState.FINISHED.equals(Rs2Player.getQuestState(Quest.TREE_GNOME_VILLAGE));
         useQuetzals &= QuestState.FINISHED.equals(Rs2Player.getQuestState(Quest.TWILIGHTS_PROMISE));
 
-        transports.clear();
-        transportsPacked.clear();
-        usableTeleports.clear();
-         Microbot.getClientThread().runOnClientThreadOptional(() -> {
-            for (Map.Entry<WorldPoint, Set<Transport>> entry : allTransports.entrySet()) {
-                for (Transport transport : entry.getValue()) {
-                    for (Quest quest : transport.getQuests()) {
-                        try {
-                            QuestState currentState = questStates.get(quest);
-                            QuestState newState = Rs2Player.getQuestState(quest);
-
-                            // Only update if the new state is more progressed
-                            if (currentState == null || isMoreProgressed(newState, currentState)) {
-                                questStates.put(quest, newState);
-                            }
-                        } catch (NullPointerException ignored) {
-                            System.out.println(ignored.getMessage());
-                        }
-                    }
-                    for (TransportVarbit varbitCheck : transport.getVarbits()) {
-                        varbitValues.put(varbitCheck.getVarbitId(), Microbot.getVarbitValue(varbitCheck.getVarbitId()));
-                    }
-                    
-                    for (TransportVarPlayer varplayerCheck : transport.getVarplayers()) {
-                        varplayerValues.put(varplayerCheck.getVarplayerId(), Microbot.getVarbitPlayerValue(varplayerCheck.getVarplayerId()));
-                    }
+        // Settings that apply to whole transport types rather than to the transports depending on an input
+        List<Object> settings = Arrays.asList(useAgilityShortcuts, useGrappleShortcuts, useBoats, useCanoes,
+                useCharterShips, useShips, useFairyRings, useGnomeGliders, useMinecarts, useQuetzals, useSpiritTrees,
+                useTeleportationLevers, useTeleportationMinigames, useTeleportationPortals, useTeleportationSpells,
+                useMagicCarpets, useWildernessObelisks, useTeleportationItems, useNpcs, useBankItems,
+                Rs2Walker.disableTeleports, client.getWorldType().contains(WorldType.MEMBERS));
+
+        synchronized (transportLock) {
+            if (!transportInputs.isTracking() || !settings.equals(refreshedSettings)) {
+                refreshAllTransports();
+            } else {
+                refreshChangedTransports();
+            }
+            refreshedSettings = settings;
+            System.arraycopy(boostedLevels, 0, refreshedLevels, 0, boostedLevels.length);
+
+            // Transports are replaced rather than cleared, so the walker and running searches never see them empty
+            transports.keySet().retainAll(usableTransports.keySet());
+            transports.putAll(usableTransports);
+            PrimitiveIntHashMap<Set<Transport>> packed = new PrimitiveIntHashMap<>(usableTransports.size());
+            for (Map.Entry<WorldPoint, Set<Transport>> entry : usableTransports.entrySet()) {
+                packed.put(WorldPointUtil.packWorldPoint(entry.getKey()), entry.getValue());
+            }
+            transportsPacked = packed;
+        }
+    }
+
+    /** Checks every transport, and starts tracking which inputs change so the next refresh only checks those */
+    private void refreshAllTransports() {
+        Microbot.getClientThread().runOnClientThreadOptional(() -> {
+            transportInputs.startTracking(Arrays.asList(
+                    client.getItemContainer(InventoryID.INVENTORY),
+                    client.getItemContainer(InventoryID.EQUIPMENT),
+                    client.getItemContainer(InventoryID.BANK)));
+            unfinishedQuests.clear();
+            for (Quest quest : transportInputs.getQuests()) {
+                refreshQuestState(quest);
+                if (questStates.get(quest) != QuestState.FINISHED) {
+                    unfinishedQuests.add(quest);
                 }
             }
+            for (Integer varbitId : transportInputs.getVarbits()) {
+                varbitValues.put(varbitId, Microbot.getVarbitValue(varbitId));
+            }
+            for (Integer varplayerId : transportInputs.getVarplayers()) {
+                varplayerValues.put(varplayerId, Microbot.getVarbitPlayerValue(varplayerId));
+            }
             return true;
         });
 
+        usableTransports.clear();
+        Set<Transport> teleports = new HashSet<>(allTransports.size() / 20);
         for (Map.Entry<WorldPoint, Set<Transport>> entry : allTransports.entrySet()) {
             WorldPoint point = entry.getKey();
-            Set<Transport> usableTransports = new HashSet<>(entry.getValue().size());
             for (Transport transport : entry.getValue()) {
+                if (!useTransport(transport)) {
+                    continue;
+                }
+                if (point == null) {
+                    teleports.add(transport);
+                } else {
+                    usableTransports.computeIfAbsent(point, k -> new HashSet<>()).add(transport);
+                }
+            }
+        }
+        usableTeleports = teleports;
+    }
+
+    /** Checks again only the transports depending on the inputs that changed since the last refresh */
+    private void refreshChangedTransports() {
+        TransportInputs.Changes changes = transportInputs.takeChanges();
+        Set<Transport> changed = transportInputs.getDependents(changes);
+
+        Microbot.getClientThread().runOnClientThreadOptional(() -> {
+            // Quest progress is kept in varbits and varplayers, so quests are only read again when one of them changed
+            if (changes.varsChanged) {
+                for (Iterator<Quest> it = unfinishedQuests.iterator(); it.hasNext(); ) {
+                    Quest quest = it.next();
+                    refreshQuestState(quest);
+                    if (questStates.get(quest) == QuestState.FINISHED) {
+                        changed.addAll(transportInputs.getTransportsForQuest(quest));
+                        it.remove();
+                    }
+                }
+            }
+            for (Integer varbitId : changes.varbits) {
+                varbitValues.put(varbitId, Microbot.getVarbitValue(varbitId));
+            }
+            for (Integer varplayerId : changes.varplayers) {
+                varplayerValues.put(varplayerId, Microbot.getVarbitPlayerValue(varplayerId));
+            }
+            return true;
+        });
+
+        for (int i = 0; i < boostedLevels.length; i++) {
+            if (boostedLevels[i] != refreshedLevels[i]) {
+                changed.addAll(transportInputs.getTransportsForSkill(i));
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
 
-                if (point == null && useTransport(transport)) {
-                    usableTeleports.add(transport);
-                } else if (useTransport(transport)) {
-                    usableTransports.add(transport);
+        // The sets are shared with transports and transportsPacked, so they are copied before being changed
+        Map<WorldPoint, Set<Transport>> copies = new HashMap<>();
+        Set<Transport> teleports = null;
+        for (Transport transport : changed) {
+            WorldPoint point = transportInputs.getOrigin(transport);
+            Set<Transport> usable;
+            if (point == null) {
+                if (teleports == null) {
+                    teleports = new HashSet<>(usableTeleports);
                 }
+                usable = teleports;
+            } else {
+                usable = copies.computeIfAbsent(point, k -> new HashSet<>(usableTransports.getOrDefault(k, Collections.emptySet())));
+            }
+
+            if (useTransport(transport)) {
+                usable.add(transport);
+            } else {
+                usable.remove(transport);
             }
+        }
 
-            if (point != null && !usableTransports.isEmpty()) {
-                transports.put(point, usableTransports);
-                transportsPacked.put(WorldPointUtil.packWorldPoint(point), usableTransports);
+        for (Map.Entry<WorldPoint, Set<Transport>> entry : copies.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                usableTransports.remove(entry.getKey());
+            } else {
+                usableTransports.put(entry.getKey(), entry.getValue());
             }
         }
+        if (teleports != null) {
+            usableTeleports = teleports;
+        }
+    }
+
+    private void refreshQuestState(Quest quest) {
+        try {
+            QuestState currentState = questStates.get(quest);
+            QuestState newState = Rs2Player.getQuestState(quest);
+
+            // Only update if the new state is more progressed
+            if (currentState == null || isMoreProgressed(newState, currentState)) {
+                questStates.put(quest, newState);
+            }
+        } catch (NullPointerException ignored) {
+            System.out.println(ignored.getMessage());
+        }
+    }
+
+    /**
+     * Records a changed varbit or varplayer for the next refresh. The varbit id is -1 if a varplayer changed.
+     */
+    public void onVarbitChanged(int varbitId, int varplayerId) {
+        transportInputs.varbitChanged(varbitId, varplayerId);
+    }
+
+    /**
+     * Records changed items in the inventory, equipment or bank for the next refresh
+     */
+    public void onItemContainerChanged(int containerId, ItemContainer container) {
+        transportInputs.itemContainerChanged(containerId, container);
+    }
+
+    /**
+     * Makes the next refresh check every transport again, e.g. after logging out since another account may log in
+     */
+    public void invalidateTransports() {
+        transportInputs.stopTracking();
     }
 
     private void refreshRestrictionData() {
@@ -0,0 +1,225 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.Microbot;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+/**
+ * Runs several {@link Pathfinder} searches at once on a bounded pool.
+ * <p>
+ * Every pool thread gets its own {@link CollisionMap}, {@link NodePool} and {@link VisitedTiles} through
+ * {@link PathfinderConfig}, so searches share no mutable buffers. Identical queries that are still in flight
+ * are coalesced into a single search, which is only cancelled once every caller waiting on it has cancelled.
+ */
+@Slf4j
+public class PathfinderService {
+    private final ExecutorService executor;
+    private final Map<Query, Search> inflight = new ConcurrentHashMap<>();
+
+    public PathfinderService() {
+        this(defaultParallelism());
+    }
+
+    public PathfinderService(int parallelism) {
+        ThreadFactory shortestPathNaming = new ThreadFactoryBuilder()
+                .setNameFormat("shortest-path-%d")
+                .setDaemon(true)
+                .build();
+        executor = Executors.newFixedThreadPool(parallelism, shortestPathNaming);
+    }
+
+    /**
+     * Leaves a core for the client thread and caps the pool, since a search is mostly bound by memory bandwidth
+     */
+    public static int defaultParallelism() {
+        return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Runs an already constructed pathfinder, such as the one the walker follows. These are never coalesced.
+     */
+    public Future<?> submit(Pathfinder pathfinder) {
+        return executor.submit(pathfinder);
+    }
+
+    /**
+     * Builds the region graph of the config on the pool. Searches started before it is done run without it.
+     */
+    public Future<?> buildRegionGraph(PathfinderConfig config) {
+        return executor.submit(config::buildRegionGraph);
+    }
+
+    /**
+     * Starts a search, or joins one already running for the same query.
+     * Cancelling the returned future only cancels the search when no other caller is waiting on it.
+     */
+    public CompletableFuture<Pathfinder> find(PathfinderConfig config, WorldPoint start, Set<WorldPoint> targets) {
+        Query query = new Query(config, start, Set.copyOf(targets),
+                config.isIgnoreTeleportAndItems(), config.isUseBankItems());
+
+        while (true) {
+            Search search = inflight.computeIfAbsent(query, Search::new);
+            CompletableFuture<Pathfinder> waiter = search.join();
+            if (waiter != null) {
+                return waiter;
+            }
+            // The search finished between the lookup and the join; start a fresh one
+            inflight.remove(query, search);
+        }
+    }
+
+    /**
+     * Blocking variant of {@link #find(PathfinderConfig, WorldPoint, Set)}.
+     *
+     * @return the path, or an empty list if the search was cancelled or the calling thread was interrupted
+     */
+    public List<WorldPoint> findPath(PathfinderConfig config, WorldPoint start, Set<WorldPoint> targets) {
+        if (Microbot.getClient() != null && Microbot.getClient().isClientThread()) {
+            // Parts of a search may need the client thread, so waiting on the pool from it could deadlock
+            Pathfinder pathfinder = new Pathfinder(config, start, targets);
+            pathfinder.run();
+            return pathfinder.getPath();
+        }
+
+        CompletableFuture<Pathfinder> future = find(config, start, targets);
+        try {
+            return future.get().getPath();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+        } catch (CancellationException | ExecutionException e) {
+            log.debug("Pathfinding from {} to {} did not complete", start, targets, e);
+        }
+        return Collections.emptyList();
+    }
+
+    public List<WorldPoint> findPath(PathfinderConfig config, WorldPoint start, WorldPoint target) {
+        return findPath(config, start, Set.of(target));
+    }
+
+    public int getActiveSearches() {
+        return inflight.size();
+    }
+
+    public void shutdown() {
+        for (Search search : inflight.values()) {
+            search.close();
+        }
+        inflight.clear();
+        executor.shutdownNow();
+    }
+
+    @EqualsAndHashCode
+    private static final class Query {
+        // PathfinderConfig compares by identity; the flags below are the parts of it scripts toggle between searches
+        private final PathfinderConfig config;
+        private final WorldPoint start;
+        private final Set<WorldPoint> targets;
+        private final boolean ignoreTeleportAndItems;
+        private final boolean useBankItems;
+
+        private Query(PathfinderConfig config, WorldPoint start, Set<WorldPoint> targets,
+                      boolean ignoreTeleportAndItems, boolean useBankItems) {
+            this.config = config;
+            this.start = start;
+            this.targets = targets;
+            this.ignoreTeleportAndItems = ignoreTeleportAndItems;
+            this.useBankItems = useBankItems;
+        }
+    }
+
+    private final class Search implements Runnable {
+        private final Query query;
+        private final Pathfinder pathfinder;
+        private final CompletableFuture<Pathfinder> result = new CompletableFuture<>();
+        // Guarded by this
+        private int waiters;
+        private boolean closed;
+        private Future<?> task;
+
+        private Search(Query query) {
+            this.query = query;
+            this.pathfinder = new Pathfinder(query.config, query.start, query.targets);
+        }
+
+        /**
+         * @return a future for this caller, or null if the search has already finished and can't be joined
+         */
+        private synchronized CompletableFuture<Pathfinder> join() {
+            if (closed) {
+                return null;
+            }
+
+            if (task == null) {
+                task = executor.submit(this);
+            }
+
+            ++waiters;
+            CompletableFuture<Pathfinder> waiter = result.thenApply(Function.identity());
+            waiter.whenComplete((ignored, ex) -> {
+                // Only a direct cancel of this waiter; a cancelled search completes it with a CompletionException
+                if (ex instanceof CancellationException) {
+                    leave();
+                }
+            });
+            return waiter;
+        }
+
+        private synchronized void leave() {
+            if (--waiters <= 0) {
+                close();
+            }
+        }
+
+        private synchronized void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            pathfinder.cancel();
+            if (task != null) {
+                task.cancel(false);
+            }
+            inflight.remove(query, this);
+            result.cancel(false);
+        }
+
+        @Override
+        public void run() {
+            try {
+                pathfinder.run();
+            } catch (Exception e) {
+                log.warn("Pathfinding from {} failed", query.start, e);
+                result.completeExceptionally(e);
+            }
+
+            synchronized (this) {
+                closed = true;
+            }
+            inflight.remove(query, this);
+
+            if (pathfinder.isDone()) {
+                result.complete(pathfinder);
+            } else {
+                result.cancel(false);
+            }
+        }
+    }
+}
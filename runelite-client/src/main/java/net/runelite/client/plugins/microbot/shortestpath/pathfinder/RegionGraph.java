@@ -0,0 +1,489 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.shortestpath.PrimitiveIntHashMap;
+import net.runelite.client.plugins.microbot.shortestpath.Transport;
+import net.runelite.client.plugins.microbot.shortestpath.TransportType;
+import net.runelite.client.plugins.microbot.shortestpath.WorldPointUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static net.runelite.api.Constants.REGION_SIZE;
+
+/**
+ * Abstract graph over the collision map, used to pick the regions a long path runs through before searching it
+ * tile by tile (hierarchical pathfinding).
+ * <p>
+ * Every plane of a region is a cluster. Its nodes are the tiles where a region border can be crossed, plus the
+ * origins and destinations of every transport. Nodes in the same cluster are joined by their walking distance
+ * inside the region, and the two sides of a border crossing by a single step. Transports are not stored as edges;
+ * they are looked up in {@link PathfinderConfig#getTransportsPacked()} for each query, so the graph stays valid
+ * when the usable transports change.
+ */
+@Slf4j
+public class RegionGraph {
+    // Long openings along a border get one crossing per this many tiles
+    private static final int MAX_ENTRANCE_WIDTH = 16;
+    // Regions around the route that are also searched, to leave room for restrictions the graph doesn't know about
+    private static final int CORRIDOR_MARGIN = 1;
+    private static final int REGION_TILES = REGION_SIZE * REGION_SIZE;
+    private static final OrdinalDirection[] ORDINAL_VALUES = OrdinalDirection.values();
+    private static final int[] NO_NODES = new int[0];
+
+    private final CollisionMap map;
+    private final int[] nodePositions;
+    private final PrimitiveIntHashMap<Integer> nodeIndexes;
+    private final PrimitiveIntHashMap<int[]> clusterNodes;
+    private final int[][] edgeTargets;
+    private final int[][] edgeCosts;
+    @Getter
+    private final int edgeCount;
+    // The graph is shared by every search thread, each reusing its own buffers
+    private final ThreadLocal<Search> searches = ThreadLocal.withInitial(() -> new Search(getNodeCount()));
+
+    private RegionGraph(CollisionMap map, int[] nodePositions, PrimitiveIntHashMap<Integer> nodeIndexes,
+                        PrimitiveIntHashMap<int[]> clusterNodes, int[][] edgeTargets, int[][] edgeCosts) {
+        this.map = map;
+        this.nodePositions = nodePositions;
+        this.nodeIndexes = nodeIndexes;
+        this.clusterNodes = clusterNodes;
+        this.edgeTargets = edgeTargets;
+        this.edgeCosts = edgeCosts;
+
+        int edges = 0;
+        for (int[] targets : edgeTargets) {
+            edges += targets.length;
+        }
+        this.edgeCount = edges;
+    }
+
+    public int getNodeCount() {
+        return nodePositions.length;
+    }
+
+    /**
+     * Builds the graph for all loaded regions. This takes a few seconds and should not run on the client thread.
+     */
+    public static RegionGraph build(SplitFlagMap mapData, Map<WorldPoint, Set<Transport>> allTransports) {
+        long startNanos = System.nanoTime();
+        Builder builder = new Builder(new CollisionMap(mapData));
+        SplitFlagMap.RegionExtent extents = SplitFlagMap.getRegionExtents();
+
+        for (int regionX = extents.minX; regionX <= extents.maxX; ++regionX) {
+            for (int regionY = extents.minY; regionY <= extents.maxY; ++regionY) {
+                final int planes = mapData.getPlaneCount(regionX, regionY);
+                for (int z = 0; z < planes; ++z) {
+                    if (mapData.getPlaneCount(regionX + 1, regionY) > z) {
+                        builder.addBorderCrossings(regionX * REGION_SIZE + REGION_SIZE - 1, regionY * REGION_SIZE, z, OrdinalDirection.EAST);
+                    }
+                    if (mapData.getPlaneCount(regionX, regionY + 1) > z) {
+                        builder.addBorderCrossings(regionX * REGION_SIZE, regionY * REGION_SIZE + REGION_SIZE - 1, z, OrdinalDirection.NORTH);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<WorldPoint, Set<Transport>> entry : allTransports.entrySet()) {
+            for (Transport transport : entry.getValue()) {
+                if (transport.getOrigin() != null) {
+                    builder.node(WorldPointUtil.packWorldPoint(transport.getOrigin()));
+                }
+                if (transport.getDestination() != null) {
+                    builder.node(WorldPointUtil.packWorldPoint(transport.getDestination()));
+                }
+            }
+        }
+
+        builder.connectClusters();
+        RegionGraph graph = builder.finish();
+        log.debug("Built region graph with {} nodes and {} edges in {}ms", graph.getNodeCount(), graph.getEdgeCount(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return graph;
+    }
+
+    /**
+     * Routes from the start to the nearest target over the abstract graph.
+     *
+     * @return the regions the route passes through, or null if the start and a target share a region or no route
+     * was found, in which case the caller should search without a corridor
+     */
+    public Corridor findCorridor(PathfinderConfig config, WorldPoint start, Set<WorldPoint> targets) {
+        final Search search = searches.get();
+        final int packedStart = WorldPointUtil.packWorldPoint(start);
+        final int nodeCount = nodePositions.length;
+        final int startNode = nodeCount;
+        final int goalNode = nodeCount + 1;
+
+        final int[] startDistances = search.startDistances;
+        localDistances(packedStart, startDistances, search);
+        for (WorldPoint target : targets) {
+            int packedTarget = WorldPointUtil.packWorldPoint(target);
+            if (clusterKey(packedTarget) == clusterKey(packedStart) && startDistances[localIndex(packedTarget)] >= 0) {
+                return null;
+            }
+        }
+
+        // Distance from a node to the nearest target in its cluster, assuming walking is symmetric
+        final int[] goalCosts = search.goalCosts;
+        Arrays.fill(goalCosts, -1);
+        boolean reachable = false;
+        final int[] targetDistances = search.targetDistances;
+        for (WorldPoint target : targets) {
+            int packedTarget = WorldPointUtil.packWorldPoint(target);
+            localDistances(packedTarget, targetDistances, search);
+            for (int node : clusterNodes.getOrDefault(clusterKey(packedTarget), NO_NODES)) {
+                int distance = targetDistances[localIndex(nodePositions[node])];
+                if (distance >= 0 && (goalCosts[node] < 0 || distance < goalCosts[node])) {
+                    goalCosts[node] = distance;
+                    reachable = true;
+                }
+            }
+        }
+        if (!reachable) {
+            return null;
+        }
+
+        final int[] distances = search.distances;
+        final int[] parents = search.parents;
+        final NodeHeap queue = search.queue;
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(parents, -1);
+        queue.clear();
+
+        distances[startNode] = 0;
+        queue.add(startNode, 0);
+
+        while (!queue.isEmpty()) {
+            final long distance = queue.peekPriority();
+            final int node = queue.poll();
+            if (distance > distances[node]) {
+                continue;
+            }
+            if (node == goalNode) {
+                break;
+            }
+
+            if (node == startNode) {
+                for (int neighbor : clusterNodes.getOrDefault(clusterKey(packedStart), NO_NODES)) {
+                    int walk = startDistances[localIndex(nodePositions[neighbor])];
+                    if (walk >= 0) {
+                        relax(queue, distances, parents, node, neighbor, walk);
+                    }
+                }
+                if (!config.isIgnoreTeleportAndItems()) {
+                    for (Transport teleport : config.getUsableTeleports()) {
+                        relaxTransport(config, queue, distances, parents, node, teleport);
+                    }
+                }
+                continue;
+            }
+
+            int[] targetsOfNode = edgeTargets[node];
+            int[] costsOfNode = edgeCosts[node];
+            for (int i = 0; i < targetsOfNode.length; ++i) {
+                relax(queue, distances, parents, node, targetsOfNode[i], costsOfNode[i]);
+            }
+
+            Set<Transport> transports = config.getTransportsPacked().get(nodePositions[node]);
+            if (transports != null) {
+                for (Transport transport : transports) {
+                    relaxTransport(config, queue, distances, parents, node, transport);
+                }
+            }
+
+            if (goalCosts[node] >= 0) {
+                relax(queue, distances, parents, node, goalNode, goalCosts[node]);
+            }
+        }
+
+        if (parents[goalNode] < 0) {
+            return null;
+        }
+
+        Corridor corridor = new Corridor();
+        corridor.addRegion(packedStart);
+        for (int node = parents[goalNode]; node >= 0 && node != startNode; node = parents[node]) {
+            corridor.addRegion(nodePositions[node]);
+        }
+        return corridor;
+    }
+
+    private void relaxTransport(PathfinderConfig config, NodeHeap queue, int[] distances, int[] parents,
+                                int node, Transport transport) {
+        final boolean teleport = TransportType.isTeleport(transport.getType());
+        if (teleport && config.isIgnoreTeleportAndItems()) {
+            return;
+        }
+
+        Integer destination = nodeIndexes.get(WorldPointUtil.packWorldPoint(transport.getDestination()));
+        if (destination == null) {
+            return;
+        }
+
+        // Matches the costs given to transport nodes in CollisionMap.getNeighbors
+        int cost = transport.getDuration() + (teleport ? config.getDistanceBeforeUsingTeleport() : 0);
+        relax(queue, distances, parents, node, destination, Math.max(0, cost));
+    }
+
+    private static void relax(NodeHeap queue, int[] distances, int[] parents, int from, int to, int cost) {
+        long distance = (long) distances[from] + cost;
+        if (distance < distances[to]) {
+            distances[to] = (int) distance;
+            parents[to] = from;
+            queue.add(to, distance);
+        }
+    }
+
+    /**
+     * Fills the walking distance from a tile to every tile of its region and plane, or -1 where unreachable
+     * without leaving the region.
+     */
+    private void localDistances(int packedPosition, int[] distances, Search search) {
+        final int x = WorldPointUtil.unpackWorldX(packedPosition);
+        final int y = WorldPointUtil.unpackWorldY(packedPosition);
+        final int z = WorldPointUtil.unpackWorldPlane(packedPosition);
+        final int baseX = x - x % REGION_SIZE;
+        final int baseY = y - y % REGION_SIZE;
+
+        final int[] directions = search.directions;
+        for (int i = 0; i < REGION_TILES; ++i) {
+            directions[i] = map.getTraversableDirections(baseX + i % REGION_SIZE, baseY + i / REGION_SIZE, z);
+        }
+        bfs(directions, localIndex(packedPosition), distances, search.tiles);
+    }
+
+    private static void bfs(int[] directions, int source, int[] distances, int[] queue) {
+        Arrays.fill(distances, -1);
+        distances[source] = 0;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+
+        while (head < tail) {
+            final int tile = queue[head++];
+            final int lx = tile % REGION_SIZE;
+            final int ly = tile / REGION_SIZE;
+            final int traversable = directions[tile];
+            for (int d = 0; d < ORDINAL_VALUES.length; ++d) {
+                if ((traversable & (1 << d)) == 0) {
+                    continue;
+                }
+
+                final int nx = lx + ORDINAL_VALUES[d].x;
+                final int ny = ly + ORDINAL_VALUES[d].y;
+                if (nx < 0 || ny < 0 || nx >= REGION_SIZE || ny >= REGION_SIZE) {
+                    continue;
+                }
+
+                final int neighbor = nx + ny * REGION_SIZE;
+                if (distances[neighbor] < 0) {
+                    distances[neighbor] = distances[tile] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    private static int clusterKey(int packedPosition) {
+        return WorldPointUtil.packWorldPoint(
+                WorldPointUtil.unpackWorldX(packedPosition) / REGION_SIZE,
+                WorldPointUtil.unpackWorldY(packedPosition) / REGION_SIZE,
+                WorldPointUtil.unpackWorldPlane(packedPosition));
+    }
+
+    private static int localIndex(int packedPosition) {
+        return WorldPointUtil.unpackWorldX(packedPosition) % REGION_SIZE
+                + (WorldPointUtil.unpackWorldY(packedPosition) % REGION_SIZE) * REGION_SIZE;
+    }
+
+    /**
+     * The regions a search is limited to, on all planes
+     */
+    public static class Corridor {
+        private final BitSet regions = new BitSet();
+
+        public boolean contains(int packedPosition) {
+            return regions.get(regionIndex(
+                    WorldPointUtil.unpackWorldX(packedPosition) / REGION_SIZE,
+                    WorldPointUtil.unpackWorldY(packedPosition) / REGION_SIZE));
+        }
+
+        private void addRegion(int packedPosition) {
+            final int regionX = WorldPointUtil.unpackWorldX(packedPosition) / REGION_SIZE;
+            final int regionY = WorldPointUtil.unpackWorldY(packedPosition) / REGION_SIZE;
+            for (int dx = -CORRIDOR_MARGIN; dx <= CORRIDOR_MARGIN; ++dx) {
+                for (int dy = -CORRIDOR_MARGIN; dy <= CORRIDOR_MARGIN; ++dy) {
+                    if (regionX + dx >= 0 && regionY + dy >= 0) {
+                        regions.set(regionIndex(regionX + dx, regionY + dy));
+                    }
+                }
+            }
+        }
+
+        private static int regionIndex(int regionX, int regionY) {
+            // Packed world x and y are 15 bits, so region coordinates fit in 9 bits each
+            return (regionX << 9) | regionY;
+        }
+    }
+
+    /**
+     * Buffers of one {@link #findCorridor} call, sized for the graph and reused by the next call on the same thread
+     */
+    private static final class Search {
+        // The start and goal are the two nodes after the graph's own
+        private final int[] distances;
+        private final int[] parents;
+        // Walking distance from a node to the nearest target, or -1
+        private final int[] goalCosts;
+        private final NodeHeap queue = new NodeHeap(1024);
+        private final int[] startDistances = new int[REGION_TILES];
+        private final int[] targetDistances = new int[REGION_TILES];
+        private final int[] directions = new int[REGION_TILES];
+        private final int[] tiles = new int[REGION_TILES];
+
+        private Search(int nodeCount) {
+            distances = new int[nodeCount + 2];
+            parents = new int[nodeCount + 2];
+            goalCosts = new int[nodeCount];
+        }
+    }
+
+    private static class Builder {
+        private final CollisionMap map;
+        private final PrimitiveIntHashMap<Integer> nodeIndexes = new PrimitiveIntHashMap<>(1 << 16);
+        private final List<Integer> nodePositions = new ArrayList<>(1 << 16);
+        private final List<List<int[]>> edges = new ArrayList<>(1 << 16);
+
+        private Builder(CollisionMap map) {
+            this.map = map;
+        }
+
+        private int node(int packedPosition) {
+            Integer index = nodeIndexes.get(packedPosition);
+            if (index != null) {
+                return index;
+            }
+
+            index = nodePositions.size();
+            nodeIndexes.put(packedPosition, index);
+            nodePositions.add(packedPosition);
+            edges.add(new ArrayList<>(4));
+            return index;
+        }
+
+        private void edge(int from, int to, int cost) {
+            edges.get(from).add(new int[]{to, cost});
+        }
+
+        /**
+         * Adds a crossing for every opening along the border between a region and its neighbour.
+         *
+         * @param direction either {@link OrdinalDirection#EAST} or {@link OrdinalDirection#NORTH}
+         */
+        private void addBorderCrossings(int x, int y, int z, OrdinalDirection direction) {
+            final int alongX = direction == OrdinalDirection.NORTH ? 1 : 0;
+            final int alongY = 1 - alongX;
+            final OrdinalDirection opposite = direction == OrdinalDirection.NORTH ? OrdinalDirection.SOUTH : OrdinalDirection.WEST;
+
+            int runStart = -1;
+            for (int i = 0; i <= REGION_SIZE; ++i) {
+                boolean open = i < REGION_SIZE && isOpen(x + i * alongX, y + i * alongY, z, direction, opposite);
+                if (open && runStart < 0) {
+                    runStart = i;
+                } else if (!open && runStart >= 0) {
+                    for (int segment = runStart; segment < i; segment += MAX_ENTRANCE_WIDTH) {
+                        final int middle = (segment + Math.min(i, segment + MAX_ENTRANCE_WIDTH) - 1) / 2;
+                        addCrossing(x + middle * alongX, y + middle * alongY, z, direction, opposite);
+                    }
+                    runStart = -1;
+                }
+            }
+        }
+
+        private boolean isOpen(int x, int y, int z, OrdinalDirection direction, OrdinalDirection opposite) {
+            return (map.getTraversableDirections(x, y, z) & (1 << direction.ordinal())) != 0
+                    || (map.getTraversableDirections(x + direction.x, y + direction.y, z) & (1 << opposite.ordinal())) != 0;
+        }
+
+        private void addCrossing(int x, int y, int z, OrdinalDirection direction, OrdinalDirection opposite) {
+            final int inside = node(WorldPointUtil.packWorldPoint(x, y, z));
+            final int outside = node(WorldPointUtil.packWorldPoint(x + direction.x, y + direction.y, z));
+            if ((map.getTraversableDirections(x, y, z) & (1 << direction.ordinal())) != 0) {
+                edge(inside, outside, 1);
+            }
+            if ((map.getTraversableDirections(x + direction.x, y + direction.y, z) & (1 << opposite.ordinal())) != 0) {
+                edge(outside, inside, 1);
+            }
+        }
+
+        /**
+         * Joins every pair of nodes in the same cluster by their walking distance inside the region
+         */
+        private void connectClusters() {
+            Map<Integer, List<Integer>> clusters = new HashMap<>();
+            for (int node = 0; node < nodePositions.size(); ++node) {
+                clusters.computeIfAbsent(clusterKey(nodePositions.get(node)), k -> new ArrayList<>()).add(node);
+            }
+
+            int[] directions = new int[REGION_TILES];
+            int[] distances = new int[REGION_TILES];
+            int[] queue = new int[REGION_TILES];
+            for (List<Integer> cluster : clusters.values()) {
+                final int first = nodePositions.get(cluster.get(0));
+                final int x = WorldPointUtil.unpackWorldX(first);
+                final int y = WorldPointUtil.unpackWorldY(first);
+                final int z = WorldPointUtil.unpackWorldPlane(first);
+                final int baseX = x - x % REGION_SIZE;
+                final int baseY = y - y % REGION_SIZE;
+                for (int i = 0; i < REGION_TILES; ++i) {
+                    directions[i] = map.getTraversableDirections(baseX + i % REGION_SIZE, baseY + i / REGION_SIZE, z);
+                }
+
+                for (int from : cluster) {
+                    bfs(directions, localIndex(nodePositions.get(from)), distances, queue);
+                    for (int to : cluster) {
+                        final int distance = distances[localIndex(nodePositions.get(to))];
+                        if (to != from && distance > 0) {
+                            edge(from, to, distance);
+                        }
+                    }
+                }
+            }
+        }
+
+        private RegionGraph finish() {
+            final int nodeCount = nodePositions.size();
+            int[] positions = new int[nodeCount];
+            int[][] edgeTargets = new int[nodeCount][];
+            int[][] edgeCosts = new int[nodeCount][];
+            Map<Integer, List<Integer>> clusters = new HashMap<>();
+
+            for (int node = 0; node < nodeCount; ++node) {
+                positions[node] = nodePositions.get(node);
+                List<int[]> nodeEdges = edges.get(node);
+                edgeTargets[node] = new int[nodeEdges.size()];
+                edgeCosts[node] = new int[nodeEdges.size()];
+                for (int i = 0; i < nodeEdges.size(); ++i) {
+                    edgeTargets[node][i] = nodeEdges.get(i)[0];
+                    edgeCosts[node][i] = nodeEdges.get(i)[1];
+                }
+                clusters.computeIfAbsent(clusterKey(positions[node]), k -> new ArrayList<>()).add(node);
+            }
+
+            PrimitiveIntHashMap<int[]> clusterNodes = new PrimitiveIntHashMap<>(clusters.size());
+            for (Map.Entry<Integer, List<Integer>> cluster : clusters.entrySet()) {
+                clusterNodes.put(cluster.getKey(), cluster.getValue().stream().mapToInt(Integer::intValue).toArray());
+            }
+
+            return new RegionGraph(map, positions, nodeIndexes, clusterNodes, edgeTargets, edgeCosts);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
 
+import com.google.common.hash.HashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.plugins.microbot.shortestpath.ShortestPathPlugin;
 import net.runelite.client.plugins.microbot.shortestpath.Util;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.zip.ZipEntry;
@@ -14,6 +19,7 @@ import java.util.zip.ZipInputStream;
 
 import static net.runelite.api.Constants.REGION_SIZE;
 
+@Slf4j
 public class SplitFlagMap {
     @Getter
     private static RegionExtent regionExtents;
@@ -41,6 +47,25 @@ public class SplitFlagMap {
         }
     }
 
+    /**
+     * Wraps regions that were already decoded, e.g. by {@link CollisionMapCache}
+     */
+    SplitFlagMap(RegionExtent extents, FlagMap[] regionMaps) {
+        regionExtents = extents;
+        widthInclusive = extents.getWidth() + 1;
+        this.regionMaps = regionMaps;
+        regionMapPlaneCounts = new byte[regionMaps.length];
+        for (int i = 0; i < regionMaps.length; ++i) {
+            if (regionMaps[i] != null) {
+                regionMapPlaneCounts[i] = regionMaps[i].getPlaneCount();
+            }
+        }
+    }
+
+    FlagMap[] getRegionMaps() {
+        return regionMaps;
+    }
+
     public boolean get(int x, int y, int z, int flag) {
         final int index = getIndex(x / REGION_SIZE, y / REGION_SIZE);
         if (index < 0 || index >= regionMaps.length || regionMaps[index] == null) {
@@ -69,6 +94,18 @@ public class SplitFlagMap {
         return regionMaps[index].get(x, y, z, flag);
     }
 
+    /**
+     * @return the number of planes with collision data in the region, or 0 if the region has none
+     */
+    public int getPlaneCount(int regionX, int regionY) {
+        final int index = getIndex(regionX, regionY);
+        if (regionX < regionExtents.getMinX() || regionX > regionExtents.getMaxX()
+                || index < 0 || index >= regionMaps.length || regionMaps[index] == null) {
+            return 0;
+        }
+        return regionMapPlaneCounts[index];
+    }
+
     private int getIndex(int regionX, int regionY) {
         return (regionX - regionExtents.getMinX()) + (regionY - regionExtents.getMinY()) * widthInclusive;
     }
@@ -85,9 +122,49 @@ public class SplitFlagMap {
         return (x & 0xFFFF) | ((y & 0xFFFF) << 16);
     }
 
+    /**
+     * Loads the collision map from the memory mapped cache, rebuilding the cache first if collision-map.zip changed.
+     * Falls back to decoding the zip onto the heap if the cache can't be used.
+     */
     public static SplitFlagMap fromResources() {
+        return fromResources(CollisionMapCache.defaultPath());
+    }
+
+    /**
+     * Loads the collision map like {@link #fromResources()}, keeping the memory mapped cache in the given file
+     */
+    public static SplitFlagMap fromResources(Path cachePath) {
+        final byte[] zip = readResourceZip();
+        final HashCode hash = CollisionMapCache.hash(zip);
+        SplitFlagMap map = CollisionMapCache.load(cachePath, hash);
+        if (map != null) {
+            return map;
+        }
+
+        map = fromZip(zip);
+        try {
+            CollisionMapCache.write(cachePath, hash, map);
+            SplitFlagMap mapped = CollisionMapCache.load(cachePath, hash);
+            if (mapped != null) {
+                return mapped;
+            }
+        } catch (IOException e) {
+            log.warn("Unable to write collision map cache to {}", cachePath, e);
+        }
+        return map;
+    }
+
+    static byte[] readResourceZip() {
+        try (InputStream in = ShortestPathPlugin.class.getResourceAsStream("collision-map.zip")) {
+            return Util.readAllBytes(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static SplitFlagMap fromZip(byte[] zip) {
         Map<Integer, byte[]> compressedRegions = new HashMap<>();
-        try (ZipInputStream in = new ZipInputStream(ShortestPathPlugin.class.getResourceAsStream("collision-map.zip"))) {
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
             int minX = Integer.MAX_VALUE;
             int minY = Integer.MAX_VALUE;
             int maxX = 0;
@@ -0,0 +1,172 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import net.runelite.api.GroundObject;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.Microbot;
+import net.runelite.client.plugins.microbot.shortestpath.WorldPointUtil;
+import net.runelite.client.plugins.microbot.util.gameobject.Rs2GameObject;
+import net.runelite.client.plugins.microbot.util.player.Rs2Player;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import static net.runelite.api.Constants.MAX_Z;
+import static net.runelite.api.Constants.REGION_SIZE;
+
+/**
+ * Rules for which tiles a search may walk onto, on top of the collision map. They are compiled when a search starts,
+ * so the neighbour loop of {@link CollisionMap#getNeighbors} only looks tiles up.
+ * <p>
+ * Restricted tiles, blocked tiles, the tiles in {@link CollisionMap#ignoreCollision} and the tiles avoided by
+ * {@link SceneRule}s are compiled into bitsets per region like {@link VisitedTiles}, with a row of tiles per long.
+ * Only the planes of regions holding a flagged tile are allocated.
+ */
+public class TileRules {
+    private static final int RESTRICTED = 0;
+    private static final int IGNORE_COLLISION = 1;
+    private static final int AVOIDED = 2;
+    private static final int FLAG_COUNT = 3;
+
+    // Add scene rules here
+    private static final List<SceneRule> SCENE_RULES = List.of(new ToaSequenceRule());
+
+    private final SplitFlagMap.RegionExtent regionExtents;
+    private final int widthInclusive;
+    // Rows of the tiles per flag and plane of each region, or null if no tile of the region has the flag
+    private final long[][][] regions;
+
+    private TileRules() {
+        regionExtents = SplitFlagMap.getRegionExtents();
+        widthInclusive = regionExtents.getWidth() + 1;
+        final int heightInclusive = regionExtents.getHeight() + 1;
+        regions = new long[widthInclusive * heightInclusive][][];
+    }
+
+    /**
+     * Compiles the rules for a search. Tiles restricted or blocked after this, and changes to the scene, are only
+     * seen by later searches.
+     */
+    public static TileRules compile(PathfinderConfig config) {
+        TileRules rules = new TileRules();
+        for (int packedPoint : config.getRestrictedPointsPacked()) {
+            rules.set(packedPoint, RESTRICTED);
+        }
+        for (int packedPoint : config.getBlockedTiles()) {
+            rules.set(packedPoint, RESTRICTED);
+        }
+        for (WorldPoint point : CollisionMap.ignoreCollision) {
+            rules.set(WorldPointUtil.packWorldPoint(point), IGNORE_COLLISION);
+        }
+        for (SceneRule rule : SCENE_RULES) {
+            rule.addAvoidedTiles(packedPoint -> rules.set(packedPoint, AVOIDED));
+        }
+        return rules;
+    }
+
+    /**
+     * @return true if the tile is restricted or blocked and can't be walked onto
+     */
+    public boolean isRestricted(int packedPoint) {
+        return get(packedPoint, RESTRICTED);
+    }
+
+    /**
+     * @return true if every neighbour of the tile can be walked to regardless of collision
+     */
+    public boolean isCollisionIgnored(int packedPoint) {
+        return get(packedPoint, IGNORE_COLLISION);
+    }
+
+    /**
+     * @return true if a scene rule avoids the tile. Targets are never avoided.
+     */
+    public boolean isAvoided(int packedPoint, Set<WorldPoint> targets) {
+        // Targets differ between a repair and the full search that may follow it, so they aren't compiled in
+        return get(packedPoint, AVOIDED) && !targets.contains(WorldPointUtil.unpackWorldPoint(packedPoint));
+    }
+
+    private void set(int packedPoint, int flag) {
+        final int x = WorldPointUtil.unpackWorldX(packedPoint);
+        final int y = WorldPointUtil.unpackWorldY(packedPoint);
+        final int plane = WorldPointUtil.unpackWorldPlane(packedPoint);
+        final int regionIndex = getRegionIndex(x / REGION_SIZE, y / REGION_SIZE);
+        if (regionIndex < 0 || plane >= MAX_Z) {
+            return; // Searches never leave the collision map, so there is nothing to flag
+        }
+
+        long[][] region = regions[regionIndex];
+        if (region == null) {
+            region = new long[FLAG_COUNT * MAX_Z][];
+            regions[regionIndex] = region;
+        }
+        final int rowsIndex = flag * MAX_Z + plane;
+        if (region[rowsIndex] == null) {
+            region[rowsIndex] = new long[REGION_SIZE];
+        }
+        region[rowsIndex][y % REGION_SIZE] |= 1L << (x % REGION_SIZE);
+    }
+
+    private boolean get(int packedPoint, int flag) {
+        final int x = WorldPointUtil.unpackWorldX(packedPoint);
+        final int y = WorldPointUtil.unpackWorldY(packedPoint);
+        final int plane = WorldPointUtil.unpackWorldPlane(packedPoint);
+        final int regionIndex = getRegionIndex(x / REGION_SIZE, y / REGION_SIZE);
+        if (regionIndex < 0 || plane >= MAX_Z) {
+            return false;
+        }
+
+        final long[][] region = regions[regionIndex];
+        if (region == null) {
+            return false;
+        }
+        final long[] rows = region[flag * MAX_Z + plane];
+        return rows != null && (rows[y % REGION_SIZE] & (1L << (x % REGION_SIZE))) != 0;
+    }
+
+    // Unlike VisitedTiles, regions east or west of the extents don't wrap onto the next row
+    private int getRegionIndex(int regionX, int regionY) {
+        if (regionX < regionExtents.minX || regionX > regionExtents.maxX
+                || regionY < regionExtents.minY || regionY > regionExtents.maxY) {
+            return -1;
+        }
+        return (regionX - regionExtents.minX) + (regionY - regionExtents.minY) * widthInclusive;
+    }
+
+    /**
+     * A rule for tiles that depends on the scene, such as objects the player has to walk around
+     */
+    public interface SceneRule {
+        /**
+         * Captures the tiles searches starting now should not walk onto. Called once per search, so the scene is
+         * only read here and not per tile.
+         *
+         * @param avoid accepts each avoided tile, packed with {@link WorldPointUtil#packWorldPoint}
+         */
+        void addAvoidedTiles(IntConsumer avoid);
+    }
+
+    /**
+     * Dodges the tiles of the sequence in the Tombs of Amascut puzzle room
+     */
+    private static class ToaSequenceRule implements SceneRule {
+        private static final int PUZZLE_ROOM_REGION = 14162;
+        private static final int SEQUENCE_TILE = 45340;
+
+        @Override
+        public void addAvoidedTiles(IntConsumer avoid) {
+            WorldPoint location = Rs2Player.getWorldLocation();
+            if (location == null || location.getRegionID() != PUZZLE_ROOM_REGION) {
+                return;
+            }
+
+            for (GroundObject tile : Rs2GameObject.getGroundObjects(o -> o.getId() == SEQUENCE_TILE)) {
+                // Searches use the coordinates of the instance template, like the player location above
+                WorldPoint point = WorldPoint.fromLocalInstance(Microbot.getClient(), tile.getLocalLocation());
+                if (point != null) {
+                    avoid.accept(WorldPointUtil.packWorldPoint(point));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.shortestpath.Transport;
+import net.runelite.client.plugins.microbot.shortestpath.TransportType;
+import net.runelite.client.plugins.microbot.shortestpath.WorldPointUtil;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Lower bound of the remaining cost from a tile to the nearest target, used to order the informed search.
+ * <p>
+ * The remaining cost is either walked, which costs at least the Chebyshev distance to a target on the same plane,
+ * or ends with a transport, which costs at least that transport's own cost plus the walk from its destination.
+ * The cheapest such transport is found once per search, so the bound is the smaller of the two. Both parts are
+ * consistent, so the first time a tile is expanded it has been reached by a cheapest path.
+ */
+class TransportHeuristic {
+    private final int[] packedTargets;
+    private final int transportBound;
+
+    TransportHeuristic(PathfinderConfig config, Set<WorldPoint> targets) {
+        packedTargets = new int[targets.size()];
+        int i = 0;
+        for (WorldPoint target : targets) {
+            packedTargets[i++] = WorldPointUtil.packWorldPoint(target);
+        }
+
+        int bound = Integer.MAX_VALUE;
+        for (Set<Transport> transports : config.getTransports().values()) {
+            bound = Math.min(bound, transportBound(config, transports));
+        }
+        bound = Math.min(bound, transportBound(config, config.getUsableTeleports()));
+        transportBound = bound;
+    }
+
+    /**
+     * @return a cost that is never more than the cheapest remaining cost from the tile to any target
+     */
+    int estimate(int packedPosition) {
+        return Math.min(walkDistance(packedPosition), transportBound);
+    }
+
+    private int transportBound(PathfinderConfig config, Collection<Transport> transports) {
+        int bound = Integer.MAX_VALUE;
+        for (Transport transport : transports) {
+            final boolean teleport = TransportType.isTeleport(transport.getType());
+            if (teleport && config.isIgnoreTeleportAndItems()) {
+                continue;
+            }
+
+            int walk = walkDistance(WorldPointUtil.packWorldPoint(transport.getDestination()));
+            if (walk == Integer.MAX_VALUE) {
+                continue;
+            }
+
+            // Matches the costs given to transport nodes in CollisionMap.getNeighbors
+            int cost = transport.getDuration() + (teleport ? config.getDistanceBeforeUsingTeleport() : 0);
+            bound = Math.min(bound, Math.max(0, cost) + walk);
+        }
+        return bound;
+    }
+
+    private int walkDistance(int packedPosition) {
+        int best = Integer.MAX_VALUE;
+        for (int target : packedTargets) {
+            // Returns Integer.MAX_VALUE for targets on another plane, which can only be reached through a transport
+            best = Math.min(best, WorldPointUtil.distanceBetween(packedPosition, target));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,252 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import lombok.Getter;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.ItemID;
+import net.runelite.api.Quest;
+import net.runelite.api.Skill;
+import net.runelite.api.Varbits;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.shortestpath.Transport;
+import net.runelite.client.plugins.microbot.shortestpath.TransportType;
+import net.runelite.client.plugins.microbot.shortestpath.TransportVarPlayer;
+import net.runelite.client.plugins.microbot.shortestpath.TransportVarbit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index from the inputs of the transport requirements (quests, varbits, varplayers, skill levels and items) to the
+ * transports that depend on them, and the inputs that changed since the transports were last refreshed. With it
+ * {@link PathfinderConfig} only checks the transports whose inputs changed again, instead of every transport.
+ * <p>
+ * Changes are recorded from game events on the client thread and taken by the refresh, which may run on any thread.
+ */
+final class TransportInputs {
+    private static final Set<Integer> TRACKED_CONTAINERS = Set.of(
+            InventoryID.INVENTORY.getId(), InventoryID.EQUIPMENT.getId(), InventoryID.BANK.getId());
+    // Runes for teleport spells can be held in the rune pouch
+    private static final Set<Integer> RUNE_POUCH_VARBITS = Set.of(
+            Varbits.RUNE_POUCH_RUNE1, Varbits.RUNE_POUCH_RUNE2, Varbits.RUNE_POUCH_RUNE3,
+            Varbits.RUNE_POUCH_RUNE4, Varbits.RUNE_POUCH_RUNE5, Varbits.RUNE_POUCH_RUNE6,
+            Varbits.RUNE_POUCH_AMOUNT1, Varbits.RUNE_POUCH_AMOUNT2, Varbits.RUNE_POUCH_AMOUNT3,
+            Varbits.RUNE_POUCH_AMOUNT4, Varbits.RUNE_POUCH_AMOUNT5, Varbits.RUNE_POUCH_AMOUNT6);
+
+    private final Map<Transport, WorldPoint> origins = new IdentityHashMap<>();
+    private final Map<Quest, List<Transport>> byQuest = new EnumMap<>(Quest.class);
+    private final Map<Integer, List<Transport>> byVarbit = new HashMap<>();
+    private final Map<Integer, List<Transport>> byVarplayer = new HashMap<>();
+    private final Map<Integer, List<Transport>> byItem = new HashMap<>();
+    private final List<List<Transport>> bySkill = new ArrayList<>(Skill.values().length);
+    // Transports whose item checks can't be traced to item ids: currencies by name, spell runes and chronicle charges
+    private final List<Transport> anyItem = new ArrayList<>();
+
+    private final Map<Integer, Map<Integer, Integer>> containers = new HashMap<>();
+    private Changes changes = new Changes();
+    @Getter
+    private boolean tracking;
+
+    /**
+     * @param transports the transports by the origin they are looked up by, null for teleports
+     */
+    TransportInputs(Map<WorldPoint, Set<Transport>> transports) {
+        for (int i = 0; i < Skill.values().length; i++) {
+            bySkill.add(new ArrayList<>());
+        }
+
+        for (Map.Entry<WorldPoint, Set<Transport>> entry : transports.entrySet()) {
+            for (Transport transport : entry.getValue()) {
+                origins.put(transport, entry.getKey());
+
+                for (Quest quest : transport.getQuests()) {
+                    byQuest.computeIfAbsent(quest, k -> new ArrayList<>()).add(transport);
+                }
+                for (TransportVarbit varbit : transport.getVarbits()) {
+                    byVarbit.computeIfAbsent(varbit.getVarbitId(), k -> new ArrayList<>()).add(transport);
+                }
+                for (TransportVarPlayer varplayer : transport.getVarplayers()) {
+                    byVarplayer.computeIfAbsent(varplayer.getVarplayerId(), k -> new ArrayList<>()).add(transport);
+                }
+
+                int[] skillLevels = transport.getSkillLevels();
+                for (int i = 0; i < skillLevels.length; i++) {
+                    if (skillLevels[i] > 0) {
+                        bySkill.get(i).add(transport);
+                    }
+                }
+
+                boolean chronicle = false;
+                for (Set<Integer> itemIds : transport.getItemIdRequirements()) {
+                    for (int itemId : itemIds) {
+                        byItem.computeIfAbsent(itemId, k -> new ArrayList<>()).add(transport);
+                        chronicle |= itemId == ItemID.CHRONICLE;
+                    }
+                }
+                if (chronicle || transport.getCurrencyAmount() > 0 || transport.getType() == TransportType.TELEPORTATION_SPELL) {
+                    anyItem.add(transport);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the origin the transport is looked up by, null for teleports
+     */
+    WorldPoint getOrigin(Transport transport) {
+        return origins.get(transport);
+    }
+
+    Set<Quest> getQuests() {
+        return byQuest.keySet();
+    }
+
+    Set<Integer> getVarbits() {
+        return byVarbit.keySet();
+    }
+
+    Set<Integer> getVarplayers() {
+        return byVarplayer.keySet();
+    }
+
+    List<Transport> getTransportsForQuest(Quest quest) {
+        return byQuest.getOrDefault(quest, Collections.emptyList());
+    }
+
+    List<Transport> getTransportsForVarbit(int varbitId) {
+        return byVarbit.getOrDefault(varbitId, Collections.emptyList());
+    }
+
+    List<Transport> getTransportsForVarplayer(int varplayerId) {
+        return byVarplayer.getOrDefault(varplayerId, Collections.emptyList());
+    }
+
+    List<Transport> getTransportsForSkill(int skill) {
+        return bySkill.get(skill);
+    }
+
+    List<Transport> getTransportsForItem(int itemId) {
+        return byItem.getOrDefault(itemId, Collections.emptyList());
+    }
+
+    /**
+     * @return the transports depending on the varbits, varplayers and items that changed. Quests and skill levels
+     * are compared by the refresh itself.
+     */
+    Set<Transport> getDependents(Changes changes) {
+        Set<Transport> dependents = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Integer varbitId : changes.varbits) {
+            dependents.addAll(getTransportsForVarbit(varbitId));
+        }
+        for (Integer varplayerId : changes.varplayers) {
+            dependents.addAll(getTransportsForVarplayer(varplayerId));
+        }
+        for (Integer itemId : changes.items) {
+            dependents.addAll(getTransportsForItem(itemId));
+        }
+        if (changes.itemsChanged) {
+            dependents.addAll(anyItem);
+        }
+        return dependents;
+    }
+
+    /**
+     * Starts recording changes from a full refresh of every transport. Call on the client thread, before the
+     * transport inputs are read.
+     *
+     * @param containers the current inventory, equipment and bank, to tell which items later change
+     */
+    synchronized void startTracking(Collection<ItemContainer> containers) {
+        this.containers.clear();
+        for (ItemContainer container : containers) {
+            if (container != null) {
+                this.containers.put(container.getId(), countItems(container));
+            }
+        }
+        changes = new Changes();
+        tracking = true;
+    }
+
+    /**
+     * Forgets the recorded inputs, so the next refresh checks every transport again, e.g. on logging out
+     */
+    synchronized void stopTracking() {
+        tracking = false;
+        containers.clear();
+        changes = new Changes();
+    }
+
+    synchronized void varbitChanged(int varbitId, int varplayerId) {
+        if (!tracking) {
+            return;
+        }
+        // Quest progress is kept in varbits and varplayers
+        changes.varsChanged = true;
+        if (varbitId != -1 && byVarbit.containsKey(varbitId)) {
+            changes.varbits.add(varbitId);
+        }
+        if (byVarplayer.containsKey(varplayerId)) {
+            changes.varplayers.add(varplayerId);
+        }
+        if (RUNE_POUCH_VARBITS.contains(varbitId)) {
+            changes.itemsChanged = true;
+        }
+    }
+
+    synchronized void itemContainerChanged(int containerId, ItemContainer container) {
+        if (!tracking || !TRACKED_CONTAINERS.contains(containerId)) {
+            return;
+        }
+
+        Map<Integer, Integer> counts = container == null ? Collections.emptyMap() : countItems(container);
+        Map<Integer, Integer> previous = containers.getOrDefault(containerId, Collections.emptyMap());
+        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+            if (!entry.getValue().equals(previous.get(entry.getKey())) && byItem.containsKey(entry.getKey())) {
+                changes.items.add(entry.getKey());
+            }
+        }
+        for (Integer itemId : previous.keySet()) {
+            if (!counts.containsKey(itemId) && byItem.containsKey(itemId)) {
+                changes.items.add(itemId);
+            }
+        }
+        containers.put(containerId, counts);
+        changes.itemsChanged = true;
+    }
+
+    /**
+     * @return the inputs that changed since the last call or since tracking started
+     */
+    synchronized Changes takeChanges() {
+        Changes taken = changes;
+        changes = new Changes();
+        return taken;
+    }
+
+    private static Map<Integer, Integer> countItems(ItemContainer container) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Item item : container.getItems()) {
+            if (item.getId() != -1) {
+                counts.merge(item.getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    static final class Changes {
+        final Set<Integer> varbits = new HashSet<>();
+        final Set<Integer> varplayers = new HashSet<>();
+        final Set<Integer> items = new HashSet<>();
+        boolean varsChanged;
+        boolean itemsChanged;
+    }
+}
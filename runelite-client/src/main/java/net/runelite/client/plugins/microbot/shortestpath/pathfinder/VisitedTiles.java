@@ -1,16 +1,37 @@
 package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
 
+import lombok.Getter;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.plugins.microbot.shortestpath.WorldPointUtil;
 
+import java.util.Arrays;
+
 import static net.runelite.api.Constants.REGION_SIZE;
 
+/**
+ * Tiles visited by a search, as a bitset per region.
+ * <p>
+ * Each search thread reuses one instance through {@link PathfinderConfig#getVisitedTiles()}. Region bitsets are
+ * kept between searches and stamped with the epoch of the search that last used them, so {@link #clear()} only
+ * starts a new epoch and a region is zeroed the first time the next search touches it. Once more than
+ * {@link #RETAINED_REGIONS} regions are kept, clearing drops them all, so one long search doesn't pin its memory.
+ */
 public class VisitedTiles {
+    // At most 2 KiB each, for regions with four planes
+    private static final int RETAINED_REGIONS = 2048;
+
     private final SplitFlagMap.RegionExtent regionExtents;
     private final int widthInclusive;
 
     private final VisitedRegion[] visitedRegions;
     private final byte[] visitedRegionPlanes;
+    private int epoch = 1;
+    private int regionsHeld;
+
+    @Getter
+    private int regionsAllocated;
+    @Getter
+    private int regionsReused;
 
     public VisitedTiles(CollisionMap map) {
         regionExtents = SplitFlagMap.getRegionExtents();
@@ -39,7 +60,7 @@ public class VisitedTiles {
         }
 
         final VisitedRegion region = visitedRegions[regionIndex];
-        if (region == null) {
+        if (region == null || region.epoch != epoch) {
             return false;
         }
 
@@ -62,17 +83,33 @@ public class VisitedTiles {
         VisitedRegion region = visitedRegions[regionIndex];
         if (region == null) {
             region = new VisitedRegion(visitedRegionPlanes[regionIndex]);
+            region.epoch = epoch;
             visitedRegions[regionIndex] = region;
+            ++regionsHeld;
+            ++regionsAllocated;
+        } else if (region.epoch != epoch) {
+            Arrays.fill(region.planes, 0L);
+            region.epoch = epoch;
+            ++regionsReused;
         }
 
         return region.set(x % REGION_SIZE, y % REGION_SIZE, plane);
     }
 
     public void clear() {
-        for (int i = 0; i < visitedRegions.length; ++i) {
-            if (visitedRegions[i] != null) {
-                visitedRegions[i] = null;
+        if (regionsHeld > RETAINED_REGIONS) {
+            Arrays.fill(visitedRegions, null);
+            regionsHeld = 0;
+        }
+
+        if (++epoch == 0) {
+            // Epochs wrapped around, so stale regions could look current again
+            for (VisitedRegion region : visitedRegions) {
+                if (region != null) {
+                    region.epoch = 0;
+                }
             }
+            epoch = 1;
         }
     }
 
@@ -84,6 +121,8 @@ public class VisitedTiles {
         // This assumes a row is at most 64 tiles and fits in a long
         private final long[] planes;
         private final byte planeCount;
+        // Epoch of the search that last set a tile in this region; older regions count as unvisited
+        private int epoch;
 
         VisitedRegion(byte planeCount) {
             this.planeCount = planeCount;
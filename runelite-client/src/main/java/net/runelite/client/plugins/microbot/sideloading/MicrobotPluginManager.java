@@ -66,11 +66,15 @@ public class MicrobotPluginManager {
                 {
                     MicrobotPluginClassLoader classLoader = new MicrobotPluginClassLoader(f, getClass().getClassLoader());
 
-                    List<Class<?>> plugins = ClassPath.from(classLoader)
-                            .getAllClasses()
-                            .stream()
-                            .map(ClassPath.ClassInfo::load)
-                            .collect(Collectors.toList());
+                    // only the jar's own manifest, not the client's
+                    PluginManifest manifest = PluginManifest.load(classLoader.findResource(PluginManifest.RESOURCE));
+                    List<Class<?>> plugins = manifest != null
+                            ? manifest.loadClasses(classLoader, Collections.emptyList())
+                            : ClassPath.from(classLoader)
+                                    .getAllClasses()
+                                    .stream()
+                                    .map(ClassPath.ClassInfo::load)
+                                    .collect(Collectors.toList());
 
                     loadPlugins(plugins, null);
                 }
@@ -156,6 +160,14 @@ public class MicrobotPluginManager {
             throw new PluginInstantiationException("Plugin dependency graph contains a cycle!");
         }
 
+        if (pluginManager.isLazyLoading()) {
+            return pluginManager.registerLazily(topologicalSort(graph), onPluginLoaded);
+        }
+
+        if (pluginManager.isParallelStartUp()) {
+            return pluginManager.instantiateConcurrently(graph, onPluginLoaded);
+        }
+
         List<Class<? extends Plugin>> sortedPlugins = topologicalSort(graph);
 
         int loaded = 0;
@@ -242,12 +254,19 @@ public class MicrobotPluginManager {
     public void loadCorePlugins(List<String> packages) throws IOException, PluginInstantiationException
     {
         SplashScreen.stage(.59, null, "Loading plugins");
-        ClassPath classPath = ClassPath.from(getClass().getClassLoader());
 
-        List<Class<?>> plugins = packages.stream()
-                .flatMap(packageName -> classPath.getTopLevelClassesRecursive(packageName).stream())
-                .map(ClassPath.ClassInfo::load)
-                .collect(Collectors.toList());
+        List<Class<?>> plugins;
+        PluginManifest manifest = PluginManifest.load(getClass().getClassLoader());
+        if (manifest != null && !packages.isEmpty()) {
+            plugins = manifest.loadClasses(getClass().getClassLoader(), packages);
+        } else {
+            ClassPath classPath = ClassPath.from(getClass().getClassLoader());
+
+            plugins = packages.stream()
+                    .flatMap(packageName -> classPath.getTopLevelClassesRecursive(packageName).stream())
+                    .map(ClassPath.ClassInfo::load)
+                    .collect(Collectors.toList());
+        }
 
         loadPlugins(plugins, (loaded, total) ->
                 SplashScreen.stage(.60, .70, null, "Loading plugins", loaded, total, false));
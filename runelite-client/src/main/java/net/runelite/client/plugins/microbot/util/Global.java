@@ -3,13 +3,17 @@ package net.runelite.client.plugins.microbot.util;
 import com.google.common.util.concurrent.Uninterruptibles;
 import lombok.SneakyThrows;
 import net.runelite.client.plugins.microbot.Microbot;
+import net.runelite.client.plugins.microbot.ScriptRuntime;
 import net.runelite.client.plugins.microbot.util.math.Rs2Random;
 
 import java.util.concurrent.*;
 import java.util.function.BooleanSupplier;
 
 public class Global {
-    static ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(10);
+    // Longest wait between checks of a condition when no state change is signalled, e.g. while the client is loading
+    private static final long MAX_WAIT_MILLIS = 600;
+
+    static ScheduledExecutorService scheduledExecutorService = ScriptRuntime.newExecutor("Global");
     static ScheduledFuture<?> scheduledFuture;
 
     public static ScheduledFuture<?> awaitExecutionUntil(Runnable callback, BooleanSupplier awaitedCondition, int time) {
@@ -45,15 +49,14 @@ public class Global {
     @SneakyThrows
     public static <T> T sleepUntilNotNull(Callable<T> method, int time) {
         if (Microbot.getClient().isClientThread()) return null;
-        boolean done;
-        T methodResponse;
-        long startTime = System.currentTimeMillis();
-        do {
-            methodResponse = method.call();
-            done = methodResponse != null;
-            sleep(100);
-        } while (!done && System.currentTimeMillis() - startTime < time);
-        return methodResponse;
+        final long deadline = System.currentTimeMillis() + time;
+        while (true) {
+            final long version = StateSignal.version();
+            final T methodResponse = method.call();
+            if (methodResponse != null || !awaitStateChange(version, deadline, MAX_WAIT_MILLIS)) {
+                return methodResponse;
+            }
+        }
     }
 
     public static boolean sleepUntil(BooleanSupplier awaitedCondition) {
@@ -62,17 +65,12 @@ public class Global {
 
     public static boolean sleepUntil(BooleanSupplier awaitedCondition, int time) {
         if (Microbot.getClient().isClientThread()) return false;
-        boolean done = false;
-        long startTime = System.currentTimeMillis();
         try {
-            do {
-                done = awaitedCondition.getAsBoolean();
-                sleep(100);
-            } while (!done && System.currentTimeMillis() - startTime < time);
+            return awaitCondition(awaitedCondition, time, MAX_WAIT_MILLIS);
         } catch (Exception e) {
             Microbot.logStackTrace("Global Sleep: ", e);
         }
-        return done;
+        return false;
     }
 
     public static boolean sleepUntil(BooleanSupplier awaitedCondition, Runnable action, long timeoutMillis, int sleepMillis) {
@@ -95,49 +93,54 @@ public class Global {
 
     public static boolean sleepUntilTrue(BooleanSupplier awaitedCondition) {
         if (Microbot.getClient().isClientThread()) return false;
-        long startTime = System.currentTimeMillis();
         try {
-            do {
-                if (awaitedCondition.getAsBoolean()) {
-                    return true;
-                }
-                sleep(100);
-            } while (System.currentTimeMillis() - startTime < 5000);
+            return awaitCondition(awaitedCondition, 5000, MAX_WAIT_MILLIS);
         } catch (Exception e) {
             Microbot.logStackTrace("Global Sleep: ", e);
         }
         return false;
     }
 
+    /**
+     * Waits until the condition holds or the timeout elapses. The condition is checked whenever the game state may
+     * have changed, and at least every {@code time} milliseconds.
+     *
+     * @param time the longest time between checks of the condition. This used to be a fixed interval between checks,
+     *             so the condition may now be checked more often than that.
+     */
     public static boolean sleepUntilTrue(BooleanSupplier awaitedCondition, int time, int timeout) {
         if (Microbot.getClient().isClientThread()) return false;
-        long startTime = System.currentTimeMillis();
         try {
-            do {
-                if (awaitedCondition.getAsBoolean()) {
-                    return true;
-                }
-                sleep(time);
-            } while (System.currentTimeMillis() - startTime < timeout);
+            return awaitCondition(awaitedCondition, timeout, time);
         } catch (Exception e) {
             Microbot.logStackTrace("Global Sleep: ", e);
         }
         return false;
     }
 
+    /**
+     * Waits until the condition holds or the timeout elapses, restarting the timeout whenever the reset condition
+     * holds. Both are checked whenever the game state may have changed, and at least every {@code time} milliseconds.
+     *
+     * @param time the longest time between checks of the conditions. Like in
+     *             {@link #sleepUntilTrue(BooleanSupplier, int, int)}, it is no longer a fixed interval between checks.
+     */
     public static boolean sleepUntilTrue(BooleanSupplier awaitedCondition, BooleanSupplier resetCondition, int time, int timeout) {
         if (Microbot.getClient().isClientThread()) return false;
-        long startTime = System.currentTimeMillis();
+        long deadline = System.currentTimeMillis() + timeout;
         try {
-            do {
+            while (true) {
+                final long version = StateSignal.version();
                 if (resetCondition.getAsBoolean()) {
-                    startTime = System.currentTimeMillis();
+                    deadline = System.currentTimeMillis() + timeout;
                 }
                 if (awaitedCondition.getAsBoolean()) {
                     return true;
                 }
-                sleep(time);
-            } while (System.currentTimeMillis() - startTime < timeout);
+                if (!awaitStateChange(version, deadline, time)) {
+                    break;
+                }
+            }
         } catch (Exception e) {
             Microbot.logStackTrace("Global Sleep: ", e);
         }
@@ -161,6 +164,44 @@ public class Global {
         }
     }
 
+    /**
+     * Checks the condition whenever {@link StateSignal} reports a change of game state, until it holds or the
+     * timeout elapses
+     */
+    private static boolean awaitCondition(BooleanSupplier condition, long timeoutMillis, long maxWaitMillis) {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            final long version = StateSignal.version();
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            if (!awaitStateChange(version, deadline, maxWaitMillis)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Waits for a change of game state after the given {@link StateSignal} version, for at most maxWaitMillis.
+     * Interrupts are ignored like in {@link #sleep(int)}: the wait ends early and the interrupt flag is cleared, so
+     * the caller keeps checking until the deadline and later waits still block.
+     *
+     * @return false if the deadline has passed, true to check again
+     */
+    private static boolean awaitStateChange(long version, long deadline, long maxWaitMillis) {
+        final long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return false;
+        }
+
+        try {
+            StateSignal.await(version, Math.min(remaining, maxWaitMillis));
+        } catch (InterruptedException ignored) {
+            // ignore interrupted
+        }
+        return true;
+    }
+
     public boolean sleepUntilTick(int ticksToWait) {
         int startTick = Microbot.getClient().getTickCount();
         return Global.sleepUntil(() -> Microbot.getClient().getTickCount() >= startTick + ticksToWait, ticksToWait * 600 + 2000);
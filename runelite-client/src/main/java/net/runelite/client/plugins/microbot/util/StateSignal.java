@@ -0,0 +1,86 @@
+package net.runelite.client.plugins.microbot.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes scripts waiting on game state when that state may have changed, so they recheck their condition right away
+ * instead of on a fixed poll.
+ * <p>
+ * Game ticks, item container, varbit and animation changes mark the state as changed. The client thread signals
+ * waiters once per client tick in which something changed, and at least every {@link #FALLBACK_INTERVAL_MILLIS}
+ * for state that has no event of its own, such as widgets or the local player's position.
+ */
+public final class StateSignal {
+    static final long FALLBACK_INTERVAL_MILLIS = 100;
+    private static final long FALLBACK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(FALLBACK_INTERVAL_MILLIS);
+
+    private static final Object lock = new Object();
+    // Incremented on every signal, guarded by lock
+    private static long version;
+
+    private static volatile boolean changed;
+    private static volatile long lastSignalNanos = System.nanoTime();
+
+    private StateSignal() {
+    }
+
+    /**
+     * Marks the game state as changed, waking waiters on the next client tick
+     */
+    public static void markChanged() {
+        changed = true;
+    }
+
+    /**
+     * Called from the client thread once per client tick
+     */
+    public static void onClientTick() {
+        final long now = System.nanoTime();
+        if (changed || now - lastSignalNanos >= FALLBACK_INTERVAL_NANOS) {
+            changed = false;
+            lastSignalNanos = now;
+            signal();
+        }
+    }
+
+    /**
+     * Wakes all waiters now
+     */
+    public static void signal() {
+        synchronized (lock) {
+            ++version;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * @return the current version, to pass to {@link #await(long, long)}. Read it before checking the condition
+     * being waited on, so a signal in between is not missed.
+     */
+    public static long version() {
+        synchronized (lock) {
+            return version;
+        }
+    }
+
+    /**
+     * Waits until a signal after the given version, or until the timeout elapses.
+     *
+     * @return true if signalled, false on timeout
+     * @throws InterruptedException if the thread is interrupted before or while waiting, which clears its interrupt
+     *                              flag
+     */
+    public static boolean await(long since, long timeoutMillis) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (lock) {
+            while (version == since) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+            return true;
+        }
+    }
+}
@@ -77,7 +77,8 @@ import java.util.TimerTask;
         description = "Antiban for microbot",
         tags = {"main", "microbot", "antiban parent"},
         alwaysOn = true,
-        hidden = true
+        hidden = true,
+        startOnEdt = true
 )
 
 public class AntibanPlugin extends Plugin {
@@ -17,7 +17,6 @@ import net.runelite.client.plugins.loottracker.LootTrackerItem;
 import net.runelite.client.plugins.loottracker.LootTrackerRecord;
 import net.runelite.client.plugins.microbot.Microbot;
 import net.runelite.client.plugins.microbot.shortestpath.ShortestPathPlugin;
-import net.runelite.client.plugins.microbot.shortestpath.pathfinder.Pathfinder;
 import net.runelite.client.plugins.microbot.util.antiban.Rs2AntibanSettings;
 import net.runelite.client.plugins.microbot.util.bank.enums.BankLocation;
 import net.runelite.client.plugins.microbot.util.coords.Rs2WorldPoint;
@@ -1598,9 +1597,8 @@ public class Rs2Bank {
                 .collect(Collectors.toList());
         
         long originalStart = System.nanoTime();
-        Pathfinder pf = new Pathfinder(ShortestPathPlugin.getPathfinderConfig(), worldPoint, targets);
-        pf.run();        
-        List<WorldPoint> path = pf.getPath();
+        List<WorldPoint> path = ShortestPathPlugin.getPathfinderService()
+                .findPath(ShortestPathPlugin.getPathfinderConfig(), worldPoint, targets);
         long originalTime = System.nanoTime() - originalStart;                        
         
         if (path.isEmpty()) {
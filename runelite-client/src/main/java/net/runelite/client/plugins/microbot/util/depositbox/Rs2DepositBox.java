@@ -8,7 +8,6 @@ import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.widgets.Widget;
 import net.runelite.client.plugins.microbot.Microbot;
 import net.runelite.client.plugins.microbot.shortestpath.ShortestPathPlugin;
-import net.runelite.client.plugins.microbot.shortestpath.pathfinder.Pathfinder;
 import net.runelite.client.plugins.microbot.util.gameobject.Rs2BankID;
 import net.runelite.client.plugins.microbot.util.gameobject.Rs2GameObject;
 import net.runelite.client.plugins.microbot.util.inventory.Rs2Inventory;
@@ -472,10 +471,8 @@ public class Rs2DepositBox {
             ShortestPathPlugin.getPathfinderConfig().refresh();
         }
 
-        Pathfinder pf = new Pathfinder(ShortestPathPlugin.getPathfinderConfig(), worldPoint, targets);
-        pf.run();
-
-        List<WorldPoint> path = pf.getPath();
+        List<WorldPoint> path = ShortestPathPlugin.getPathfinderService()
+                .findPath(ShortestPathPlugin.getPathfinderConfig(), worldPoint, targets);
         if (path.isEmpty()) {
             Microbot.log("Unable to find path to any deposit box");
             return null;
@@ -1,6 +1,5 @@
 package net.runelite.client.plugins.microbot.util.gameobject;
 
-import lombok.SneakyThrows;
 import net.runelite.api.*;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldArea;
@@ -15,13 +14,15 @@ import net.runelite.client.plugins.microbot.util.coords.Rs2WorldArea;
 import net.runelite.client.plugins.microbot.util.equipment.Rs2Equipment;
 import net.runelite.client.plugins.microbot.util.inventory.Rs2Inventory;
 import net.runelite.client.plugins.microbot.util.menu.NewMenuEntry;
+import net.runelite.client.plugins.microbot.util.misc.IdNameIndex;
 import net.runelite.client.plugins.microbot.util.misc.Rs2UiHelper;
 import net.runelite.client.plugins.microbot.util.player.Rs2Player;
+import net.runelite.client.plugins.microbot.util.scene.SceneIndex;
+import net.runelite.client.plugins.microbot.util.scene.SceneSnapshot;
 import net.runelite.client.plugins.microbot.util.tile.Rs2Tile;
 import net.runelite.client.plugins.microbot.util.walker.Rs2Walker;
 
 import javax.annotation.Nullable;
-import java.lang.reflect.Field;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -34,6 +35,9 @@ import static net.runelite.client.plugins.microbot.util.Global.sleepUntil;
  * TODO: This class should be cleaned up, less methods by passing filters instead of multiple parameters
  */
 public class Rs2GameObject {
+	// Id predicates matching more ids than this filter the nearby objects instead of looking each id up
+	private static final int MAX_INDEXED_IDS = 64;
+
 	/**
 	 * Extracts all {@link GameObject}s located on a given {@link Tile}.
 	 *
@@ -213,7 +217,7 @@ public class Rs2GameObject {
 
 	@Deprecated
     public static TileObject findObjectById(int id) {
-        return getAll(o -> o.getId() == id).stream().findFirst().orElse(null);
+        return getAll(idMatches(id)).stream().findFirst().orElse(null);
     }
 
     @Deprecated
@@ -242,7 +246,7 @@ public class Rs2GameObject {
         Player player = Microbot.getClient().getLocalPlayer();
         if (player == null) return null;
         LocalPoint anchor = player.getLocalLocation();
-        return getAll(o -> o.getId() == id).stream().filter(withinTilesPredicate(Rs2LocalPoint.worldToLocalDistance(distance), anchor)).findFirst().orElse(null);
+        return getAll(idMatches(id)).stream().filter(withinTilesPredicate(Rs2LocalPoint.worldToLocalDistance(distance), anchor)).findFirst().orElse(null);
     }
 
     @Deprecated
@@ -352,7 +356,7 @@ public class Rs2GameObject {
 
     @Deprecated
     public static GameObject findObjectByImposter(int id, String optionName, boolean exact) {
-        return getGameObjects(o -> o.getId() == id)
+        return getGameObjects(idMatches(id))
                 .stream()
                 .filter(o -> {
                     ObjectComposition comp = convertToObjectComposition(o);
@@ -522,7 +526,7 @@ public class Rs2GameObject {
     }
 
     public static TileObject getTileObject(int id) {
-        return getTileObject(o -> o.getId() == id);
+        return getTileObject(idMatches(id));
     }
 
     public static TileObject getTileObject(int id, int distance) {
@@ -538,7 +542,7 @@ public class Rs2GameObject {
     }
 
     public static TileObject getTileObject(int id, WorldPoint anchor, int distance) {
-        return getTileObject(o -> o.getId() == id, anchor, distance);
+        return getTileObject(idMatches(id), anchor, distance);
     }
 
     public static TileObject getTileObject(Integer[] ids) {
@@ -728,7 +732,7 @@ public class Rs2GameObject {
     }
 
     public static GameObject getGameObject(int id, WorldPoint anchor, int distance) {
-        return getGameObject(o -> o.getId() == id, anchor, distance);
+        return getGameObject(idMatches(id), anchor, distance);
     }
 
     public static GameObject getGameObject(Integer[] ids) {
@@ -924,7 +928,7 @@ public class Rs2GameObject {
     }
 
     public static GroundObject getGroundObject(int id, WorldPoint anchor, int distance) {
-        return getGroundObject(o -> o.getId() == id, anchor, distance);
+        return getGroundObject(idMatches(id), anchor, distance);
     }
 
     public static GroundObject getGroundObject(Integer[] ids) {
@@ -1114,7 +1118,7 @@ public class Rs2GameObject {
     }
 
     public static WallObject getWallObject(int id, WorldPoint anchor, int distance) {
-        return getWallObject(o -> o.getId() == id, anchor, distance);
+        return getWallObject(idMatches(id), anchor, distance);
     }
 
     public static WallObject getWallObject(Integer[] ids) {
@@ -1304,7 +1308,7 @@ public class Rs2GameObject {
     }
 
     public static DecorativeObject getDecorativeObject(int id, WorldPoint anchor, int distance) {
-        return getDecorativeObject(o -> o.getId() == id, anchor, distance);
+        return getDecorativeObject(idMatches(id), anchor, distance);
     }
 
     public static DecorativeObject getDecorativeObject(Integer[] ids) {
@@ -1548,6 +1552,16 @@ public class Rs2GameObject {
             distance = Rs2LocalPoint.worldToLocalDistance(Constants.SCENE_SIZE);
         }
 
+        SceneSnapshot snapshot = SceneSnapshot.current();
+        SceneIndex<T> index = snapshot == null ? null : getSnapshotIndex(snapshot, extractor);
+        if (index != null) {
+            return getCandidates(index, predicate, anchorLocal, distance).stream()
+                    .filter(withinTilesPredicate(distance, anchorLocal))
+                    .filter(predicate)
+                    .sorted(Comparator.comparingInt(o -> o.getLocalLocation().distanceTo(anchorLocal)))
+                    .collect(Collectors.toList());
+        }
+
         return getSceneObjects(extractor)
                 .filter(withinTilesPredicate(distance, anchorLocal))
                 .filter(predicate)
@@ -1555,6 +1569,38 @@ public class Rs2GameObject {
                 .collect(Collectors.toList());
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T extends TileObject> SceneIndex<T> getSnapshotIndex(SceneSnapshot snapshot, Function<Tile, Collection<? extends T>> extractor) {
+        if ((Object) extractor == GAMEOBJECT_EXTRACTOR) return (SceneIndex<T>) snapshot.getGameObjects();
+        if ((Object) extractor == TILEOBJECT_EXTRACTOR) return (SceneIndex<T>) snapshot.getTileObjects();
+        if ((Object) extractor == GROUNDOBJECT_EXTRACTOR) return (SceneIndex<T>) snapshot.getGroundObjects();
+        if ((Object) extractor == WALLOBJECT_EXTRACTOR) return (SceneIndex<T>) snapshot.getWallObjects();
+        if ((Object) extractor == DECORATIVEOBJECT_EXTRACTOR) return (SceneIndex<T>) snapshot.getDecorativeObjects();
+        return null;
+    }
+
+    /**
+     * Narrows the objects of a snapshot down to those on nearby tiles, or those with the predicate's ids when it
+     * only matches a few
+     */
+    private static <T extends TileObject> List<T> getCandidates(SceneIndex<T> index, Predicate<T> predicate, LocalPoint anchorLocal, int distance) {
+        if (predicate instanceof IdFilter && ((IdFilter<T>) predicate).ids.length <= MAX_INDEXED_IDS) {
+            int[] ids = ((IdFilter<T>) predicate).ids;
+            if (ids.length == 1) {
+                return index.withId(ids[0]);
+            }
+
+            List<T> candidates = new ArrayList<>();
+            for (int id : ids) {
+                candidates.addAll(index.withId(id));
+            }
+            return candidates;
+        }
+
+        // Local distances are measured between tile centres, so one extra tile covers the rounding
+        return index.within(anchorLocal.getSceneX(), anchorLocal.getSceneY(), distance / Perspective.LOCAL_TILE_SIZE + 1);
+    }
+
     private static <T extends TileObject> T getSceneObject(Function<Tile, Collection<? extends T>> extractor, Predicate<T> predicate, LocalPoint anchorLocal, int distance) {
         return getSceneObjects(extractor, predicate, anchorLocal, distance)
                 .stream()
@@ -1602,20 +1648,15 @@ public class Rs2GameObject {
 	 */
     public static <T extends TileObject> Predicate<T> nameMatches(String objectName, boolean exact)
 	{
-        String normalizedForIds = objectName.toLowerCase().replace(" ", "_");
-        Set<Integer> ids = new HashSet<>(getObjectIdsByName(normalizedForIds));
+        // Constant names use underscores where the names in game have spaces
+        int[] ids = IdNameIndex.objects().idsContaining(IdNameIndex.normalize(objectName));
 
         String lower = objectName.toLowerCase();
 
-        return obj -> {
-            if (!ids.isEmpty() && !ids.contains(obj.getId())) {
-                return false;
-            }
-
-            return getCompositionName(obj)
-                    .map(compName -> exact ? compName.equalsIgnoreCase(objectName) : compName.toLowerCase().contains(lower))
-                    .orElse(false);
-        };
+        Predicate<T> compositionMatches = obj -> getCompositionName(obj)
+                .map(compName -> exact ? compName.equalsIgnoreCase(objectName) : compName.toLowerCase().contains(lower))
+                .orElse(false);
+        return ids.length > 0 ? new IdFilter<>(ids, compositionMatches) : compositionMatches;
     }
 
 	/**
@@ -1630,6 +1671,48 @@ public class Rs2GameObject {
 		return nameMatches(objectName, false);
 	}
 
+	/**
+	 * Creates a predicate that matches TileObjects with one of the given ids.
+	 * Scene queries look the objects up by id instead of testing every object in the scene.
+	 *
+	 * @param ids The object ids to match.
+	 * @param <T> A type that extends TileObject.
+	 * @return A predicate that returns true if the object's id is one of the given ids.
+	 */
+	public static <T extends TileObject> Predicate<T> idMatches(int... ids)
+	{
+		return new IdFilter<>(Arrays.stream(ids).sorted().distinct().toArray(), obj -> true);
+	}
+
+	/**
+	 * Predicate on the id of an object followed by a further condition, which scene queries can answer from the
+	 * id index of the scene snapshot.
+	 */
+	private static final class IdFilter<T extends TileObject> implements Predicate<T>
+	{
+		// Sorted and distinct
+		private final int[] ids;
+		private final Predicate<T> condition;
+
+		private IdFilter(int[] ids, Predicate<T> condition)
+		{
+			this.ids = ids;
+			this.condition = condition;
+		}
+
+		@Override
+		public boolean test(T obj)
+		{
+			return Arrays.binarySearch(ids, obj.getId()) >= 0 && condition.test(obj);
+		}
+
+		@Override
+		public Predicate<T> and(Predicate<? super T> other)
+		{
+			return new IdFilter<>(ids, condition.and(other));
+		}
+	}
+
 	/**
 	 * Creates a predicate that matches TileObjects whose name and one of the actions match the given values.
 	 * Matching can be exact or partial based on the 'exact' parameter.
@@ -1851,28 +1934,15 @@ public class Rs2GameObject {
         }
     }
 
-    @SneakyThrows
+    /**
+     * @param name the name, or part of the name, of an ObjectID constant, e.g. "bank_booth". Spaces are not
+     *             converted to underscores, so names as shown in game only match single word constants.
+     * @return the ids of every ObjectID constant whose name contains the given name (case-insensitive)
+     */
     public static List<Integer> getObjectIdsByName(String name) {
-        List<Integer> ids = new ArrayList<>();
-        String lowerName = name.toLowerCase();
-
-        Class<?>[] classesToScan = {
-                net.runelite.api.ObjectID.class,
-                net.runelite.api.gameval.ObjectID.class,
-                net.runelite.client.plugins.microbot.util.gameobject.ObjectID.class
-        };
-
-        for (Class<?> clazz : classesToScan) {
-            for (Field f : clazz.getFields()) {
-                if (f.getType() != int.class) continue;
-
-                if (f.getName().toLowerCase().contains(lowerName)) {
-                    f.setAccessible(true);
-                    ids.add(f.getInt(null));
-                }
-            }
-        }
-        return ids;
+        return Arrays.stream(IdNameIndex.objects().idsContaining(name))
+                .boxed()
+                .collect(Collectors.toList());
     }
 
     @Nullable
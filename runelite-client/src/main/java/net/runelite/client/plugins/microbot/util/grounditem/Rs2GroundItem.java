@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.plugins.grounditems.GroundItem;
 import net.runelite.client.plugins.grounditems.GroundItemsPlugin;
 import net.runelite.client.plugins.microbot.Microbot;
@@ -14,6 +15,7 @@ import net.runelite.client.plugins.microbot.util.menu.NewMenuEntry;
 import net.runelite.client.plugins.microbot.util.models.RS2Item;
 import net.runelite.client.plugins.microbot.util.player.Rs2Player;
 import net.runelite.client.plugins.microbot.util.reflection.Rs2Reflection;
+import net.runelite.client.plugins.microbot.util.scene.SceneSnapshot;
 import net.runelite.client.plugins.microbot.util.tile.Rs2Tile;
 
 import java.awt.*;
@@ -22,6 +24,7 @@ import java.util.List;
 import java.util.*;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static net.runelite.api.TileItem.OWNERSHIP_SELF;
@@ -152,6 +155,15 @@ public class Rs2GroundItem {
      * @return An array of the ground items on the specified tile.
      */
     public static RS2Item[] getAllAt(int x, int y) {
+        final SceneSnapshot snapshot = SceneSnapshot.current();
+        if (snapshot != null) {
+            final Tile tile = Rs2Tile.getTile(x, y);
+            if (tile == null) return EMPTY_ARRAY;
+            return RS2Item.resolveAll(snapshot.getGroundItems()
+                    .at(tile.getSceneLocation().getX(), tile.getSceneLocation().getY())
+                    .toArray(EMPTY_ARRAY));
+        }
+
         return Microbot.getClientThread().runOnClientThreadOptional(() -> {
             if (!Microbot.isLoggedIn()) return EMPTY_ARRAY;
 
@@ -182,6 +194,17 @@ public class Rs2GroundItem {
     public static RS2Item[] getAllFromWorldPoint(int range, WorldPoint worldPoint) {
         if (worldPoint == null) return (RS2Item[]) EMPTY_ARRAY;
 
+        final SceneSnapshot snapshot = SceneSnapshot.current();
+        final Tile center = snapshot == null ? null : Rs2Tile.getTile(worldPoint.getX(), worldPoint.getY());
+        if (center != null) {
+            final LocalPoint playerLocation = Microbot.getClient().getLocalPlayer().getLocalLocation();
+            return RS2Item.resolveAll(snapshot.getGroundItems()
+                    .within(center.getSceneLocation().getX(), center.getSceneLocation().getY(), range)
+                    .stream()
+                    .sorted(Comparator.comparingInt(value -> value.getTile().getLocalLocation().distanceTo(playerLocation)))
+                    .toArray(RS2Item[]::new));
+        }
+
         return Microbot.getClientThread().runOnClientThreadOptional(() -> {
                     List<RS2Item> temp = new ArrayList<>();
                     final int pX = worldPoint.getX();
@@ -226,13 +249,17 @@ public class Rs2GroundItem {
     }
 
     public static boolean lootItemBasedOnValue(int value, int range) {
-         final RS2Item rs2Item = Arrays.stream(Rs2GroundItem.getAll(range))
+         final RS2Item[] groundItems = Arrays.stream(Rs2GroundItem.getAll(range))
                 .filter(item -> hasLineOfSight(item.getTile()))
-                .filter(item -> {
-                    final long totalPrice = (long) Microbot.getClientThread().runOnClientThreadOptional(() ->
-                            Microbot.getItemManager().getItemPrice(item.getItem().getId()) * item.getTileItem().getQuantity()).orElse(0);
-                    return totalPrice >= value;
-                }).findFirst().orElse(null);
+                .toArray(RS2Item[]::new);
+         final long[] totalPrices = getTotalPrices(groundItems);
+         RS2Item rs2Item = null;
+         for (int i = 0; i < groundItems.length; i++) {
+             if (totalPrices[i] >= value) {
+                 rs2Item = groundItems[i];
+                 break;
+             }
+         }
 
          if (rs2Item == null) return false;
          if (Rs2Inventory.isFull() && Rs2Player.eatAt(100)) Rs2Player.waitForAnimation();
@@ -428,12 +455,28 @@ public class Rs2GroundItem {
         return !groundItems.isEmpty();
     }
 
+    /**
+     * Looks up the price of each stack of items in a single client thread round trip
+     *
+     * @return the total price of each stack, 0 if the price couldn't be looked up
+     */
+    private static long[] getTotalPrices(RS2Item[] items) {
+        final ClientThread.Batch batch = Microbot.getClientThread().batch();
+        final List<Supplier<Optional<Integer>>> prices = new ArrayList<>(items.length);
+        for (RS2Item item : items) {
+            prices.add(batch.add(() -> Microbot.getItemManager().getItemPrice(item.getItem().getId())));
+        }
+        batch.run();
+
+        final long[] totalPrices = new long[items.length];
+        for (int i = 0; i < items.length; i++) {
+            totalPrices[i] = (long) prices.get(i).get().orElse(0) * items[i].getTileItem().getQuantity();
+        }
+        return totalPrices;
+    }
+
     public static boolean isItemBasedOnValueOnGround(int value, int range) {
-        return Arrays.stream(Rs2GroundItem.getAll(range)).anyMatch(rs2Item -> {
-            final long totalPrice = (long) Microbot.getClientThread().runOnClientThreadOptional(() ->
-                    Microbot.getItemManager().getItemPrice(rs2Item.getItem().getId()) * rs2Item.getTileItem().getQuantity()).orElse(0);
-            return totalPrice >= value;
-        });
+        return Arrays.stream(getTotalPrices(Rs2GroundItem.getAll(range))).anyMatch(totalPrice -> totalPrice >= value);
     }
 
     @Deprecated(since = "1.4.6, use lootItemsBasedOnNames(LootingParameters params)", forRemoval = true)
@@ -442,11 +485,11 @@ public class Rs2GroundItem {
                 Rs2GroundItem.getAll(range)
         ).orElse(new RS2Item[] {});
         Rs2Inventory.dropEmptyVials();
-        for (RS2Item rs2Item : groundItems) {
+        final long[] totalPrices = getTotalPrices(groundItems);
+        for (int i = 0; i < groundItems.length; i++) {
+            final RS2Item rs2Item = groundItems[i];
             if (Rs2Inventory.isFull(rs2Item.getItem().getName())) continue;
-            long totalPrice = (long) Microbot.getClientThread().runOnClientThreadOptional(() ->
-                    Microbot.getItemManager().getItemPrice(rs2Item.getItem().getId()) * rs2Item.getTileItem().getQuantity()).orElse(0);
-            if (totalPrice >= value) {
+            if (totalPrices[i] >= value) {
                 return interact(rs2Item);
             }
         }
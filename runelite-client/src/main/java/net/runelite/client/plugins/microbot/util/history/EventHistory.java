@@ -0,0 +1,523 @@
+package net.runelite.client.plugins.microbot.util.history;
+
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Skill;
+import net.runelite.client.RuneLite;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local history of the loot received and the experience gained, kept in a SQLite database in the RuneLite
+ * directory, so scripts, scheduler conditions and panels can ask how much was looted or gained per hour, per NPC or
+ * per script session, without keeping it in the profile config.
+ * <p>
+ * Loot and experience are only ever appended. Records are queued and written in one transaction on a background
+ * thread. Sessions and queries run on that thread too, after the queued records are written, so callers on the
+ * client thread or the EDT never wait on the database. Everything is kept per RuneScape profile, queries only look at
+ * the current one.
+ * <p>
+ * When the database can't be opened, recording does nothing and queries complete with nothing found.
+ */
+@Slf4j
+public final class EventHistory {
+    private static final File DEFAULT_DATABASE = new File(RuneLite.RUNELITE_DIR, "microbot-history.db");
+    private static final long WRITE_DELAY_MS = 2000;
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS loot (time INTEGER NOT NULL, account TEXT NOT NULL, source TEXT NOT NULL,"
+                    + " item_id INTEGER NOT NULL, item_name TEXT NOT NULL, quantity INTEGER NOT NULL, value INTEGER NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS loot_account_time ON loot (account, time)",
+            "CREATE INDEX IF NOT EXISTS loot_account_source_time ON loot (account, source, time)",
+            "CREATE TABLE IF NOT EXISTS xp (time INTEGER NOT NULL, account TEXT NOT NULL, skill TEXT NOT NULL,"
+                    + " xp INTEGER NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS xp_account_skill_time ON xp (account, skill, time)",
+            "CREATE INDEX IF NOT EXISTS xp_account_time ON xp (account, time)",
+            "CREATE TABLE IF NOT EXISTS session (id INTEGER PRIMARY KEY AUTOINCREMENT, account TEXT NOT NULL,"
+                    + " name TEXT NOT NULL, start_time INTEGER NOT NULL, end_time INTEGER NOT NULL DEFAULT 0)",
+            "CREATE INDEX IF NOT EXISTS session_account_start ON session (account, start_time)",
+    };
+
+    private static final Queue<LootRecord> pendingLoot = new ConcurrentLinkedQueue<>();
+    private static final Queue<XpRecord> pendingXp = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "EventHistory-Writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Last experience seen for each skill, gains are recorded relative to it
+    private static final Map<Skill, Integer> lastXp = Collections.synchronizedMap(new EnumMap<>(Skill.class));
+
+    private static volatile String account = "";
+    private static volatile Clock clock = Clock.systemUTC();
+
+    // Only used on the writer thread
+    private static File database = DEFAULT_DATABASE;
+    private static Connection connection;
+    private static boolean unavailable;
+
+    private EventHistory() {
+    }
+
+    /**
+     * Moves the history to another database file. Records queued before are written to the new database.
+     */
+    static void setDatabase(File file) {
+        writer.execute(() -> {
+            close();
+            database = file;
+            unavailable = false;
+        });
+    }
+
+    /**
+     * Sets the clock the times of records and sessions are read from
+     */
+    static void setClock(Clock clock) {
+        EventHistory.clock = clock;
+    }
+
+    /**
+     * Sets the RuneScape profile new records belong to and queries look at
+     */
+    public static void setAccount(String profileKey) {
+        account = profileKey == null ? "" : profileKey;
+        lastXp.clear();
+    }
+
+    /**
+     * Records a received item
+     *
+     * @param source the NPC, player or activity the loot came from
+     * @param value  the value of the whole stack
+     */
+    public static void recordLoot(String source, int itemId, String itemName, int quantity, long value) {
+        pendingLoot.add(new LootRecord(clock.millis(), account, source == null ? "" : source, itemId,
+                itemName == null ? "" : itemName, quantity, value));
+        scheduleWrite();
+    }
+
+    /**
+     * Records the gain since the last experience seen for the skill. The first experience seen after
+     * {@link #setAccount(String)} only sets the starting point.
+     *
+     * @param xp the current experience of the skill
+     */
+    public static void recordXp(Skill skill, int xp) {
+        final Integer previous = lastXp.put(skill, xp);
+        if (previous == null || xp <= previous) {
+            return;
+        }
+        pendingXp.add(new XpRecord(clock.millis(), account, skill.name(), xp - previous));
+        scheduleWrite();
+    }
+
+    /**
+     * Starts a named session, such as a run of a script, to query the loot and experience of later. It is stored in
+     * the background.
+     */
+    public static Session startSession(String name) {
+        final Session session = new Session(account, name, clock.millis());
+        writer.execute(() -> insertSession(session));
+        return session;
+    }
+
+    public static void endSession(Session session) {
+        if (session == null || !session.isRunning()) {
+            return;
+        }
+        session.end = clock.millis();
+        writer.execute(() -> updateSessionEnd(session));
+    }
+
+    /**
+     * @return the value of all loot received in the time range
+     */
+    public static CompletableFuture<Long> getLootValue(long since, long until) {
+        return getLootValue(account, since, until);
+    }
+
+    private static CompletableFuture<Long> getLootValue(String account, long since, long until) {
+        return query(0L, db -> {
+            final long[] total = {0};
+            select(db, "SELECT SUM(value) FROM loot WHERE account = ? AND time >= ? AND time < ?",
+                    rs -> total[0] = rs.getLong(1), account, since, until);
+            return total[0];
+        });
+    }
+
+    /**
+     * @return the value of the loot received in the time range per hour, keyed by the start of the hour
+     */
+    public static CompletableFuture<SortedMap<Long, Long>> getLootValueByHour(long since, long until) {
+        return getLootValueByHour(account, since, until);
+    }
+
+    private static CompletableFuture<SortedMap<Long, Long>> getLootValueByHour(String account, long since, long until) {
+        return query(Collections.emptySortedMap(), db -> {
+            final SortedMap<Long, Long> values = new TreeMap<>();
+            select(db, "SELECT time / ? AS hour, SUM(value) FROM loot WHERE account = ? AND time >= ? AND time < ?"
+                            + " GROUP BY hour",
+                    rs -> values.put(rs.getLong(1) * HOUR_MS, rs.getLong(2)), HOUR_MS, account, since, until);
+            return values;
+        });
+    }
+
+    /**
+     * @return the value of the loot received in the time range per NPC or player, most valuable first
+     */
+    public static CompletableFuture<Map<String, Long>> getLootValueBySource(long since, long until) {
+        return getLootValueBySource(account, since, until);
+    }
+
+    private static CompletableFuture<Map<String, Long>> getLootValueBySource(String account, long since, long until) {
+        return query(Collections.emptyMap(), db -> {
+            final Map<String, Long> values = new LinkedHashMap<>();
+            select(db, "SELECT source, SUM(value) AS total FROM loot WHERE account = ? AND time >= ? AND time < ?"
+                            + " GROUP BY source ORDER BY total DESC",
+                    rs -> values.put(rs.getString(1), rs.getLong(2)), account, since, until);
+            return values;
+        });
+    }
+
+    /**
+     * @param skill the skill, or null or {@link Skill#OVERALL} for all skills
+     * @return the experience gained in the time range
+     */
+    public static CompletableFuture<Long> getXpGained(Skill skill, long since, long until) {
+        return getXpGained(account, skill, since, until);
+    }
+
+    private static CompletableFuture<Long> getXpGained(String account, Skill skill, long since, long until) {
+        return query(0L, db -> {
+            final long[] total = {0};
+            if (isTotal(skill)) {
+                select(db, "SELECT SUM(xp) FROM xp WHERE account = ? AND time >= ? AND time < ?",
+                        rs -> total[0] = rs.getLong(1), account, since, until);
+            } else {
+                select(db, "SELECT SUM(xp) FROM xp WHERE account = ? AND skill = ? AND time >= ? AND time < ?",
+                        rs -> total[0] = rs.getLong(1), account, skill.name(), since, until);
+            }
+            return total[0];
+        });
+    }
+
+    /**
+     * @param skill the skill, or null or {@link Skill#OVERALL} for all skills
+     * @return the experience gained in the time range per hour, keyed by the start of the hour
+     */
+    public static CompletableFuture<SortedMap<Long, Long>> getXpGainedByHour(Skill skill, long since, long until) {
+        return getXpGainedByHour(account, skill, since, until);
+    }
+
+    private static CompletableFuture<SortedMap<Long, Long>> getXpGainedByHour(String account, Skill skill, long since,
+                                                                              long until) {
+        return query(Collections.emptySortedMap(), db -> {
+            final SortedMap<Long, Long> gains = new TreeMap<>();
+            if (isTotal(skill)) {
+                select(db, "SELECT time / ? AS hour, SUM(xp) FROM xp WHERE account = ? AND time >= ? AND time < ?"
+                                + " GROUP BY hour",
+                        rs -> gains.put(rs.getLong(1) * HOUR_MS, rs.getLong(2)), HOUR_MS, account, since, until);
+            } else {
+                select(db, "SELECT time / ? AS hour, SUM(xp) FROM xp WHERE account = ? AND skill = ? AND time >= ?"
+                                + " AND time < ? GROUP BY hour",
+                        rs -> gains.put(rs.getLong(1) * HOUR_MS, rs.getLong(2)), HOUR_MS, account, skill.name(), since,
+                        until);
+            }
+            return gains;
+        });
+    }
+
+    /**
+     * Writes the queued records now
+     *
+     * @return completes once they are written
+     */
+    public static Future<?> flush() {
+        return writer.submit(EventHistory::write);
+    }
+
+    private static boolean isTotal(Skill skill) {
+        return skill == null || skill == Skill.OVERALL;
+    }
+
+    private static void scheduleWrite() {
+        if (writeScheduled.compareAndSet(false, true)) {
+            writer.schedule(EventHistory::write, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void write() {
+        writeScheduled.set(false);
+        if (pendingLoot.isEmpty() && pendingXp.isEmpty()) {
+            return;
+        }
+        final Connection db = connection();
+        if (db == null) {
+            pendingLoot.clear();
+            pendingXp.clear();
+            return;
+        }
+
+        try {
+            db.setAutoCommit(false);
+            try (PreparedStatement loot = db.prepareStatement(
+                    "INSERT INTO loot (time, account, source, item_id, item_name, quantity, value) VALUES (?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement xp = db.prepareStatement(
+                         "INSERT INTO xp (time, account, skill, xp) VALUES (?, ?, ?, ?)")) {
+                LootRecord lootRecord;
+                while ((lootRecord = pendingLoot.poll()) != null) {
+                    loot.setLong(1, lootRecord.time);
+                    loot.setString(2, lootRecord.account);
+                    loot.setString(3, lootRecord.source);
+                    loot.setInt(4, lootRecord.itemId);
+                    loot.setString(5, lootRecord.itemName);
+                    loot.setInt(6, lootRecord.quantity);
+                    loot.setLong(7, lootRecord.value);
+                    loot.addBatch();
+                }
+                XpRecord xpRecord;
+                while ((xpRecord = pendingXp.poll()) != null) {
+                    xp.setLong(1, xpRecord.time);
+                    xp.setString(2, xpRecord.account);
+                    xp.setString(3, xpRecord.skill);
+                    xp.setLong(4, xpRecord.xp);
+                    xp.addBatch();
+                }
+                loot.executeBatch();
+                xp.executeBatch();
+            }
+            db.commit();
+        } catch (SQLException e) {
+            log.warn("Unable to write loot and xp history", e);
+            try {
+                db.rollback();
+            } catch (SQLException ignored) {
+            }
+        } finally {
+            try {
+                db.setAutoCommit(true);
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private static void insertSession(Session session) {
+        final Connection db = connection();
+        if (db == null) {
+            return;
+        }
+        try (PreparedStatement insert = db.prepareStatement(
+                "INSERT INTO session (account, name, start_time, end_time) VALUES (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            insert.setString(1, session.account);
+            insert.setString(2, session.name);
+            insert.setLong(3, session.start);
+            insert.setLong(4, session.end);
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                if (keys.next()) {
+                    session.id = keys.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to start history session {}", session.name, e);
+        }
+    }
+
+    private static void updateSessionEnd(Session session) {
+        final Connection db = connection();
+        if (db == null || session.id < 0) {
+            return;
+        }
+        try (PreparedStatement update = db.prepareStatement("UPDATE session SET end_time = ? WHERE id = ?")) {
+            update.setLong(1, session.end);
+            update.setLong(2, session.id);
+            update.executeUpdate();
+        } catch (SQLException e) {
+            log.warn("Unable to end history session {}", session.name, e);
+        }
+    }
+
+    private interface Query<T> {
+        T run(Connection db) throws SQLException;
+    }
+
+    private interface RowHandler {
+        void accept(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Runs the query on the writer thread, after writing the queued records
+     *
+     * @param none the result when the history is unavailable or the query fails
+     */
+    private static <T> CompletableFuture<T> query(T none, Query<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            write();
+            final Connection db = connection();
+            if (db == null) {
+                return none;
+            }
+            try {
+                return query.run(db);
+            } catch (SQLException e) {
+                log.warn("Unable to query loot and xp history", e);
+                return none;
+            }
+        }, writer);
+    }
+
+    /**
+     * Runs a select, calling the handler for each row
+     */
+    private static void select(Connection db, String sql, RowHandler handler, Object... params) throws SQLException {
+        try (PreparedStatement statement = db.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(rs);
+                }
+            }
+        }
+    }
+
+    private static Connection connection() {
+        if (connection != null || unavailable) {
+            return connection;
+        }
+        try {
+            final Connection db = DriverManager.getConnection("jdbc:sqlite:" + database.getAbsolutePath());
+            try (Statement statement = db.createStatement()) {
+                // Appends are durable enough with a write ahead log, and don't wait on readers
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+            connection = db;
+        } catch (SQLException e) {
+            log.warn("Loot and xp history is unavailable", e);
+            unavailable = true;
+        }
+        return connection;
+    }
+
+    private static void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Unable to close loot and xp history", e);
+        }
+        connection = null;
+    }
+
+    /**
+     * A named time range of a profile, such as a run of a script
+     */
+    public static final class Session {
+        private final String account;
+        @Getter
+        private final String name;
+        @Getter
+        private final long start;
+        // 0 while the session runs
+        private volatile long end;
+        // Assigned on the writer thread once the session is stored
+        private long id = -1;
+
+        private Session(String account, String name, long start) {
+            this.account = account;
+            this.name = name;
+            this.start = start;
+        }
+
+        public boolean isRunning() {
+            return end == 0;
+        }
+
+        /**
+         * @return the end of the session, or the current time when it is still running
+         */
+        public long getEndOrNow() {
+            final long end = this.end;
+            return end == 0 ? clock.millis() : end;
+        }
+
+        public CompletableFuture<Long> getLootValue() {
+            return EventHistory.getLootValue(account, start, getEndOrNow());
+        }
+
+        public CompletableFuture<Map<String, Long>> getLootValueBySource() {
+            return EventHistory.getLootValueBySource(account, start, getEndOrNow());
+        }
+
+        public CompletableFuture<SortedMap<Long, Long>> getLootValueByHour() {
+            return EventHistory.getLootValueByHour(account, start, getEndOrNow());
+        }
+
+        /**
+         * @param skill the skill, or null or {@link Skill#OVERALL} for all skills
+         */
+        public CompletableFuture<Long> getXpGained(Skill skill) {
+            return EventHistory.getXpGained(account, skill, start, getEndOrNow());
+        }
+
+        /**
+         * @param skill the skill, or null or {@link Skill#OVERALL} for all skills
+         */
+        public CompletableFuture<SortedMap<Long, Long>> getXpGainedByHour(Skill skill) {
+            return EventHistory.getXpGainedByHour(account, skill, start, getEndOrNow());
+        }
+    }
+
+    @Value
+    private static class LootRecord {
+        long time;
+        String account;
+        String source;
+        int itemId;
+        String itemName;
+        int quantity;
+        long value;
+    }
+
+    @Value
+    private static class XpRecord {
+        long time;
+        String account;
+        String skill;
+        long xp;
+    }
+}
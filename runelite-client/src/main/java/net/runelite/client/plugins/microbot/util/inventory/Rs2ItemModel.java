@@ -8,14 +8,17 @@ import net.runelite.api.Item;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.gameval.ItemID;
 import net.runelite.api.ParamID;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.plugins.microbot.Microbot;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Slf4j
 public class Rs2ItemModel {
@@ -53,19 +56,9 @@ public class Rs2ItemModel {
         this.slot = slot;
         this.isStackable = itemComposition.isStackable();
         this.isNoted = itemComposition.getNote() == 799;
-        // This is to ensure the item is linked correctly if it's noted
-        if (this.isNoted) {
-            Microbot.getClientThread().runOnClientThreadOptional(() ->
-                    Microbot.getClient().getItemDefinition(itemComposition.getLinkedNoteId())).ifPresent(itemDefinition -> this.isTradeable = itemDefinition.isTradeable());
-        } else {
-            this.isTradeable = itemComposition.isTradeable();
-        }
         this.inventoryActions = itemComposition.getInventoryActions();
         this.itemComposition = itemComposition;
-        Microbot.getClientThread().runOnClientThreadOptional(() -> {
-            addEquipmentActions(itemComposition);
-       	    return true;
-        });
+        loadTradeableAndEquipmentActions(itemComposition);
     }
 
     /**
@@ -113,21 +106,34 @@ public class Rs2ItemModel {
                 this.name = itemComposition.getName();
                 this.isStackable = itemComposition.isStackable();
                 this.isNoted = itemComposition.getNote() == 799;
-                if (this.isNoted) {
-                    Microbot.getClientThread().runOnClientThreadOptional(() ->
-                            Microbot.getClient().getItemDefinition(itemComposition.getLinkedNoteId())).ifPresent(itemDefinition -> this.isTradeable = itemDefinition.isTradeable());
-                } else {
-                    this.isTradeable = itemComposition.isTradeable();
-                }
                 this.inventoryActions = itemComposition.getInventoryActions();
-				Microbot.getClientThread().runOnClientThreadOptional(() -> {
-					addEquipmentActions(itemComposition);
-					return true;
-				});
+                loadTradeableAndEquipmentActions(itemComposition);
             }
         }
     }
 
+    /**
+     * Reads whether the item is tradeable and its equipment actions, with one wait on the client thread.
+     * Noted items are tradeable if the item they are linked to is.
+     */
+    private void loadTradeableAndEquipmentActions(ItemComposition itemComposition) {
+        ClientThread.Batch batch = Microbot.getClientThread().batch();
+        Supplier<Optional<ItemComposition>> linkedItem = isNoted
+                ? batch.add(() -> Microbot.getClient().getItemDefinition(itemComposition.getLinkedNoteId()))
+                : null;
+        batch.add(() -> {
+            addEquipmentActions(itemComposition);
+            return true;
+        });
+        batch.run();
+
+        if (linkedItem != null) {
+            linkedItem.get().ifPresent(itemDefinition -> this.isTradeable = itemDefinition.isTradeable());
+        } else {
+            this.isTradeable = itemComposition.isTradeable();
+        }
+    }
+
     /**
      * Gets the item name, loading composition if needed.
      */
@@ -231,9 +237,11 @@ public class Rs2ItemModel {
     }
 
     public boolean isHaProfitable() {
-        int natureRunePrice = Microbot.getClientThread().runOnClientThreadOptional(() ->
-                Microbot.getItemManager().getItemPrice(ItemID.NATURERUNE)).orElse(0);
-        return (getHaPrice() - natureRunePrice) > (getPrice()/quantity) && isTradeable;
+        ClientThread.Batch batch = Microbot.getClientThread().batch();
+        Supplier<Optional<Integer>> natureRunePrice = batch.add(() -> Microbot.getItemManager().getItemPrice(ItemID.NATURERUNE));
+        Supplier<Optional<Integer>> price = batch.add(() -> Microbot.getItemManager().getItemPrice(id));
+        batch.run();
+        return (getHaPrice() - natureRunePrice.get().orElse(0)) > price.get().orElse(0) && isTradeable;
 
     }
 
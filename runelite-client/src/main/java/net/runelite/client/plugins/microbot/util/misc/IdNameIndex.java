@@ -0,0 +1,229 @@
+package net.runelite.client.plugins.microbot.util.misc;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable index from the names of id constants, such as those in {@code ObjectID}, to their ids.
+ * <p>
+ * Lookups match any constant whose lower case name contains the query, like scanning the constant fields would,
+ * but use a suffix array over the distinct names instead of reflection. Each index is built once on first use.
+ */
+@Slf4j
+public final class IdNameIndex {
+    private static final Supplier<IdNameIndex> OBJECTS = Suppliers.memoize(() -> fromConstants(
+            net.runelite.api.ObjectID.class,
+            net.runelite.api.gameval.ObjectID.class,
+            net.runelite.client.plugins.microbot.util.gameobject.ObjectID.class));
+
+    private static final char SEPARATOR = '\0';
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    // Distinct names, each followed by a separator
+    private final char[] text;
+    // Offset of each name in text, ascending
+    private final int[] nameStarts;
+    // Sorted ids of each name
+    private final int[][] nameIds;
+    // Offsets of every name character in text, sorted by the text that follows them
+    private final int[] suffixes;
+
+    private IdNameIndex(char[] text, int[] nameStarts, int[][] nameIds, int[] suffixes) {
+        this.text = text;
+        this.nameStarts = nameStarts;
+        this.nameIds = nameIds;
+        this.suffixes = suffixes;
+    }
+
+    public static IdNameIndex objects() {
+        return OBJECTS.get();
+    }
+
+    /**
+     * Converts a name as shown in game to the form used by the constants, e.g. "Bank booth" to "bank_booth"
+     */
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT).replace(' ', '_');
+    }
+
+    /**
+     * @param name a name in constant form, matched ignoring case; pass names as shown in game through
+     *             {@link #normalize(String)} first
+     * @return the sorted, distinct ids of every constant whose name contains the name
+     */
+    public int[] idsContaining(String name) {
+        final char[] query = name.toLowerCase(Locale.ROOT).toCharArray();
+
+        int lo = 0;
+        int hi = suffixes.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (comparePrefix(suffixes[mid], query) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        BitSet names = new BitSet(nameStarts.length);
+        for (int i = lo; i < suffixes.length && comparePrefix(suffixes[i], query) == 0; ++i) {
+            names.set(nameOf(suffixes[i]));
+        }
+
+        return names.stream()
+                .flatMap(n -> Arrays.stream(nameIds[n]))
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    public int getNameCount() {
+        return nameStarts.length;
+    }
+
+    /**
+     * Compares the text at a position with the query, over the length of the query
+     */
+    private int comparePrefix(int position, char[] query) {
+        for (int i = 0; i < query.length; ++i) {
+            final char c = charAt(position + i);
+            if (c != query[i]) {
+                return c < query[i] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private int nameOf(int position) {
+        final int index = Arrays.binarySearch(nameStarts, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private char charAt(int position) {
+        return position < text.length ? text[position] : SEPARATOR;
+    }
+
+    static IdNameIndex fromConstants(Class<?>... classes) {
+        final long start = System.nanoTime();
+        Map<String, Set<Integer>> idsByName = new HashMap<>();
+        for (Class<?> clazz : classes) {
+            for (Field field : clazz.getFields()) {
+                if (field.getType() != int.class || !Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+
+                try {
+                    // Fields of the gameval classes are declared in package-private superclasses
+                    field.setAccessible(true);
+                    idsByName.computeIfAbsent(field.getName().toLowerCase(Locale.ROOT), k -> new TreeSet<>())
+                            .add(field.getInt(null));
+                } catch (IllegalAccessException | RuntimeException e) {
+                    log.debug("Unable to read {}.{}", clazz.getName(), field.getName(), e);
+                }
+            }
+        }
+
+        IdNameIndex index = build(idsByName);
+        log.debug("Indexed {} names of {} in {}ms", index.getNameCount(), Arrays.toString(classes),
+                (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    static IdNameIndex build(Map<String, ? extends Set<Integer>> idsByName) {
+        final List<String> names = new ArrayList<>(idsByName.keySet());
+        names.sort(null);
+
+        int length = 0;
+        for (String name : names) {
+            length += name.length() + 1;
+        }
+
+        final char[] text = new char[length];
+        final int[] nameStarts = new int[names.size()];
+        final int[][] nameIds = new int[names.size()][];
+        final int[] suffixes = new int[length - names.size()];
+        int position = 0;
+        int suffix = 0;
+        for (int n = 0; n < names.size(); ++n) {
+            final String name = names.get(n);
+            nameStarts[n] = position;
+            nameIds[n] = idsByName.get(name).stream().mapToInt(Integer::intValue).sorted().toArray();
+            for (int i = 0; i < name.length(); ++i) {
+                suffixes[suffix++] = position;
+                text[position++] = name.charAt(i);
+            }
+            text[position++] = SEPARATOR;
+        }
+
+        IdNameIndex index = new IdNameIndex(text, nameStarts, nameIds, suffixes);
+        index.sort(0, suffixes.length, 0);
+        return index;
+    }
+
+    /**
+     * Multikey quicksort of the suffixes in [lo, hi), which are known to share their first depth characters
+     */
+    private void sort(int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_SORT_THRESHOLD) {
+            final char pivot = charAt(suffixes[(lo + hi) >>> 1] + depth);
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i < gt) {
+                final char c = charAt(suffixes[i] + depth);
+                if (c < pivot) {
+                    swap(lt++, i++);
+                } else if (c > pivot) {
+                    swap(i, --gt);
+                } else {
+                    ++i;
+                }
+            }
+
+            sort(lo, lt, depth);
+            if (pivot != SEPARATOR) {
+                // Suffixes that reached the end of their name are equal as far as lookups are concerned
+                sort(lt, gt, depth + 1);
+            }
+            lo = gt;
+        }
+
+        for (int i = lo + 1; i < hi; ++i) {
+            for (int j = i; j > lo && compareFrom(suffixes[j], suffixes[j - 1], depth) < 0; --j) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    private int compareFrom(int a, int b, int depth) {
+        for (int i = depth; ; ++i) {
+            final char ca = charAt(a + i);
+            final char cb = charAt(b + i);
+            if (ca != cb) {
+                return ca < cb ? -1 : 1;
+            }
+            if (ca == SEPARATOR) {
+                return 0;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        final int t = suffixes[i];
+        suffixes[i] = suffixes[j];
+        suffixes[j] = t;
+    }
+}
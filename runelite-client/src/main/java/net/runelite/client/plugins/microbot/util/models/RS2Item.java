@@ -3,10 +3,11 @@ package net.runelite.client.plugins.microbot.util.models;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.Tile;
 import net.runelite.api.TileItem;
+import net.runelite.client.plugins.microbot.Microbot;
 
 @Deprecated(since="use inventory.rs2item")
 public class RS2Item {
-    private final ItemComposition item;
+    private volatile ItemComposition item;
     private final Tile tile;
     private final TileItem tileItem;
 
@@ -16,8 +17,49 @@ public class RS2Item {
         this.tileItem = tileItem;
     }
 
+    /**
+     * Creates an item whose composition is only looked up when it is first needed
+     */
+    public RS2Item(Tile tile, TileItem tileItem) {
+        this(null, tile, tileItem);
+    }
+
+    /**
+     * @return the composition of the item, looking it up on the client thread if it wasn't yet
+     */
     public ItemComposition getItem() {
-        return item;
+        ItemComposition composition = item;
+        if (composition == null) {
+            composition = Microbot.getClientThread().runOnClientThreadOptional(() ->
+                    Microbot.getItemManager().getItemComposition(tileItem.getId())).orElse(null);
+            item = composition;
+        }
+        return composition;
+    }
+
+    /**
+     * Looks up the compositions of the items that don't have one yet, in a single trip to the client thread
+     *
+     * @return the items
+     */
+    public static RS2Item[] resolveAll(RS2Item[] items) {
+        boolean unresolved = false;
+        for (RS2Item rs2Item : items) {
+            unresolved |= rs2Item.item == null;
+        }
+        if (!unresolved) {
+            return items;
+        }
+
+        Microbot.getClientThread().runOnClientThreadOptional(() -> {
+            for (RS2Item rs2Item : items) {
+                if (rs2Item.item == null) {
+                    rs2Item.item = Microbot.getItemManager().getItemComposition(rs2Item.tileItem.getId());
+                }
+            }
+            return true;
+        });
+        return items;
     }
 
     public Tile getTile() {
@@ -14,6 +14,7 @@ import net.runelite.client.plugins.microbot.util.math.Rs2Random;
 import net.runelite.client.plugins.microbot.util.menu.NewMenuEntry;
 import net.runelite.client.plugins.microbot.util.misc.Rs2UiHelper;
 import net.runelite.client.plugins.microbot.util.player.Rs2Player;
+import net.runelite.client.plugins.microbot.util.scene.SceneSnapshot;
 import net.runelite.client.plugins.microbot.util.tile.Rs2Tile;
 import net.runelite.client.plugins.microbot.util.walker.Rs2Walker;
 import org.jetbrains.annotations.Nullable;
@@ -197,6 +198,11 @@ public class Rs2Npc {
      * @return A sorted {@link Stream} of {@link Rs2NpcModel} objects that match the given predicate.
      */
     public static Stream<Rs2NpcModel> getNpcs(Predicate<Rs2NpcModel> predicate) {
+        SceneSnapshot snapshot = SceneSnapshot.current();
+        if (snapshot != null) {
+            return sortByDistance(snapshot.getNpcs().getAll().stream().filter(x -> x.getName() != null).filter(predicate));
+        }
+
         List<Rs2NpcModel> npcList = Optional.of(Microbot.getClient().getTopLevelWorldView().npcs().stream()
                 .filter(Objects::nonNull)
                 .map(Rs2NpcModel::new)
@@ -209,6 +215,15 @@ public class Rs2Npc {
         return npcList.stream();
     }
 
+    private static Stream<Rs2NpcModel> sortByDistance(Stream<Rs2NpcModel> npcs) {
+        Player player = Microbot.getClient().getLocalPlayer();
+        if (player == null) return npcs;
+        LocalPoint playerLocation = player.getLocalLocation();
+        return npcs.sorted(Comparator.comparingInt(value -> value.getLocalLocation().distanceTo(playerLocation)))
+                .collect(Collectors.toList())
+                .stream();
+    }
+
     /**
      * Retrieves a stream of all NPCs in the game world.
      *
@@ -265,6 +280,10 @@ public class Rs2Npc {
      * @return A {@link Stream} of {@link Rs2NpcModel} objects that match the given NPC ID.
      */
     public static Stream<Rs2NpcModel> getNpcs(int id) {
+        SceneSnapshot snapshot = SceneSnapshot.current();
+        if (snapshot != null) {
+            return sortByDistance(snapshot.getNpcs().withId(id).stream().filter(x -> x.getName() != null));
+        }
         return getNpcs().filter(x -> x.getId() == id);
     }
 
@@ -407,7 +426,7 @@ public class Rs2Npc {
      * @return The first {@link Rs2NpcModel} that matches the given ID, or {@code null} if no match is found.
      */
     public static Rs2NpcModel getNpc(int id) {
-        return getNpcs(x -> x.getId() == id)
+        return getNpcs(id)
                 .findFirst()
                 .orElse(null);
     }
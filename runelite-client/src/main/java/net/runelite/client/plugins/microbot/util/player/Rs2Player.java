@@ -25,6 +25,7 @@ import net.runelite.client.plugins.microbot.util.misc.Rs2Food;
 import net.runelite.client.plugins.microbot.util.misc.Rs2Potion;
 import net.runelite.client.plugins.microbot.util.misc.Rs2UiHelper;
 import net.runelite.client.plugins.microbot.util.npc.Rs2NpcModel;
+import net.runelite.client.plugins.microbot.util.scene.SceneSnapshot;
 import net.runelite.client.plugins.microbot.util.security.Login;
 import net.runelite.client.plugins.microbot.util.tabs.Rs2Tab;
 import net.runelite.client.plugins.microbot.util.walker.Rs2Walker;
@@ -706,6 +707,16 @@ public class Rs2Player {
      * @return A stream of Rs2PlayerModel objects representing nearby players.
      */
     public static Stream<Rs2PlayerModel> getPlayers(Predicate<Rs2PlayerModel> predicate, boolean includeLocalPlayer) {
+        SceneSnapshot snapshot = SceneSnapshot.current();
+        if (snapshot != null) {
+            Player localPlayer = Microbot.getClient().getLocalPlayer();
+            return snapshot.getPlayers().stream()
+                    .filter(x -> includeLocalPlayer || x.getPlayer() != localPlayer)
+                    .filter(predicate)
+                    .collect(Collectors.toList())
+                    .stream();
+        }
+
         List<Rs2PlayerModel> players = Optional.of(Microbot.getClient().getTopLevelWorldView().players()
                         .stream()
                         .filter(Objects::nonNull)
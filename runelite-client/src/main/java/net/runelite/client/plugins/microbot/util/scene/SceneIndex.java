@@ -0,0 +1,141 @@
+package net.runelite.client.plugins.microbot.util.scene;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable list of scene entities grouped by the scene tile they are on, indexed by tile and by id.
+ *
+ * @param <T> the type of entity
+ */
+public final class SceneIndex<T> {
+    private final int size;
+    // Entities ordered by tile, x major
+    private final ImmutableList<T> entities;
+    // Index in entities of the first entity on each tile, with a trailing end index
+    private final int[] tileStarts;
+    private final ImmutableListMultimap<Integer, T> entitiesById;
+
+    private SceneIndex(int size, ImmutableList<T> entities, int[] tileStarts, ImmutableListMultimap<Integer, T> entitiesById) {
+        this.size = size;
+        this.entities = entities;
+        this.tileStarts = tileStarts;
+        this.entitiesById = entitiesById;
+    }
+
+    public List<T> getAll() {
+        return entities;
+    }
+
+    public int size() {
+        return entities.size();
+    }
+
+    public boolean isEmpty() {
+        return entities.isEmpty();
+    }
+
+    /**
+     * @return the entities on the scene tile, in the order they were added
+     */
+    public List<T> at(int sceneX, int sceneY) {
+        if (sceneX < 0 || sceneY < 0 || sceneX >= size || sceneY >= size) {
+            return ImmutableList.of();
+        }
+        final int tile = sceneX * size + sceneY;
+        return entities.subList(tileStarts[tile], tileStarts[tile + 1]);
+    }
+
+    /**
+     * @return the entities on the scene tiles at most radius tiles away on either axis
+     */
+    public List<T> within(int sceneX, int sceneY, int radius) {
+        if (radius >= size) {
+            return entities;
+        }
+
+        final int minX = Math.max(0, sceneX - radius);
+        final int maxX = Math.min(size - 1, sceneX + radius);
+        final int minY = Math.max(0, sceneY - radius);
+        final int maxY = Math.min(size - 1, sceneY + radius);
+        List<T> result = new ArrayList<>();
+        for (int x = minX; x <= maxX; ++x) {
+            // The tiles of one column are contiguous
+            final int from = tileStarts[x * size + minY];
+            final int to = tileStarts[x * size + maxY + 1];
+            if (from < to) {
+                result.addAll(entities.subList(from, to));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the entities with the id, in the order they were added
+     */
+    public List<T> withId(int id) {
+        return entitiesById.get(id);
+    }
+
+    static <T> Builder<T> builder(int size, ToIntFunction<? super T> idFunction) {
+        return new Builder<>(size, idFunction);
+    }
+
+    static final class Builder<T> {
+        private final int size;
+        private final ToIntFunction<? super T> idFunction;
+        private final List<T> entities = new ArrayList<>();
+        private int[] tiles = new int[64];
+
+        private Builder(int size, ToIntFunction<? super T> idFunction) {
+            this.size = size;
+            this.idFunction = idFunction;
+        }
+
+        /**
+         * Adds an entity on a scene tile. Tiles outside the scene are clamped to its edge.
+         */
+        Builder<T> add(int sceneX, int sceneY, T entity) {
+            if (entities.size() == tiles.length) {
+                tiles = Arrays.copyOf(tiles, tiles.length * 2);
+            }
+            final int x = Math.max(0, Math.min(size - 1, sceneX));
+            final int y = Math.max(0, Math.min(size - 1, sceneY));
+            tiles[entities.size()] = x * size + y;
+            entities.add(entity);
+            return this;
+        }
+
+        SceneIndex<T> build() {
+            final int tileCount = size * size;
+            final int[] tileStarts = new int[tileCount + 1];
+            final int count = entities.size();
+            for (int i = 0; i < count; ++i) {
+                ++tileStarts[tiles[i] + 1];
+            }
+            for (int tile = 0; tile < tileCount; ++tile) {
+                tileStarts[tile + 1] += tileStarts[tile];
+            }
+
+            // Counting sort by tile, stable so entities on a tile keep the order they were added in
+            final Object[] sorted = new Object[count];
+            final int[] next = Arrays.copyOf(tileStarts, tileCount);
+            for (int i = 0; i < count; ++i) {
+                sorted[next[tiles[i]]++] = entities.get(i);
+            }
+
+            @SuppressWarnings("unchecked")
+            final ImmutableList<T> ordered = ImmutableList.copyOf((T[]) sorted);
+            ImmutableListMultimap.Builder<Integer, T> byId = ImmutableListMultimap.builder();
+            for (T entity : ordered) {
+                byId.put(idFunction.applyAsInt(entity), entity);
+            }
+            return new SceneIndex<>(size, ordered, tileStarts, byId.build());
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package net.runelite.client.plugins.microbot.util.scene;
+
+import com.google.common.collect.ImmutableList;
+import lombok.Getter;
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.DecorativeObject;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.GroundObject;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.Scene;
+import net.runelite.api.Tile;
+import net.runelite.api.TileItem;
+import net.runelite.api.TileObject;
+import net.runelite.api.WallObject;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.plugins.microbot.Microbot;
+import net.runelite.client.plugins.microbot.util.models.RS2Item;
+import net.runelite.client.plugins.microbot.util.npc.Rs2NpcModel;
+import net.runelite.client.plugins.microbot.util.player.Rs2PlayerModel;
+
+import java.util.List;
+
+/**
+ * Immutable view of the NPCs, players, tile objects and ground items around the local player for one game tick.
+ * <p>
+ * The scene only changes when the client processes a game tick, so every query made during a tick can share one
+ * walk over the scene instead of each walking it again, often from the client thread. A snapshot is captured on the
+ * client thread on {@link GameTick} if the previous one was used, otherwise by the first query of the tick.
+ * <p>
+ * Only the plane the local player is on is captured. The entities are the client's own objects, so they are
+ * subject to the same threading rules as when read from the scene directly.
+ */
+public final class SceneSnapshot {
+    private static volatile SceneSnapshot snapshot;
+    private static volatile int currentTick;
+    // Whether a snapshot was requested since the last game tick
+    private static volatile boolean requested;
+
+    @Getter
+    private final int tick;
+    @Getter
+    private final int worldViewId;
+    @Getter
+    private final int plane;
+    @Getter
+    private final int baseX;
+    @Getter
+    private final int baseY;
+    @Getter
+    private final long captureNanos;
+
+    @Getter
+    private final SceneIndex<Rs2NpcModel> npcs;
+    @Getter
+    private final List<Rs2PlayerModel> players;
+    @Getter
+    private final SceneIndex<GameObject> gameObjects;
+    @Getter
+    private final SceneIndex<GroundObject> groundObjects;
+    @Getter
+    private final SceneIndex<DecorativeObject> decorativeObjects;
+    @Getter
+    private final SceneIndex<WallObject> wallObjects;
+    /**
+     * Decorative, ground and wall objects, like {@link Tile}'s individual getters return them
+     */
+    @Getter
+    private final SceneIndex<TileObject> tileObjects;
+    @Getter
+    private final SceneIndex<RS2Item> groundItems;
+
+    private SceneSnapshot(Builder builder) {
+        this.tick = builder.tick;
+        this.worldViewId = builder.worldView.getId();
+        this.plane = builder.worldView.getPlane();
+        this.baseX = builder.worldView.getBaseX();
+        this.baseY = builder.worldView.getBaseY();
+        this.captureNanos = System.nanoTime() - builder.start;
+        this.npcs = builder.npcs.build();
+        this.players = builder.players.build();
+        this.gameObjects = builder.gameObjects.build();
+        this.groundObjects = builder.groundObjects.build();
+        this.decorativeObjects = builder.decorativeObjects.build();
+        this.wallObjects = builder.wallObjects.build();
+        this.tileObjects = builder.tileObjects.build();
+        this.groundItems = builder.groundItems.build();
+    }
+
+    /**
+     * @return the snapshot of the current tick, capturing it on the client thread if needed, or null if not
+     * logged in
+     */
+    public static SceneSnapshot current() {
+        final Client client = Microbot.getClient();
+        if (client == null || client.getGameState() != GameState.LOGGED_IN) {
+            return null;
+        }
+
+        requested = true;
+        final SceneSnapshot current = snapshot;
+        if (current != null && current.isValid(client)) {
+            return current;
+        }
+
+        return Microbot.getClientThread().runOnClientThreadOptional(() -> {
+            // Another query may have captured it while this one waited for the client thread
+            final SceneSnapshot latest = snapshot;
+            if (latest != null && latest.isValid(client)) {
+                return latest;
+            }
+            return snapshot = capture(client);
+        }).orElse(null);
+    }
+
+    /**
+     * Starts a new tick. Called on the client thread on {@link GameTick}.
+     */
+    public static void onGameTick() {
+        ++currentTick;
+        if (requested) {
+            requested = false;
+            snapshot = capture(Microbot.getClient());
+        } else {
+            // Nothing is querying the scene, so don't pay for a capture or keep the last one alive
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Drops the current snapshot, e.g. when the scene is unloaded
+     */
+    public static void invalidate() {
+        snapshot = null;
+    }
+
+    private boolean isValid(Client client) {
+        if (tick != currentTick) {
+            return false;
+        }
+
+        final Player player = client.getLocalPlayer();
+        final WorldView worldView = player == null ? null : player.getWorldView();
+        return worldView != null
+                && worldView.getId() == worldViewId
+                && worldView.getPlane() == plane
+                && worldView.getBaseX() == baseX
+                && worldView.getBaseY() == baseY;
+    }
+
+    // Package-private for tests
+    static SceneSnapshot capture(Client client) {
+        final Player player = client.getLocalPlayer();
+        if (player == null || player.getWorldView() == null) {
+            return null;
+        }
+
+        Builder builder = new Builder(currentTick, player.getWorldView());
+        builder.addActors(client.getTopLevelWorldView());
+        builder.addTiles();
+        return new SceneSnapshot(builder);
+    }
+
+    private static final class Builder {
+        private final long start = System.nanoTime();
+        private final int tick;
+        private final WorldView worldView;
+
+        private final SceneIndex.Builder<Rs2NpcModel> npcs = SceneIndex.builder(Constants.SCENE_SIZE, NPC::getId);
+        private final ImmutableList.Builder<Rs2PlayerModel> players = ImmutableList.builder();
+        private final SceneIndex.Builder<GameObject> gameObjects = SceneIndex.builder(Constants.SCENE_SIZE, TileObject::getId);
+        private final SceneIndex.Builder<GroundObject> groundObjects = SceneIndex.builder(Constants.SCENE_SIZE, TileObject::getId);
+        private final SceneIndex.Builder<DecorativeObject> decorativeObjects = SceneIndex.builder(Constants.SCENE_SIZE, TileObject::getId);
+        private final SceneIndex.Builder<WallObject> wallObjects = SceneIndex.builder(Constants.SCENE_SIZE, TileObject::getId);
+        private final SceneIndex.Builder<TileObject> tileObjects = SceneIndex.builder(Constants.SCENE_SIZE, TileObject::getId);
+        private final SceneIndex.Builder<RS2Item> groundItems = SceneIndex.builder(Constants.SCENE_SIZE, item -> item.getTileItem().getId());
+
+        private Builder(int tick, WorldView worldView) {
+            this.tick = tick;
+            this.worldView = worldView;
+        }
+
+        private void addActors(WorldView topLevelWorldView) {
+            for (NPC npc : topLevelWorldView.npcs()) {
+                if (npc == null) continue;
+                final LocalPoint location = npc.getLocalLocation();
+                if (location == null) {
+                    npcs.add(0, 0, new Rs2NpcModel(npc));
+                } else {
+                    npcs.add(location.getSceneX(), location.getSceneY(), new Rs2NpcModel(npc));
+                }
+            }
+
+            for (Player player : topLevelWorldView.players()) {
+                if (player == null) continue;
+                players.add(new Rs2PlayerModel(player));
+            }
+        }
+
+        private void addTiles() {
+            final Scene scene = worldView.getScene();
+            final Tile[][][] tiles = scene.getTiles();
+            if (tiles == null) return;
+
+            final Tile[][] planeTiles = tiles[worldView.getPlane()];
+            for (int x = 0; x < Constants.SCENE_SIZE; x++) {
+                for (int y = 0; y < Constants.SCENE_SIZE; y++) {
+                    final Tile tile = planeTiles[x][y];
+                    if (tile == null) continue;
+
+                    addGameObjects(tile);
+                    // Same order as the tile object extractor in Rs2GameObject
+                    addTileObject(tile, tile.getDecorativeObject(), decorativeObjects);
+                    addTileObject(tile, tile.getGroundObject(), groundObjects);
+                    addTileObject(tile, tile.getWallObject(), wallObjects);
+                    addGroundItems(tile);
+                }
+            }
+        }
+
+        private void addGameObjects(Tile tile) {
+            final GameObject[] objects = tile.getGameObjects();
+            if (objects == null) return;
+
+            for (GameObject object : objects) {
+                // Objects larger than a tile are on every tile they cover, keep them once
+                if (object == null || !object.getSceneMinLocation().equals(tile.getSceneLocation())) continue;
+                final LocalPoint location = object.getLocalLocation();
+                gameObjects.add(location.getSceneX(), location.getSceneY(), object);
+            }
+        }
+
+        private <T extends TileObject> void addTileObject(Tile tile, T object, SceneIndex.Builder<T> index) {
+            if (object == null || !object.getLocalLocation().equals(tile.getLocalLocation())) return;
+            final LocalPoint location = object.getLocalLocation();
+            index.add(location.getSceneX(), location.getSceneY(), object);
+            tileObjects.add(location.getSceneX(), location.getSceneY(), object);
+        }
+
+        private void addGroundItems(Tile tile) {
+            final List<TileItem> items = tile.getGroundItems();
+            if (items == null || items.isEmpty()) return;
+
+            final int sceneX = tile.getSceneLocation().getX();
+            final int sceneY = tile.getSceneLocation().getY();
+            for (TileItem item : items) {
+                if (item == null) continue;
+                // Most items are never queried by name, so compositions are looked up by the queries that return them
+                groundItems.add(sceneX, sceneY, new RS2Item(tile, item));
+            }
+        }
+    }
+}
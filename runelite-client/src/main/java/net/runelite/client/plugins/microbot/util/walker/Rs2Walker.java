@@ -1,6 +1,5 @@
 package net.runelite.client.plugins.microbot.util.walker;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.Setter;
@@ -55,8 +54,6 @@ import java.awt.*;
 import java.util.List;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
@@ -77,6 +74,13 @@ public class Rs2Walker {
     static WorldPoint lastPosition;
     static WorldPoint currentTarget;
     static int nextWalkingDistance = 10;
+    // Target the blocked tiles and transports in the pathfinder config were found for
+    static WorldPoint blockedForTarget;
+    // Door the walker keeps trying to open without the player moving
+    static WorldPoint lastDoor;
+    static WorldPoint lastDoorPlayerLocation;
+    static int doorAttempts = 0;
+    static final int MAX_DOOR_ATTEMPTS = 3;
 
     static final int OFFSET = 10; // max offset of the exact area we teleport to
 
@@ -291,7 +295,7 @@ public class Rs2Walker {
                         System.out.println("cancel instead of recalculate");
                         setTarget(null);
                     } else {
-                        recalculatePath();
+                        repairPath();
                     }
                     break;
                 }
@@ -564,10 +568,8 @@ public class Rs2Walker {
         if (ShortestPathPlugin.getPathfinderConfig().getTransports().isEmpty()) {            
             ShortestPathPlugin.getPathfinderConfig().refresh();
         }      
-        Pathfinder pathfinder = new Pathfinder(ShortestPathPlugin.getPathfinderConfig(), start, destination);
-        pathfinder.run();
-
-        List<WorldPoint> path = pathfinder.getPath();       
+        List<WorldPoint> path = ShortestPathPlugin.getPathfinderService()
+                .findPath(ShortestPathPlugin.getPathfinderConfig(), start, destination);
         if (path.isEmpty() || path.get(path.size() - 1).getPlane() != destination.getPlane()) return Integer.MAX_VALUE;
         WorldArea pathArea = new WorldArea(path.get(path.size() - 1), 2, 2);
         WorldArea objectArea = new WorldArea(destination, 2, 2);
@@ -677,9 +679,8 @@ public class Rs2Walker {
         ShortestPathPlugin.getPathfinderConfig().refresh();
         
         long pathfinderStartTime = System.nanoTime();
-        Pathfinder pathfinder = new Pathfinder(ShortestPathPlugin.getPathfinderConfig(), start, target);
-        pathfinder.run();
-        List<WorldPoint> path = pathfinder.getPath();
+        List<WorldPoint> path = ShortestPathPlugin.getPathfinderService()
+                .findPath(ShortestPathPlugin.getPathfinderConfig(), start, target);
         long pathfinderEndTime = System.nanoTime();
         
         long totalEndTime = System.nanoTime();
@@ -1033,6 +1034,11 @@ public class Rs2Walker {
                 }
 
                 if (found) {
+                    if (isDoorStuck(probe)) {
+                        Microbot.log("Unable to get through the door at " + probe + ", finding another way");
+                        markUnusable(rawTo);
+                        return true;
+                    }
                     if (!handleDoorException(object, action)) {
                         Rs2GameObject.interact(object, action);
                         Rs2Player.waitForWalking();
@@ -1192,6 +1198,59 @@ public class Rs2Walker {
                 .orElse(-1);
     }
 
+    /**
+     * @return true if the walker has tried the same door several times without the player moving
+     */
+    private static boolean isDoorStuck(WorldPoint door) {
+        WorldPoint playerLocation = Rs2Player.getWorldLocation();
+        if (door.equals(lastDoor) && playerLocation.equals(lastDoorPlayerLocation)) {
+            ++doorAttempts;
+        } else {
+            lastDoor = door;
+            lastDoorPlayerLocation = playerLocation;
+            doorAttempts = 1;
+        }
+        return doorAttempts > MAX_DOOR_ATTEMPTS;
+    }
+
+    /**
+     * Marks a tile as unusable for the current walk and repairs the path around it
+     */
+    public static void markUnusable(WorldPoint tile) {
+        if (ShortestPathPlugin.getPathfinderConfig() == null) return;
+        ShortestPathPlugin.getPathfinderConfig().blockTile(tile);
+        repairPath();
+    }
+
+    /**
+     * Marks a transport as unusable for the current walk and repairs the path around it
+     */
+    public static void markUnusable(Transport transport) {
+        if (ShortestPathPlugin.getPathfinderConfig() == null) return;
+        ShortestPathPlugin.getPathfinderConfig().blockTransport(transport);
+        repairPath();
+    }
+
+    /**
+     * Re-plans the current walk from the player's location, keeping the part of the previous path that can still
+     * be used. Falls back to a full recalculation when there is no finished path to repair.
+     */
+    public static void repairPath() {
+        Pathfinder previous = ShortestPathPlugin.getPathfinder();
+        if (previous == null || !previous.isDone() || Microbot.getClient().isClientThread()) {
+            recalculatePath();
+            return;
+        }
+
+        WorldPoint start = Rs2Player.getWorldLocation();
+        synchronized (ShortestPathPlugin.getPathfinderMutex()) {
+            ShortestPathPlugin.getPathfinderConfig().refresh();
+            Pathfinder pathfinder = Pathfinder.repair(ShortestPathPlugin.getPathfinderConfig(), start, previous);
+            ShortestPathPlugin.setPathfinder(pathfinder);
+            ShortestPathPlugin.setPathfinderFuture(ShortestPathPlugin.getPathfinderService().submit(pathfinder));
+        }
+    }
+
     /**
      * Force the walker to recalculate path
      */
@@ -1213,6 +1272,12 @@ public class Rs2Walker {
 
         currentTarget = target;
 
+        if (target != null && !target.equals(blockedForTarget) && ShortestPathPlugin.getPathfinderConfig() != null) {
+            // Blocked tiles and transports only apply to the walk they were found on
+            ShortestPathPlugin.getPathfinderConfig().clearBlocked();
+            blockedForTarget = target;
+        }
+
         if (target == null) {
             synchronized (ShortestPathPlugin.getPathfinderMutex()) {
                 if (ShortestPathPlugin.getPathfinder() != null) {
@@ -1263,11 +1328,6 @@ public class Rs2Walker {
             ShortestPathPlugin.getPathfinderFuture().cancel(true);
         }
 
-        if (ShortestPathPlugin.getPathfindingExecutor() == null) {
-            ThreadFactory shortestPathNaming = new ThreadFactoryBuilder().setNameFormat("shortest-path-%d").build();
-            ShortestPathPlugin.setPathfindingExecutor(Executors.newSingleThreadExecutor(shortestPathNaming));
-        }
-
         ShortestPathPlugin.getPathfinderConfig().refresh();
         if (Rs2Player.isInCave()) {
             Pathfinder pathfinder = new Pathfinder(ShortestPathPlugin.getPathfinderConfig(), start, ends);
@@ -1283,7 +1343,7 @@ public class Rs2Walker {
             ShortestPathPlugin.getPathfinderConfig().setIgnoreTeleportAndItems(false);
         } else {
             ShortestPathPlugin.setPathfinder(new Pathfinder(ShortestPathPlugin.getPathfinderConfig(), start, ends));
-            ShortestPathPlugin.setPathfinderFuture(ShortestPathPlugin.getPathfindingExecutor().submit(ShortestPathPlugin.getPathfinder()));
+            ShortestPathPlugin.setPathfinderFuture(ShortestPathPlugin.getPathfinderService().submit(ShortestPathPlugin.getPathfinder()));
         }
         return true;
     }
@@ -1933,9 +1993,9 @@ public class Rs2Walker {
      * @return distance
      */
     public static int getDistanceBetween(WorldPoint startpoint, WorldPoint endpoint) {
-        Pathfinder pathfinder = new Pathfinder(ShortestPathPlugin.getPathfinderConfig(), startpoint, endpoint);
-        pathfinder.run();
-        return pathfinder.getPath().size();
+        return ShortestPathPlugin.getPathfinderService()
+                .findPath(ShortestPathPlugin.getPathfinderConfig(), startpoint, endpoint)
+                .size();
     }
 
     private static boolean handleSpiritTree(Transport transport) {
@@ -2529,10 +2589,8 @@ public class Rs2Walker {
             // Configure pathfinder            
             ShortestPathPlugin.getPathfinderConfig().refresh();                                              
             // Run pathfinder
-            Pathfinder pf = new Pathfinder(ShortestPathPlugin.getPathfinderConfig(), startPoint, targetSet);
-            pf.run();
-            
-            List<WorldPoint> path = pf.getPath();
+            List<WorldPoint> path = ShortestPathPlugin.getPathfinderService()
+                    .findPath(ShortestPathPlugin.getPathfinderConfig(), startPoint, targetSet);
             if (path.isEmpty()) {
                 log.debug("Unable to find path to any target from starting point: " + startPoint);
                 return -1;
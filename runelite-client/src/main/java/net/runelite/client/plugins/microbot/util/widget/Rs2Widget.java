@@ -4,11 +4,13 @@ import net.runelite.api.MenuAction;
 import net.runelite.api.annotations.Component;
 import net.runelite.api.widgets.InterfaceID;
 import net.runelite.api.widgets.Widget;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.plugins.microbot.Microbot;
 import net.runelite.client.plugins.microbot.util.menu.NewMenuEntry;
 import net.runelite.client.plugins.microbot.util.misc.Rs2UiHelper;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -128,9 +130,12 @@ public class Rs2Widget {
     }
 
     public static boolean clickWidget(int id) {
-        Widget widget = Microbot.getClientThread().runOnClientThreadOptional(() -> Microbot.getClient().getWidget(id)).orElse(null);;
-        if (widget == null || isHidden(id)) return false;
-        Microbot.getMouse().click(widget.getBounds());
+        ClientThread.Batch batch = Microbot.getClientThread().batch();
+        Supplier<Optional<Widget>> widget = batch.add(() -> Microbot.getClient().getWidget(id));
+        Supplier<Optional<Boolean>> hidden = batch.add(() -> isHidden(id));
+        batch.run();
+        if (widget.get().isEmpty() || hidden.get().orElse(false)) return false;
+        Microbot.getMouse().click(widget.get().get().getBounds());
         return true;
     }
 
@@ -192,17 +197,8 @@ public class Rs2Widget {
         return Microbot.getClientThread().runOnClientThreadOptional(() -> {
             Widget foundWidget = null;
             if (children == null) {
-                // Search through root widgets if no specific children are provided
-                List<Widget> rootWidgets = Arrays.stream(Microbot.getClient().getWidgetRoots())
-                        .filter(x -> x != null && !x.isHidden()).collect(Collectors.toList());
-                for (Widget rootWidget : rootWidgets) {
-                    if (rootWidget == null) continue;
-                    if (matchesText(rootWidget, text, exact)) {
-                        return rootWidget;
-                    }
-                    foundWidget = searchChildren(text, rootWidget, exact);
-                    if (foundWidget != null) return foundWidget;
-                }
+                // Search all root widgets through the index rather than walking them
+                return WidgetIndex.findByText(text, exact);
             } else {
                 // Search within provided child widgets
                 for (Widget child : children) {
@@ -284,18 +280,8 @@ public class Rs2Widget {
             Widget foundWidget = null;
 
             if (children == null) {
-                // Search through root widgets if no specific children are provided
-                List<Widget> rootWidgets = Arrays.stream(Microbot.getClient().getWidgetRoots())
-                        .filter(widget -> widget != null && !widget.isHidden())
-                        .collect(Collectors.toList());
-                for (Widget rootWidget : rootWidgets) {
-                    if (rootWidget == null) continue;
-                    if (matchesSpriteId(rootWidget, spriteId)) {
-                        return rootWidget;
-                    }
-                    foundWidget = searchChildren(spriteId, rootWidget);
-                    if (foundWidget != null) return foundWidget;
-                }
+                // Search all root widgets through the index rather than walking them
+                return WidgetIndex.findBySprite(spriteId);
             } else {
                 // Search within provided child widgets
                 for (Widget child : children) {
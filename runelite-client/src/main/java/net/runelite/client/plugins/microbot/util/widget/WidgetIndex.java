@@ -0,0 +1,392 @@
+package net.runelite.client.plugins.microbot.util.widget;
+
+import net.runelite.api.Client;
+import net.runelite.api.HashTable;
+import net.runelite.api.WidgetNode;
+import net.runelite.api.widgets.Widget;
+import net.runelite.client.plugins.microbot.Microbot;
+import net.runelite.client.plugins.microbot.util.misc.Rs2UiHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Index of the text, name, actions and sprite of every visible widget, so {@link Rs2Widget#findWidget(String)} and
+ * {@link Rs2Widget#findWidget(int, List)} don't walk the whole widget tree on every lookup.
+ * <p>
+ * The index is kept per interface. Loading or closing an interface only drops the index of that interface, and
+ * every interface is indexed again at most once per game tick, on the first lookup that reaches it, for changes
+ * made by the server or by client scripts. A widget found through the index that no longer matches causes its
+ * interface to be indexed again. Widgets are found in the order the tree walk visits them, so a lookup returns
+ * the same widget the walk would.
+ * <p>
+ * Only used on the client thread.
+ */
+public final class WidgetIndex {
+    private static final int NONE = Integer.MAX_VALUE;
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Mount[] NO_MOUNTS = new Mount[0];
+
+    private static final Map<Integer, Group> groups = new HashMap<>();
+    // Interfaces opened inside each interface, by the group of the widget they are opened in
+    private static final Map<Integer, List<Mount>> mounts = new HashMap<>();
+    private static boolean mountsChanged = true;
+    private static int topLevelGroup = -1;
+    // Interfaces indexed before the current tick are indexed again when a lookup reaches them
+    private static int tick;
+
+    // Number of interfaces indexed, for tests
+    private static long groupsBuilt;
+
+    private WidgetIndex() {
+    }
+
+    /**
+     * Drops the index of an interface that was loaded
+     */
+    public static void onWidgetLoaded(int groupId) {
+        groups.remove(groupId);
+        mountsChanged = true;
+    }
+
+    /**
+     * Drops the index of an interface that was closed
+     */
+    public static void onWidgetClosed(int groupId) {
+        groups.remove(groupId);
+        mountsChanged = true;
+    }
+
+    /**
+     * Marks every interface as out of date, each is indexed again on the first lookup reaching it
+     */
+    public static void onGameTick() {
+        tick++;
+    }
+
+    /**
+     * @param text  the text, name or action to look for, ignoring case and colour tags
+     * @param exact whether the whole text must match rather than a part of it
+     * @return the first visible widget matching the text, or null
+     */
+    static Widget findByText(String text, boolean exact) {
+        final String key = text.toLowerCase();
+        final ToIntFunction<Group> position = exact
+                ? group -> group.byText.getOrDefault(key, NONE)
+                : group -> group.partialMatches.computeIfAbsent(key, group::scan);
+        return find(position, widget -> isCurrent(widget, key, exact));
+    }
+
+    /**
+     * @return the first visible widget with the sprite, or null
+     */
+    static Widget findBySprite(int spriteId) {
+        return find(group -> group.bySprite.getOrDefault(spriteId, NONE),
+                widget -> !widget.isHidden() && widget.getSpriteId() == spriteId);
+    }
+
+    private static Widget find(ToIntFunction<Group> position, Predicate<Widget> isCurrent) {
+        final Client client = Microbot.getClient();
+        if (client.getTopLevelInterfaceId() != topLevelGroup) {
+            topLevelGroup = client.getTopLevelInterfaceId();
+            groups.clear();
+            mountsChanged = true;
+        }
+        if (mountsChanged) {
+            updateMounts(client.getComponentTable());
+        }
+
+        Set<Integer> reindexed = null;
+        while (true) {
+            final Widget widget = find(client, topLevelGroup, position);
+            if (widget == null || isCurrent.test(widget)) {
+                return widget;
+            }
+
+            // Changed without an event telling us, index its interface again
+            if (reindexed == null) {
+                reindexed = new HashSet<>();
+            }
+            if (!reindexed.add(widget.getId() >>> 16)) {
+                return null;
+            }
+            groups.remove(widget.getId() >>> 16);
+        }
+    }
+
+    /**
+     * Looks the widget up in an interface and the interfaces opened inside it, in tree walk order
+     */
+    private static Widget find(Client client, int groupId, ToIntFunction<Group> position) {
+        final Group group = group(client, groupId);
+        if (group == null) {
+            return null;
+        }
+
+        final int own = position.applyAsInt(group);
+        for (Mount mount : group.mounts) {
+            // The interface is walked before the widget at the position it is opened at
+            if (mount.position > own) {
+                break;
+            }
+            final Widget widget = find(client, mount.groupId, position);
+            if (widget != null) {
+                return widget;
+            }
+        }
+        return own == NONE ? null : group.entries[own].widget;
+    }
+
+    private static Group group(Client client, int groupId) {
+        Group group = groups.get(groupId);
+        if (group != null && group.tick == tick) {
+            return group;
+        }
+
+        final Widget[] roots = roots(client, groupId);
+        if (roots == null) {
+            groups.remove(groupId);
+            return null;
+        }
+        group = new Group(roots);
+        group.mounts = mounts(group, groupId);
+        groups.put(groupId, group);
+        groupsBuilt++;
+        return group;
+    }
+
+    private static Widget[] roots(Client client, int groupId) {
+        if (groupId == topLevelGroup) {
+            return client.getWidgetRoots();
+        }
+        for (Map.Entry<Integer, List<Mount>> parent : mounts.entrySet()) {
+            for (Mount mount : parent.getValue()) {
+                if (mount.groupId == groupId) {
+                    final Widget widget = client.getWidget(mount.componentId);
+                    return widget == null ? null : widget.getNestedChildren();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads which interfaces are opened inside which widgets
+     */
+    private static void updateMounts(HashTable<WidgetNode> componentTable) {
+        mountsChanged = false;
+        mounts.clear();
+        if (componentTable != null) {
+            for (WidgetNode node : componentTable) {
+                final int componentId = (int) node.getHash();
+                mounts.computeIfAbsent(componentId >>> 16, k -> new ArrayList<>())
+                        .add(new Mount(componentId, node.getId()));
+            }
+        }
+        // Indexed interfaces keep their entries, only the interfaces opened inside them changed
+        for (Map.Entry<Integer, Group> group : groups.entrySet()) {
+            group.getValue().mounts = mounts(group.getValue(), group.getKey());
+        }
+    }
+
+    /**
+     * @return the visible interfaces opened inside the interface, in tree walk order
+     */
+    private static Mount[] mounts(Group group, int groupId) {
+        final List<Mount> opened = mounts.get(groupId);
+        if (opened == null) {
+            return NO_MOUNTS;
+        }
+        final List<Mount> visible = new ArrayList<>(opened.size());
+        for (Mount mount : opened) {
+            // Interfaces opened in a hidden widget aren't walked
+            final Integer position = group.mountPositions.get(mount.componentId);
+            if (position != null) {
+                visible.add(mount.at(position));
+            }
+        }
+        visible.sort((a, b) -> Integer.compare(a.position, b.position));
+        return visible.toArray(NO_MOUNTS);
+    }
+
+    static long getGroupsBuilt() {
+        return groupsBuilt;
+    }
+
+    static void clear() {
+        groups.clear();
+        mounts.clear();
+        mountsChanged = true;
+        topLevelGroup = -1;
+    }
+
+    private static boolean isCurrent(Widget widget, String key, boolean exact) {
+        if (widget.isHidden()) {
+            return false;
+        }
+        final Entry entry = new Entry(widget);
+        return exact ? entry.matches(key) : entry.contains(key);
+    }
+
+    /**
+     * Index of the visible widgets of one interface, without the interfaces opened inside it
+     */
+    private static final class Group {
+        private final int tick = WidgetIndex.tick;
+        private final Entry[] entries;
+        // Lower case text, name and action to the position of the first widget with it
+        private final Map<String, Integer> byText = new HashMap<>();
+        private final Map<Integer, Integer> bySprite = new HashMap<>();
+        // Results of partial text lookups, including misses
+        private final Map<String, Integer> partialMatches = new HashMap<>();
+        // Position in the entries an interface opened in a widget is walked at, by widget id
+        private final Map<Integer, Integer> mountPositions = new HashMap<>();
+        private Mount[] mounts = NO_MOUNTS;
+
+        private Group(Widget[] roots) {
+            final List<Entry> list = new ArrayList<>();
+            final Set<Widget> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Widget root : roots) {
+                if (root != null && !root.isHidden()) {
+                    add(root, list, visited);
+                }
+            }
+            entries = list.toArray(NO_ENTRIES);
+
+            for (int i = 0; i < entries.length; i++) {
+                final Entry entry = entries[i];
+                byText.putIfAbsent(entry.text, i);
+                byText.putIfAbsent(entry.name, i);
+                for (String action : entry.actions) {
+                    byText.putIfAbsent(action, i);
+                }
+                bySprite.putIfAbsent(entry.widget.getSpriteId(), i);
+            }
+        }
+
+        /**
+         * Adds the widget and its visible descendants in the order of
+         * {@link Rs2Widget#searchChildren(String, Widget, boolean)}, leaving out the nested children, which belong
+         * to the interface opened in the widget
+         */
+        private void add(Widget widget, List<Entry> list, Set<Widget> visited) {
+            // A widget reached again through another child list was already indexed with all its descendants
+            if (!visited.add(widget)) {
+                return;
+            }
+            list.add(new Entry(widget));
+
+            addAll(widget.getChildren(), list, visited);
+            mountPositions.putIfAbsent(widget.getId(), list.size());
+            addAll(widget.getDynamicChildren(), list, visited);
+            addAll(widget.getStaticChildren(), list, visited);
+        }
+
+        private void addAll(Widget[] children, List<Entry> list, Set<Widget> visited) {
+            if (children == null) {
+                return;
+            }
+            for (Widget child : children) {
+                if (child != null && !child.isHidden()) {
+                    add(child, list, visited);
+                }
+            }
+        }
+
+        private int scan(String key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].contains(key)) {
+                    return i;
+                }
+            }
+            return NONE;
+        }
+    }
+
+    /**
+     * An interface opened inside a widget of another interface
+     */
+    private static final class Mount {
+        private final int componentId;
+        private final int groupId;
+        private final int position;
+
+        private Mount(int componentId, int groupId) {
+            this(componentId, groupId, NONE);
+        }
+
+        private Mount(int componentId, int groupId, int position) {
+            this.componentId = componentId;
+            this.groupId = groupId;
+            this.position = position;
+        }
+
+        private Mount at(int position) {
+            return new Mount(componentId, groupId, position);
+        }
+    }
+
+    private static final class Entry {
+        private static final String[] NO_ACTIONS = new String[0];
+
+        private final Widget widget;
+        private final String text;
+        private final String name;
+        private final String[] actions;
+
+        private Entry(Widget widget) {
+            this.widget = widget;
+            this.text = clean(widget.getText());
+            this.name = clean(widget.getName());
+
+            final String[] widgetActions = widget.getActions();
+            if (widgetActions == null) {
+                this.actions = NO_ACTIONS;
+            } else {
+                final List<String> cleaned = new ArrayList<>(widgetActions.length);
+                for (String action : widgetActions) {
+                    if (action != null) {
+                        cleaned.add(clean(action));
+                    }
+                }
+                this.actions = cleaned.toArray(NO_ACTIONS);
+            }
+        }
+
+        private static String clean(String text) {
+            return Rs2UiHelper.stripColTags(text).toLowerCase();
+        }
+
+        boolean matches(String key) {
+            if (text.equals(key) || name.equals(key)) {
+                return true;
+            }
+            for (String action : actions) {
+                if (action.equals(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean contains(String key) {
+            if (text.contains(key) || name.contains(key)) {
+                return true;
+            }
+            for (String action : actions) {
+                if (action.contains(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package net.runelite.client.config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@Slf4j
+public class ConfigDataTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File configFile;
+
+	@Before
+	public void before() throws IOException
+	{
+		configFile = new File(folder.newFolder(), "profile.properties");
+	}
+
+	@Test
+	public void testPatchIsReplayed()
+	{
+		ConfigData data = new ConfigData(configFile);
+		data.setProperty("group.a", "1");
+		data.setProperty("group.b", "2");
+		data.patch(data.swapChanges());
+
+		data.unset("group.a");
+		data.setProperty("group.b", "3");
+		data.patch(data.swapChanges());
+
+		assertTrue(ConfigData.journalFile(configFile).exists());
+
+		ConfigData reloaded = new ConfigData(configFile);
+		assertNull(reloaded.getProperty("group.a"));
+		assertEquals("3", reloaded.getProperty("group.b"));
+	}
+
+	@Test
+	public void testEscaping()
+	{
+		String value = "tab\there\nnew line\r\\n not a new line";
+
+		ConfigData data = new ConfigData(configFile);
+		data.setProperty("group.key\twith\ttabs", value);
+		data.patch(data.swapChanges());
+
+		assertEquals(value, new ConfigData(configFile).getProperty("group.key\twith\ttabs"));
+	}
+
+	@Test
+	public void testUncommittedPatchIsDropped() throws IOException
+	{
+		ConfigData data = new ConfigData(configFile);
+		data.setProperty("group.a", "1");
+		data.patch(data.swapChanges());
+
+		// a save cut short before its commit line
+		byte[] torn = ConfigData.encode(Collections.singletonMap("group.a", "2"));
+		try (FileOutputStream out = new FileOutputStream(ConfigData.journalFile(configFile), true))
+		{
+			out.write(torn, 0, torn.length - 2);
+		}
+
+		assertEquals("1", new ConfigData(configFile).getProperty("group.a"));
+	}
+
+	@Test
+	public void testUncommittedPatchIsDroppedOnNextSave() throws IOException
+	{
+		ConfigData data = new ConfigData(configFile);
+		data.setProperty("group.a", "1");
+		data.patch(data.swapChanges());
+
+		// a save cut short in the middle of its last line
+		Map<String, String> tornPatch = new HashMap<>();
+		tornPatch.put("group.torn", "2");
+		tornPatch.put("group.a", "torn");
+		byte[] torn = ConfigData.encode(tornPatch);
+		try (FileOutputStream out = new FileOutputStream(ConfigData.journalFile(configFile), true))
+		{
+			out.write(torn, 0, torn.length - 4);
+		}
+
+		data.setProperty("group.b", "3");
+		data.patch(data.swapChanges());
+
+		ConfigData reloaded = new ConfigData(configFile);
+		assertEquals("1", reloaded.getProperty("group.a"));
+		assertEquals("3", reloaded.getProperty("group.b"));
+		assertNull(reloaded.getProperty("group.torn"));
+		assertEquals(2, reloaded.keySet().size());
+	}
+
+	@Test
+	public void testCompact() throws IOException
+	{
+		ConfigData data = new ConfigData(configFile);
+		data.setProperty("group.a", "1");
+		data.setProperty("group.b", "2");
+		data.patch(data.swapChanges());
+		data.unset("group.b");
+		data.patch(data.swapChanges());
+
+		data.compact();
+
+		assertFalse(ConfigData.journalFile(configFile).exists());
+
+		Properties props = new Properties();
+		try (Reader reader = Files.newBufferedReader(configFile.toPath(), StandardCharsets.UTF_8))
+		{
+			props.load(reader);
+		}
+		assertEquals("1", props.getProperty("group.a"));
+		assertNull(props.getProperty("group.b"));
+	}
+
+	@Test
+	public void testJournalAsksForCompaction()
+	{
+		ConfigData data = new ConfigData(configFile);
+		Map<String, String> values = new HashMap<>();
+		for (int i = 0; i < 1000; ++i)
+		{
+			values.put("group.key" + i, "value" + i);
+		}
+		data.putAll(values);
+		data.patch(data.swapChanges());
+		data.compact();
+
+		// a hot key saved over and over only grows the journal until it is compacted
+		String padding = String.join("", Collections.nCopies(1024, "x"));
+		boolean compact = false;
+		for (int i = 0; i < 10_000 && !compact; ++i)
+		{
+			data.setProperty("group.hot", padding + i);
+			compact = data.patch(data.swapChanges());
+		}
+		assertTrue(compact);
+	}
+
+	@Test
+	@Ignore
+	public void benchmark50kKeys()
+	{
+		ConfigData data = new ConfigData(configFile);
+		Map<String, String> values = new HashMap<>();
+		for (int i = 0; i < 50_000; ++i)
+		{
+			values.put("group" + (i % 100) + ".key" + i, "{\"id\":" + i + ",\"quantity\":" + (i * 7) + ",\"name\":\"item " + i + "\"}");
+		}
+		data.putAll(values);
+		data.patch(data.swapChanges());
+
+		final int saves = 50;
+
+		// what every save used to cost: rewriting the whole file
+		long start = System.nanoTime();
+		for (int i = 0; i < saves; ++i)
+		{
+			data.setProperty("group0.key0", "rewrite" + i);
+			data.patch(data.swapChanges());
+			data.compact();
+		}
+		long rewriteNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		int compactions = 0;
+		for (int i = 0; i < saves; ++i)
+		{
+			data.setProperty("group0.key0", "journal" + i);
+			if (data.patch(data.swapChanges()))
+			{
+				data.compact();
+				++compactions;
+			}
+		}
+		long journalNanos = System.nanoTime() - start;
+
+		log.info("{} saves of 1 changed key out of 50k: full rewrite {}ms, journal {}ms ({} compactions)",
+			saves, TimeUnit.NANOSECONDS.toMillis(rewriteNanos), TimeUnit.NANOSECONDS.toMillis(journalNanos), compactions);
+
+		ConfigData reloaded = new ConfigData(configFile);
+		assertEquals(50_000, reloaded.keySet().size());
+		assertEquals("journal" + (saves - 1), reloaded.getProperty("group0.key0"));
+		assertEquals(values.get("group99.key49999"), reloaded.getProperty("group99.key49999"));
+	}
+}
@@ -24,6 +24,7 @@
  */
 package net.runelite.client.plugins;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.graph.GraphBuilder;
 import com.google.common.graph.MutableGraph;
 import com.google.common.reflect.ClassPath;
@@ -40,10 +41,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 import net.runelite.api.Client;
 import net.runelite.client.RuneLite;
 import net.runelite.client.RuneLiteModule;
@@ -57,6 +60,8 @@ import net.runelite.client.plugins.microbot.Microbot;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -109,7 +114,7 @@ public class PluginManagerTest
 		Injector injector = Guice.createInjector(Modules
 			.override(new RuneLiteModule(okHttpClient, () -> null, configLoader, true, false, false, true,
 				RuneLite.DEFAULT_SESSION_FILE,
-				null, false, false
+				null, false, false, false, false
 			))
 			.with(BoundFieldModule.of(this)));
 
@@ -139,7 +144,7 @@ public class PluginManagerTest
 	@Test
 	public void testLoadPlugins() throws Exception
 	{
-		var pluginManager = new PluginManager(false, false, null, null, null, null);
+		var pluginManager = new PluginManager(false, false, false, false, null, null, null, null);
 		pluginManager.loadCorePlugins();
 		var plugins = pluginManager.getPlugins();
 
@@ -155,13 +160,69 @@ public class PluginManagerTest
 		assertEquals(expected, plugins.size());
 	}
 
+	@Test
+	public void testLoadPluginsConcurrently() throws Exception
+	{
+		var pluginManager = new PluginManager(false, false, true, false, null, null, null, null);
+		pluginManager.loadCorePlugins();
+		List<Plugin> plugins = new ArrayList<>(pluginManager.getPlugins());
+		List<Class<?>> classes = plugins.stream().map(Object::getClass).collect(Collectors.toList());
+
+		var expected = pluginClasses.stream()
+			.map(cl -> cl.getAnnotation(PluginDescriptor.class))
+			.filter(Objects::nonNull)
+			.filter(pd -> !pd.developerPlugin())
+			.count();
+		assertEquals(expected, plugins.size());
+
+		// every plugin is added after the plugins it depends on
+		for (int i = 0; i < plugins.size(); ++i)
+		{
+			for (PluginDependency dependency : plugins.get(i).getClass().getAnnotationsByType(PluginDependency.class))
+			{
+				assertTrue(classes.indexOf(dependency.value()) < i);
+			}
+		}
+	}
+
+	@Test
+	public void testLoadPluginsLazily() throws Exception
+	{
+		var pluginManager = new PluginManager(false, false, false, true, null, null, null, null);
+		pluginManager.loadCorePlugins();
+		var plugins = pluginManager.getPlugins();
+
+		var expected = pluginClasses.stream()
+			.map(cl -> cl.getAnnotation(PluginDescriptor.class))
+			.filter(Objects::nonNull)
+			.filter(pd -> !pd.developerPlugin())
+			.count();
+		assertEquals(expected, plugins.size());
+
+		for (Plugin plugin : plugins)
+		{
+			assertNull(plugin.getInjector());
+		}
+
+		// the injector is created on demand, after those of the plugins it depends on
+		for (Plugin plugin : plugins)
+		{
+			pluginManager.inject(plugin);
+			assertNotNull(plugin.getInjector());
+			for (PluginDependency dependency : plugin.getClass().getAnnotationsByType(PluginDependency.class))
+			{
+				assertTrue(plugins.stream().filter(p -> p.getClass() == dependency.value()).allMatch(p -> p.getInjector() != null));
+			}
+		}
+	}
+
 	//Added to ignore because it made PluginDescriptor name tags fail due to attempting to create a file with illegal characters
 	//ex - C:\Users\Brent\AppData\Local\Temp\junit1285191539980835487\junit7101190188546249539\<html>[<font color=#1E90FF>J<\font>] Auto Chinchompa.dot
 	//Will not be looking for a fix cause fuck tests - OG
 	@Ignore
 	public void dumpGraph() throws Exception
 	{
-		PluginManager pluginManager = new PluginManager(true, false, null, null, null, null);
+		PluginManager pluginManager = new PluginManager(true, false, false, false, null, null, null, null);
 		pluginManager.loadCorePlugins();
 
 		Injector graphvizInjector = Guice.createInjector(new GraphvizModule());
@@ -238,4 +299,30 @@ public class PluginManagerTest
 		assertTrue(sorted.indexOf(1) < sorted.indexOf(2));
 		assertTrue(sorted.indexOf(1) < sorted.indexOf(3));
 	}
+
+	@Test
+	public void testTopologicalLevels()
+	{
+		MutableGraph<Integer> graph = GraphBuilder
+			.directed()
+			.build();
+
+		graph.addNode(1);
+		graph.addNode(2);
+		graph.addNode(3);
+		graph.addNode(4);
+		graph.addNode(5);
+
+		graph.putEdge(1, 2);
+		graph.putEdge(1, 3);
+		graph.putEdge(2, 4);
+		graph.putEdge(3, 4);
+
+		List<List<Integer>> levels = PluginManager.topologicalLevels(graph);
+
+		assertEquals(3, levels.size());
+		assertEquals(ImmutableSet.of(1, 5), ImmutableSet.copyOf(levels.get(0)));
+		assertEquals(ImmutableSet.of(2, 3), ImmutableSet.copyOf(levels.get(1)));
+		assertEquals(ImmutableSet.of(4), ImmutableSet.copyOf(levels.get(2)));
+	}
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PluginManifestTest
+{
+	@Test
+	public void testRead() throws IOException
+	{
+		List<PluginManifest.Entry> plugins = readFixture().getPlugins();
+		// the header comment and blank line are skipped
+		assertEquals(4, plugins.size());
+
+		PluginManifest.Entry first = plugins.get(0);
+		assertEquals(First.class.getName(), first.getClassName());
+		assertEquals("First", first.getName());
+		assertEquals("first", first.getConfigName());
+		assertTrue(first.isLoadInSafeMode());
+		assertTrue(first.getDependencies().isEmpty());
+
+		PluginManifest.Entry second = plugins.get(1);
+		assertEquals("Second", second.getName());
+		assertFalse(second.isLoadInSafeMode());
+		assertEquals(List.of(First.class.getName(), "java.lang.Object"), second.getDependencies());
+
+		assertEquals("", plugins.get(2).getConfigName());
+	}
+
+	@Test
+	public void testLoadClasses() throws IOException
+	{
+		PluginManifest manifest = readFixture();
+		ClassLoader classLoader = PluginManifestTest.class.getClassLoader();
+
+		// the missing class is skipped
+		assertEquals(List.of(First.class, Second.class, ArrayList.class),
+			manifest.loadClasses(classLoader, Collections.emptyList()));
+		// only the plugins in the packages
+		assertEquals(List.of(First.class, Second.class),
+			manifest.loadClasses(classLoader, List.of("net.runelite.client.plugins")));
+		assertEquals(2, manifest.loadClasses(classLoader, List.of("net.runelite.client")).size());
+		assertTrue(manifest.loadClasses(classLoader, List.of("net.runelite.client.plug")).isEmpty());
+	}
+
+	@Test(expected = IOException.class)
+	public void testMalformedLine() throws IOException
+	{
+		PluginManifest.read(new ByteArrayInputStream("net.example.Plugin\tName\n".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void testLoad()
+	{
+		URL url = PluginManifestTest.class.getResource("plugins.manifest");
+		PluginManifest manifest = PluginManifest.load(url);
+		assertNotNull(manifest);
+		assertEquals(4, manifest.getPlugins().size());
+		assertNull(PluginManifest.load((URL) null));
+
+		// a manifest next to classes in a directory may be stale
+		ClassLoader classLoader = new ClassLoader(null)
+		{
+			@Override
+			public URL getResource(String name)
+			{
+				return PluginManifest.RESOURCE.equals(name) ? url : null;
+			}
+		};
+		assertNull(PluginManifest.load(classLoader));
+	}
+
+	private static PluginManifest readFixture() throws IOException
+	{
+		try (InputStream in = PluginManifestTest.class.getResourceAsStream("plugins.manifest"))
+		{
+			return PluginManifest.read(in);
+		}
+	}
+
+	public static class First
+	{
+	}
+
+	public static class Second
+	{
+	}
+}
@@ -0,0 +1,212 @@
+package net.runelite.client.plugins.microbot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScriptExecutorTest
+{
+	private static final long TIMEOUT_SECONDS = 5;
+
+	private ScheduledThreadPoolExecutor timer;
+	private ThreadPoolExecutor workers;
+	private ScriptExecutor executor;
+
+	@Before
+	public void before()
+	{
+		timer = new ScheduledThreadPoolExecutor(1);
+		// a single worker, so tasks that come due together wait for each other on the timer
+		workers = ScriptRuntime.newWorkers(1, timer, Executors.defaultThreadFactory());
+		executor = new ScriptExecutor("test", timer, workers);
+	}
+
+	@After
+	public void after()
+	{
+		executor.shutdownNow();
+		workers.shutdownNow();
+		timer.shutdownNow();
+	}
+
+	@Test
+	public void testFixedRateDoesNotDrift() throws Exception
+	{
+		// each run takes half the period; a fixed rate keeps the start times on the period, a fixed delay doesn't
+		long fixedRate = elapsedBetweenRuns(true);
+		long fixedDelay = elapsedBetweenRuns(false);
+
+		assertTrue("fixed rate took " + fixedRate + " ms", fixedRate >= 200 && fixedRate < 350);
+		assertTrue("fixed delay took " + fixedDelay + " ms", fixedDelay >= 375);
+	}
+
+	private long elapsedBetweenRuns(boolean fixedRate) throws InterruptedException
+	{
+		final int runs = 6;
+		final List<Long> starts = Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch done = new CountDownLatch(runs);
+		Runnable task = () ->
+		{
+			starts.add(System.nanoTime());
+			done.countDown();
+			try
+			{
+				Thread.sleep(25);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		};
+
+		ScheduledFuture<?> future = fixedRate
+			? executor.scheduleAtFixedRate(task, 0, 50, TimeUnit.MILLISECONDS)
+			: executor.scheduleWithFixedDelay(task, 0, 50, TimeUnit.MILLISECONDS);
+		assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		future.cancel(false);
+
+		return TimeUnit.NANOSECONDS.toMillis(starts.get(runs - 1) - starts.get(0));
+	}
+
+	@Test
+	public void testCancelInterruptsRunningTask() throws Exception
+	{
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		ScheduledFuture<?> future = executor.schedule(() ->
+		{
+			started.countDown();
+			try
+			{
+				Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS * 2));
+			}
+			catch (InterruptedException e)
+			{
+				interrupted.countDown();
+			}
+		}, 0, TimeUnit.MILLISECONDS);
+
+		assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		assertEquals(1, executor.getRunningTaskCount());
+		assertTrue(future.cancel(true));
+		assertTrue(interrupted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		assertTrue(future.isCancelled());
+
+		// the interrupt is not left behind on the only worker thread for the next task
+		ScheduledFuture<Boolean> next = executor.schedule(() -> Thread.currentThread().isInterrupted(), 0, TimeUnit.MILLISECONDS);
+		assertFalse(next.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testExceptionSuppressesLaterRuns() throws Exception
+	{
+		AtomicInteger runs = new AtomicInteger();
+		ScheduledFuture<?> future = executor.scheduleAtFixedRate(() ->
+		{
+			runs.incrementAndGet();
+			throw new IllegalStateException("failed");
+		}, 0, 10, TimeUnit.MILLISECONDS);
+
+		try
+		{
+			future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			fail();
+		}
+		catch (ExecutionException e)
+		{
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+
+		Thread.sleep(100);
+		assertEquals(1, runs.get());
+		assertEquals(0, executor.getTaskCount());
+	}
+
+	@Test
+	public void testShutdownRunsDelayedTasks() throws Exception
+	{
+		AtomicInteger periodicRuns = new AtomicInteger();
+		ScheduledFuture<?> periodic = executor.scheduleWithFixedDelay(periodicRuns::incrementAndGet, 1, 1, TimeUnit.HOURS);
+		ScheduledFuture<String> delayed = executor.schedule(() -> "done", 50, TimeUnit.MILLISECONDS);
+
+		executor.shutdown();
+		assertTrue(executor.isShutdown());
+		assertTrue(periodic.isCancelled());
+		assertFalse(delayed.isDone());
+
+		try
+		{
+			executor.execute(() -> { });
+			fail();
+		}
+		catch (RejectedExecutionException e)
+		{
+			// expected
+		}
+
+		assertTrue(executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		assertTrue(executor.isTerminated());
+		assertEquals("done", delayed.get());
+		assertEquals(0, periodicRuns.get());
+	}
+
+	@Test
+	public void testSaturatedPoolRetriesTasks() throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		executor.execute(() ->
+		{
+			started.countDown();
+			try
+			{
+				release.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+		// the only worker is busy, so the task waits on the timer instead of failing or adding a thread
+		ScheduledFuture<String> waiting = executor.schedule(() -> "ran", 0, TimeUnit.MILLISECONDS);
+		Thread.sleep(100);
+		assertFalse(waiting.isDone());
+		assertEquals(1, workers.getPoolSize());
+
+		release.countDown();
+		assertEquals("ran", waiting.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testShutDownPoolRejectsTasks()
+	{
+		workers.shutdown();
+		try
+		{
+			workers.execute(() -> { });
+			fail();
+		}
+		catch (RejectedExecutionException e)
+		{
+			// expected
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package net.runelite.client.plugins.microbot.pluginscheduler;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimerWheelTest
+{
+	// Four slots of 250 ms, so one turn of the wheel is a second
+	private SchedulerEngine.TimerWheel wheel;
+
+	@Before
+	public void before()
+	{
+		wheel = new SchedulerEngine.TimerWheel(250, 4);
+		wheel.clear(0);
+	}
+
+	@Test
+	public void testDeadline()
+	{
+		wheel.schedule(600);
+		assertFalse(wheel.advance(300));
+		assertFalse(wheel.advance(599));
+		assertTrue(wheel.advance(600));
+		// a deadline only passes once
+		assertFalse(wheel.advance(700));
+	}
+
+	@Test
+	public void testPastDeadline()
+	{
+		assertFalse(wheel.advance(500));
+		wheel.schedule(100);
+		assertTrue(wheel.advance(500));
+	}
+
+	@Test
+	public void testWrapAround()
+	{
+		// the cursor is on the last slot, the deadline goes into the first
+		assertFalse(wheel.advance(750));
+		wheel.schedule(1100);
+		assertFalse(wheel.advance(1000));
+		assertFalse(wheel.advance(1099));
+		assertTrue(wheel.advance(1100));
+	}
+
+	@Test
+	public void testMoreThanOneTurn()
+	{
+		// stays in its slot while the cursor passes it on earlier turns
+		wheel.schedule(2600);
+		assertFalse(wheel.advance(600));
+		assertFalse(wheel.advance(1600));
+		assertFalse(wheel.advance(2599));
+		assertTrue(wheel.advance(2600));
+		assertFalse(wheel.advance(3600));
+	}
+
+	@Test
+	public void testAdvanceSeveralTurns()
+	{
+		wheel.schedule(300);
+		wheel.schedule(900);
+		wheel.schedule(12_000);
+		assertTrue(wheel.advance(10_000));
+		assertFalse(wheel.advance(10_100));
+
+		// after skipping ahead, slots line up with the time again
+		wheel.schedule(10_300);
+		assertFalse(wheel.advance(10_299));
+		assertTrue(wheel.advance(10_300));
+		assertTrue(wheel.advance(12_000));
+	}
+
+	@Test
+	public void testClearCancelsDeadlines()
+	{
+		wheel.schedule(600);
+		wheel.schedule(5000);
+		wheel.clear(100);
+		assertFalse(wheel.advance(6000));
+
+		// deadlines scheduled after clearing still pass
+		wheel.clear(6000);
+		wheel.schedule(6400);
+		assertTrue(wheel.advance(6500));
+	}
+}
@@ -0,0 +1,166 @@
+package net.runelite.client.plugins.microbot.pluginscheduler.condition.logical;
+
+import net.runelite.api.events.GameTick;
+import net.runelite.client.plugins.microbot.pluginscheduler.condition.Condition;
+import net.runelite.client.plugins.microbot.pluginscheduler.condition.ConditionType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class LogicalConditionTest
+{
+	@Test
+	public void testMemoizedUntilEvent()
+	{
+		TickCondition tick = new TickCondition(false);
+		AndCondition tree = and(tick);
+
+		assertFalse(tree.isSatisfied());
+		assertFalse(tree.isSatisfied());
+		assertEquals(1, tick.evaluations);
+
+		tick.next = true;
+		tree.onGameTick(new GameTick());
+		assertTrue(tree.isSatisfied());
+		assertEquals(2, tick.evaluations);
+	}
+
+	@Test
+	public void testStampOnlyChangesWithStructure()
+	{
+		OrCondition inner = new OrCondition(new TickCondition(false));
+		AndCondition outer = and(inner);
+
+		long stamp = outer.getStructure().get();
+		outer.isSatisfied();
+		outer.onGameTick(new GameTick());
+		outer.reset();
+		assertEquals(stamp, outer.getStructure().get());
+
+		inner.addCondition(new TickCondition(true));
+		assertNotEquals(stamp, outer.getStructure().get());
+	}
+
+	@Test
+	public void testNestedChangeDropsMemoizedResult()
+	{
+		OrCondition inner = new OrCondition(new TickCondition(false));
+		AndCondition outer = and(inner);
+		assertFalse(outer.isSatisfied());
+
+		TickCondition added = new TickCondition(true);
+		inner.getConditions().add(added);
+		assertTrue(outer.isSatisfied());
+
+		// the new condition receives the events of the outer tree
+		added.next = false;
+		outer.onGameTick(new GameTick());
+		assertFalse(outer.isSatisfied());
+	}
+
+	@Test
+	public void testRemovedChildNoLongerChangesParent()
+	{
+		OrCondition inner = new OrCondition(new TickCondition(false));
+		AndCondition outer = and(inner);
+		outer.getConditions().remove(inner);
+
+		long stamp = outer.getStructure().get();
+		inner.addCondition(new TickCondition(true));
+		assertEquals(stamp, outer.getStructure().get());
+	}
+
+	@Test
+	public void testNotConditionSeesNestedChange()
+	{
+		OrCondition inner = new OrCondition(new TickCondition(false));
+		NotCondition not = new NotCondition(inner);
+		AndCondition outer = and(not);
+		assertTrue(not.isSatisfied());
+		assertTrue(outer.isSatisfied());
+
+		inner.addCondition(new TickCondition(true));
+		assertFalse(not.isSatisfied());
+		assertFalse(outer.isSatisfied());
+	}
+
+	private static AndCondition and(Condition... conditions)
+	{
+		AndCondition and = new AndCondition();
+		for (Condition condition : conditions)
+		{
+			and.addCondition(condition);
+		}
+		return and;
+	}
+
+	/**
+	 * Event driven condition whose result changes on game ticks
+	 */
+	private static class TickCondition implements Condition
+	{
+		private boolean satisfied;
+		private boolean next;
+		private int evaluations;
+
+		private TickCondition(boolean satisfied)
+		{
+			this.satisfied = satisfied;
+			this.next = satisfied;
+		}
+
+		@Override
+		public boolean isSatisfied()
+		{
+			evaluations++;
+			return satisfied;
+		}
+
+		@Override
+		public boolean isEventDriven()
+		{
+			return true;
+		}
+
+		@Override
+		public void onGameTick(GameTick gameTick)
+		{
+			satisfied = next;
+		}
+
+		@Override
+		public String getDescription()
+		{
+			return "tick";
+		}
+
+		@Override
+		public String getDetailedDescription()
+		{
+			return "tick";
+		}
+
+		@Override
+		public ConditionType getType()
+		{
+			return ConditionType.RESOURCE;
+		}
+
+		@Override
+		public void reset(boolean randomize)
+		{
+		}
+
+		@Override
+		public void pause()
+		{
+		}
+
+		@Override
+		public void resume()
+		{
+		}
+	}
+}
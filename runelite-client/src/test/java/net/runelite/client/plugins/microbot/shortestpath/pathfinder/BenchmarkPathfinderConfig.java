@@ -0,0 +1,76 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.List;
+import net.runelite.api.Client;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.Microbot;
+import net.runelite.client.plugins.microbot.shortestpath.Restriction;
+import net.runelite.client.plugins.microbot.shortestpath.ShortestPathConfig;
+import net.runelite.client.plugins.microbot.shortestpath.Transport;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pathfinder config for benchmarks, with the bundled collision map, transports and restrictions. The player is
+ * logged out, so searches only walk.
+ */
+final class BenchmarkPathfinderConfig
+{
+	/**
+	 * Long walks on the surface, from start to target
+	 */
+	static final WorldPoint[][] LONG_WALKS = {
+		{new WorldPoint(3222, 3218, 0), new WorldPoint(3212, 3428, 0)}, // Lumbridge to Varrock
+		{new WorldPoint(3222, 3218, 0), new WorldPoint(2965, 3380, 0)}, // Lumbridge to Falador
+		{new WorldPoint(3212, 3428, 0), new WorldPoint(3094, 3491, 0)}, // Varrock to Edgeville
+		{new WorldPoint(2965, 3380, 0), new WorldPoint(3041, 3193, 0)}, // Falador to Port Sarim
+		{new WorldPoint(3093, 3244, 0), new WorldPoint(2965, 3380, 0)}, // Draynor to Falador
+		{new WorldPoint(2757, 3477, 0), new WorldPoint(2662, 3305, 0)}, // Camelot to Ardougne
+		{new WorldPoint(2662, 3305, 0), new WorldPoint(2606, 3093, 0)}, // Ardougne to Yanille
+		{new WorldPoint(3094, 3491, 0), new WorldPoint(2965, 3380, 0)}, // Edgeville to Falador
+	};
+
+	private BenchmarkPathfinderConfig()
+	{
+	}
+
+	/**
+	 * @param collisionMapCache the file to keep the memory mapped collision map in
+	 */
+	static PathfinderConfig create(Path collisionMapCache) throws ReflectiveOperationException
+	{
+		Client client = mock(Client.class, RETURNS_DEEP_STUBS);
+		when(client.getTopLevelWorldView().getScene().isInstance()).thenReturn(false);
+		when(client.getLocalPlayer().getWorldLocation()).thenReturn(LONG_WALKS[0][0]);
+		when(client.isClientThread()).thenReturn(false);
+		// Scene rules look up the player through Microbot, tests restore the previous client with setClient
+		setClient(client);
+
+		ShortestPathConfig shortestPathConfig = mock(ShortestPathConfig.class, CALLS_REAL_METHODS);
+		// Let every walk finish instead of stopping at the default cutoff
+		doReturn(100).when(shortestPathConfig).calculationCutoff();
+
+		List<Restriction> restrictions = Restriction.loadAllFromResources();
+		PathfinderConfig config = new PathfinderConfig(SplitFlagMap.fromResources(collisionMapCache), Transport.loadAllFromResources(),
+			restrictions, client, shortestPathConfig);
+		config.refresh();
+		return config;
+	}
+
+	/**
+	 * @return the client Microbot had before
+	 */
+	static Client setClient(Client client) throws ReflectiveOperationException
+	{
+		Field clientField = Microbot.class.getDeclaredField("client");
+		clientField.setAccessible(true);
+		Client previous = (Client) clientField.get(null);
+		clientField.set(null, client);
+		return previous;
+	}
+}
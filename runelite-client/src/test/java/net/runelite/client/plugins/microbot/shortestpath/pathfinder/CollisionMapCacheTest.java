@@ -0,0 +1,124 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import com.google.common.hash.HashCode;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+import static net.runelite.api.Constants.REGION_SIZE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CollisionMapCacheTest
+{
+	private static final HashCode HASH = CollisionMapCache.hash(new byte[]{1, 2, 3});
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path path;
+	private SplitFlagMap map;
+
+	@Before
+	public void before() throws IOException
+	{
+		path = folder.getRoot().toPath().resolve("collision-map.bin");
+
+		// two by two regions, of which two have collision data
+		FlagMap lumbridge = new FlagMap(50 * REGION_SIZE, 50 * REGION_SIZE, (byte) 1);
+		lumbridge.set(50 * REGION_SIZE, 50 * REGION_SIZE, 0, 0, true);
+		lumbridge.set(50 * REGION_SIZE + 63, 50 * REGION_SIZE + 63, 0, 1, true);
+		FlagMap upstairs = new FlagMap(51 * REGION_SIZE, 51 * REGION_SIZE, (byte) 3);
+		upstairs.set(51 * REGION_SIZE + 10, 51 * REGION_SIZE + 20, 2, 1, true);
+
+		map = new SplitFlagMap(new SplitFlagMap.RegionExtent(50, 50, 51, 51),
+			new FlagMap[]{lumbridge, null, null, upstairs});
+		CollisionMapCache.write(path, HASH, map);
+	}
+
+	@Test
+	public void testRoundTrip()
+	{
+		SplitFlagMap loaded = CollisionMapCache.load(path, HASH);
+		assertNotNull(loaded);
+
+		assertEquals(map.getRegionMaps().length, loaded.getRegionMaps().length);
+		assertArrayEquals(map.getRegionMapPlaneCounts(), loaded.getRegionMapPlaneCounts());
+		for (int i = 0; i < map.getRegionMaps().length; ++i)
+		{
+			FlagMap expected = map.getRegionMaps()[i];
+			FlagMap actual = loaded.getRegionMaps()[i];
+			if (expected == null)
+			{
+				assertNull(actual);
+			}
+			else
+			{
+				assertArrayEquals(expected.toBytes(), actual.toBytes());
+			}
+		}
+
+		assertTrue(loaded.get(50 * REGION_SIZE, 50 * REGION_SIZE, 0, 0));
+		assertFalse(loaded.get(50 * REGION_SIZE, 50 * REGION_SIZE, 0, 1));
+		assertTrue(loaded.get(50 * REGION_SIZE + 63, 50 * REGION_SIZE + 63, 0, 1));
+		assertTrue(loaded.get(51 * REGION_SIZE + 10, 51 * REGION_SIZE + 20, 2, 1));
+		assertEquals(3, loaded.getPlaneCount(51, 51));
+		assertEquals(0, loaded.getPlaneCount(51, 50));
+	}
+
+	@Test
+	public void testOtherZipIsNotLoaded()
+	{
+		assertNull(CollisionMapCache.load(path, CollisionMapCache.hash(new byte[]{4, 5, 6})));
+	}
+
+	@Test
+	public void testMissingFileIsNotLoaded()
+	{
+		assertNull(CollisionMapCache.load(path.resolveSibling("missing.bin"), HASH));
+	}
+
+	@Test
+	public void testTruncatedFileIsNotLoaded() throws IOException
+	{
+		long size = Files.size(path);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE))
+		{
+			// cut into the flags of the last region
+			channel.truncate(size - Long.BYTES);
+		}
+		assertNull(CollisionMapCache.load(path, HASH));
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE))
+		{
+			// cut into the header
+			channel.truncate(16);
+		}
+		assertNull(CollisionMapCache.load(path, HASH));
+	}
+
+	@Test
+	public void testRewriteReplacesFile() throws IOException
+	{
+		HashCode other = CollisionMapCache.hash(new byte[]{4, 5, 6});
+		CollisionMapCache.write(path, other, map);
+
+		assertNull(CollisionMapCache.load(path, HASH));
+		assertNotNull(CollisionMapCache.load(path, other));
+		// the temporary file is moved into place
+		try (Stream<Path> files = Files.list(folder.getRoot().toPath()))
+		{
+			assertEquals(1, files.count());
+		}
+	}
+}
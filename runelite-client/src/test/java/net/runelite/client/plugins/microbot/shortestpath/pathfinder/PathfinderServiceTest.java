@@ -0,0 +1,99 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.Microbot;
+import static org.junit.Assert.assertFalse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@Slf4j
+public class PathfinderServiceTest
+{
+	private static final int SEARCHES = 64;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Client previousClient;
+
+	@Before
+	public void before()
+	{
+		previousClient = Microbot.getClient();
+	}
+
+	@After
+	public void after() throws Exception
+	{
+		BenchmarkPathfinderConfig.setClient(previousClient);
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkThroughput() throws Exception
+	{
+		PathfinderConfig config = BenchmarkPathfinderConfig.create(collisionMapCache());
+
+		// warm up the collision map and the per-thread buffers
+		runSearches(config, Runtime.getRuntime().availableProcessors());
+
+		for (int parallelism = 1; parallelism <= Runtime.getRuntime().availableProcessors(); parallelism *= 2)
+		{
+			long start = System.nanoTime();
+			runSearches(config, parallelism);
+			long elapsed = System.nanoTime() - start;
+
+			log.info("Parallelism: {}, {} searches in {} ms, {} searches/s",
+				parallelism,
+				SEARCHES,
+				TimeUnit.NANOSECONDS.toMillis(elapsed),
+				String.format("%.1f", SEARCHES * 1e9 / elapsed));
+		}
+	}
+
+	private static void runSearches(PathfinderConfig config, int parallelism) throws Exception
+	{
+		PathfinderService service = new PathfinderService(parallelism);
+		try
+		{
+			// submitted pathfinders are never coalesced, so every walk is searched each time
+			List<Pathfinder> pathfinders = new ArrayList<>(SEARCHES);
+			List<Future<?>> searches = new ArrayList<>(SEARCHES);
+			for (int i = 0; i < SEARCHES; ++i)
+			{
+				WorldPoint[] walk = BenchmarkPathfinderConfig.LONG_WALKS[i % BenchmarkPathfinderConfig.LONG_WALKS.length];
+				Pathfinder pathfinder = new Pathfinder(config, walk[0], walk[1]);
+				pathfinders.add(pathfinder);
+				searches.add(service.submit(pathfinder));
+			}
+			for (Future<?> search : searches)
+			{
+				search.get();
+			}
+			for (Pathfinder pathfinder : pathfinders)
+			{
+				assertFalse(pathfinder.getPath().isEmpty());
+			}
+		}
+		finally
+		{
+			service.shutdown();
+		}
+	}
+
+	private Path collisionMapCache()
+	{
+		return folder.getRoot().toPath().resolve("collision-map.bin");
+	}
+}
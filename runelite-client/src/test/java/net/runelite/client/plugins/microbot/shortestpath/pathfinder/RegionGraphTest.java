@@ -0,0 +1,165 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.shortestpath.PrimitiveIntHashMap;
+import net.runelite.client.plugins.microbot.shortestpath.Transport;
+import net.runelite.client.plugins.microbot.shortestpath.TransportType;
+import net.runelite.client.plugins.microbot.shortestpath.WorldPointUtil;
+import static net.runelite.api.Constants.REGION_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Four regions in a row on one plane. The first two are open to each other, while walls separate the second from
+ * the third and the third from the fourth. A boat leads from the first region to the third.
+ */
+public class RegionGraphTest
+{
+	private static final int FIRST_REGION = 50;
+	private static final int REGION_Y = 50;
+	private static final int REGIONS = 4;
+
+	private final WorldPoint boatOrigin = point(0, 10, 10);
+	private final WorldPoint boatDestination = point(2, 10, 10);
+	private final WorldPoint teleportDestination = point(3, 30, 30);
+
+	private Transport boat;
+	private Transport teleport;
+	private PathfinderConfig config;
+	private final PrimitiveIntHashMap<Set<Transport>> usableTransports = new PrimitiveIntHashMap<>(16);
+	private final Set<Transport> usableTeleports = new HashSet<>();
+	private RegionGraph graph;
+
+	@Before
+	public void before()
+	{
+		FlagMap[] regionMaps = new FlagMap[REGIONS];
+		for (int region = 0; region < REGIONS; ++region)
+		{
+			final int minX = (FIRST_REGION + region) * REGION_SIZE;
+			final int minY = REGION_Y * REGION_SIZE;
+			regionMaps[region] = new FlagMap(minX, minY, (byte) 1);
+			for (int x = minX; x < minX + REGION_SIZE; ++x)
+			{
+				for (int y = minY; y < minY + REGION_SIZE; ++y)
+				{
+					regionMaps[region].set(x, y, 0, 0, true);
+					// walls along the east edge of the second and third region
+					regionMaps[region].set(x, y, 0, 1, region == 0 || x < minX + REGION_SIZE - 1);
+				}
+			}
+		}
+		SplitFlagMap map = new SplitFlagMap(new SplitFlagMap.RegionExtent(
+			FIRST_REGION, REGION_Y, FIRST_REGION + REGIONS - 1, REGION_Y), regionMaps);
+
+		boat = transport(boatOrigin, boatDestination, TransportType.BOAT, 10);
+		teleport = transport(null, teleportDestination, TransportType.TELEPORTATION_SPELL, 5);
+		Map<WorldPoint, Set<Transport>> allTransports = new HashMap<>();
+		allTransports.put(boatOrigin, Collections.singleton(boat));
+		allTransports.put(null, Collections.singleton(teleport));
+		graph = RegionGraph.build(map, allTransports);
+
+		config = mock(PathfinderConfig.class);
+		when(config.getTransportsPacked()).thenReturn(usableTransports);
+		when(config.getUsableTeleports()).thenReturn(usableTeleports);
+	}
+
+	@Test
+	public void testGraph()
+	{
+		// four crossings of two nodes on the open border, plus both ends of the boat and the teleport destination
+		assertEquals(4 * 2 + 3, graph.getNodeCount());
+	}
+
+	@Test
+	public void testWalk()
+	{
+		RegionGraph.Corridor corridor = graph.findCorridor(config, point(0, 5, 5), Set.of(point(1, 60, 60)));
+		assertNotNull(corridor);
+		assertTrue(corridor.contains(packed(0, 0, 0)));
+		assertTrue(corridor.contains(packed(1, 0, 0)));
+		// one region around the route is kept for restrictions the graph doesn't know about
+		assertTrue(corridor.contains(packed(2, 0, 0)));
+		assertFalse(corridor.contains(packed(3, 0, 0)));
+	}
+
+	@Test
+	public void testSameRegion()
+	{
+		assertNull(graph.findCorridor(config, point(0, 5, 5), Set.of(point(0, 60, 60))));
+	}
+
+	@Test
+	public void testTransport()
+	{
+		WorldPoint start = point(0, 5, 5);
+		Set<WorldPoint> target = Set.of(point(2, 40, 40));
+		// the wall between the second and third region can't be walked through
+		assertNull(graph.findCorridor(config, start, target));
+
+		usableTransports.put(WorldPointUtil.packWorldPoint(boatOrigin), Collections.singleton(boat));
+		RegionGraph.Corridor corridor = graph.findCorridor(config, start, target);
+		assertNotNull(corridor);
+		assertTrue(corridor.contains(packed(0, 0, 0)));
+		assertTrue(corridor.contains(packed(2, 0, 0)));
+	}
+
+	@Test
+	public void testTeleport()
+	{
+		WorldPoint start = point(0, 5, 5);
+		Set<WorldPoint> target = Set.of(point(3, 5, 5));
+		usableTransports.put(WorldPointUtil.packWorldPoint(boatOrigin), Collections.singleton(boat));
+		// the fourth region is walled off from the boat
+		assertNull(graph.findCorridor(config, start, target));
+
+		usableTeleports.add(teleport);
+		RegionGraph.Corridor corridor = graph.findCorridor(config, start, target);
+		assertNotNull(corridor);
+		assertTrue(corridor.contains(packed(3, 0, 0)));
+
+		when(config.isIgnoreTeleportAndItems()).thenReturn(true);
+		assertNull(graph.findCorridor(config, start, target));
+	}
+
+	@Test
+	public void testUnreachableTarget()
+	{
+		usableTransports.put(WorldPointUtil.packWorldPoint(boatOrigin), Collections.singleton(boat));
+		assertNull(graph.findCorridor(config, point(0, 5, 5), Set.of(point(3, 5, 5))));
+		// a target outside the map
+		assertNull(graph.findCorridor(config, point(0, 5, 5), Set.of(point(-1, 5, 5))));
+	}
+
+	private static Transport transport(WorldPoint origin, WorldPoint destination, TransportType type, int duration)
+	{
+		Transport transport = mock(Transport.class);
+		when(transport.getOrigin()).thenReturn(origin);
+		when(transport.getDestination()).thenReturn(destination);
+		when(transport.getType()).thenReturn(type);
+		when(transport.getDuration()).thenReturn(duration);
+		return transport;
+	}
+
+	private static WorldPoint point(int region, int x, int y)
+	{
+		return new WorldPoint((FIRST_REGION + region) * REGION_SIZE + x, REGION_Y * REGION_SIZE + y, 0);
+	}
+
+	private static int packed(int region, int x, int y)
+	{
+		return WorldPointUtil.packWorldPoint(point(region, x, y));
+	}
+}
@@ -0,0 +1,136 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.Collections;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.Microbot;
+import net.runelite.client.plugins.microbot.shortestpath.WorldPointUtil;
+import static net.runelite.api.Constants.REGION_SIZE;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@Slf4j
+public class TileRulesTest
+{
+	private static final int ROUNDS = 5;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Client previousClient;
+
+	@Before
+	public void before()
+	{
+		previousClient = Microbot.getClient();
+	}
+
+	@After
+	public void after() throws Exception
+	{
+		BenchmarkPathfinderConfig.setClient(previousClient);
+	}
+
+	@Test
+	public void testBlockedTileIsRestricted() throws Exception
+	{
+		PathfinderConfig config = BenchmarkPathfinderConfig.create(collisionMapCache());
+		WorldPoint blocked = new WorldPoint(3222, 3219, 0);
+		config.blockTile(blocked);
+
+		TileRules rules = TileRules.compile(config);
+		assertTrue(rules.isRestricted(WorldPointUtil.packWorldPoint(blocked)));
+		assertFalse(rules.isRestricted(WorldPointUtil.packWorldPoint(blocked.dx(1))));
+
+		// only later searches see tiles blocked after the rules were compiled
+		WorldPoint blockedLater = blocked.dy(1);
+		config.blockTile(blockedLater);
+		assertFalse(rules.isRestricted(WorldPointUtil.packWorldPoint(blockedLater)));
+	}
+
+	@Test
+	public void testIgnoreCollision() throws Exception
+	{
+		PathfinderConfig config = BenchmarkPathfinderConfig.create(collisionMapCache());
+		WorldPoint ignored = CollisionMap.ignoreCollision.get(0);
+
+		TileRules rules = TileRules.compile(config);
+		assertTrue(rules.isCollisionIgnored(WorldPointUtil.packWorldPoint(ignored)));
+		assertFalse(rules.isRestricted(WorldPointUtil.packWorldPoint(ignored)));
+	}
+
+	@Test
+	public void testRestrictions() throws Exception
+	{
+		PathfinderConfig config = BenchmarkPathfinderConfig.create(collisionMapCache());
+		Set<Integer> restricted = config.getRestrictedPointsPacked();
+		assertFalse(restricted.isEmpty());
+
+		TileRules rules = TileRules.compile(config);
+		for (int packedPoint : restricted)
+		{
+			assertTrue(rules.isRestricted(packedPoint));
+			assertFalse(rules.isAvoided(packedPoint, Collections.emptySet()));
+		}
+	}
+
+	@Test
+	public void testOutsideMap() throws Exception
+	{
+		PathfinderConfig config = BenchmarkPathfinderConfig.create(collisionMapCache());
+		SplitFlagMap.RegionExtent extents = SplitFlagMap.getRegionExtents();
+		WorldPoint outside = new WorldPoint((extents.maxX + 1) * REGION_SIZE, extents.minY * REGION_SIZE, 0);
+		config.blockTile(outside);
+
+		TileRules rules = TileRules.compile(config);
+		assertFalse(rules.isRestricted(WorldPointUtil.packWorldPoint(outside)));
+		// east of the extents doesn't wrap onto the first region of the next row
+		assertFalse(rules.isRestricted(WorldPointUtil.packWorldPoint(new WorldPoint(extents.minX * REGION_SIZE, (extents.minY + 1) * REGION_SIZE, 0))));
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkLongWalks() throws Exception
+	{
+		PathfinderConfig config = BenchmarkPathfinderConfig.create(collisionMapCache());
+
+		for (int round = 0; round < ROUNDS; ++round)
+		{
+			long totalNanos = 0;
+			long totalExpanded = 0;
+			for (WorldPoint[] walk : BenchmarkPathfinderConfig.LONG_WALKS)
+			{
+				Pathfinder pathfinder = new Pathfinder(config, walk[0], walk[1]);
+				pathfinder.run();
+				assertFalse(pathfinder.getPath().isEmpty());
+
+				Pathfinder.PathfinderStats stats = pathfinder.getStats();
+				totalNanos += stats.getElapsedTimeNanos();
+				totalExpanded += stats.getNodesExpanded();
+			}
+
+			// the first rounds include warming up
+			log.info("Round {}: {} walks in {} ms, {} nodes expanded, {} ns per node",
+				round,
+				BenchmarkPathfinderConfig.LONG_WALKS.length,
+				TimeUnit.NANOSECONDS.toMillis(totalNanos),
+				totalExpanded,
+				totalExpanded == 0 ? 0 : totalNanos / totalExpanded);
+		}
+	}
+
+	private Path collisionMapCache()
+	{
+		return folder.getRoot().toPath().resolve("collision-map.bin");
+	}
+}
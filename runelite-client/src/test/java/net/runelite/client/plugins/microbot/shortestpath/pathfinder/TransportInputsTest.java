@@ -0,0 +1,178 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.ItemID;
+import net.runelite.api.Skill;
+import net.runelite.api.Varbits;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.microbot.shortestpath.Transport;
+import net.runelite.client.plugins.microbot.shortestpath.TransportType;
+import net.runelite.client.plugins.microbot.shortestpath.TransportVarPlayer;
+import net.runelite.client.plugins.microbot.shortestpath.TransportVarbit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TransportInputsTest
+{
+	private static final int GATE_VARBIT = 100;
+	private static final int DOOR_VARPLAYER = 200;
+	private static final int OTHER_VARPLAYER = 300;
+
+	private final Transport gate = transport();
+	private final Transport door = transport();
+	private final Transport axeShortcut = transport();
+	private final Transport agilityShortcut = transport();
+	private final Transport charterShip = transport();
+	private final Transport spell = transport();
+	private TransportInputs inputs;
+
+	@Before
+	public void before()
+	{
+		when(gate.getVarbits()).thenReturn(Set.of(new TransportVarbit(GATE_VARBIT, 1, TransportVarbit.Operator.EQUAL)));
+		when(door.getVarplayers()).thenReturn(Set.of(new TransportVarPlayer(DOOR_VARPLAYER, 5, TransportVarPlayer.Operator.GREATER_THAN)));
+		when(axeShortcut.getItemIdRequirements()).thenReturn(Set.of(Set.of(ItemID.BRONZE_AXE, ItemID.IRON_AXE)));
+		agilityShortcut.getSkillLevels()[Skill.AGILITY.ordinal()] = 50;
+		// coins are found by the currency name, not by item id
+		when(charterShip.getCurrencyAmount()).thenReturn(1600);
+		when(spell.getType()).thenReturn(TransportType.TELEPORTATION_SPELL);
+
+		Map<WorldPoint, Set<Transport>> transports = new HashMap<>();
+		transports.put(new WorldPoint(3200, 3200, 0), Set.of(gate, door));
+		transports.put(new WorldPoint(3300, 3300, 0), Set.of(axeShortcut, agilityShortcut, charterShip));
+		transports.put(null, Set.of(spell));
+		inputs = new TransportInputs(transports);
+		inputs.startTracking(List.of(container(InventoryID.INVENTORY, new Item(ItemID.COINS_995, 2000))));
+	}
+
+	@Test
+	public void testIndex()
+	{
+		assertEquals(Set.of(GATE_VARBIT), inputs.getVarbits());
+		assertEquals(Set.of(DOOR_VARPLAYER), inputs.getVarplayers());
+		assertEquals(List.of(agilityShortcut), inputs.getTransportsForSkill(Skill.AGILITY.ordinal()));
+		assertEquals(List.of(axeShortcut), inputs.getTransportsForItem(ItemID.IRON_AXE));
+		assertEquals(new WorldPoint(3300, 3300, 0), inputs.getOrigin(axeShortcut));
+		assertNull(inputs.getOrigin(spell));
+	}
+
+	@Test
+	public void testVarbitChange()
+	{
+		inputs.varbitChanged(GATE_VARBIT, OTHER_VARPLAYER);
+		TransportInputs.Changes changes = inputs.takeChanges();
+		assertTrue(changes.varsChanged);
+		assertEquals(Set.of(gate), inputs.getDependents(changes));
+
+		// changes are only taken once
+		assertTrue(inputs.getDependents(inputs.takeChanges()).isEmpty());
+	}
+
+	@Test
+	public void testVarplayerChange()
+	{
+		inputs.varbitChanged(-1, DOOR_VARPLAYER);
+		assertEquals(Set.of(door), inputs.getDependents(inputs.takeChanges()));
+	}
+
+	@Test
+	public void testUnrelatedVarChange()
+	{
+		inputs.varbitChanged(-1, OTHER_VARPLAYER);
+		TransportInputs.Changes changes = inputs.takeChanges();
+		// quests may still have progressed
+		assertTrue(changes.varsChanged);
+		assertTrue(inputs.getDependents(changes).isEmpty());
+	}
+
+	@Test
+	public void testItemChange()
+	{
+		inputs.itemContainerChanged(InventoryID.INVENTORY.getId(), container(InventoryID.INVENTORY,
+			new Item(ItemID.COINS_995, 2000), new Item(ItemID.BRONZE_AXE, 1)));
+		TransportInputs.Changes changes = inputs.takeChanges();
+		assertEquals(Set.of(ItemID.BRONZE_AXE), changes.items);
+		assertEquals(Set.of(axeShortcut, charterShip, spell), inputs.getDependents(changes));
+
+		// the axe is dropped again
+		inputs.itemContainerChanged(InventoryID.INVENTORY.getId(), container(InventoryID.INVENTORY,
+			new Item(ItemID.COINS_995, 2000)));
+		assertEquals(Set.of(ItemID.BRONZE_AXE), inputs.takeChanges().items);
+	}
+
+	@Test
+	public void testCurrencyChange()
+	{
+		inputs.itemContainerChanged(InventoryID.INVENTORY.getId(), container(InventoryID.INVENTORY,
+			new Item(ItemID.COINS_995, 1000)));
+		TransportInputs.Changes changes = inputs.takeChanges();
+		assertTrue(changes.items.isEmpty());
+		assertEquals(Set.of(charterShip, spell), inputs.getDependents(changes));
+	}
+
+	@Test
+	public void testRunePouchChange()
+	{
+		inputs.varbitChanged(Varbits.RUNE_POUCH_AMOUNT1, OTHER_VARPLAYER);
+		TransportInputs.Changes changes = inputs.takeChanges();
+		assertTrue(changes.itemsChanged);
+		assertEquals(Set.of(charterShip, spell), inputs.getDependents(changes));
+	}
+
+	@Test
+	public void testUntrackedContainer()
+	{
+		inputs.itemContainerChanged(InventoryID.TRADE.getId(), container(InventoryID.TRADE,
+			new Item(ItemID.BRONZE_AXE, 1)));
+		assertTrue(inputs.getDependents(inputs.takeChanges()).isEmpty());
+	}
+
+	@Test
+	public void testStopTracking()
+	{
+		inputs.varbitChanged(GATE_VARBIT, OTHER_VARPLAYER);
+		inputs.stopTracking();
+		// without tracking the next refresh checks every transport, so nothing is recorded
+		assertFalse(inputs.isTracking());
+		assertTrue(inputs.getDependents(inputs.takeChanges()).isEmpty());
+
+		inputs.varbitChanged(GATE_VARBIT, OTHER_VARPLAYER);
+		inputs.itemContainerChanged(InventoryID.INVENTORY.getId(), container(InventoryID.INVENTORY));
+		TransportInputs.Changes changes = inputs.takeChanges();
+		assertFalse(changes.varsChanged);
+		assertFalse(changes.itemsChanged);
+
+		inputs.startTracking(Collections.emptyList());
+		assertTrue(inputs.isTracking());
+		inputs.varbitChanged(GATE_VARBIT, OTHER_VARPLAYER);
+		assertEquals(Set.of(gate), inputs.getDependents(inputs.takeChanges()));
+	}
+
+	private static Transport transport()
+	{
+		Transport transport = mock(Transport.class);
+		when(transport.getSkillLevels()).thenReturn(new int[Skill.values().length]);
+		return transport;
+	}
+
+	private static ItemContainer container(InventoryID id, Item... items)
+	{
+		ItemContainer container = mock(ItemContainer.class);
+		when(container.getId()).thenReturn(id.getId());
+		when(container.getItems()).thenReturn(items);
+		return container;
+	}
+}
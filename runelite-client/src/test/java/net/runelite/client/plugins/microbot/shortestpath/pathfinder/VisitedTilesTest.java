@@ -0,0 +1,79 @@
+package net.runelite.client.plugins.microbot.shortestpath.pathfinder;
+
+import java.nio.file.Path;
+import net.runelite.api.Client;
+import net.runelite.client.plugins.microbot.Microbot;
+import static net.runelite.api.Constants.REGION_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class VisitedTilesTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Client previousClient;
+
+	@Before
+	public void before()
+	{
+		previousClient = Microbot.getClient();
+	}
+
+	@After
+	public void after() throws Exception
+	{
+		BenchmarkPathfinderConfig.setClient(previousClient);
+	}
+
+	@Test
+	public void testRegionsAreReusedAfterClear() throws Exception
+	{
+		VisitedTiles visited = new VisitedTiles(BenchmarkPathfinderConfig.create(collisionMapCache()).getMap());
+		assertTrue(visited.set(3222, 3218, 0));
+		assertFalse(visited.set(3222, 3218, 0));
+		assertEquals(1, visited.getRegionsAllocated());
+
+		visited.clear();
+		assertFalse(visited.get(3222, 3218, 0));
+		assertTrue(visited.set(3222, 3218, 0));
+		assertEquals(1, visited.getRegionsAllocated());
+		assertEquals(1, visited.getRegionsReused());
+	}
+
+	@Test
+	public void testOversizedSearchIsDropped() throws Exception
+	{
+		VisitedTiles visited = new VisitedTiles(BenchmarkPathfinderConfig.create(collisionMapCache()).getMap());
+		SplitFlagMap.RegionExtent extents = SplitFlagMap.getRegionExtents();
+		int regions = 0;
+		for (int regionX = extents.minX; regionX <= extents.maxX; regionX++)
+		{
+			for (int regionY = extents.minY; regionY <= extents.maxY; regionY++)
+			{
+				visited.set(regionX * REGION_SIZE, regionY * REGION_SIZE, 0);
+				regions++;
+			}
+		}
+		assumeTrue(regions > 2048);
+		assertEquals(regions, visited.getRegionsAllocated());
+
+		// past the retained size, the regions are allocated again instead of reused
+		visited.clear();
+		visited.set(3222, 3218, 0);
+		assertEquals(regions + 1, visited.getRegionsAllocated());
+		assertEquals(0, visited.getRegionsReused());
+	}
+
+	private Path collisionMapCache()
+	{
+		return folder.getRoot().toPath().resolve("collision-map.bin");
+	}
+}
@@ -0,0 +1,102 @@
+package net.runelite.client.plugins.microbot.util;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.runelite.api.Client;
+import net.runelite.client.plugins.microbot.Microbot;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+
+public class StateSignalTest
+{
+	private ExecutorService executor;
+	private Client previousClient;
+
+	@Before
+	public void before() throws Exception
+	{
+		executor = Executors.newSingleThreadExecutor();
+		// a mocked client is never on the client thread, so Global waits
+		previousClient = setClient(mock(Client.class));
+	}
+
+	@After
+	public void after() throws Exception
+	{
+		executor.shutdownNow();
+		setClient(previousClient);
+		// don't leave an interrupt behind for other tests
+		Thread.interrupted();
+	}
+
+	@Test
+	public void testSignal() throws Exception
+	{
+		long version = StateSignal.version();
+		executor.submit(StateSignal::signal);
+		assertTrue(StateSignal.await(version, 5000));
+		// a signal that already happened isn't waited for
+		assertTrue(StateSignal.await(version, 0));
+	}
+
+	@Test
+	public void testTimeout() throws Exception
+	{
+		assertFalse(StateSignal.await(StateSignal.version(), 20));
+	}
+
+	@Test
+	public void testInterruptClearsFlag()
+	{
+		Thread.currentThread().interrupt();
+		try
+		{
+			StateSignal.await(StateSignal.version(), 5000);
+			fail();
+		}
+		catch (InterruptedException expected)
+		{
+			assertFalse(Thread.currentThread().isInterrupted());
+		}
+	}
+
+	@Test
+	public void testSleepUntilIgnoresInterrupt()
+	{
+		// the first check interrupts the waiting thread, like cancelling the future of a script does
+		AtomicBoolean interrupted = new AtomicBoolean();
+		long start = System.nanoTime();
+		assertTrue(Global.sleepUntilTrue(() ->
+		{
+			if (!interrupted.getAndSet(true))
+			{
+				Thread.currentThread().interrupt();
+			}
+			return System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50);
+		}, 10, 5000));
+		// kept waiting after the interrupt, like sleep did
+		assertFalse(Thread.currentThread().isInterrupted());
+
+		// and later waits still block until their timeout
+		long later = System.nanoTime();
+		assertFalse(Global.sleepUntil(() -> false, 100));
+		assertTrue(System.nanoTime() - later >= TimeUnit.MILLISECONDS.toNanos(90));
+	}
+
+	private static Client setClient(Client client) throws ReflectiveOperationException
+	{
+		Field clientField = Microbot.class.getDeclaredField("client");
+		clientField.setAccessible(true);
+		Client previous = (Client) clientField.get(null);
+		clientField.set(null, client);
+		return previous;
+	}
+}
@@ -0,0 +1,153 @@
+package net.runelite.client.plugins.microbot.util.history;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.ItemID;
+import net.runelite.api.Skill;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EventHistoryTest
+{
+	private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+	// An hour boundary, so records can be placed in given hours
+	private static final long START = 1_700_000_000_000L / HOUR * HOUR;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Before
+	public void before() throws IOException
+	{
+		EventHistory.setDatabase(folder.newFile("history.db"));
+		EventHistory.setAccount("test");
+		setTime(START);
+	}
+
+	@After
+	public void after()
+	{
+		EventHistory.setClock(Clock.systemUTC());
+	}
+
+	@Test
+	public void testLoot() throws Exception
+	{
+		EventHistory.recordLoot("Goblin", ItemID.BONES, "Bones", 1, 100);
+		EventHistory.recordLoot("Goblin", ItemID.COINS_995, "Coins", 25, 25);
+		EventHistory.recordLoot("Cow", ItemID.COWHIDE, "Cowhide", 1, 150);
+
+		assertEquals(275L, (long) EventHistory.getLootValue(START, START + 1).get());
+
+		Map<String, Long> bySource = EventHistory.getLootValueBySource(START, START + 1).get();
+		assertEquals(2, bySource.size());
+		assertEquals(150L, (long) bySource.get("Cow"));
+		assertEquals(125L, (long) bySource.get("Goblin"));
+		// most valuable first
+		assertEquals("Cow", bySource.keySet().iterator().next());
+	}
+
+	@Test
+	public void testXpGains() throws Exception
+	{
+		// the first xp seen only sets the starting point
+		EventHistory.recordXp(Skill.ATTACK, 1000);
+		EventHistory.recordXp(Skill.ATTACK, 1100);
+		EventHistory.recordXp(Skill.ATTACK, 1150);
+		EventHistory.recordXp(Skill.DEFENCE, 500);
+		EventHistory.recordXp(Skill.DEFENCE, 540);
+
+		assertEquals(150L, (long) EventHistory.getXpGained(Skill.ATTACK, START, START + 1).get());
+		assertEquals(40L, (long) EventHistory.getXpGained(Skill.DEFENCE, START, START + 1).get());
+		assertEquals(190L, (long) EventHistory.getXpGained(null, START, START + 1).get());
+	}
+
+	@Test
+	public void testByHour() throws Exception
+	{
+		EventHistory.recordXp(Skill.MINING, 0);
+		EventHistory.recordXp(Skill.MINING, 100);
+		EventHistory.recordLoot("Goblin", ItemID.BONES, "Bones", 1, 100);
+		setTime(START + HOUR - 1);
+		EventHistory.recordXp(Skill.MINING, 150);
+		// nothing in the second hour
+		setTime(START + 2 * HOUR + 30);
+		EventHistory.recordXp(Skill.MINING, 400);
+		EventHistory.recordXp(Skill.SMITHING, 0);
+		EventHistory.recordXp(Skill.SMITHING, 20);
+		EventHistory.recordLoot("Goblin", ItemID.BONES, "Bones", 1, 100);
+		EventHistory.recordLoot("Cow", ItemID.COWHIDE, "Cowhide", 1, 150);
+
+		SortedMap<Long, Long> mining = EventHistory.getXpGainedByHour(Skill.MINING, START, START + 3 * HOUR).get();
+		assertEquals(2, mining.size());
+		assertEquals(150L, (long) mining.get(START));
+		assertEquals(250L, (long) mining.get(START + 2 * HOUR));
+
+		SortedMap<Long, Long> total = EventHistory.getXpGainedByHour(null, START, START + 3 * HOUR).get();
+		assertEquals(270L, (long) total.get(START + 2 * HOUR));
+
+		SortedMap<Long, Long> loot = EventHistory.getLootValueByHour(START, START + 3 * HOUR).get();
+		assertEquals(100L, (long) loot.get(START));
+		assertEquals(250L, (long) loot.get(START + 2 * HOUR));
+
+		// a range ending before the last hour leaves it out
+		SortedMap<Long, Long> firstHours = EventHistory.getXpGainedByHour(Skill.MINING, START, START + 2 * HOUR).get();
+		assertEquals(1, firstHours.size());
+		assertEquals(150L, (long) firstHours.get(START));
+	}
+
+	@Test
+	public void testAccountsAreSeparate() throws Exception
+	{
+		EventHistory.recordLoot("Goblin", ItemID.BONES, "Bones", 1, 100);
+		EventHistory.setAccount("other");
+		EventHistory.recordLoot("Goblin", ItemID.BONES, "Bones", 1, 100);
+		EventHistory.recordLoot("Goblin", ItemID.BONES, "Bones", 1, 100);
+
+		assertEquals(200L, (long) EventHistory.getLootValue(START, START + 1).get());
+		EventHistory.setAccount("test");
+		assertEquals(100L, (long) EventHistory.getLootValue(START, START + 1).get());
+	}
+
+	@Test
+	public void testSession() throws Exception
+	{
+		EventHistory.recordLoot("Goblin", ItemID.BONES, "Bones", 1, 100);
+
+		setTime(START + 10);
+		EventHistory.Session session = EventHistory.startSession("Script");
+		assertTrue(session.isRunning());
+		EventHistory.recordLoot("Goblin", ItemID.BONES, "Bones", 1, 100);
+		EventHistory.recordXp(Skill.PRAYER, 100);
+		EventHistory.recordXp(Skill.PRAYER, 104);
+
+		setTime(START + 20);
+		EventHistory.endSession(session);
+		assertFalse(session.isRunning());
+
+		// after the session
+		EventHistory.recordLoot("Goblin", ItemID.BONES, "Bones", 1, 100);
+
+		assertEquals(100L, (long) session.getLootValue().get());
+		assertEquals(4L, (long) session.getXpGained(Skill.PRAYER).get());
+		assertEquals(100L, (long) session.getLootValueBySource().get().get("Goblin"));
+		assertEquals(100L, (long) session.getLootValueByHour().get().get(START));
+		assertEquals(4L, (long) session.getXpGainedByHour(Skill.PRAYER).get().get(START));
+	}
+
+	private static void setTime(long millis)
+	{
+		EventHistory.setClock(Clock.fixed(Instant.ofEpochMilli(millis), ZoneOffset.UTC));
+	}
+}
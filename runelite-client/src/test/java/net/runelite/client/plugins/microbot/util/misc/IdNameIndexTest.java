@@ -0,0 +1,81 @@
+package net.runelite.client.plugins.microbot.util.misc;
+
+import java.util.Map;
+import java.util.Set;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class IdNameIndexTest
+{
+	private static final int[] NONE = new int[0];
+
+	private final IdNameIndex index = IdNameIndex.build(Map.of(
+		"bank_booth", Set.of(10583, 10355),
+		"bank_chest", Set.of(4483),
+		"booth", Set.of(1),
+		"tree", Set.of(1276, 1278),
+		"oak_tree", Set.of(10820),
+		"street_sign", Set.of(1276)));
+
+	@Test
+	public void testExact()
+	{
+		assertArrayEquals(new int[]{10355, 10583}, index.idsContaining("bank_booth"));
+		assertArrayEquals(new int[]{4483}, index.idsContaining("bank_chest"));
+		assertEquals(6, index.getNameCount());
+	}
+
+	@Test
+	public void testSubstring()
+	{
+		// prefixes, suffixes and the middle of names all match
+		assertArrayEquals(new int[]{4483, 10355, 10583}, index.idsContaining("bank"));
+		assertArrayEquals(new int[]{1, 10355, 10583}, index.idsContaining("booth"));
+		assertArrayEquals(new int[]{10355, 10583}, index.idsContaining("k_bo"));
+		// an id shared by several matching names is returned once
+		assertArrayEquals(new int[]{1276, 1278, 10820}, index.idsContaining("tree"));
+		assertArrayEquals(NONE, index.idsContaining("bank_booths"));
+		assertArrayEquals(NONE, index.idsContaining("willow"));
+	}
+
+	@Test
+	public void testCase()
+	{
+		assertArrayEquals(new int[]{10355, 10583}, index.idsContaining("BANK_Booth"));
+		assertArrayEquals(new int[]{10820}, index.idsContaining("Oak_"));
+	}
+
+	@Test
+	public void testSpaces()
+	{
+		// names as shown in game only match once normalized
+		assertArrayEquals(NONE, index.idsContaining("Bank booth"));
+		assertEquals("bank_booth", IdNameIndex.normalize("Bank booth"));
+		assertArrayEquals(new int[]{10355, 10583}, index.idsContaining(IdNameIndex.normalize("Bank booth")));
+	}
+
+	@Test
+	public void testFromConstants()
+	{
+		IdNameIndex constants = IdNameIndex.fromConstants(FirstIds.class, SecondIds.class);
+		assertEquals(3, constants.getNameCount());
+		assertArrayEquals(new int[]{1, 2}, constants.idsContaining("door"));
+		assertArrayEquals(new int[]{3}, constants.idsContaining("gate"));
+		assertArrayEquals(NONE, constants.idsContaining("name"));
+	}
+
+	public static class FirstIds
+	{
+		public static final int DOOR = 1;
+		public static final int GATE = 3;
+		public static final String NAME = "door";
+		public final int instanceDoor = 4;
+	}
+
+	public static class SecondIds
+	{
+		public static final int DOOR = 2;
+		public static final int DOOR_OPEN = 1;
+	}
+}
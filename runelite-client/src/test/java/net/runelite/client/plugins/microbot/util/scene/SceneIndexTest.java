@@ -0,0 +1,80 @@
+package net.runelite.client.plugins.microbot.util.scene;
+
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class SceneIndexTest
+{
+	private static final int SIZE = 8;
+
+	// Entities are named by their id and the order they were added in
+	private final SceneIndex<String> index = SceneIndex.<String>builder(SIZE, SceneIndexTest::id)
+		.add(5, 5, "1a")
+		.add(2, 3, "2a")
+		.add(5, 5, "2b")
+		.add(0, 0, "3a")
+		.add(2, 4, "1b")
+		.build();
+
+	@Test
+	public void testAt()
+	{
+		assertEquals(List.of("1a", "2b"), index.at(5, 5));
+		assertEquals(List.of("2a"), index.at(2, 3));
+		assertTrue(index.at(4, 4).isEmpty());
+		assertTrue(index.at(-1, 0).isEmpty());
+		assertTrue(index.at(0, SIZE).isEmpty());
+	}
+
+	@Test
+	public void testAll()
+	{
+		// ordered by tile, x major
+		assertEquals(List.of("3a", "2a", "1b", "1a", "2b"), index.getAll());
+		assertEquals(5, index.size());
+	}
+
+	@Test
+	public void testWithin()
+	{
+		assertEquals(List.of("2a", "1b"), index.within(2, 3, 1));
+		assertEquals(List.of("2a", "1b", "1a", "2b"), index.within(4, 4, 2));
+		assertEquals(List.of("3a"), index.within(0, 0, 1));
+		assertEquals(index.getAll(), index.within(0, 0, SIZE));
+		assertTrue(index.within(7, 0, 1).isEmpty());
+	}
+
+	@Test
+	public void testWithId()
+	{
+		assertEquals(List.of("1b", "1a"), index.withId(1));
+		assertEquals(List.of("2a", "2b"), index.withId(2));
+		assertTrue(index.withId(4).isEmpty());
+	}
+
+	@Test
+	public void testTilesOutsideSceneAreClamped()
+	{
+		SceneIndex<String> clamped = SceneIndex.<String>builder(SIZE, SceneIndexTest::id)
+			.add(-3, 2, "1a")
+			.add(SIZE + 10, SIZE, "2a")
+			.build();
+		assertEquals(List.of("1a"), clamped.at(0, 2));
+		assertEquals(List.of("2a"), clamped.at(SIZE - 1, SIZE - 1));
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		SceneIndex<String> empty = SceneIndex.<String>builder(SIZE, SceneIndexTest::id).build();
+		assertTrue(empty.isEmpty());
+		assertTrue(empty.within(3, 3, 2).isEmpty());
+	}
+
+	private static int id(String entity)
+	{
+		return entity.charAt(0) - '0';
+	}
+}
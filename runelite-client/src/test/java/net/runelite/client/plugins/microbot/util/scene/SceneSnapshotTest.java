@@ -0,0 +1,144 @@
+package net.runelite.client.plugins.microbot.util.scene;
+
+import java.util.Collections;
+import java.util.List;
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.GameObject;
+import net.runelite.api.GroundObject;
+import net.runelite.api.IndexedObjectSet;
+import net.runelite.api.Player;
+import net.runelite.api.Point;
+import net.runelite.api.Scene;
+import net.runelite.api.Tile;
+import net.runelite.api.TileItem;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.client.plugins.microbot.util.models.RS2Item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SceneSnapshotTest
+{
+	private static final int PLANE = 1;
+
+	private Client client;
+	private Tile[][][] tiles;
+
+	@Before
+	public void before()
+	{
+		WorldView worldView = mock(WorldView.class);
+		when(worldView.getId()).thenReturn(-1);
+		when(worldView.getPlane()).thenReturn(PLANE);
+		doReturn(emptySet()).when(worldView).npcs();
+		doReturn(emptySet()).when(worldView).players();
+
+		tiles = new Tile[Constants.MAX_Z][Constants.SCENE_SIZE][Constants.SCENE_SIZE];
+		Scene scene = mock(Scene.class);
+		when(scene.getTiles()).thenReturn(tiles);
+		when(worldView.getScene()).thenReturn(scene);
+
+		Player player = mock(Player.class);
+		when(player.getWorldView()).thenReturn(worldView);
+		client = mock(Client.class);
+		when(client.getLocalPlayer()).thenReturn(player);
+		when(client.getTopLevelWorldView()).thenReturn(worldView);
+	}
+
+	@Test
+	public void testLargeGameObjectIsKeptOnce()
+	{
+		// a two by two object is on each of the four tiles it covers
+		GameObject statue = mock(GameObject.class);
+		when(statue.getId()).thenReturn(100);
+		when(statue.getSceneMinLocation()).thenReturn(new Point(10, 10));
+		when(statue.getLocalLocation()).thenReturn(new LocalPoint(11 * 128, 11 * 128));
+		GameObject rock = mock(GameObject.class);
+		when(rock.getId()).thenReturn(200);
+		when(rock.getSceneMinLocation()).thenReturn(new Point(20, 20));
+		when(rock.getLocalLocation()).thenReturn(LocalPoint.fromScene(20, 20));
+		for (int x = 10; x <= 11; ++x)
+		{
+			for (int y = 10; y <= 11; ++y)
+			{
+				when(tile(x, y, PLANE).getGameObjects()).thenReturn(new GameObject[]{statue, null});
+			}
+		}
+		when(tile(20, 20, PLANE).getGameObjects()).thenReturn(new GameObject[]{rock});
+
+		SceneSnapshot snapshot = SceneSnapshot.capture(client);
+		assertNotNull(snapshot);
+		assertEquals(2, snapshot.getGameObjects().size());
+		assertEquals(List.of(statue), snapshot.getGameObjects().withId(100));
+		// indexed on the tile of its centre
+		assertEquals(List.of(statue), snapshot.getGameObjects().at(11, 11));
+		assertTrue(snapshot.getGameObjects().at(10, 10).isEmpty());
+		assertEquals(List.of(rock), snapshot.getGameObjects().at(20, 20));
+	}
+
+	@Test
+	public void testOnlyPlayerPlaneIsCaptured()
+	{
+		GroundObject below = groundObject(5, 5);
+		when(tile(5, 5, 0).getGroundObject()).thenReturn(below);
+		GroundObject here = groundObject(6, 6);
+		when(tile(6, 6, PLANE).getGroundObject()).thenReturn(here);
+
+		SceneSnapshot snapshot = SceneSnapshot.capture(client);
+		assertNotNull(snapshot);
+		assertEquals(PLANE, snapshot.getPlane());
+		assertEquals(List.of(here), snapshot.getGroundObjects().getAll());
+		assertEquals(List.of(here), snapshot.getTileObjects().getAll());
+		assertTrue(snapshot.getWallObjects().isEmpty());
+	}
+
+	@Test
+	public void testGroundItemsAreResolvedLazily()
+	{
+		TileItem coins = mock(TileItem.class);
+		when(coins.getId()).thenReturn(995);
+		Tile tile = tile(7, 8, PLANE);
+		when(tile.getGroundItems()).thenReturn(List.of(coins));
+
+		// no item manager is set up, so looking up a composition while capturing would fail
+		SceneSnapshot snapshot = SceneSnapshot.capture(client);
+		assertNotNull(snapshot);
+		List<RS2Item> items = snapshot.getGroundItems().at(7, 8);
+		assertEquals(1, items.size());
+		assertSame(coins, items.get(0).getTileItem());
+		assertSame(tile, items.get(0).getTile());
+		assertEquals(List.of(items.get(0)), snapshot.getGroundItems().withId(995));
+	}
+
+	private Tile tile(int sceneX, int sceneY, int plane)
+	{
+		Tile tile = mock(Tile.class);
+		when(tile.getSceneLocation()).thenReturn(new Point(sceneX, sceneY));
+		when(tile.getLocalLocation()).thenReturn(LocalPoint.fromScene(sceneX, sceneY));
+		tiles[plane][sceneX][sceneY] = tile;
+		return tile;
+	}
+
+	private static GroundObject groundObject(int sceneX, int sceneY)
+	{
+		GroundObject object = mock(GroundObject.class);
+		when(object.getLocalLocation()).thenReturn(LocalPoint.fromScene(sceneX, sceneY));
+		return object;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> IndexedObjectSet<T> emptySet()
+	{
+		IndexedObjectSet<T> set = mock(IndexedObjectSet.class);
+		when(set.iterator()).thenAnswer(invocation -> Collections.emptyIterator());
+		return set;
+	}
+}
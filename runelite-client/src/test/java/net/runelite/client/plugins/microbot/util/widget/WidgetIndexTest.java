@@ -0,0 +1,220 @@
+package net.runelite.client.plugins.microbot.util.widget;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.HashTable;
+import net.runelite.api.WidgetNode;
+import net.runelite.api.widgets.Widget;
+import net.runelite.client.plugins.microbot.Microbot;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+public class WidgetIndexTest
+{
+	private static final int TOP_LEVEL = 161;
+	private static final int DIALOG = 219;
+
+	private Client client;
+	private Client previousClient;
+	private final List<WidgetNode> componentTable = new ArrayList<>();
+	private Widget root;
+	private Widget button;
+
+	@Before
+	public void before() throws Exception
+	{
+		client = mock(Client.class);
+		@SuppressWarnings("unchecked")
+		HashTable<WidgetNode> table = mock(HashTable.class);
+		when(table.iterator()).thenAnswer(invocation -> componentTable.iterator());
+		when(client.getComponentTable()).thenReturn(table);
+		when(client.getTopLevelInterfaceId()).thenReturn(TOP_LEVEL);
+
+		root = widget(TOP_LEVEL, 0, "");
+		button = widget(TOP_LEVEL, 1, "Ok");
+		when(root.getStaticChildren()).thenReturn(new Widget[]{button});
+		when(client.getWidgetRoots()).thenReturn(new Widget[]{root});
+
+		previousClient = setClient(client);
+		WidgetIndex.clear();
+	}
+
+	@After
+	public void after() throws Exception
+	{
+		WidgetIndex.clear();
+		setClient(previousClient);
+	}
+
+	@Test
+	public void testLookupsWithinTickIndexOnce()
+	{
+		long built = WidgetIndex.getGroupsBuilt();
+		assertSame(button, WidgetIndex.findByText("ok", true));
+		assertSame(button, WidgetIndex.findByText("OK", true));
+		assertSame(button, WidgetIndex.findByText("o", false));
+		assertNull(WidgetIndex.findByText("cancel", true));
+		assertEquals(built + 1, WidgetIndex.getGroupsBuilt());
+
+		WidgetIndex.onGameTick();
+		assertSame(button, WidgetIndex.findByText("ok", true));
+		assertEquals(built + 2, WidgetIndex.getGroupsBuilt());
+	}
+
+	@Test
+	public void testNestedInterfaceInWalkOrder()
+	{
+		Widget option = widget(DIALOG, 0, "<col=ff0000>Ok</col>");
+		open(DIALOG, root, option);
+
+		// the interface opened in the root is walked before the static children of the root
+		assertSame(option, WidgetIndex.findByText("ok", true));
+
+		when(option.getText()).thenReturn("Cancel");
+		assertSame(button, WidgetIndex.findByText("ok", true));
+		assertSame(option, WidgetIndex.findByText("cancel", true));
+	}
+
+	@Test
+	public void testLoadedInterfaceOnlyIndexesThatInterface()
+	{
+		assertSame(button, WidgetIndex.findByText("ok", true));
+
+		long built = WidgetIndex.getGroupsBuilt();
+		Widget option = widget(DIALOG, 0, "Continue");
+		open(DIALOG, root, option);
+		assertSame(option, WidgetIndex.findByText("continue", true));
+		assertEquals(built + 1, WidgetIndex.getGroupsBuilt());
+
+		componentTable.clear();
+		WidgetIndex.onWidgetClosed(DIALOG);
+		assertNull(WidgetIndex.findByText("continue", true));
+		assertEquals(built + 1, WidgetIndex.getGroupsBuilt());
+	}
+
+	@Test
+	public void testChangeWithoutEvent()
+	{
+		assertSame(button, WidgetIndex.findByText("ok", true));
+
+		// a stale hit is checked and its interface indexed again
+		when(button.getText()).thenReturn("Done");
+		assertNull(WidgetIndex.findByText("ok", true));
+		assertSame(button, WidgetIndex.findByText("done", true));
+
+		// a stale miss is only seen on the next tick
+		when(button.isHidden()).thenReturn(true);
+		Widget label = widget(TOP_LEVEL, 2, "Later");
+		when(root.getStaticChildren()).thenReturn(new Widget[]{button, label});
+		assertNull(WidgetIndex.findByText("later", true));
+		WidgetIndex.onGameTick();
+		assertSame(label, WidgetIndex.findByText("later", true));
+		assertNull(WidgetIndex.findByText("done", true));
+	}
+
+	@Test
+	public void testFindBySprite()
+	{
+		when(button.getSpriteId()).thenReturn(535);
+		assertSame(button, WidgetIndex.findBySprite(535));
+		assertNull(WidgetIndex.findBySprite(536));
+	}
+
+	/**
+	 * Compares the tree walk {@link Rs2Widget#findWidget(String)} used before the index with the index, for 9000
+	 * widgets in 30 interfaces looked up six times per tick, as sleepUntilHasWidget does
+	 */
+	@Test
+	@Ignore
+	public void benchmarkDialogLookups()
+	{
+		final int interfaces = 30;
+		final int widgetsPerInterface = 300;
+		final int ticks = 100;
+		final int lookupsPerTick = 6;
+
+		Widget[] children = new Widget[interfaces];
+		for (int group = 0; group < interfaces; ++group)
+		{
+			children[group] = widget(TOP_LEVEL, 2 + group, "");
+			Widget[] nested = new Widget[widgetsPerInterface];
+			for (int child = 0; child < widgetsPerInterface; ++child)
+			{
+				nested[child] = widget(300 + group, child, "Option " + child);
+			}
+			open(300 + group, children[group], nested);
+		}
+		when(root.getStaticChildren()).thenReturn(children);
+		String text = "Option " + (widgetsPerInterface - 1);
+
+		for (int round = 0; round < 5; ++round)
+		{
+			long start = System.nanoTime();
+			for (int lookup = 0; lookup < ticks * lookupsPerTick; ++lookup)
+			{
+				Rs2Widget.searchChildren(text, root, true);
+			}
+			long walk = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int tick = 0; tick < ticks; ++tick)
+			{
+				WidgetIndex.onGameTick();
+				for (int lookup = 0; lookup < lookupsPerTick; ++lookup)
+				{
+					WidgetIndex.findByText(text, true);
+				}
+			}
+			long index = System.nanoTime() - start;
+
+			// the first rounds include warming up
+			log.info("Round {}: tree walk {} ms, index {} ms for {} lookups over {} widgets", round,
+				TimeUnit.NANOSECONDS.toMillis(walk), TimeUnit.NANOSECONDS.toMillis(index),
+				ticks * lookupsPerTick, interfaces * widgetsPerInterface);
+		}
+	}
+
+	private void open(int groupId, Widget parent, Widget... roots)
+	{
+		int componentId = parent.getId();
+		WidgetNode node = mock(WidgetNode.class);
+		when(node.getHash()).thenReturn((long) componentId);
+		when(node.getId()).thenReturn(groupId);
+		componentTable.add(node);
+
+		when(parent.getNestedChildren()).thenReturn(roots);
+		when(client.getWidget(componentId)).thenReturn(parent);
+		WidgetIndex.onWidgetLoaded(groupId);
+	}
+
+	private static Widget widget(int groupId, int childId, String text)
+	{
+		Widget widget = mock(Widget.class);
+		when(widget.getId()).thenReturn(groupId << 16 | childId);
+		when(widget.getText()).thenReturn(text);
+		when(widget.getName()).thenReturn("");
+		when(widget.getSpriteId()).thenReturn(-1);
+		return widget;
+	}
+
+	private static Client setClient(Client client) throws ReflectiveOperationException
+	{
+		Field clientField = Microbot.class.getDeclaredField("client");
+		clientField.setAccessible(true);
+		Client previous = (Client) clientField.get(null);
+		clientField.set(null, client);
+		return previous;
+	}
+}
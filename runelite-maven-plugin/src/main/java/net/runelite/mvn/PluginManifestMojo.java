@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.mvn;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Writes the manifest of the plugins in the compiled classes, read by the client's PluginManifest so it doesn't
+ * have to scan the classpath and load every class to find them.
+ * <p>
+ * The manifest has a line for each top level class annotated with PluginDescriptor, with tab separated columns:
+ * class name, plugin name, config name, load in safe mode, and the comma separated class names of its
+ * PluginDependency annotations. Lines starting with # are comments.
+ */
+@Mojo(
+	name = "build-plugin-manifest",
+	defaultPhase = LifecyclePhase.PROCESS_CLASSES
+)
+public class PluginManifestMojo extends AbstractMojo
+{
+	private static final String PLUGIN_DESCRIPTOR = "Lnet/runelite/client/plugins/PluginDescriptor;";
+	private static final String PLUGIN_DEPENDENCY = "Lnet/runelite/client/plugins/PluginDependency;";
+	private static final String PLUGIN_DEPENDENCIES = "Lnet/runelite/client/plugins/PluginDependencies;";
+
+	@Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+	private File classesDirectory;
+
+	@Parameter(required = true)
+	private File manifestFile;
+
+	@Override
+	public void execute() throws MojoExecutionException, MojoFailureException
+	{
+		// sorted so the manifest only changes when the plugins do
+		TreeMap<String, PluginClass> plugins = new TreeMap<>();
+
+		List<File> classFiles;
+		try (Stream<Path> paths = Files.walk(classesDirectory.toPath()))
+		{
+			classFiles = paths
+				.map(Path::toFile)
+				.filter(f -> f.getName().endsWith(".class") && f.getName().indexOf('$') == -1)
+				.collect(Collectors.toList());
+		}
+		catch (IOException ex)
+		{
+			throw new MojoExecutionException("error listing classes", ex);
+		}
+
+		for (File classFile : classFiles)
+		{
+			PluginClass plugin = new PluginClass();
+			try (InputStream in = new FileInputStream(classFile))
+			{
+				new ClassReader(in).accept(plugin, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+			}
+			catch (IOException ex)
+			{
+				throw new MojoExecutionException("error reading " + classFile, ex);
+			}
+
+			if (plugin.name != null)
+			{
+				plugins.put(plugin.className, plugin);
+			}
+		}
+
+		manifestFile.getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(new OutputStreamWriter(Files.newOutputStream(manifestFile.toPath()), StandardCharsets.UTF_8)))
+		{
+			out.print("# class\tname\tconfigName\tloadInSafeMode\tdependencies\n");
+			for (PluginClass plugin : plugins.values())
+			{
+				out.print(plugin.className + '\t'
+					+ clean(plugin.name) + '\t'
+					+ clean(plugin.configName) + '\t'
+					+ plugin.loadInSafeMode + '\t'
+					+ String.join(",", plugin.dependencies) + '\n');
+			}
+		}
+		catch (IOException ex)
+		{
+			throw new MojoExecutionException("error writing plugin manifest", ex);
+		}
+
+		getLog().info("Wrote " + plugins.size() + " plugins to " + manifestFile);
+	}
+
+	private static String clean(String s)
+	{
+		return s.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+	}
+
+	private static class PluginClass extends ClassVisitor
+	{
+		private String className;
+		private String name;
+		private String configName = "";
+		private boolean loadInSafeMode = true;
+		private final List<String> dependencies = new ArrayList<>();
+
+		PluginClass()
+		{
+			super(Opcodes.ASM9);
+		}
+
+		@Override
+		public void visit(int version, int access, String internalName, String signature, String superName, String[] interfaces)
+		{
+			className = Type.getObjectType(internalName).getClassName();
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible)
+		{
+			switch (descriptor)
+			{
+				case PLUGIN_DESCRIPTOR:
+					return new AnnotationVisitor(Opcodes.ASM9)
+					{
+						@Override
+						public void visit(String key, Object value)
+						{
+							if ("name".equals(key))
+							{
+								name = (String) value;
+							}
+							else if ("configName".equals(key))
+							{
+								configName = (String) value;
+							}
+							else if ("loadInSafeMode".equals(key))
+							{
+								loadInSafeMode = (Boolean) value;
+							}
+						}
+					};
+				case PLUGIN_DEPENDENCY:
+					return dependencyVisitor();
+				case PLUGIN_DEPENDENCIES:
+					return new AnnotationVisitor(Opcodes.ASM9)
+					{
+						@Override
+						public AnnotationVisitor visitArray(String key)
+						{
+							return new AnnotationVisitor(Opcodes.ASM9)
+							{
+								@Override
+								public AnnotationVisitor visitAnnotation(String key, String descriptor)
+								{
+									return dependencyVisitor();
+								}
+							};
+						}
+					};
+				default:
+					return null;
+			}
+		}
+
+		private AnnotationVisitor dependencyVisitor()
+		{
+			return new AnnotationVisitor(Opcodes.ASM9)
+			{
+				@Override
+				public void visit(String key, Object value)
+				{
+					if ("value".equals(key))
+					{
+						dependencies.add(((Type) value).getClassName());
+					}
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.mvn;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+public class PluginManifestMojoTest
+{
+	private static final String PLUGIN_DESCRIPTOR = "Lnet/runelite/client/plugins/PluginDescriptor;";
+	private static final String PLUGIN_DEPENDENCY = "Lnet/runelite/client/plugins/PluginDependency;";
+	private static final String PLUGIN_DEPENDENCIES = "Lnet/runelite/client/plugins/PluginDependencies;";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path classes;
+
+	@Before
+	public void before() throws IOException
+	{
+		classes = folder.newFolder("classes").toPath();
+	}
+
+	@Test
+	public void testManifest() throws Exception
+	{
+		writeClass("com/example/b/SecondPlugin", cw ->
+		{
+			AnnotationVisitor descriptor = cw.visitAnnotation(PLUGIN_DESCRIPTOR, true);
+			descriptor.visit("name", "Second\tPlugin");
+			descriptor.visitEnd();
+
+			// repeated PluginDependency annotations are compiled into a PluginDependencies container
+			AnnotationVisitor dependencies = cw.visitAnnotation(PLUGIN_DEPENDENCIES, true);
+			AnnotationVisitor array = dependencies.visitArray("value");
+			for (String dependency : new String[]{"com/example/a/FirstPlugin", "com/example/Other"})
+			{
+				AnnotationVisitor av = array.visitAnnotation(null, PLUGIN_DEPENDENCY);
+				av.visit("value", Type.getObjectType(dependency));
+				av.visitEnd();
+			}
+			array.visitEnd();
+			dependencies.visitEnd();
+		});
+		writeClass("com/example/a/FirstPlugin", cw ->
+		{
+			AnnotationVisitor descriptor = cw.visitAnnotation(PLUGIN_DESCRIPTOR, true);
+			descriptor.visit("name", "First");
+			descriptor.visit("configName", "first");
+			descriptor.visit("loadInSafeMode", false);
+			descriptor.visitEnd();
+
+			AnnotationVisitor dependency = cw.visitAnnotation(PLUGIN_DEPENDENCY, true);
+			dependency.visit("value", Type.getObjectType("com/example/Other"));
+			dependency.visitEnd();
+		});
+		// nested classes and classes without a descriptor aren't plugins
+		writeClass("com/example/a/FirstPlugin$Inner", cw ->
+		{
+			AnnotationVisitor descriptor = cw.visitAnnotation(PLUGIN_DESCRIPTOR, true);
+			descriptor.visit("name", "Inner");
+			descriptor.visitEnd();
+		});
+		writeClass("com/example/Other", cw ->
+		{
+		});
+
+		File manifest = new File(folder.getRoot(), "out/META-INF/plugins.manifest");
+		execute(manifest);
+
+		assertEquals("# class\tname\tconfigName\tloadInSafeMode\tdependencies\n"
+				+ "com.example.a.FirstPlugin\tFirst\tfirst\tfalse\tcom.example.Other\n"
+				+ "com.example.b.SecondPlugin\tSecond Plugin\t\ttrue\tcom.example.a.FirstPlugin,com.example.Other\n",
+			new String(Files.readAllBytes(manifest.toPath()), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testNoPlugins() throws Exception
+	{
+		writeClass("com/example/Other", cw ->
+		{
+		});
+
+		File manifest = new File(folder.getRoot(), "plugins.manifest");
+		execute(manifest);
+
+		assertEquals("# class\tname\tconfigName\tloadInSafeMode\tdependencies\n",
+			new String(Files.readAllBytes(manifest.toPath()), StandardCharsets.UTF_8));
+	}
+
+	private void execute(File manifest) throws Exception
+	{
+		PluginManifestMojo mojo = new PluginManifestMojo();
+		set(mojo, "classesDirectory", classes.toFile());
+		set(mojo, "manifestFile", manifest);
+		mojo.execute();
+	}
+
+	private void writeClass(String internalName, Consumer<ClassWriter> annotations) throws IOException
+	{
+		ClassWriter cw = new ClassWriter(0);
+		cw.visit(Opcodes.V11, Opcodes.ACC_PUBLIC, internalName, null, "java/lang/Object", null);
+		annotations.accept(cw);
+		cw.visitEnd();
+
+		Path file = classes.resolve(internalName + ".class");
+		Files.createDirectories(file.getParent());
+		Files.write(file, cw.toByteArray());
+	}
+
+	private static void set(Object target, String name, Object value) throws ReflectiveOperationException
+	{
+		Field field = target.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+}